@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ProtobufResultSet;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Type;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * {@link ArrowReader} that reads the rows of a Spanner {@link ResultSet} as a stream of Arrow
+ * record batches. Each call to {@link #loadNextBatch()} reads up to {@code maxBatchSize} rows from
+ * the {@link ResultSet} into the {@link VectorSchemaRoot} that is returned by {@link
+ * #getVectorSchemaRoot()}. The same {@link VectorSchemaRoot} is re-used for all batches.
+ *
+ * <p>The values are decoded directly from the protobuf values that are returned by Spanner,
+ * without creating {@link com.google.cloud.spanner.Struct} objects. This requires the query to be
+ * executed with {@link com.google.cloud.spanner.DecodeMode#LAZY_PER_COL} or {@link
+ * com.google.cloud.spanner.DecodeMode#LAZY_PER_ROW}. See {@link ArrowSchemas} for the mapping of
+ * Spanner types to Arrow types.
+ *
+ * <p>Closing the reader also closes the {@link ResultSet}.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * try (BufferAllocator allocator = new RootAllocator();
+ *     ArrowResultSetReader reader =
+ *         new ArrowResultSetReader(
+ *             client
+ *                 .singleUse()
+ *                 .executeQuery(
+ *                     Statement.of("SELECT * FROM Singers"),
+ *                     Options.decodeMode(DecodeMode.LAZY_PER_COL)),
+ *             allocator)) {
+ *   VectorSchemaRoot root = reader.getVectorSchemaRoot();
+ *   while (reader.loadNextBatch()) {
+ *     process(root);
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>The results of a partition of a {@link com.google.cloud.spanner.BatchReadOnlyTransaction} can
+ * be read in the same way, which allows each partition to be converted to Arrow in parallel:
+ *
+ * <pre>{@code
+ * ResultSet resultSet =
+ *     transaction.execute(partition, Options.decodeMode(DecodeMode.LAZY_PER_COL));
+ * try (ArrowResultSetReader reader = new ArrowResultSetReader(resultSet, allocator)) {
+ *   ...
+ * }
+ * }</pre>
+ */
+@BetaApi
+public class ArrowResultSetReader extends ArrowReader {
+  /** The default maximum number of rows in a batch. */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+  private final ProtobufResultSet resultSet;
+  private final int maxBatchSize;
+
+  /** Set when {@link #readSchema()} has moved the result set to the first row. */
+  private boolean firstRowPending;
+
+  private boolean done;
+  private Type rowType;
+  private ValueWriter[] writers;
+
+  /**
+   * Creates a reader for the given {@link ResultSet} that reads batches of at most {@link
+   * #DEFAULT_MAX_BATCH_SIZE} rows.
+   */
+  public ArrowResultSetReader(ResultSet resultSet, BufferAllocator allocator) {
+    this(resultSet, allocator, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a reader for the given {@link ResultSet} that reads batches of at most the given number
+   * of rows.
+   */
+  public ArrowResultSetReader(ResultSet resultSet, BufferAllocator allocator, int maxBatchSize) {
+    super(Preconditions.checkNotNull(allocator));
+    Preconditions.checkNotNull(resultSet);
+    Preconditions.checkArgument(
+        resultSet instanceof ProtobufResultSet,
+        "The result set must give access to the underlying protobuf values");
+    Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0");
+    this.resultSet = (ProtobufResultSet) resultSet;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @Override
+  protected Schema readSchema() {
+    // The type of a result set is only known once the first data has been received.
+    firstRowPending = resultSet.next();
+    done = !firstRowPending;
+    rowType = resultSet.getType();
+    return ArrowSchemas.toSchema(rowType);
+  }
+
+  @Override
+  public boolean loadNextBatch() throws IOException {
+    VectorSchemaRoot root = getVectorSchemaRoot();
+    if (writers == null) {
+      writers = createWriters(rowType, root);
+    }
+    root.allocateNew();
+    if (done) {
+      root.setRowCount(0);
+      return false;
+    }
+    int rowCount = 0;
+    while (rowCount < maxBatchSize) {
+      if (!firstRowPending && !resultSet.next()) {
+        done = true;
+        break;
+      }
+      firstRowPending = false;
+      writeRow(rowCount);
+      rowCount++;
+    }
+    root.setRowCount(rowCount);
+    return rowCount > 0;
+  }
+
+  private void writeRow(int index) {
+    for (int col = 0; col < writers.length; col++) {
+      if (!resultSet.canGetProtobufValue(col)) {
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.FAILED_PRECONDITION,
+            "Failed to get the underlying protobuf value for the column "
+                + rowType.getStructFields().get(col).getName()
+                + ". The query must be executed with DecodeMode#LAZY_PER_COL or"
+                + " DecodeMode#LAZY_PER_ROW.");
+      }
+      writers[col].write(index, resultSet.getProtobufValue(col));
+    }
+  }
+
+  private static ValueWriter[] createWriters(Type rowType, VectorSchemaRoot root) {
+    List<FieldVector> vectors = root.getFieldVectors();
+    ValueWriter[] writers = new ValueWriter[vectors.size()];
+    for (int col = 0; col < writers.length; col++) {
+      writers[col] =
+          ValueWriter.create(rowType.getStructFields().get(col).getType(), vectors.get(col));
+    }
+    return writers;
+  }
+
+  /** Returns 0, as the data is not read from an Arrow IPC channel. */
+  @Override
+  public long bytesRead() {
+    return 0L;
+  }
+
+  @Override
+  protected void closeReadSource() {
+    resultSet.close();
+  }
+}
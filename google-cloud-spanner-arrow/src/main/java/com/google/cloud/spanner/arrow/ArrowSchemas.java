@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Maps Cloud Spanner {@link Type}s to Apache Arrow {@link Schema}s and {@link Field}s.
+ *
+ * <p>The following mapping is used:
+ *
+ * <ul>
+ *   <li>{@code BOOL}: {@code Bool}
+ *   <li>{@code INT64}, {@code ENUM} and {@code PG_OID}: {@code Int(64, signed)}
+ *   <li>{@code FLOAT32}: {@code FloatingPoint(SINGLE)}
+ *   <li>{@code FLOAT64}: {@code FloatingPoint(DOUBLE)}
+ *   <li>{@code NUMERIC}: {@code Decimal(38, 9, 128)}
+ *   <li>{@code DATE}: {@code Date(DAY)}
+ *   <li>{@code TIMESTAMP}: {@code Timestamp(MICROSECOND, "UTC")}. Spanner timestamps have
+ *       nanosecond precision, but the range of an Arrow nanosecond timestamp is too small to
+ *       contain all valid Spanner timestamps. The nanoseconds are therefore truncated to
+ *       microseconds.
+ *   <li>{@code BYTES} and {@code PROTO}: {@code Binary}
+ *   <li>{@code ARRAY}: {@code List} with the mapped element type
+ *   <li>{@code STRUCT}: {@code Struct} with the mapped field types
+ *   <li>All other types ({@code STRING}, {@code JSON}, {@code PG_JSONB}, {@code PG_NUMERIC}, {@code
+ *       UUID}, {@code INTERVAL}): {@code Utf8}
+ * </ul>
+ *
+ * <p>All fields are nullable. The original Spanner type of each field is added to the metadata of
+ * the field with the key {@link #SPANNER_TYPE_METADATA_KEY}, so consumers can distinguish for
+ * example {@code JSON} from {@code STRING} columns.
+ */
+@BetaApi
+public final class ArrowSchemas {
+  /** The key of the field metadata entry that contains the Spanner type of the field. */
+  public static final String SPANNER_TYPE_METADATA_KEY = "spanner.type";
+
+  /** The name of the element field of an Arrow list. */
+  static final String LIST_ELEMENT_NAME = "item";
+
+  static final int NUMERIC_PRECISION = 38;
+  static final int NUMERIC_SCALE = 9;
+  static final String TIMESTAMP_TIME_ZONE = "UTC";
+
+  private ArrowSchemas() {}
+
+  /** Returns the Arrow {@link Schema} for the given Spanner row type. */
+  public static Schema toSchema(Type rowType) {
+    Preconditions.checkNotNull(rowType);
+    Preconditions.checkArgument(
+        rowType.getCode() == Type.Code.STRUCT, "The row type must be a STRUCT, got %s", rowType);
+    return new Schema(toFields(rowType.getStructFields(), /* uniqueNames= */ false));
+  }
+
+  /** Returns the Arrow {@link Field} for a column or field with the given name and type. */
+  public static Field toField(String name, Type type) {
+    Preconditions.checkNotNull(name);
+    Preconditions.checkNotNull(type);
+    FieldType fieldType =
+        new FieldType(
+            /* nullable= */ true,
+            toArrowType(type),
+            /* dictionary= */ null,
+            ImmutableMap.of(SPANNER_TYPE_METADATA_KEY, type.toString()));
+    switch (type.getCode()) {
+      case ARRAY:
+        return new Field(
+            name,
+            fieldType,
+            ImmutableList.of(toField(LIST_ELEMENT_NAME, type.getArrayElementType())));
+      case STRUCT:
+        // Arrow struct vectors look up their children by name, so the names must be unique.
+        return new Field(
+            name, fieldType, toFields(type.getStructFields(), /* uniqueNames= */ true));
+      default:
+        return new Field(name, fieldType, null);
+    }
+  }
+
+  private static List<Field> toFields(List<StructField> structFields, boolean uniqueNames) {
+    List<Field> fields = new ArrayList<>(structFields.size());
+    Set<String> names = new HashSet<>();
+    for (int i = 0; i < structFields.size(); i++) {
+      StructField structField = structFields.get(i);
+      String name = structField.getName();
+      if (uniqueNames && (name.isEmpty() || !names.add(name))) {
+        // Spanner allows anonymous and duplicate field names in structs.
+        name = name + "_" + i;
+        names.add(name);
+      }
+      fields.add(toField(name, structField.getType()));
+    }
+    return fields;
+  }
+
+  static ArrowType toArrowType(Type type) {
+    switch (type.getCode()) {
+      case BOOL:
+        return ArrowType.Bool.INSTANCE;
+      case INT64:
+      case ENUM:
+      case PG_OID:
+        return new ArrowType.Int(64, /* isSigned= */ true);
+      case FLOAT32:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+      case FLOAT64:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+      case NUMERIC:
+        return new ArrowType.Decimal(NUMERIC_PRECISION, NUMERIC_SCALE, 128);
+      case DATE:
+        return new ArrowType.Date(DateUnit.DAY);
+      case TIMESTAMP:
+        return new ArrowType.Timestamp(TimeUnit.MICROSECOND, TIMESTAMP_TIME_ZONE);
+      case BYTES:
+      case PROTO:
+        return ArrowType.Binary.INSTANCE;
+      case ARRAY:
+        return ArrowType.List.INSTANCE;
+      case STRUCT:
+        return ArrowType.Struct.INSTANCE;
+      default:
+        return ArrowType.Utf8.INSTANCE;
+    }
+  }
+}
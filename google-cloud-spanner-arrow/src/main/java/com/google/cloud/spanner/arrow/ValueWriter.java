@@ -0,0 +1,375 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Type;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import com.google.protobuf.Value.KindCase;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+
+/**
+ * Writes protobuf values that are returned by Spanner directly into an Arrow {@link FieldVector}.
+ * The values are decoded from their wire format without creating any intermediate {@link
+ * com.google.cloud.spanner.Struct} or {@link com.google.cloud.spanner.Value} objects.
+ */
+abstract class ValueWriter {
+  private static final long MICROS_PER_SECOND = 1_000_000L;
+  private static final int NANOS_PER_MICRO = 1_000;
+
+  /**
+   * Creates a {@link ValueWriter} for the given Spanner type. The vector must have been created
+   * from the {@link org.apache.arrow.vector.types.pojo.Field} that {@link ArrowSchemas} returns for
+   * the same type.
+   */
+  static ValueWriter create(Type type, FieldVector vector) {
+    switch (type.getCode()) {
+      case BOOL:
+        return new BoolWriter((BitVector) vector);
+      case INT64:
+      case ENUM:
+      case PG_OID:
+        return new Int64Writer((BigIntVector) vector);
+      case FLOAT32:
+        return new Float32Writer((Float4Vector) vector);
+      case FLOAT64:
+        return new Float64Writer((Float8Vector) vector);
+      case NUMERIC:
+        return new NumericWriter((DecimalVector) vector);
+      case DATE:
+        return new DateWriter((DateDayVector) vector);
+      case TIMESTAMP:
+        return new TimestampWriter((TimeStampMicroTZVector) vector);
+      case BYTES:
+      case PROTO:
+        return new BytesWriter((VarBinaryVector) vector);
+      case ARRAY:
+        ListVector listVector = (ListVector) vector;
+        return new ArrayWriter(
+            listVector, create(type.getArrayElementType(), listVector.getDataVector()));
+      case STRUCT:
+        StructVector structVector = (StructVector) vector;
+        List<FieldVector> children = structVector.getChildrenFromFields();
+        ValueWriter[] fieldWriters = new ValueWriter[children.size()];
+        for (int i = 0; i < fieldWriters.length; i++) {
+          fieldWriters[i] = create(type.getStructFields().get(i).getType(), children.get(i));
+        }
+        return new StructWriter(structVector, fieldWriters);
+      default:
+        return new StringWriter((VarCharVector) vector);
+    }
+  }
+
+  /** Writes the given value at the given index in the vector. */
+  final void write(int index, Value value) {
+    if (value.getKindCase() == KindCase.NULL_VALUE) {
+      writeNull(index);
+    } else {
+      writeValue(index, value);
+    }
+  }
+
+  abstract void writeNull(int index);
+
+  abstract void writeValue(int index, Value value);
+
+  /** Returns the underlying bytes of the string value without decoding them to a Java string. */
+  private static ByteBuffer stringBytes(Value value) {
+    checkKind(value, KindCase.STRING_VALUE);
+    ByteString bytes = value.getStringValueBytes();
+    return bytes.asReadOnlyByteBuffer();
+  }
+
+  private static double toDouble(Value value) {
+    if (value.getKindCase() == KindCase.STRING_VALUE) {
+      // NaN and +/-Infinity are encoded as strings.
+      return Double.parseDouble(value.getStringValue());
+    }
+    checkKind(value, KindCase.NUMBER_VALUE);
+    return value.getNumberValue();
+  }
+
+  private static void checkKind(Value value, KindCase expected) {
+    if (value.getKindCase() != expected) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.FAILED_PRECONDITION,
+          "Invalid value kind: expected " + expected + ", got " + value.getKindCase());
+    }
+  }
+
+  private static final class BoolWriter extends ValueWriter {
+    private final BitVector vector;
+
+    private BoolWriter(BitVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.BOOL_VALUE);
+      vector.setSafe(index, value.getBoolValue() ? 1 : 0);
+    }
+  }
+
+  private static final class Int64Writer extends ValueWriter {
+    private final BigIntVector vector;
+
+    private Int64Writer(BigIntVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.STRING_VALUE);
+      vector.setSafe(index, Long.parseLong(value.getStringValue()));
+    }
+  }
+
+  private static final class Float32Writer extends ValueWriter {
+    private final Float4Vector vector;
+
+    private Float32Writer(Float4Vector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      vector.setSafe(index, (float) toDouble(value));
+    }
+  }
+
+  private static final class Float64Writer extends ValueWriter {
+    private final Float8Vector vector;
+
+    private Float64Writer(Float8Vector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      vector.setSafe(index, toDouble(value));
+    }
+  }
+
+  private static final class NumericWriter extends ValueWriter {
+    private final DecimalVector vector;
+
+    private NumericWriter(DecimalVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.STRING_VALUE);
+      // Spanner NUMERIC values have at most 9 fractional digits, so this never rounds.
+      vector.setSafe(
+          index,
+          new BigDecimal(value.getStringValue())
+              .setScale(ArrowSchemas.NUMERIC_SCALE, RoundingMode.UNNECESSARY));
+    }
+  }
+
+  private static final class DateWriter extends ValueWriter {
+    private final DateDayVector vector;
+
+    private DateWriter(DateDayVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.STRING_VALUE);
+      vector.setSafe(index, (int) LocalDate.parse(value.getStringValue()).toEpochDay());
+    }
+  }
+
+  private static final class TimestampWriter extends ValueWriter {
+    private final TimeStampMicroTZVector vector;
+
+    private TimestampWriter(TimeStampMicroTZVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.STRING_VALUE);
+      Instant instant = Instant.parse(value.getStringValue());
+      vector.setSafe(
+          index,
+          instant.getEpochSecond() * MICROS_PER_SECOND + instant.getNano() / NANOS_PER_MICRO);
+    }
+  }
+
+  private static final class StringWriter extends ValueWriter {
+    private final VarCharVector vector;
+
+    private StringWriter(VarCharVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      // Protobuf keeps the UTF-8 bytes of string values that are received from the network, so
+      // these can be copied directly into the vector.
+      ByteBuffer bytes = stringBytes(value);
+      vector.setSafe(index, bytes, bytes.position(), bytes.remaining());
+    }
+  }
+
+  private static final class BytesWriter extends ValueWriter {
+    private final VarBinaryVector vector;
+
+    private BytesWriter(VarBinaryVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      ByteBuffer bytes = Base64.getDecoder().decode(stringBytes(value));
+      vector.setSafe(index, bytes, bytes.position(), bytes.remaining());
+    }
+  }
+
+  private static final class ArrayWriter extends ValueWriter {
+    private final ListVector vector;
+    private final ValueWriter elementWriter;
+
+    private ArrayWriter(ListVector vector, ValueWriter elementWriter) {
+      this.vector = vector;
+      this.elementWriter = elementWriter;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.LIST_VALUE);
+      ListValue elements = value.getListValue();
+      int offset = vector.startNewValue(index);
+      for (int i = 0; i < elements.getValuesCount(); i++) {
+        elementWriter.write(offset + i, elements.getValues(i));
+      }
+      vector.endValue(index, elements.getValuesCount());
+    }
+  }
+
+  private static final class StructWriter extends ValueWriter {
+    private final StructVector vector;
+    private final ValueWriter[] fieldWriters;
+
+    private StructWriter(StructVector vector, ValueWriter[] fieldWriters) {
+      this.vector = vector;
+      this.fieldWriters = fieldWriters;
+    }
+
+    @Override
+    void writeNull(int index) {
+      vector.setNull(index);
+      // Also mark the fields as null, so the child vectors have the same length as the struct.
+      for (ValueWriter fieldWriter : fieldWriters) {
+        fieldWriter.writeNull(index);
+      }
+    }
+
+    @Override
+    void writeValue(int index, Value value) {
+      checkKind(value, KindCase.LIST_VALUE);
+      ListValue fields = value.getListValue();
+      if (fields.getValuesCount() != fieldWriters.length) {
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.FAILED_PRECONDITION,
+            "Invalid struct value: expected "
+                + fieldWriters.length
+                + " fields, got "
+                + fields.getValuesCount());
+      }
+      vector.setIndexDefined(index);
+      for (int i = 0; i < fieldWriters.length; i++) {
+        fieldWriters[i].write(index, fields.getValues(i));
+      }
+    }
+  }
+}
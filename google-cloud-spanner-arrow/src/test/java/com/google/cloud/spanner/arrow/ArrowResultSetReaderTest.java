@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.Value;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ListValue;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ArrowResultSetReaderTest {
+  private static final Type ROW_TYPE =
+      Type.struct(
+          StructField.of("id", Type.int64()),
+          StructField.of("f32", Type.float32()),
+          StructField.of("f64", Type.float64()),
+          StructField.of("num", Type.numeric()),
+          StructField.of("date", Type.date()),
+          StructField.of("ts", Type.timestamp()),
+          StructField.of("json", Type.json()),
+          StructField.of("bytes", Type.bytes()),
+          StructField.of("tags", Type.array(Type.string())),
+          StructField.of(
+              "points",
+              Type.array(
+                  Type.struct(
+                      StructField.of("x", Type.int64()), StructField.of("x", Type.int64())))));
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator();
+  }
+
+  @After
+  public void tearDown() {
+    allocator.close();
+  }
+
+  private static Struct row(long id) {
+    return Struct.newBuilder()
+        .set("id")
+        .to(id)
+        .set("f32")
+        .to(Float.NaN)
+        .set("f64")
+        .to(1.5d * id)
+        .set("num")
+        .to(new BigDecimal("3.14"))
+        .set("date")
+        .to(Date.fromYearMonthDay(1970, 1, 2))
+        .set("ts")
+        .to(Timestamp.ofTimeSecondsAndNanos(1L, 123456789))
+        .set("json")
+        .to(Value.json("{\"key\":\"value\"}"))
+        .set("bytes")
+        .to(ByteArray.copyFrom(new byte[] {1, 2, 3}))
+        .set("tags")
+        .toStringArray(Arrays.asList("a", null, "c"))
+        .set("points")
+        .toStructArray(
+            ROW_TYPE.getStructFields().get(9).getType().getArrayElementType(),
+            Arrays.asList(
+                Struct.newBuilder().set("x").to(1L).set("x").to(2L).build(), null))
+        .build();
+  }
+
+  private static Struct nullRow() {
+    Struct.Builder builder = Struct.newBuilder();
+    builder.set("id").to((Long) null);
+    builder.set("f32").to((Float) null);
+    builder.set("f64").to((Double) null);
+    builder.set("num").to((BigDecimal) null);
+    builder.set("date").to((Date) null);
+    builder.set("ts").to((Timestamp) null);
+    builder.set("json").to(Value.json(null));
+    builder.set("bytes").to((ByteArray) null);
+    builder.set("tags").toStringArray(null);
+    builder
+        .set("points")
+        .toStructArray(ROW_TYPE.getStructFields().get(9).getType().getArrayElementType(), null);
+    return builder.build();
+  }
+
+  @Test
+  public void testSchema() {
+    Schema schema = ArrowSchemas.toSchema(ROW_TYPE);
+
+    assertEquals(10, schema.getFields().size());
+    assertEquals(new ArrowType.Int(64, true), schema.getFields().get(0).getType());
+    assertEquals(ArrowType.Utf8.INSTANCE, schema.getFields().get(6).getType());
+    assertEquals(
+        "JSON",
+        schema.getFields().get(6).getMetadata().get(ArrowSchemas.SPANNER_TYPE_METADATA_KEY));
+    assertEquals(ArrowType.List.INSTANCE, schema.getFields().get(8).getType());
+    // Duplicate struct field names are made unique.
+    assertThat(
+            schema.getFields().get(9).getChildren().get(0).getChildren().stream()
+                .map(field -> field.getName())
+                .toArray())
+        .asList()
+        .containsExactly("x", "x_1")
+        .inOrder();
+  }
+
+  @Test
+  public void testReadBatches() throws Exception {
+    ResultSet resultSet =
+        ResultSets.forRows(ROW_TYPE, ImmutableList.of(row(1L), nullRow(), row(3L)));
+    try (ArrowResultSetReader reader = new ArrowResultSetReader(resultSet, allocator, 2)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(2, root.getRowCount());
+      assertEquals(1L, ((BigIntVector) root.getVector("id")).get(0));
+      assertTrue(Float.isNaN(((Float4Vector) root.getVector("f32")).get(0)));
+      assertEquals(1.5d, ((Float8Vector) root.getVector("f64")).get(0), 0.0d);
+      assertEquals(
+          new BigDecimal("3.140000000"), ((DecimalVector) root.getVector("num")).getObject(0));
+      assertEquals(1, ((DateDayVector) root.getVector("date")).get(0));
+      assertEquals(1_123_456L, ((TimeStampMicroTZVector) root.getVector("ts")).get(0));
+      assertEquals(
+          "{\"key\":\"value\"}", ((VarCharVector) root.getVector("json")).getObject(0).toString());
+      assertThat(((VarBinaryVector) root.getVector("bytes")).get(0))
+          .isEqualTo(new byte[] {1, 2, 3});
+      ListVector tags = (ListVector) root.getVector("tags");
+      VarCharVector tagValues = (VarCharVector) tags.getDataVector();
+      assertEquals(3, tags.getElementEndIndex(0) - tags.getElementStartIndex(0));
+      assertEquals("a", tagValues.getObject(0).toString());
+      assertTrue(tagValues.isNull(1));
+      assertEquals("c", tagValues.getObject(2).toString());
+
+      ListVector points = (ListVector) root.getVector("points");
+      StructVector point = (StructVector) points.getDataVector();
+      Map<String, ?> firstPoint = point.getObject(0);
+      assertEquals(1L, firstPoint.get("x"));
+      assertEquals(2L, firstPoint.get("x_1"));
+      assertTrue(point.isNull(1));
+
+      // The second row only contains null values.
+      for (int col = 0; col < ROW_TYPE.getStructFields().size(); col++) {
+        assertTrue(root.getVector(col).isNull(1));
+      }
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(1, root.getRowCount());
+      assertEquals(3L, ((BigIntVector) root.getVector("id")).get(0));
+
+      assertFalse(reader.loadNextBatch());
+      assertEquals(0, root.getRowCount());
+    }
+  }
+
+  @Test
+  public void testEmptyResultSet() throws Exception {
+    ResultSet resultSet = ResultSets.forRows(ROW_TYPE, Collections.emptyList());
+    try (ArrowResultSetReader reader = new ArrowResultSetReader(resultSet, allocator)) {
+      assertEquals(10, reader.getVectorSchemaRoot().getSchema().getFields().size());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testInvalidValueThrowsSpannerException() {
+    try (BigIntVector vector = new BigIntVector("id", allocator)) {
+      vector.allocateNew();
+      ValueWriter writer = ValueWriter.create(Type.int64(), vector);
+      SpannerException exception =
+          assertThrows(
+              SpannerException.class,
+              () ->
+                  writer.write(
+                      0, com.google.protobuf.Value.newBuilder().setBoolValue(true).build()));
+      assertEquals(ErrorCode.FAILED_PRECONDITION, exception.getErrorCode());
+    }
+
+    Type structType = Type.struct(StructField.of("x", Type.int64()));
+    try (VectorSchemaRoot root =
+        VectorSchemaRoot.create(
+            new Schema(Collections.singletonList(ArrowSchemas.toField("s", structType))),
+            allocator)) {
+      root.allocateNew();
+      ValueWriter writer = ValueWriter.create(structType, root.getVector(0));
+      SpannerException exception =
+          assertThrows(
+              SpannerException.class,
+              () ->
+                  writer.write(
+                      0,
+                      com.google.protobuf.Value.newBuilder()
+                          .setListValue(ListValue.getDefaultInstance())
+                          .build()));
+      assertEquals(ErrorCode.FAILED_PRECONDITION, exception.getErrorCode());
+    }
+  }
+}
@@ -55,6 +55,8 @@ import com.google.spanner.v1.RequestOptions;
 import com.google.spanner.v1.Transaction;
 import com.google.spanner.v1.TransactionOptions;
 import com.google.spanner.v1.TransactionSelector;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
@@ -79,6 +81,11 @@ abstract class AbstractReadContext
     private int defaultPrefetchChunks = SpannerOptions.Builder.DEFAULT_PREFETCH_CHUNKS;
     private QueryOptions defaultQueryOptions = SpannerOptions.Builder.DEFAULT_QUERY_OPTIONS;
     private DecodeMode defaultDecodeMode = SpannerOptions.Builder.DEFAULT_DECODE_MODE;
+    private long defaultMaxPrefetchBytes = SpannerOptions.Builder.DEFAULT_MAX_PREFETCH_BYTES;
+    private long defaultMaxResumeBufferBytes =
+        SpannerOptions.Builder.DEFAULT_MAX_RESUME_BUFFER_BYTES;
+    private ResumableStreamMetrics resumableStreamMetrics = ResumableStreamMetrics.NOOP;
+    private RowTypeCache rowTypeCache = RowTypeCache.DISABLED;
     private DirectedReadOptions defaultDirectedReadOption;
     private ExecutorProvider executorProvider;
     private Clock clock = Clock.INSTANCE;
@@ -130,6 +137,27 @@ abstract class AbstractReadContext
       return self();
     }
 
+    B setDefaultMaxPrefetchBytes(long defaultMaxPrefetchBytes) {
+      this.defaultMaxPrefetchBytes = defaultMaxPrefetchBytes;
+      return self();
+    }
+
+    B setDefaultMaxResumeBufferBytes(long defaultMaxResumeBufferBytes) {
+      this.defaultMaxResumeBufferBytes = defaultMaxResumeBufferBytes;
+      return self();
+    }
+
+    B setResumableStreamMetrics(ResumableStreamMetrics resumableStreamMetrics) {
+      this.resumableStreamMetrics =
+          resumableStreamMetrics == null ? ResumableStreamMetrics.NOOP : resumableStreamMetrics;
+      return self();
+    }
+
+    B setRowTypeCache(RowTypeCache rowTypeCache) {
+      this.rowTypeCache = rowTypeCache == null ? RowTypeCache.DISABLED : rowTypeCache;
+      return self();
+    }
+
     B setExecutorProvider(ExecutorProvider executorProvider) {
       this.executorProvider = executorProvider;
       return self();
@@ -497,6 +525,10 @@ abstract class AbstractReadContext
   private final QueryOptions defaultQueryOptions;
   private final DirectedReadOptions defaultDirectedReadOptions;
   private final DecodeMode defaultDecodeMode;
+  private final long defaultMaxPrefetchBytes;
+  private final long defaultMaxResumeBufferBytes;
+  private final ResumableStreamMetrics resumableStreamMetrics;
+  private final RowTypeCache rowTypeCache;
   private final Clock clock;
 
   @GuardedBy("lock")
@@ -524,6 +556,10 @@ abstract class AbstractReadContext
     this.defaultQueryOptions = builder.defaultQueryOptions;
     this.defaultDirectedReadOptions = builder.defaultDirectedReadOption;
     this.defaultDecodeMode = builder.defaultDecodeMode;
+    this.defaultMaxPrefetchBytes = builder.defaultMaxPrefetchBytes;
+    this.defaultMaxResumeBufferBytes = builder.defaultMaxResumeBufferBytes;
+    this.resumableStreamMetrics = builder.resumableStreamMetrics;
+    this.rowTypeCache = builder.rowTypeCache;
     this.span = builder.span;
     this.executorProvider = builder.executorProvider;
     this.clock = builder.clock;
@@ -562,7 +598,10 @@ abstract class AbstractReadContext
             ? readOptions.bufferRows()
             : AsyncResultSetImpl.DEFAULT_BUFFER_SIZE;
     return new AsyncResultSetImpl(
-        executorProvider, readInternal(table, null, keys, columns, options), bufferRows);
+        executorProvider,
+        readInternalWithOptions(
+            table, null, keys, columns, readOptions.withoutRowReuse(), null /*partitionToken*/),
+        bufferRows);
   }
 
   @Override
@@ -581,7 +620,13 @@ abstract class AbstractReadContext
             : AsyncResultSetImpl.DEFAULT_BUFFER_SIZE;
     return new AsyncResultSetImpl(
         executorProvider,
-        readInternal(table, checkNotNull(index), keys, columns, options),
+        readInternalWithOptions(
+            table,
+            checkNotNull(index),
+            keys,
+            columns,
+            readOptions.withoutRowReuse(),
+            null /*partitionToken*/),
         bufferRows);
   }
 
@@ -633,8 +678,11 @@ abstract class AbstractReadContext
             : AsyncResultSetImpl.DEFAULT_BUFFER_SIZE;
     return new AsyncResultSetImpl(
         executorProvider,
-        executeQueryInternal(
-            statement, com.google.spanner.v1.ExecuteSqlRequest.QueryMode.NORMAL, options),
+        executeQueryInternalWithOptions(
+            statement,
+            com.google.spanner.v1.ExecuteSqlRequest.QueryMode.NORMAL,
+            readOptions.withoutRowReuse(),
+            null /*partitionToken*/),
         bufferRows);
   }
 
@@ -749,27 +797,36 @@ abstract class AbstractReadContext
 
   ExecuteBatchDmlRequest.Builder getExecuteBatchDmlRequestBuilder(
       Iterable<Statement> statements, Options options) {
-    ExecuteBatchDmlRequest.Builder builder =
-        ExecuteBatchDmlRequest.newBuilder().setSession(session.getName());
-    int idx = 0;
+    List<ExecuteBatchDmlRequest.Statement> protos = new ArrayList<>();
     for (Statement stmt : statements) {
-      builder.addStatementsBuilder();
-      builder.getStatementsBuilder(idx).setSql(stmt.getSql());
-      Map<String, Value> stmtParameters = stmt.getParameters();
-      if (!stmtParameters.isEmpty()) {
-        com.google.protobuf.Struct.Builder paramsBuilder =
-            builder.getStatementsBuilder(idx).getParamsBuilder();
-        for (Map.Entry<String, Value> param : stmtParameters.entrySet()) {
-          paramsBuilder.putFields(param.getKey(), Value.toProto(param.getValue()));
-          if (param.getValue() != null && param.getValue().getType() != null) {
-            builder
-                .getStatementsBuilder(idx)
-                .putParamTypes(param.getKey(), param.getValue().getType().toProto());
-          }
+      protos.add(toBatchDmlStatement(stmt));
+    }
+    return getExecuteBatchDmlRequestBuilder(protos, options);
+  }
+
+  /** Converts a statement to the protobuf statement that is used in an ExecuteBatchDml request. */
+  static ExecuteBatchDmlRequest.Statement toBatchDmlStatement(Statement stmt) {
+    ExecuteBatchDmlRequest.Statement.Builder builder =
+        ExecuteBatchDmlRequest.Statement.newBuilder().setSql(stmt.getSql());
+    Map<String, Value> stmtParameters = stmt.getParameters();
+    if (!stmtParameters.isEmpty()) {
+      com.google.protobuf.Struct.Builder paramsBuilder = builder.getParamsBuilder();
+      for (Map.Entry<String, Value> param : stmtParameters.entrySet()) {
+        paramsBuilder.putFields(param.getKey(), Value.toProto(param.getValue()));
+        if (param.getValue() != null && param.getValue().getType() != null) {
+          builder.putParamTypes(param.getKey(), param.getValue().getType().toProto());
         }
       }
-      idx++;
     }
+    return builder.build();
+  }
+
+  ExecuteBatchDmlRequest.Builder getExecuteBatchDmlRequestBuilder(
+      List<ExecuteBatchDmlRequest.Statement> statements, Options options) {
+    ExecuteBatchDmlRequest.Builder builder =
+        ExecuteBatchDmlRequest.newBuilder()
+            .setSession(session.getName())
+            .addAllStatements(statements);
 
     TransactionSelector selector = getTransactionSelector();
     if (selector != null) {
@@ -791,12 +848,18 @@ abstract class AbstractReadContext
     beforeReadOrQuery();
     final int prefetchChunks =
         options.hasPrefetchChunks() ? options.prefetchChunks() : defaultPrefetchChunks;
+    final long maxPrefetchBytes =
+        options.hasMaxPrefetchBytes() ? options.maxPrefetchBytes() : defaultMaxPrefetchBytes;
+    final long maxResumeBufferBytes =
+        options.hasResumeBufferBytes() ? options.resumeBufferBytes() : defaultMaxResumeBufferBytes;
     final ExecuteSqlRequest.Builder request =
         getExecuteSqlRequestBuilder(
             statement, queryMode, options, /* withTransactionSelector= */ false);
     ResumableStreamIterator stream =
         new ResumableStreamIterator(
             MAX_BUFFERED_CHUNKS,
+            maxResumeBufferBytes,
+            resumableStreamMetrics,
             SpannerImpl.QUERY,
             span,
             tracer,
@@ -809,7 +872,8 @@ abstract class AbstractReadContext
               @Nullable ByteString resumeToken,
               AsyncResultSet.StreamMessageListener streamListener) {
             GrpcStreamIterator stream =
-                new GrpcStreamIterator(statement, prefetchChunks, cancelQueryWhenClientIsClosed);
+                new GrpcStreamIterator(
+                    statement, prefetchChunks, maxPrefetchBytes, cancelQueryWhenClientIsClosed);
             if (streamListener != null) {
               stream.registerListener(streamListener);
             }
@@ -843,7 +907,11 @@ abstract class AbstractReadContext
           }
         };
     return new GrpcResultSet(
-        stream, this, options.hasDecodeMode() ? options.decodeMode() : defaultDecodeMode);
+        stream,
+        this,
+        options.hasDecodeMode() ? options.decodeMode() : defaultDecodeMode,
+        options.reuseRows(),
+        rowTypeCache);
   }
 
   Map<SpannerRpc.Option, ?> getChannelHintOptions(
@@ -999,9 +1067,19 @@ abstract class AbstractReadContext
     }
     final int prefetchChunks =
         readOptions.hasPrefetchChunks() ? readOptions.prefetchChunks() : defaultPrefetchChunks;
+    final long maxPrefetchBytes =
+        readOptions.hasMaxPrefetchBytes()
+            ? readOptions.maxPrefetchBytes()
+            : defaultMaxPrefetchBytes;
+    final long maxResumeBufferBytes =
+        readOptions.hasResumeBufferBytes()
+            ? readOptions.resumeBufferBytes()
+            : defaultMaxResumeBufferBytes;
     ResumableStreamIterator stream =
         new ResumableStreamIterator(
             MAX_BUFFERED_CHUNKS,
+            maxResumeBufferBytes,
+            resumableStreamMetrics,
             SpannerImpl.READ,
             span,
             tracer,
@@ -1014,7 +1092,8 @@ abstract class AbstractReadContext
               @Nullable ByteString resumeToken,
               AsyncResultSet.StreamMessageListener streamListener) {
             GrpcStreamIterator stream =
-                new GrpcStreamIterator(prefetchChunks, cancelQueryWhenClientIsClosed);
+                new GrpcStreamIterator(
+                    null, prefetchChunks, maxPrefetchBytes, cancelQueryWhenClientIsClosed);
             if (streamListener != null) {
               stream.registerListener(streamListener);
             }
@@ -1046,7 +1125,11 @@ abstract class AbstractReadContext
           }
         };
     return new GrpcResultSet(
-        stream, this, readOptions.hasDecodeMode() ? readOptions.decodeMode() : defaultDecodeMode);
+        stream,
+        this,
+        readOptions.hasDecodeMode() ? readOptions.decodeMode() : defaultDecodeMode,
+        readOptions.reuseRows(),
+        rowTypeCache);
   }
 
   private Struct consumeSingleRow(ResultSet resultSet) {
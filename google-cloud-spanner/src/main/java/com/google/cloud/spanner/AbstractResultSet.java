@@ -163,6 +163,14 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
 
     /** it requests the initial prefetch chunks from gRPC stream */
     default void requestPrefetchChunks() {}
+
+    /**
+     * Returns true if {@link #hasNext()} will return without waiting for more data from the
+     * server. Iterators that are not backed by a gRPC stream are always ready.
+     */
+    default boolean isReady() {
+      return true;
+    }
   }
 
   static double valueProtoToFloat64(com.google.protobuf.Value proto) {
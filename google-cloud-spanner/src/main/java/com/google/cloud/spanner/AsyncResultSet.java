@@ -17,8 +17,12 @@
 package com.google.cloud.spanner;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.BetaApi;
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.spanner.v1.PartialResultSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -168,6 +172,71 @@ public interface AsyncResultSet extends ResultSet {
    */
   ApiFuture<Void> setCallback(Executor exec, ReadyCallback cb);
 
+  /**
+   * Interface for receiving asynchronous callbacks with batches of rows. See {@link
+   * AsyncResultSet#setBatchCallback(Executor, int, BatchReadyCallback)}.
+   */
+  @BetaApi
+  interface BatchReadyCallback {
+    /**
+     * Called with the next batch of rows. The batch is never empty, and contains at most the
+     * number of rows that was requested when the callback was registered. The returned {@link
+     * CallbackResponse} has the same meaning as for {@link
+     * ReadyCallback#cursorReady(AsyncResultSet)}. {@link CallbackResponse#CONTINUE} indicates that
+     * the callback is ready for the next batch.
+     */
+    CallbackResponse batchReady(AsyncResultSet resultSet, ImmutableList<Struct> rows);
+  }
+
+  /**
+   * Registers a callback with the ResultSet that will be called with batches of rows. This is an
+   * alternative to {@link #setCallback(Executor, ReadyCallback)} that reduces the overhead per row
+   * for applications that process rows in batches. The batches are immutable and can safely be
+   * handed to other threads. The same rules for pausing, resuming and cancelling apply as for
+   * {@link #setCallback(Executor, ReadyCallback)}. The callback is not called for an empty result
+   * set. Any error is returned through the returned {@link ApiFuture}.
+   *
+   * <p>The default implementation delivers the rows that are available when the callback is
+   * invoked, and may therefore deliver batches that contain fewer than {@code batchSize} rows.
+   * The result sets that are returned by the client library only deliver smaller batches for the
+   * last rows of the result set.
+   *
+   * @param exec executor on which to run all callbacks.
+   * @param batchSize the maximum number of rows in each batch
+   * @param cb the callback that will receive the batches
+   * @return An {@link ApiFuture} that returns <code>null</code> when the consumption of the {@link
+   *     AsyncResultSet} has finished successfully, and that throws an {@link ExecutionException} if
+   *     the consumption of the {@link AsyncResultSet} finished with an error.
+   */
+  @BetaApi
+  default ApiFuture<Void> setBatchCallback(Executor exec, int batchSize, BatchReadyCallback cb) {
+    Preconditions.checkArgument(batchSize > 0, "batchSize must be > 0");
+    Preconditions.checkNotNull(cb);
+    return setCallback(
+        exec,
+        resultSet -> {
+          List<Struct> rows = new ArrayList<>(batchSize);
+          while (true) {
+            CursorState state = resultSet.tryNext();
+            if (state == CursorState.OK) {
+              rows.add(resultSet.getCurrentRowAsStruct());
+              if (rows.size() < batchSize) {
+                continue;
+              }
+            }
+            if (!rows.isEmpty()) {
+              CallbackResponse response = cb.batchReady(resultSet, ImmutableList.copyOf(rows));
+              rows.clear();
+              if (response != CallbackResponse.CONTINUE || state != CursorState.OK) {
+                return state == CursorState.DONE ? CallbackResponse.DONE : response;
+              }
+            } else if (state != CursorState.OK) {
+              return state == CursorState.DONE ? CallbackResponse.DONE : CallbackResponse.CONTINUE;
+            }
+          }
+        });
+  }
+
   /**
    * Attempt to cancel this operation and free all resources. Non-blocking. This is a no-op for
    * child row cursors and does not cancel the parent cursor.
@@ -31,15 +31,15 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.ResultSetStats;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -89,9 +89,21 @@ class AsyncResultSetImpl extends ForwardingStructReader
 
   private final ListeningScheduledExecutorService service;
 
-  private final BlockingDeque<Struct> buffer;
+  /**
+   * The rows that have been produced but not yet consumed. The {@link ProduceRowsRunnable} is the
+   * only producer, and the {@link CallbackRunnable} is the only consumer, as at most one callback
+   * is active at any one time.
+   */
+  private SpscRingBuffer<Struct> buffer;
   private Struct currentRow;
 
+  /**
+   * The minimum number of rows that must be in the buffer before the callback is invoked, unless
+   * all rows have been produced. This is 1 for a {@link ReadyCallback} and the batch size for a
+   * {@link BatchReadyCallback}.
+   */
+  private volatile int minRowsForCallback = 1;
+
   /** Supplies the underlying synchronous {@link ResultSet} that will be producing the rows. */
   private final Supplier<ResultSet> delegateResultSet;
 
@@ -134,22 +146,21 @@ class AsyncResultSetImpl extends ForwardingStructReader
   private volatile boolean cursorReturnedDoneOrException;
 
   /**
-   * This variable is used to pause the producer when the {@link AsyncResultSet} is paused. The
-   * production of rows that are put into the buffer is only paused once the buffer is full.
+   * The thread that is running the {@link ProduceRowsRunnable}. The producer parks this thread when
+   * the {@link AsyncResultSet} is paused, when the buffer is full, or when all rows have been put
+   * into the buffer but the callback has not yet processed all rows. The thread is unparked by any
+   * change that could allow it to proceed.
    */
-  private volatile CountDownLatch pausedLatch = new CountDownLatch(1);
+  private volatile Thread producerThread;
 
   /**
-   * This variable is used to pause the producer when the buffer is full and the consumer needs some
-   * time to catch up.
+   * The buffer size at which the consumer should unpark the producer, or -1 if the producer is not
+   * waiting for the consumer to take rows from the buffer.
    */
-  private volatile CountDownLatch bufferConsumptionLatch = new CountDownLatch(0);
+  private volatile int producerWakeUpSize = -1;
 
-  /**
-   * This variable is used to pause the producer when all rows have been put into the buffer, but
-   * the consumer (the callback) has not yet received and processed all rows.
-   */
-  private volatile CountDownLatch consumingLatch = new CountDownLatch(0);
+  /** The number of {@link CallbackRunnable} executions that have been dispatched and not ended. */
+  private final AtomicInteger activeCallbacks = new AtomicInteger();
 
   AsyncResultSetImpl(ExecutorProvider executorProvider, ResultSet delegate, int bufferSize) {
     this(executorProvider, Suppliers.ofInstance(Preconditions.checkNotNull(delegate)), bufferSize);
@@ -161,7 +172,7 @@ class AsyncResultSetImpl extends ForwardingStructReader
     this.executorProvider = Preconditions.checkNotNull(executorProvider);
     this.delegateResultSet = Preconditions.checkNotNull(delegate);
     this.service = MoreExecutors.listeningDecorator(executorProvider.getExecutor());
-    this.buffer = new LinkedBlockingDeque<>(bufferSize);
+    this.buffer = new SpscRingBuffer<>(bufferSize);
   }
 
   /**
@@ -207,38 +218,98 @@ class AsyncResultSetImpl extends ForwardingStructReader
    */
   @Override
   public CursorState tryNext() throws SpannerException {
-    synchronized (monitor) {
-      if (state == State.CANCELLED) {
-        cursorReturnedDoneOrException = true;
-        throw CANCELLED_EXCEPTION;
-      }
-      if (buffer.isEmpty() && executionException != null) {
-        cursorReturnedDoneOrException = true;
-        throw executionException;
-      }
-      Preconditions.checkState(
-          this.callback != null, "tryNext may only be called after a callback has been set.");
-      Preconditions.checkState(
-          this.state == State.CONSUMING,
-          "tryNext may only be called from a DataReady callback. Current state: "
-              + this.state.name());
-
-      if (finished && buffer.isEmpty()) {
-        cursorReturnedDoneOrException = true;
-        return CursorState.DONE;
-      }
+    State currentState = state;
+    if (currentState == State.CANCELLED) {
+      cursorReturnedDoneOrException = true;
+      throw CANCELLED_EXCEPTION;
+    }
+    SpannerException exception = executionException;
+    if (exception != null && buffer.isEmpty()) {
+      cursorReturnedDoneOrException = true;
+      throw exception;
     }
-    if (!buffer.isEmpty()) {
+    Preconditions.checkState(
+        this.callback != null, "tryNext may only be called after a callback has been set.");
+    Preconditions.checkState(
+        currentState == State.CONSUMING,
+        "tryNext may only be called from a DataReady callback. Current state: "
+            + currentState.name());
+
+    // The producer sets finished after it has put the last row in the buffer, so finished must be
+    // read before the buffer.
+    boolean allRowsProduced = finished;
+    Struct row = buffer.poll();
+    if (row != null) {
       // Set the next row from the buffer as the current row of the StructReader.
-      replaceDelegate(currentRow = buffer.pop());
-      synchronized (monitor) {
-        bufferConsumptionLatch.countDown();
-      }
+      replaceDelegate(currentRow = row);
+      wakeUpProducerIfWaiting();
+      return CursorState.OK;
+    }
+    if (allRowsProduced) {
+      cursorReturnedDoneOrException = true;
+      return CursorState.DONE;
+    }
+    return CursorState.NOT_READY;
+  }
+
+  /**
+   * Tries to move the next batch of at most {@code maxRows} rows from the buffer to {@code rows}.
+   * Returns {@link CursorState#NOT_READY} if the buffer contains fewer than {@code maxRows} rows
+   * and more rows will be produced. This method may only be called from within a {@link
+   * ReadyCallback}.
+   */
+  private CursorState tryNextBatch(int maxRows, List<Struct> rows) throws SpannerException {
+    State currentState = state;
+    if (currentState == State.CANCELLED) {
+      cursorReturnedDoneOrException = true;
+      throw CANCELLED_EXCEPTION;
+    }
+    SpannerException exception = executionException;
+    if (exception != null && buffer.isEmpty()) {
+      cursorReturnedDoneOrException = true;
+      throw exception;
+    }
+    Preconditions.checkState(
+        currentState == State.CONSUMING,
+        "tryNextBatch may only be called from a callback. Current state: " + currentState.name());
+    boolean allRowsProduced = finished;
+    if (!allRowsProduced && buffer.size() < maxRows) {
+      return CursorState.NOT_READY;
+    }
+    if (buffer.drainTo(rows, maxRows) > 0) {
+      wakeUpProducerIfWaiting();
       return CursorState.OK;
     }
+    if (allRowsProduced) {
+      cursorReturnedDoneOrException = true;
+      return CursorState.DONE;
+    }
     return CursorState.NOT_READY;
   }
 
+  /** Unparks the producer if it is waiting for the buffer to drain to its current size. */
+  private void wakeUpProducerIfWaiting() {
+    int wakeUpSize = producerWakeUpSize;
+    if (wakeUpSize >= 0 && buffer.size() <= wakeUpSize) {
+      unparkProducer();
+    }
+  }
+
+  private void unparkProducer() {
+    Thread producer = producerThread;
+    if (producer != null) {
+      LockSupport.unpark(producer);
+    }
+  }
+
+  /**
+   * Returns true if the buffer contains enough rows to invoke the callback. This is the case if it
+   * contains at least {@link #minRowsForCallback} rows, or if it contains the last rows.
+   */
+  private boolean hasRowsForCallback() {
+    return !buffer.isEmpty() && (finished || buffer.size() >= minRowsForCallback);
+  }
+
   private void closeDelegateResultSet() {
     try {
       delegateResultSet.get().close();
@@ -299,20 +370,22 @@ class AsyncResultSetImpl extends ForwardingStructReader
                   return;
                 case PAUSE:
                   state = State.PAUSED;
-                  // Make sure no-one else is waiting on the current pause latch and create a new
-                  // one.
-                  pausedLatch.countDown();
-                  pausedLatch = new CountDownLatch(1);
                   return;
                 case CONTINUE:
-                  if (buffer.isEmpty()) {
+                  if (!hasRowsForCallback()) {
                     // Call the callback once more if the entire result set has been processed but
                     // the callback has not yet received a CursorState.DONE or a CANCELLED error.
                     if (finished && !cursorReturnedDoneOrException) {
                       break;
                     }
                     state = State.RUNNING;
-                    return;
+                    // The producer adds rows to the buffer without holding the monitor, and only
+                    // then checks whether the state is RUNNING. Check the buffer once more after
+                    // changing the state, so a row cannot be left behind without a callback.
+                    if (!hasRowsForCallback() && !finished) {
+                      return;
+                    }
+                    state = State.CONSUMING;
                   }
                   break;
                 default:
@@ -322,13 +395,8 @@ class AsyncResultSetImpl extends ForwardingStructReader
           }
         }
       } finally {
-        synchronized (monitor) {
-          // Count down all latches that the producer might be waiting on.
-          consumingLatch.countDown();
-          while (bufferConsumptionLatch.getCount() > 0L) {
-            bufferConsumptionLatch.countDown();
-          }
-        }
+        activeCallbacks.decrementAndGet();
+        unparkProducer();
       }
     }
   }
@@ -342,6 +410,7 @@ class AsyncResultSetImpl extends ForwardingStructReader
   private class ProduceRowsRunnable implements Runnable {
     @Override
     public void run() {
+      producerThread = Thread.currentThread();
       boolean stop = false;
       boolean hasNext = false;
       try {
@@ -354,11 +423,9 @@ class AsyncResultSetImpl extends ForwardingStructReader
       try {
         while (!stop && hasNext) {
           try {
-            synchronized (monitor) {
-              stop = state.shouldStop;
-            }
+            stop = state.shouldStop;
             if (!stop) {
-              while (buffer.remainingCapacity() == 0 && !stop) {
+              while (buffer.isFull() && !stop) {
                 waitIfPaused();
                 // The buffer is full and we should let the callback consume a number of rows before
                 // we proceed with producing any more rows to prevent us from potentially waiting on
@@ -366,19 +433,17 @@ class AsyncResultSetImpl extends ForwardingStructReader
                 // Wait until at least half of the buffer is available, or if it's a bigger buffer,
                 // wait until at least 10 rows can be placed in it.
                 // TODO: Make this more dynamic / configurable?
-                startCallbackWithBufferLatchIfNecessary(
-                    Math.min(
-                        Math.min(buffer.size() / 2 + 1, buffer.size()),
-                        MAX_WAIT_FOR_BUFFER_CONSUMPTION));
-                bufferConsumptionLatch.await();
-                synchronized (monitor) {
-                  stop = state.shouldStop;
-                }
+                startCallbackIfNecessary(/* bufferIsFull= */ true);
+                waitForBufferConsumption(
+                    buffer.capacity()
+                        - Math.min(buffer.capacity() / 2 + 1, MAX_WAIT_FOR_BUFFER_CONSUMPTION));
+                stop = state.shouldStop;
               }
             }
             if (!stop) {
-              buffer.put(delegateResultSet.get().getCurrentRowAsStruct());
-              startCallbackIfNecessary();
+              // This cannot fail, as this is the only thread that adds rows to the buffer.
+              buffer.offer(delegateResultSet.get().getCurrentRowAsStruct());
+              startCallbackIfNecessary(/* bufferIsFull= */ false);
               hasNext = delegateResultSet.get().next();
             }
           } catch (Throwable e) {
@@ -402,18 +467,19 @@ class AsyncResultSetImpl extends ForwardingStructReader
         while (!stop) {
           try {
             waitIfPaused();
-            startCallbackIfNecessary();
+            startCallbackIfNecessary(/* bufferIsFull= */ false);
             // Make sure we wait until the callback runner has actually finished.
-            consumingLatch.await();
-            synchronized (monitor) {
-              stop = cursorReturnedDoneOrException;
+            while (activeCallbacks.get() > 0) {
+              park();
             }
+            stop = cursorReturnedDoneOrException;
           } catch (Throwable e) {
             result.setException(e);
             return;
           }
         }
       } finally {
+        producerThread = null;
         if (executorProvider.shouldAutoClose()) {
           service.shutdown();
         }
@@ -432,26 +498,50 @@ class AsyncResultSetImpl extends ForwardingStructReader
       }
     }
 
+    private void park() throws InterruptedException {
+      LockSupport.park(AsyncResultSetImpl.this);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+
     private void waitIfPaused() throws InterruptedException {
-      CountDownLatch pause;
-      synchronized (monitor) {
-        pause = pausedLatch;
+      while (state == State.PAUSED) {
+        park();
       }
-      pause.await();
     }
 
-    private void startCallbackIfNecessary() {
-      startCallbackWithBufferLatchIfNecessary(0);
+    /**
+     * Waits until the buffer contains at most {@code wakeUpSize} rows, or until there is no active
+     * callback that could take rows from the buffer.
+     */
+    private void waitForBufferConsumption(int wakeUpSize) throws InterruptedException {
+      producerWakeUpSize = wakeUpSize;
+      try {
+        while (activeCallbacks.get() > 0 && buffer.size() > wakeUpSize && !state.shouldStop) {
+          park();
+        }
+      } finally {
+        producerWakeUpSize = -1;
+      }
     }
 
-    private void startCallbackWithBufferLatchIfNecessary(int bufferLatch) {
+    private void startCallbackIfNecessary(boolean bufferIsFull) {
+      // Only take the monitor if the state indicates that a callback could be started. This check
+      // happens after the row has been added to the buffer, and the callback runner checks the
+      // buffer after setting the state to RUNNING, so one of the two will always see the row.
+      State currentState = state;
+      if (currentState != State.RUNNING && currentState != State.CANCELLED) {
+        return;
+      }
       synchronized (monitor) {
         if ((state == State.RUNNING || state == State.CANCELLED)
-            && !cursorReturnedDoneOrException) {
-          consumingLatch = new CountDownLatch(1);
-          if (bufferLatch > 0) {
-            bufferConsumptionLatch = new CountDownLatch(bufferLatch);
-          }
+            && !cursorReturnedDoneOrException
+            && (bufferIsFull
+                || finished
+                || state == State.CANCELLED
+                || buffer.size() >= minRowsForCallback)) {
+          activeCallbacks.incrementAndGet();
           if (state == State.RUNNING) {
             state = State.CONSUMING;
           }
@@ -495,11 +585,64 @@ class AsyncResultSetImpl extends ForwardingStructReader
       this.service.execute(new InitiateStreamingRunnable());
       this.executor = MoreExecutors.newSequentialExecutor(Preconditions.checkNotNull(exec));
       this.callback = Preconditions.checkNotNull(cb);
-      pausedLatch.countDown();
       return result;
     }
   }
 
+  /**
+   * Sets a callback that receives the rows in batches. The rows are moved from the buffer to the
+   * batch in one operation, and the callback is only invoked once a full batch is available, or
+   * when all rows have been produced.
+   */
+  @Override
+  public ApiFuture<Void> setBatchCallback(Executor exec, int batchSize, BatchReadyCallback cb) {
+    Preconditions.checkArgument(batchSize > 0, "batchSize must be > 0");
+    Preconditions.checkNotNull(cb);
+    synchronized (monitor) {
+      Preconditions.checkState(!closed, "This AsyncResultSet has been closed");
+      Preconditions.checkState(
+          this.state == State.INITIALIZED, "callback may not be set multiple times");
+      // The buffer must be able to hold at least one batch. The producer has not started yet, so
+      // the buffer can safely be replaced.
+      if (buffer.capacity() < batchSize) {
+        buffer = new SpscRingBuffer<>(batchSize);
+      }
+      minRowsForCallback = batchSize;
+      return setCallback(exec, new BatchCallback(batchSize, cb));
+    }
+  }
+
+  /** {@link ReadyCallback} that moves batches of rows from the buffer to a callback. */
+  private class BatchCallback implements ReadyCallback {
+    private final int batchSize;
+    private final BatchReadyCallback delegate;
+
+    private BatchCallback(int batchSize, BatchReadyCallback delegate) {
+      this.batchSize = batchSize;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public CallbackResponse cursorReady(AsyncResultSet resultSet) {
+      while (true) {
+        List<Struct> rows = new ArrayList<>(batchSize);
+        switch (tryNextBatch(batchSize, rows)) {
+          case DONE:
+            return CallbackResponse.DONE;
+          case NOT_READY:
+            return CallbackResponse.CONTINUE;
+          case OK:
+            CallbackResponse response =
+                delegate.batchReady(resultSet, ImmutableList.copyOf(rows));
+            if (response != CallbackResponse.CONTINUE) {
+              return response;
+            }
+            break;
+        }
+      }
+    }
+  }
+
   private void initiateProduceRows() {
     synchronized (monitor) {
       if (this.state == State.STREAMING_INITIALIZED) {
@@ -521,8 +664,8 @@ class AsyncResultSetImpl extends ForwardingStructReader
           state != State.INITIALIZED && state != State.SYNC,
           "cannot cancel a result set without a callback");
       state = State.CANCELLED;
-      pausedLatch.countDown();
     }
+    unparkProducer();
   }
 
   @Override
@@ -533,9 +676,9 @@ class AsyncResultSetImpl extends ForwardingStructReader
           "cannot resume a result set without a callback");
       if (state == State.PAUSED) {
         state = State.RUNNING;
-        pausedLatch.countDown();
       }
     }
+    unparkProducer();
   }
 
   private static class CreateListCallback<T> implements ReadyCallback {
@@ -110,6 +110,11 @@ public class BatchClientImpl implements BatchClient {
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
+            .setDefaultMaxPrefetchBytes(sessionClient.getSpanner().getDefaultMaxPrefetchBytes())
+            .setDefaultMaxResumeBufferBytes(
+                sessionClient.getSpanner().getDefaultMaxResumeBufferBytes())
+            .setResumableStreamMetrics(sessionClient.getSpanner().getResumableStreamMetrics())
+            .setRowTypeCache(sessionClient.getSpanner().getRowTypeCache())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
@@ -134,6 +139,11 @@ public class BatchClientImpl implements BatchClient {
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
+            .setDefaultMaxPrefetchBytes(sessionClient.getSpanner().getDefaultMaxPrefetchBytes())
+            .setDefaultMaxResumeBufferBytes(
+                sessionClient.getSpanner().getDefaultMaxResumeBufferBytes())
+            .setResumableStreamMetrics(sessionClient.getSpanner().getResumableStreamMetrics())
+            .setRowTypeCache(sessionClient.getSpanner().getRowTypeCache())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
@@ -17,6 +17,8 @@
 package com.google.cloud.spanner;
 
 import com.google.api.core.InternalApi;
+import com.google.api.gax.tracing.ApiTracer;
+import com.google.api.gax.tracing.BaseApiTracer;
 import com.google.api.gax.tracing.OpenTelemetryMetricsRecorder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -50,6 +52,13 @@ public class BuiltInMetricsConstant {
   static final String OPERATION_COUNT_NAME = "operation_count";
   static final String ATTEMPT_COUNT_NAME = "attempt_count";
 
+  /**
+   * Set this tracer as the tracer of the call context of an RPC to exclude the RPC from the
+   * built-in metrics. This is used for internal RPCs that are expected to fail, such as the RPCs
+   * that warm up the gRPC channels.
+   */
+  public static final ApiTracer NO_BUILT_IN_METRICS_TRACER = new BaseApiTracer() {};
+
   public static final Set<String> SPANNER_METRICS =
       ImmutableSet.of(
               OPERATION_LATENCIES_NAME,
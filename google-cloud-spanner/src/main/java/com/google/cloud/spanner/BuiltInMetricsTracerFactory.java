@@ -18,6 +18,7 @@ package com.google.cloud.spanner;
 
 import com.google.api.gax.tracing.ApiTracer;
 import com.google.api.gax.tracing.ApiTracerFactory;
+import com.google.api.gax.tracing.BaseApiTracer;
 import com.google.api.gax.tracing.MethodName;
 import com.google.api.gax.tracing.MetricsTracer;
 import com.google.api.gax.tracing.MetricsTracerFactory;
@@ -52,6 +53,9 @@ class BuiltInMetricsTracerFactory extends MetricsTracerFactory {
 
   @Override
   public ApiTracer newTracer(ApiTracer parent, SpanName spanName, OperationType operationType) {
+    if (parent == BuiltInMetricsConstant.NO_BUILT_IN_METRICS_TRACER) {
+      return BaseApiTracer.getInstance();
+    }
     BuiltInMetricsTracer metricsTracer =
         new BuiltInMetricsTracer(
             MethodName.of(spanName.getClientName(), spanName.getMethodName()),
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import java.time.Duration;
+
+/**
+ * Writes an unbounded stream of {@link MutationGroup}s to Spanner with BatchWrite requests. See
+ * {@link DatabaseClient#batchWriteAtLeastOnce(Iterable, Options.TransactionOption...)} for the
+ * semantics of BatchWrite.
+ *
+ * <p>A {@link BulkWriter} packs the mutation groups that are added to it into requests that stay
+ * under the size and mutation limits in {@link BulkWriterOptions}, executes a number of these
+ * requests concurrently, and retries only the mutation groups that failed. {@link
+ * #add(MutationGroup)} blocks when all requests are busy, so an application can add mutation
+ * groups from a source of any size without buffering the entire source in memory.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * try (BulkWriter writer =
+ *     dbClient.newBulkWriter(BulkWriterOptions.getDefaultInstance(), Options.priority(LOW))) {
+ *   for (Row row : source) {
+ *     writer.add(MutationGroup.of(toMutation(row)));
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>This class is thread-safe.
+ */
+@BetaApi
+public interface BulkWriter extends AutoCloseable {
+
+  /** A snapshot of the throughput and latency of a {@link BulkWriter}. */
+  final class Stats {
+    private final long mutationGroupsWritten;
+    private final long mutationsWritten;
+    private final long bytesWritten;
+    private final long mutationGroupsFailed;
+    private final long mutationGroupRetries;
+    private final long requests;
+    private final long totalRequestLatencyNanos;
+    private final long maxRequestLatencyNanos;
+    private final long elapsedNanos;
+
+    Stats(
+        long mutationGroupsWritten,
+        long mutationsWritten,
+        long bytesWritten,
+        long mutationGroupsFailed,
+        long mutationGroupRetries,
+        long requests,
+        long totalRequestLatencyNanos,
+        long maxRequestLatencyNanos,
+        long elapsedNanos) {
+      this.mutationGroupsWritten = mutationGroupsWritten;
+      this.mutationsWritten = mutationsWritten;
+      this.bytesWritten = bytesWritten;
+      this.mutationGroupsFailed = mutationGroupsFailed;
+      this.mutationGroupRetries = mutationGroupRetries;
+      this.requests = requests;
+      this.totalRequestLatencyNanos = totalRequestLatencyNanos;
+      this.maxRequestLatencyNanos = maxRequestLatencyNanos;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Returns the number of mutation groups that have been written. */
+    public long getMutationGroupsWritten() {
+      return mutationGroupsWritten;
+    }
+
+    /** Returns the number of mutations in the mutation groups that have been written. */
+    public long getMutationsWritten() {
+      return mutationsWritten;
+    }
+
+    /** Returns the estimated size in bytes of the mutation groups that have been written. */
+    public long getBytesWritten() {
+      return bytesWritten;
+    }
+
+    /** Returns the number of mutation groups that could not be written. */
+    public long getMutationGroupsFailed() {
+      return mutationGroupsFailed;
+    }
+
+    /** Returns the number of times that a mutation group has been retried. */
+    public long getMutationGroupRetries() {
+      return mutationGroupRetries;
+    }
+
+    /** Returns the number of BatchWrite requests that have been executed, including retries. */
+    public long getRequests() {
+      return requests;
+    }
+
+    /** Returns the average time that it took to execute a BatchWrite request. */
+    public Duration getAverageRequestLatency() {
+      return Duration.ofNanos(requests == 0L ? 0L : totalRequestLatencyNanos / requests);
+    }
+
+    /** Returns the longest time that it took to execute a BatchWrite request. */
+    public Duration getMaxRequestLatency() {
+      return Duration.ofNanos(maxRequestLatencyNanos);
+    }
+
+    /** Returns the time since the {@link BulkWriter} was created. */
+    public Duration getElapsedTime() {
+      return Duration.ofNanos(elapsedNanos);
+    }
+
+    /** Returns the average number of mutation groups that were written per second. */
+    public double getMutationGroupsPerSecond() {
+      return perSecond(mutationGroupsWritten);
+    }
+
+    /** Returns the average number of bytes that were written per second. */
+    public double getBytesPerSecond() {
+      return perSecond(bytesWritten);
+    }
+
+    private double perSecond(long value) {
+      return elapsedNanos == 0L ? 0d : value * 1_000_000_000d / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "mutationGroupsWritten: %d, mutationsWritten: %d, bytesWritten: %d,"
+              + " mutationGroupsFailed: %d, mutationGroupRetries: %d, requests: %d,"
+              + " averageRequestLatency: %s, maxRequestLatency: %s, mutationGroupsPerSecond: %.1f",
+          mutationGroupsWritten,
+          mutationsWritten,
+          bytesWritten,
+          mutationGroupsFailed,
+          mutationGroupRetries,
+          requests,
+          getAverageRequestLatency(),
+          getMaxRequestLatency(),
+          getMutationGroupsPerSecond());
+    }
+  }
+
+  /**
+   * Adds a mutation group to the next request. This method blocks if the next request is full
+   * and {@link BulkWriterOptions#getMaxConcurrentRequests()} requests are already being executed.
+   *
+   * @throws IllegalStateException if the writer has been closed
+   */
+  void add(MutationGroup mutationGroup);
+
+  /**
+   * Sends the next request without waiting for more mutation groups, and waits until all mutation
+   * groups that have been added have been written or have failed.
+   *
+   * @throws SpannerException if one or more mutation groups could not be written since the last
+   *     flush, and no {@link BulkWriterOptions.Builder#setFailureHandler failure handler} is set
+   */
+  void flush();
+
+  /** Returns the current throughput and latency of this writer. */
+  Stats getStats();
+
+  /**
+   * Flushes this writer and releases its threads.
+   *
+   * @throws SpannerException if one or more mutation groups could not be written since the last
+   *     flush, and no {@link BulkWriterOptions.Builder#setFailureHandler failure handler} is set
+   */
+  @Override
+  void close();
+}
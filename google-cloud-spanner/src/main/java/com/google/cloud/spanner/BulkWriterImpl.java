@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.spanner.Options.TransactionOption;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.rpc.Code;
+import com.google.spanner.v1.BatchWriteResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Default implementation of {@link BulkWriter}. Requests are executed on a pool of {@link
+ * BulkWriterOptions#getMaxConcurrentRequests()} daemon threads. A semaphore with the same number of
+ * permits limits the number of requests that have been sent but not yet finished, which is what
+ * makes {@link #add(MutationGroup)} block when all threads are busy.
+ *
+ * <p>The mutation groups in a request that fail with a retryable status are retried by the thread
+ * that executed the request, so a retry never has to wait for a free thread. The failure handler is
+ * also called by that thread while it holds a request permit, which is why the failure handler may
+ * not call {@link #add(MutationGroup)}.
+ */
+final class BulkWriterImpl implements BulkWriter {
+  @VisibleForTesting static final Duration INITIAL_BACKOFF = Duration.ofMillis(50L);
+  @VisibleForTesting static final Duration MAX_BACKOFF = Duration.ofSeconds(10L);
+
+  /**
+   * The status codes of mutation groups that are retried. {@link ErrorCode#INTERNAL} is only
+   * retried if BatchWrite did not return a result for a mutation group, as other internal errors
+   * are not expected to succeed on retry.
+   */
+  @VisibleForTesting
+  static final Set<ErrorCode> RETRYABLE_ERRORS =
+      EnumSet.of(
+          ErrorCode.ABORTED,
+          ErrorCode.UNAVAILABLE,
+          ErrorCode.RESOURCE_EXHAUSTED,
+          ErrorCode.DEADLINE_EXCEEDED);
+
+  /** A mutation group that has been added to the writer, together with its estimated size. */
+  private static final class PendingGroup {
+    private final MutationGroup group;
+    private final int mutations;
+    private final long bytes;
+
+    private PendingGroup(MutationGroup group) {
+      this.group = group;
+      this.mutations = group.getMutations().size();
+      this.bytes = Mutation.getSerializedSize(group.getMutations());
+    }
+  }
+
+  private final DatabaseClient client;
+  private final BulkWriterOptions options;
+  private final TransactionOption[] transactionOptions;
+  private final ExecutorService executor;
+  private final Semaphore requestPermits;
+  private final long startNanos = System.nanoTime();
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private List<PendingGroup> request = new ArrayList<>();
+
+  @GuardedBy("lock")
+  private int requestMutations;
+
+  @GuardedBy("lock")
+  private long requestBytes;
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private final AtomicLong mutationGroupsWritten = new AtomicLong();
+  private final AtomicLong mutationsWritten = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong mutationGroupsFailed = new AtomicLong();
+  private final AtomicLong mutationGroupRetries = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong totalRequestLatencyNanos = new AtomicLong();
+  private final AtomicLong maxRequestLatencyNanos = new AtomicLong();
+
+  /** The first failure since the last flush that has not been passed to a failure handler. */
+  private final AtomicReference<SpannerException> unhandledFailure = new AtomicReference<>();
+
+  private final AtomicLong unhandledFailures = new AtomicLong();
+
+  BulkWriterImpl(
+      DatabaseClient client, BulkWriterOptions options, TransactionOption... transactionOptions) {
+    this.client = Preconditions.checkNotNull(client);
+    this.options = Preconditions.checkNotNull(options);
+    this.transactionOptions = transactionOptions;
+    this.executor =
+        Executors.newFixedThreadPool(
+            options.getMaxConcurrentRequests(),
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "bulk-writer", /* tryVirtualThreads= */ false));
+    this.requestPermits = new Semaphore(options.getMaxConcurrentRequests());
+  }
+
+  @Override
+  public void add(MutationGroup mutationGroup) {
+    PendingGroup group = new PendingGroup(Preconditions.checkNotNull(mutationGroup));
+    synchronized (lock) {
+      Preconditions.checkState(!closed, "This BulkWriter has been closed");
+      if (!request.isEmpty()
+          && (requestMutations + group.mutations > options.getMaxRequestMutations()
+              || requestBytes + group.bytes > options.getMaxRequestBytes())) {
+        sendRequest();
+      }
+      request.add(group);
+      requestMutations += group.mutations;
+      requestBytes += group.bytes;
+      if (requestMutations >= options.getMaxRequestMutations()
+          || requestBytes >= options.getMaxRequestBytes()) {
+        sendRequest();
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    synchronized (lock) {
+      sendRequest();
+    }
+    awaitRequests();
+    throwIfFailed();
+  }
+
+  @Override
+  public Stats getStats() {
+    return new Stats(
+        mutationGroupsWritten.get(),
+        mutationsWritten.get(),
+        bytesWritten.get(),
+        mutationGroupsFailed.get(),
+        mutationGroupRetries.get(),
+        requests.get(),
+        totalRequestLatencyNanos.get(),
+        maxRequestLatencyNanos.get(),
+        System.nanoTime() - startNanos);
+  }
+
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      sendRequest();
+      closed = true;
+    }
+    awaitRequests();
+    executor.shutdown();
+    throwIfFailed();
+  }
+
+  /**
+   * Sends the current request. Blocks until a permit is available, which means that all other
+   * callers of this method also wait, as the lock is held.
+   */
+  @GuardedBy("lock")
+  private void sendRequest() {
+    if (request.isEmpty()) {
+      return;
+    }
+    List<PendingGroup> groups = request;
+    request = new ArrayList<>();
+    requestMutations = 0;
+    requestBytes = 0L;
+    try {
+      requestPermits.acquire();
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+    executor.execute(
+        () -> {
+          try {
+            write(groups);
+          } finally {
+            requestPermits.release();
+          }
+        });
+  }
+
+  /** Waits until all requests that have been sent have finished. */
+  private void awaitRequests() {
+    try {
+      requestPermits.acquire(options.getMaxConcurrentRequests());
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+    requestPermits.release(options.getMaxConcurrentRequests());
+  }
+
+  private void throwIfFailed() {
+    SpannerException failure = unhandledFailure.getAndSet(null);
+    if (failure != null) {
+      long count = unhandledFailures.getAndSet(0L);
+      throw SpannerExceptionFactory.newSpannerException(
+          failure.getErrorCode(),
+          String.format("%d mutation group(s) could not be written", count),
+          failure);
+    }
+  }
+
+  /** Writes the given mutation groups and retries the groups that fail with a retryable status. */
+  private void write(List<PendingGroup> groups) {
+    List<PendingGroup> remaining = groups;
+    for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+      if (attempt > 1) {
+        try {
+          Thread.sleep(backoff(attempt).toMillis());
+        } catch (InterruptedException e) {
+          SpannerException interrupted = SpannerExceptionFactory.propagateInterrupt(e);
+          for (PendingGroup group : remaining) {
+            fail(group, interrupted);
+          }
+          return;
+        }
+      }
+      remaining = writeOnce(remaining, attempt);
+    }
+  }
+
+  /** Executes one BatchWrite request and returns the groups that should be retried. */
+  private List<PendingGroup> writeOnce(List<PendingGroup> groups, int attempt) {
+    List<MutationGroup> mutationGroups = new ArrayList<>(groups.size());
+    for (PendingGroup group : groups) {
+      mutationGroups.add(group.group);
+    }
+    List<PendingGroup> retry = new ArrayList<>();
+    boolean[] answered = new boolean[groups.size()];
+    SpannerException requestError = null;
+    boolean retryRequestError;
+    long start = System.nanoTime();
+    try {
+      ServerStream<BatchWriteResponse> stream =
+          client.batchWriteAtLeastOnce(mutationGroups, transactionOptions);
+      for (BatchWriteResponse response : stream) {
+        SpannerException error =
+            response.getStatus().getCode() == Code.OK_VALUE
+                ? null
+                : SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.fromRpcStatus(response.getStatus()),
+                    response.getStatus().getMessage());
+        for (int index : response.getIndexesList()) {
+          answered[index] = true;
+          if (error == null) {
+            written(groups.get(index));
+          } else {
+            failOrRetry(groups.get(index), error, isRetryable(error), attempt, retry);
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      requestError = SpannerExceptionFactory.asSpannerException(e);
+    }
+    recordLatency(System.nanoTime() - start);
+    if (requestError == null) {
+      requestError =
+          SpannerExceptionFactory.newSpannerException(
+              ErrorCode.INTERNAL, "BatchWrite did not return a result for this mutation group");
+      retryRequestError = true;
+    } else {
+      retryRequestError = isRetryable(requestError);
+    }
+    for (int i = 0; i < groups.size(); i++) {
+      if (!answered[i]) {
+        failOrRetry(groups.get(i), requestError, retryRequestError, attempt, retry);
+      }
+    }
+    return retry;
+  }
+
+  private static boolean isRetryable(SpannerException error) {
+    return RETRYABLE_ERRORS.contains(error.getErrorCode());
+  }
+
+  private void failOrRetry(
+      PendingGroup group,
+      SpannerException error,
+      boolean retryable,
+      int attempt,
+      List<PendingGroup> retry) {
+    if (retryable && attempt < options.getMaxAttempts()) {
+      mutationGroupRetries.incrementAndGet();
+      retry.add(group);
+    } else {
+      fail(group, error);
+    }
+  }
+
+  private void written(PendingGroup group) {
+    mutationGroupsWritten.incrementAndGet();
+    mutationsWritten.addAndGet(group.mutations);
+    bytesWritten.addAndGet(group.bytes);
+  }
+
+  private void fail(PendingGroup group, SpannerException error) {
+    mutationGroupsFailed.incrementAndGet();
+    BiConsumer<MutationGroup, SpannerException> handler = options.getFailureHandler();
+    if (handler == null) {
+      unhandledFailures.incrementAndGet();
+      unhandledFailure.compareAndSet(null, error);
+    } else {
+      handler.accept(group.group, error);
+    }
+  }
+
+  private void recordLatency(long nanos) {
+    requests.incrementAndGet();
+    totalRequestLatencyNanos.addAndGet(nanos);
+    maxRequestLatencyNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  /** Returns the time to wait before the given attempt. */
+  @VisibleForTesting
+  static Duration backoff(int attempt) {
+    long millis = INITIAL_BACKOFF.toMillis() << Math.min(attempt - 2, 20);
+    return Duration.ofMillis(Math.min(millis, MAX_BACKOFF.toMillis()));
+  }
+}
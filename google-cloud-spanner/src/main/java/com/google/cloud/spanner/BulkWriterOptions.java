@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Options for a {@link BulkWriter} that is created with {@link
+ * DatabaseClient#newBulkWriter(BulkWriterOptions, Options.TransactionOption...)}.
+ */
+@BetaApi
+public class BulkWriterOptions {
+  private final int maxRequestMutations;
+  private final long maxRequestBytes;
+  private final int maxConcurrentRequests;
+  private final int maxAttempts;
+  @Nullable private final BiConsumer<MutationGroup, SpannerException> failureHandler;
+
+  private BulkWriterOptions(Builder builder) {
+    this.maxRequestMutations = builder.maxRequestMutations;
+    this.maxRequestBytes = builder.maxRequestBytes;
+    this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    this.maxAttempts = builder.maxAttempts;
+    this.failureHandler = builder.failureHandler;
+  }
+
+  /** Builder for {@link BulkWriterOptions}. */
+  public static class Builder {
+    private int maxRequestMutations = 80_000;
+    private long maxRequestBytes = 10L * 1024L * 1024L;
+    private int maxConcurrentRequests = 4;
+    private int maxAttempts = 5;
+    private BiConsumer<MutationGroup, SpannerException> failureHandler;
+
+    private Builder() {}
+
+    /**
+     * Sets the max number of mutations in one BatchWrite request. Mutation groups are packed into
+     * a request until the next group would exceed this number. A single mutation group with more
+     * mutations is sent in a request of its own. The default is 80,000, which is the max number of
+     * mutations that Spanner accepts in a single commit.
+     */
+    public Builder setMaxRequestMutations(int maxRequestMutations) {
+      Preconditions.checkArgument(maxRequestMutations > 0, "maxRequestMutations must be > 0");
+      this.maxRequestMutations = maxRequestMutations;
+      return this;
+    }
+
+    /**
+     * Sets the max estimated size in bytes of the mutations in one BatchWrite request. A single
+     * mutation group that is larger is sent in a request of its own. The default is 10MiB, which is
+     * the max size of a request that Spanner accepts.
+     */
+    public Builder setMaxRequestBytes(long maxRequestBytes) {
+      Preconditions.checkArgument(maxRequestBytes > 0L, "maxRequestBytes must be > 0");
+      this.maxRequestBytes = maxRequestBytes;
+      return this;
+    }
+
+    /**
+     * Sets the max number of BatchWrite requests that are executed at the same time. Each request
+     * is a separate streaming RPC, and the client distributes these RPCs over its gRPC channels.
+     * {@link BulkWriter#add(MutationGroup)} blocks while this number of requests is being executed
+     * and the next request is full. The default is 4.
+     */
+    public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
+      Preconditions.checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests must be > 0");
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+    }
+
+    /**
+     * Sets the max number of times that a mutation group is sent to Spanner. Mutation groups that
+     * fail with {@link ErrorCode#ABORTED}, {@link ErrorCode#UNAVAILABLE}, {@link
+     * ErrorCode#RESOURCE_EXHAUSTED} or {@link ErrorCode#DEADLINE_EXCEEDED}, or for which Spanner
+     * did not return a result, are retried with exponential backoff until this number of attempts
+     * has been reached. Other errors are not retried. Set to 1 to disable retries. The default is
+     * 5.
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be > 0");
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Sets a handler that is called for each mutation group that could not be written. The
+     * handler is called on one of the threads of the {@link BulkWriter}, and should not block.
+     *
+     * <p>The handler must not call {@link BulkWriter#add(MutationGroup)} on the same writer, for
+     * example to retry a mutation group. The thread that calls the handler holds one of the request
+     * permits of the writer, and {@link BulkWriter#add(MutationGroup)} can wait for a free permit,
+     * which could cause a deadlock.
+     *
+     * <p>If no handler is set, then {@link BulkWriter#flush()} and {@link BulkWriter#close()}
+     * throw a {@link SpannerException} if one or more mutation groups could not be written.
+     */
+    public Builder setFailureHandler(BiConsumer<MutationGroup, SpannerException> failureHandler) {
+      this.failureHandler = Preconditions.checkNotNull(failureHandler);
+      return this;
+    }
+
+    public BulkWriterOptions build() {
+      return new BulkWriterOptions(this);
+    }
+  }
+
+  public static BulkWriterOptions getDefaultInstance() {
+    return newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Returns the max number of mutations in one BatchWrite request. */
+  public int getMaxRequestMutations() {
+    return maxRequestMutations;
+  }
+
+  /** Returns the max estimated size in bytes of the mutations in one BatchWrite request. */
+  public long getMaxRequestBytes() {
+    return maxRequestBytes;
+  }
+
+  /** Returns the max number of BatchWrite requests that are executed at the same time. */
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /** Returns the max number of times that a mutation group is sent to Spanner. */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /** Returns the handler for mutation groups that could not be written, or null if none is set. */
+  @Nullable
+  public BiConsumer<MutationGroup, SpannerException> getFailureHandler() {
+    return failureHandler;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "maxRequestMutations: %d, maxRequestBytes: %d, maxConcurrentRequests: %d,"
+            + " maxAttempts: %d, failureHandler: %s",
+        maxRequestMutations, maxRequestBytes, maxConcurrentRequests, maxAttempts, failureHandler);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BulkWriterOptions that = (BulkWriterOptions) o;
+    return maxRequestMutations == that.maxRequestMutations
+        && maxRequestBytes == that.maxRequestBytes
+        && maxConcurrentRequests == that.maxConcurrentRequests
+        && maxAttempts == that.maxAttempts
+        && Objects.equals(failureHandler, that.failureHandler);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        maxRequestMutations, maxRequestBytes, maxConcurrentRequests, maxAttempts, failureHandler);
+  }
+}
@@ -0,0 +1,605 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.AbstractResultSet.valueProtoToFloat32;
+import static com.google.cloud.spanner.AbstractResultSet.valueProtoToFloat64;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.protobuf.Value.KindCase;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of rows from a {@link ResultSet} that is stored in columnar form. Fixed-width columns
+ * ({@code BOOL}, {@code INT64}, {@code FLOAT32} and {@code FLOAT64}) are stored in primitive
+ * vectors, {@code BYTES} columns are stored in a single offset-indexed buffer, and all other
+ * columns are stored as one {@link Value} per row.
+ *
+ * <p>A {@link ColumnBatch} is obtained by calling {@link ResultSet#nextBatch(int)}. The batch is
+ * decoded directly from the protobuf values that are returned by Spanner if the query or read uses
+ * {@link DecodeMode#COLUMNAR}. Other decode modes fall back to copying the rows one by one from the
+ * {@link ResultSet}.
+ *
+ * <p>{@link ColumnBatch} instances are immutable and can safely be shared between threads, as long
+ * as the vectors that are returned by the {@code get*Vector} methods are not modified.
+ */
+@BetaApi
+public final class ColumnBatch {
+  /** The default maximum number of rows in a batch returned by {@link ResultSet#nextBatch()}. */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  private final Type type;
+  private final int rowCount;
+  private final ColumnVector[] columns;
+
+  private ColumnBatch(Type type, int rowCount, ColumnVector[] columns) {
+    this.type = type;
+    this.rowCount = rowCount;
+    this.columns = columns;
+  }
+
+  /** Returns the row type of this batch. */
+  public Type getType() {
+    return type;
+  }
+
+  /** Returns the number of rows in this batch. */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /** Returns the number of columns in this batch. */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /** Returns the index of the column with the given name. */
+  public int getColumnIndex(String columnName) {
+    return type.getFieldIndex(columnName);
+  }
+
+  /** Returns {@code true} if the value in the given column and row is {@code NULL}. */
+  public boolean isNull(int columnIndex, int rowIndex) {
+    checkElementIndex(rowIndex, rowCount, "rowIndex");
+    return column(columnIndex).nulls.get(rowIndex);
+  }
+
+  /**
+   * Returns a bitmap of the rows that contain {@code NULL} for the given column. The returned
+   * bitmap is the internal buffer of this batch and must not be modified.
+   */
+  public BitSet getNullBitmap(int columnIndex) {
+    return column(columnIndex).nulls;
+  }
+
+  /** Returns the value of a non-{@code NULL} {@code BOOL} cell. */
+  public boolean getBoolean(int columnIndex, int rowIndex) {
+    BooleanVector vector = column(columnIndex, rowIndex, BooleanVector.class, "BOOL");
+    return vector.values.get(rowIndex);
+  }
+
+  /** Returns the value of a non-{@code NULL} {@code INT64}, {@code ENUM} or {@code PG_OID} cell. */
+  public long getLong(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex, LongVector.class, "INT64").values[rowIndex];
+  }
+
+  /** Returns the value of a non-{@code NULL} {@code FLOAT64} cell. */
+  public double getDouble(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex, DoubleVector.class, "FLOAT64").values[rowIndex];
+  }
+
+  /** Returns the value of a non-{@code NULL} {@code FLOAT32} cell. */
+  public float getFloat(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex, FloatVector.class, "FLOAT32").values[rowIndex];
+  }
+
+  /**
+   * Returns the value of a non-{@code NULL} {@code STRING}, {@code JSON}, {@code PG_JSONB} or
+   * {@code PG_NUMERIC} cell.
+   */
+  public String getString(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex, StringVector.class, "STRING").values[rowIndex];
+  }
+
+  /** Returns the value of a non-{@code NULL} {@code BYTES} cell. */
+  public ByteArray getBytes(int columnIndex, int rowIndex) {
+    BytesVector vector = column(columnIndex, rowIndex, BytesVector.class, "BYTES");
+    return vector.get(rowIndex);
+  }
+
+  /** Returns the value of the given cell as a {@link Value}. This method supports all types. */
+  public Value getValue(int columnIndex, int rowIndex) {
+    checkElementIndex(rowIndex, rowCount, "rowIndex");
+    return column(columnIndex).getValue(rowIndex);
+  }
+
+  /**
+   * Returns the primitive vector of an {@code INT64}, {@code ENUM} or {@code PG_OID} column. Only
+   * the first {@link #getRowCount()} elements are valid, and elements for {@code NULL} values are
+   * zero. The returned array is the internal buffer of this batch and must not be modified.
+   */
+  public long[] getLongVector(int columnIndex) {
+    return column(columnIndex, LongVector.class, "INT64").values;
+  }
+
+  /**
+   * Returns the primitive vector of a {@code FLOAT64} column. Only the first {@link #getRowCount()}
+   * elements are valid, and elements for {@code NULL} values are zero. The returned array is the
+   * internal buffer of this batch and must not be modified.
+   */
+  public double[] getDoubleVector(int columnIndex) {
+    return column(columnIndex, DoubleVector.class, "FLOAT64").values;
+  }
+
+  /**
+   * Returns the primitive vector of a {@code FLOAT32} column. Only the first {@link #getRowCount()}
+   * elements are valid, and elements for {@code NULL} values are zero. The returned array is the
+   * internal buffer of this batch and must not be modified.
+   */
+  public float[] getFloatVector(int columnIndex) {
+    return column(columnIndex, FloatVector.class, "FLOAT32").values;
+  }
+
+  /**
+   * Returns the bitmap of a {@code BOOL} column. Bits for {@code NULL} values are not set. The
+   * returned bitmap is the internal buffer of this batch and must not be modified.
+   */
+  public BitSet getBooleanVector(int columnIndex) {
+    return column(columnIndex, BooleanVector.class, "BOOL").values;
+  }
+
+  /**
+   * Returns the buffer that contains the bytes of all rows of a {@code BYTES} column. The value of
+   * row {@code i} starts at {@code getBytesOffsets(column)[i]} and ends (exclusive) at {@code
+   * getBytesOffsets(column)[i + 1]}. The returned array is the internal buffer of this batch and
+   * must not be modified.
+   */
+  public byte[] getBytesBuffer(int columnIndex) {
+    return column(columnIndex, BytesVector.class, "BYTES").buffer;
+  }
+
+  /**
+   * Returns the offsets of the rows of a {@code BYTES} column in the buffer that is returned by
+   * {@link #getBytesBuffer(int)}. The returned array contains {@link #getRowCount()} + 1 valid
+   * elements and is the internal buffer of this batch and must not be modified.
+   */
+  public int[] getBytesOffsets(int columnIndex) {
+    return column(columnIndex, BytesVector.class, "BYTES").offsets;
+  }
+
+  private ColumnVector column(int columnIndex) {
+    checkElementIndex(columnIndex, columns.length, "columnIndex");
+    return columns[columnIndex];
+  }
+
+  private <V extends ColumnVector> V column(int columnIndex, Class<V> vectorClass, String name) {
+    ColumnVector vector = column(columnIndex);
+    checkState(
+        vectorClass.isInstance(vector),
+        "Column %s is not of correct type: expected %s but was %s",
+        columnIndex,
+        name,
+        vector.type);
+    return vectorClass.cast(vector);
+  }
+
+  private <V extends ColumnVector> V column(
+      int columnIndex, int rowIndex, Class<V> vectorClass, String name) {
+    checkElementIndex(rowIndex, rowCount, "rowIndex");
+    V vector = column(columnIndex, vectorClass, name);
+    if (vector.nulls.get(rowIndex)) {
+      throw new NullPointerException(
+          "Column " + columnIndex + " contains NULL value in row " + rowIndex);
+    }
+    return vector;
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnBatch{type=" + type + ", rowCount=" + rowCount + "}";
+  }
+
+  /**
+   * Reads at most {@code maxRows} rows from the given {@link ResultSet} by calling {@link
+   * ResultSet#next()} and copying each row into the batch. Returns {@code null} if the result set
+   * did not contain any more rows.
+   */
+  static ColumnBatch readFrom(ResultSet resultSet, int maxRows) {
+    checkArgument(maxRows > 0, "maxRows must be > 0");
+    Builder builder = null;
+    while (builder == null || builder.getRowCount() < maxRows) {
+      if (!resultSet.next()) {
+        break;
+      }
+      if (builder == null) {
+        builder = new Builder(resultSet.getType(), maxRows);
+      }
+      builder.addRow(resultSet);
+    }
+    return builder == null ? null : builder.build();
+  }
+
+  /** Builder for {@link ColumnBatch} that is filled one row at a time. */
+  static final class Builder {
+    private final Type type;
+    private final int capacity;
+    private final ColumnVector[] columns;
+    private int rowCount;
+
+    Builder(Type type, int capacity) {
+      checkArgument(capacity > 0, "capacity must be > 0");
+      this.type = type;
+      this.capacity = capacity;
+      List<StructField> fields = type.getStructFields();
+      this.columns = new ColumnVector[fields.size()];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = createVector(fields.get(i), capacity);
+      }
+    }
+
+    int getRowCount() {
+      return rowCount;
+    }
+
+    int getColumnCount() {
+      return columns.length;
+    }
+
+    /** Sets the value of the given column in the current row from a protobuf value. */
+    void setProtoValue(int columnIndex, com.google.protobuf.Value value) {
+      checkState(rowCount < capacity, "The batch is full");
+      ColumnVector vector = columns[columnIndex];
+      if (value.getKindCase() == KindCase.NULL_VALUE && !(vector instanceof ValueVector)) {
+        vector.nulls.set(rowCount);
+      } else {
+        vector.setProto(rowCount, value);
+      }
+    }
+
+    /** Marks the current row as complete. */
+    void endRow() {
+      rowCount++;
+    }
+
+    /** Copies the row that the given reader is positioned at into the batch. */
+    void addRow(StructReader reader) {
+      checkState(rowCount < capacity, "The batch is full");
+      for (int i = 0; i < columns.length; i++) {
+        ColumnVector vector = columns[i];
+        if (reader.isNull(i) && !(vector instanceof ValueVector)) {
+          vector.nulls.set(rowCount);
+        } else {
+          vector.setFromReader(rowCount, reader, i);
+        }
+      }
+      endRow();
+    }
+
+    ColumnBatch build() {
+      for (ColumnVector vector : columns) {
+        vector.seal(rowCount);
+      }
+      return new ColumnBatch(type, rowCount, columns);
+    }
+
+    private static ColumnVector createVector(StructField field, int capacity) {
+      Type type = field.getType();
+      switch (type.getCode()) {
+        case BOOL:
+          return new BooleanVector(type, capacity);
+        case INT64:
+        case ENUM:
+        case PG_OID:
+          return new LongVector(type, capacity);
+        case FLOAT64:
+          return new DoubleVector(type, capacity);
+        case FLOAT32:
+          return new FloatVector(type, capacity);
+        case STRING:
+        case JSON:
+        case PG_JSONB:
+        case PG_NUMERIC:
+          return new StringVector(type, capacity);
+        case BYTES:
+          return new BytesVector(type, capacity);
+        default:
+          return new ValueVector(field, capacity);
+      }
+    }
+  }
+
+  /** Base class for the storage of a single column. */
+  private abstract static class ColumnVector {
+    final Type type;
+    final BitSet nulls;
+
+    ColumnVector(Type type, int capacity) {
+      this.type = type;
+      this.nulls = new BitSet(capacity);
+    }
+
+    /** Sets a non-null value from a protobuf value. */
+    abstract void setProto(int row, com.google.protobuf.Value value);
+
+    /** Sets a non-null value from the given column of a {@link StructReader}. */
+    abstract void setFromReader(int row, StructReader reader, int column);
+
+    abstract Value getValue(int row);
+
+    /** Called once when the batch is built and no more values will be added. */
+    void seal(int rowCount) {}
+  }
+
+  private static final class BooleanVector extends ColumnVector {
+    private final BitSet values;
+
+    BooleanVector(Type type, int capacity) {
+      super(type, capacity);
+      this.values = new BitSet(capacity);
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      GrpcStruct.checkType(type, value, KindCase.BOOL_VALUE);
+      values.set(row, value.getBoolValue());
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      values.set(row, reader.getBoolean(column));
+    }
+
+    @Override
+    Value getValue(int row) {
+      return Value.bool(nulls.get(row) ? null : values.get(row));
+    }
+  }
+
+  private static final class LongVector extends ColumnVector {
+    private final long[] values;
+
+    LongVector(Type type, int capacity) {
+      super(type, capacity);
+      this.values = new long[capacity];
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      GrpcStruct.checkType(type, value, KindCase.STRING_VALUE);
+      values[row] = Long.parseLong(value.getStringValue());
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      values[row] = reader.getLong(column);
+    }
+
+    @Override
+    Value getValue(int row) {
+      Long value = nulls.get(row) ? null : values[row];
+      switch (type.getCode()) {
+        case ENUM:
+          return Value.protoEnum(value, type.getProtoTypeFqn());
+        case PG_OID:
+          return Value.pgOid(value);
+        default:
+          return Value.int64(value);
+      }
+    }
+  }
+
+  private static final class DoubleVector extends ColumnVector {
+    private final double[] values;
+
+    DoubleVector(Type type, int capacity) {
+      super(type, capacity);
+      this.values = new double[capacity];
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      values[row] = valueProtoToFloat64(value);
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      values[row] = reader.getDouble(column);
+    }
+
+    @Override
+    Value getValue(int row) {
+      return Value.float64(nulls.get(row) ? null : values[row]);
+    }
+  }
+
+  private static final class FloatVector extends ColumnVector {
+    private final float[] values;
+
+    FloatVector(Type type, int capacity) {
+      super(type, capacity);
+      this.values = new float[capacity];
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      values[row] = valueProtoToFloat32(value);
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      values[row] = reader.getFloat(column);
+    }
+
+    @Override
+    Value getValue(int row) {
+      return Value.float32(nulls.get(row) ? null : values[row]);
+    }
+  }
+
+  /**
+   * Storage for string-like columns. The strings are kept as references instead of being copied
+   * into a shared character buffer, as they have already been materialized by protobuf parsing.
+   */
+  private static final class StringVector extends ColumnVector {
+    private final String[] values;
+
+    StringVector(Type type, int capacity) {
+      super(type, capacity);
+      this.values = new String[capacity];
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      GrpcStruct.checkType(type, value, KindCase.STRING_VALUE);
+      values[row] = value.getStringValue();
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      switch (type.getCode()) {
+        case JSON:
+          values[row] = reader.getJson(column);
+          break;
+        case PG_JSONB:
+          values[row] = reader.getPgJsonb(column);
+          break;
+        default:
+          values[row] = reader.getString(column);
+      }
+    }
+
+    @Override
+    Value getValue(int row) {
+      String value = values[row];
+      switch (type.getCode()) {
+        case JSON:
+          return Value.json(value);
+        case PG_JSONB:
+          return Value.pgJsonb(value);
+        case PG_NUMERIC:
+          return Value.pgNumeric(value);
+        default:
+          return Value.string(value);
+      }
+    }
+  }
+
+  /** Storage for {@code BYTES} columns in a single buffer with one offset per row. */
+  private static final class BytesVector extends ColumnVector {
+    private byte[] buffer;
+    private final int[] offsets;
+    private int lastRow = -1;
+
+    BytesVector(Type type, int capacity) {
+      super(type, capacity);
+      this.buffer = new byte[64];
+      this.offsets = new int[capacity + 1];
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      GrpcStruct.checkType(type, value, KindCase.STRING_VALUE);
+      append(row, Base64.getDecoder().decode(value.getStringValue()));
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      append(row, reader.getBytes(column).toByteArray());
+    }
+
+    private void append(int row, byte[] bytes) {
+      fillOffsets(row);
+      int start = offsets[row];
+      if (start + bytes.length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, start + bytes.length));
+      }
+      System.arraycopy(bytes, 0, buffer, start, bytes.length);
+      offsets[row + 1] = start + bytes.length;
+      lastRow = row;
+    }
+
+    /** Makes sure that all skipped (null) rows up to the given row have an empty range. */
+    private void fillOffsets(int row) {
+      for (int r = lastRow + 1; r < row; r++) {
+        offsets[r + 1] = offsets[r];
+      }
+    }
+
+    @Override
+    void seal(int rowCount) {
+      fillOffsets(rowCount);
+      lastRow = rowCount - 1;
+    }
+
+    ByteArray get(int row) {
+      return ByteArray.copyFrom(
+          ByteBuffer.wrap(buffer, offsets[row], offsets[row + 1] - offsets[row]));
+    }
+
+    @Override
+    Value getValue(int row) {
+      return Value.bytes(nulls.get(row) ? null : get(row));
+    }
+  }
+
+  /** Storage for all types that do not have a specialized vector. */
+  private static final class ValueVector extends ColumnVector {
+    private final Value[] values;
+    private final List<Object> cell = new ArrayList<>(Collections.singletonList(null));
+    private final GrpcStruct cellStruct;
+
+    ValueVector(StructField field, int capacity) {
+      super(field.getType(), capacity);
+      this.values = new Value[capacity];
+      this.cellStruct = new GrpcStruct(Type.struct(field), cell, DecodeMode.DIRECT);
+    }
+
+    @Override
+    void setProto(int row, com.google.protobuf.Value value) {
+      if (value.getKindCase() == KindCase.NULL_VALUE) {
+        nulls.set(row);
+      }
+      // Use a single-cell struct to get the same decoding and type checking as for normal rows.
+      cell.set(0, GrpcStruct.decodeValue(type, value));
+      values[row] = cellStruct.getValue(0);
+    }
+
+    @Override
+    void setFromReader(int row, StructReader reader, int column) {
+      if (reader.isNull(column)) {
+        nulls.set(row);
+      }
+      values[row] = reader.getValue(column);
+    }
+
+    @Override
+    Value getValue(int row) {
+      return values[row];
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+/**
+ * Exception thrown by a {@link DatabaseClient} when a request is rejected because the client
+ * already executes as many requests as its adaptive concurrency limit allows. The request was not
+ * sent to Spanner. See {@link SessionPoolOptions.Builder#setAdaptiveConcurrencyLimit(int, int)}.
+ */
+public class ConcurrencyLimitExceededException extends SpannerException {
+  private static final long serialVersionUID = 1L;
+
+  private final int limit;
+
+  /** Private constructor. Use {@link SpannerExceptionFactory} to create instances. */
+  ConcurrencyLimitExceededException(DoNotConstructDirectly token, String message, int limit) {
+    super(token, ErrorCode.RESOURCE_EXHAUSTED, /* retryable= */ false, message, /* cause= */ null);
+    this.limit = limit;
+  }
+
+  /** Returns the concurrency limit of the client at the moment that the request was rejected. */
+  public int getLimit() {
+    return limit;
+  }
+}
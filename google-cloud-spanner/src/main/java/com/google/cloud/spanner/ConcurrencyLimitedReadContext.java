@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ConcurrencyLimiter.LimitedResultSet;
+import com.google.cloud.spanner.ConcurrencyLimiter.RequestType;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.cloud.spanner.Options.ReadOption;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ReadContext} that executes its synchronous reads and queries with a permit from a
+ * {@link ConcurrencyLimiter}. Asynchronous reads and queries are forwarded to the delegate without
+ * a permit.
+ */
+class ConcurrencyLimitedReadContext<T extends ReadContext> implements ReadContext {
+  final ConcurrencyLimiter limiter;
+  final T delegate;
+
+  ConcurrencyLimitedReadContext(ConcurrencyLimiter limiter, T delegate) {
+    this.limiter = limiter;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public ResultSet read(
+      String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+    return new LimitedResultSet(
+        limiter, RequestType.READ, () -> delegate.read(table, keys, columns, options));
+  }
+
+  @Override
+  public AsyncResultSet readAsync(
+      String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+    return delegate.readAsync(table, keys, columns, options);
+  }
+
+  @Override
+  public ResultSet readUsingIndex(
+      String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+    return new LimitedResultSet(
+        limiter,
+        RequestType.READ,
+        () -> delegate.readUsingIndex(table, index, keys, columns, options));
+  }
+
+  @Override
+  public AsyncResultSet readUsingIndexAsync(
+      String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+    return delegate.readUsingIndexAsync(table, index, keys, columns, options);
+  }
+
+  @Nullable
+  @Override
+  public Struct readRow(String table, Key key, Iterable<String> columns) {
+    return limiter.run(RequestType.READ, () -> delegate.readRow(table, key, columns));
+  }
+
+  @Override
+  public ApiFuture<Struct> readRowAsync(String table, Key key, Iterable<String> columns) {
+    return delegate.readRowAsync(table, key, columns);
+  }
+
+  @Nullable
+  @Override
+  public Struct readRowUsingIndex(String table, String index, Key key, Iterable<String> columns) {
+    return limiter.run(
+        RequestType.READ, () -> delegate.readRowUsingIndex(table, index, key, columns));
+  }
+
+  @Override
+  public ApiFuture<Struct> readRowUsingIndexAsync(
+      String table, String index, Key key, Iterable<String> columns) {
+    return delegate.readRowUsingIndexAsync(table, index, key, columns);
+  }
+
+  @Override
+  public ResultSet executeQuery(Statement statement, QueryOption... options) {
+    return new LimitedResultSet(
+        limiter, RequestType.QUERY, () -> delegate.executeQuery(statement, options));
+  }
+
+  @Override
+  public AsyncResultSet executeQueryAsync(Statement statement, QueryOption... options) {
+    return delegate.executeQueryAsync(statement, options);
+  }
+
+  @Override
+  public QueryPublisher executeQueryPublisher(Statement statement, QueryOption... options) {
+    return delegate.executeQueryPublisher(statement, options);
+  }
+
+  @Override
+  public ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode) {
+    return new LimitedResultSet(
+        limiter, RequestType.QUERY, () -> delegate.analyzeQuery(statement, queryMode));
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  /** A {@link ReadOnlyTransaction} that executes its reads and queries with a permit. */
+  static class ConcurrencyLimitedReadOnlyTransaction
+      extends ConcurrencyLimitedReadContext<ReadOnlyTransaction> implements ReadOnlyTransaction {
+    ConcurrencyLimitedReadOnlyTransaction(
+        ConcurrencyLimiter limiter, ReadOnlyTransaction delegate) {
+      super(limiter, delegate);
+    }
+
+    @Override
+    public Timestamp getReadTimestamp() {
+      return delegate.getReadTimestamp();
+    }
+  }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Timestamp;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * An adaptive limit on the number of requests that a {@link DatabaseClient} executes concurrently.
+ * The limit is adjusted with an additive-increase/multiplicative-decrease algorithm that is driven
+ * by the latency of the requests:
+ *
+ * <ul>
+ *   <li>A request that succeeds while at least half of the limit is in use increases the limit by
+ *       one, up to the max limit.
+ *   <li>The latency of each type of request is collected in windows of at least {@link #WINDOW}.
+ *       A window in which the {@link #LATENCY_PERCENTILE} latency is more than {@link
+ *       #LATENCY_TOLERANCE} times the baseline latency of that type of request, or a request that
+ *       fails with an error that indicates that Spanner is overloaded, multiplies the limit with
+ *       {@link #BACKOFF_RATIO}, down to the min limit. The limit is decreased at most once per
+ *       {@link #WINDOW}, and is not increased in the window after a decrease.
+ * </ul>
+ *
+ * <p>The baseline latency of a type of request is the lowest median latency of the windows of that
+ * type. It slowly follows higher medians, so a permanent change in the latency of a workload does
+ * not keep decreasing the limit.
+ *
+ * <p>A request that would exceed the limit is rejected immediately with a {@link
+ * ConcurrencyLimitExceededException}. This class is thread-safe.
+ */
+final class ConcurrencyLimiter {
+  /** The types of requests that are limited. The latency of each type is tracked separately. */
+  enum RequestType {
+    READ,
+    QUERY,
+    WRITE,
+    BATCH_WRITE,
+    TRANSACTION
+  }
+
+  /** The ratio that the limit is multiplied with when an overloaded backend is detected. */
+  @VisibleForTesting static final double BACKOFF_RATIO = 0.9d;
+
+  /**
+   * A window in which the {@link #LATENCY_PERCENTILE} latency is this many times higher than the
+   * baseline latency signals an overload.
+   */
+  @VisibleForTesting static final double LATENCY_TOLERANCE = 2.0d;
+
+  /** The percentile of the latency in a window that is compared with the baseline latency. */
+  @VisibleForTesting static final double LATENCY_PERCENTILE = 0.9d;
+
+  /** The min duration of a latency window, and the min time between two decreases of the limit. */
+  @VisibleForTesting static final Duration WINDOW = Duration.ofSeconds(1L);
+
+  /** The min number of samples in a window before the window is evaluated. */
+  @VisibleForTesting static final int MIN_WINDOW_SAMPLES = 10;
+
+  /** The max number of samples that are kept for a window. Additional samples are ignored. */
+  private static final int MAX_WINDOW_SAMPLES = 1000;
+
+  /** The weight of a window median that is higher than the current baseline latency. */
+  private static final double BASELINE_DRIFT = 0.05d;
+
+  /**
+   * The max time that a {@link LimitedResultSet} holds its permit. The permit of a result set that
+   * is neither iterated nor closed is reclaimed after this time.
+   */
+  @VisibleForTesting static final Duration LEASE_TIMEOUT = Duration.ofMinutes(1L);
+
+  /** The latency samples of one type of request in the current window. */
+  private static final class LatencyWindow {
+    private final long[] samples = new long[MAX_WINDOW_SAMPLES];
+    private int numSamples;
+    private long startNanos;
+    private double baselineNanos = -1d;
+
+    /**
+     * Records a latency sample, and evaluates the window if it has lasted long enough. Returns true
+     * if the window was evaluated and its latency signals an overload.
+     */
+    boolean record(long nowNanos, long latencyNanos) {
+      if (numSamples == 0) {
+        startNanos = nowNanos;
+      }
+      if (numSamples < samples.length) {
+        samples[numSamples++] = latencyNanos;
+      }
+      if (nowNanos - startNanos < WINDOW.toNanos() || numSamples < MIN_WINDOW_SAMPLES) {
+        return false;
+      }
+      long[] sorted = Arrays.copyOf(samples, numSamples);
+      Arrays.sort(sorted);
+      long median = sorted[(numSamples - 1) / 2];
+      long percentile = sorted[(int) Math.ceil(LATENCY_PERCENTILE * numSamples) - 1];
+      numSamples = 0;
+
+      boolean overloaded = baselineNanos > 0d && percentile > LATENCY_TOLERANCE * baselineNanos;
+      if (baselineNanos < 0d || median < baselineNanos) {
+        baselineNanos = median;
+      } else {
+        baselineNanos += BASELINE_DRIFT * (median - baselineNanos);
+      }
+      return overloaded;
+    }
+  }
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final Ticker ticker;
+
+  @GuardedBy("this")
+  private final Map<RequestType, LatencyWindow> windows = new EnumMap<>(RequestType.class);
+
+  /** The permits of result sets, in the order that they were acquired. */
+  @GuardedBy("this")
+  private final Set<Lease> leases = new LinkedHashSet<>();
+
+  @GuardedBy("this")
+  private double limit;
+
+  @GuardedBy("this")
+  private int inFlight;
+
+  @GuardedBy("this")
+  private boolean decreased;
+
+  @GuardedBy("this")
+  private long lastDecreaseNanos;
+
+  ConcurrencyLimiter(int minLimit, int maxLimit) {
+    this(minLimit, maxLimit, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  ConcurrencyLimiter(int minLimit, int maxLimit, Ticker ticker) {
+    Preconditions.checkArgument(
+        minLimit >= 1 && minLimit <= maxLimit, "minLimit must be between 1 and maxLimit");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.ticker = Preconditions.checkNotNull(ticker);
+    this.limit = maxLimit;
+    for (RequestType type : RequestType.values()) {
+      windows.put(type, new LatencyWindow());
+    }
+  }
+
+  /** Returns the current limit. */
+  synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  /** Returns the number of requests that currently hold a permit. */
+  synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Acquires a permit for a request.
+   *
+   * @throws ConcurrencyLimitExceededException if the limit has been reached
+   */
+  void acquire() {
+    int currentLimit;
+    synchronized (this) {
+      currentLimit = (int) limit;
+      if (inFlight >= currentLimit) {
+        reclaimExpiredLeases();
+      }
+      if (inFlight < currentLimit) {
+        inFlight++;
+        return;
+      }
+    }
+    throw SpannerExceptionFactory.newConcurrencyLimitExceededException(currentLimit);
+  }
+
+  /** Acquires a permit for a result set. The permit is reclaimed after {@link #LEASE_TIMEOUT}. */
+  Lease acquireLease(RequestType type) {
+    acquire();
+    Lease lease = new Lease(type, ticker.read());
+    synchronized (this) {
+      leases.add(lease);
+    }
+    return lease;
+  }
+
+  @GuardedBy("this")
+  private void reclaimExpiredLeases() {
+    long expiredBefore = ticker.read() - LEASE_TIMEOUT.toNanos();
+    Iterator<Lease> iterator = leases.iterator();
+    while (iterator.hasNext()) {
+      Lease lease = iterator.next();
+      if (lease.acquiredNanos - expiredBefore > 0L) {
+        // The leases are ordered by acquire time, so all remaining leases are newer.
+        break;
+      }
+      iterator.remove();
+      if (lease.released.compareAndSet(false, true)) {
+        inFlight = Math.max(0, inFlight - 1);
+      }
+    }
+  }
+
+  /**
+   * Releases a permit and adjusts the limit to the outcome of the request.
+   *
+   * @param type the type of the request
+   * @param latencyNanos the latency of the request, or a negative value if the latency of the
+   *     request should not be compared with the latency of other requests
+   * @param error the error that the request failed with, or null if it succeeded
+   */
+  void release(RequestType type, long latencyNanos, @Nullable Throwable error) {
+    long nowNanos = ticker.read();
+    synchronized (this) {
+      int inFlightBefore = inFlight;
+      inFlight = Math.max(0, inFlight - 1);
+      boolean overloaded = isOverloadError(error);
+      if (error == null && latencyNanos >= 0L) {
+        overloaded |= windows.get(type).record(nowNanos, latencyNanos);
+      }
+      boolean inWindowAfterDecrease =
+          decreased && nowNanos - lastDecreaseNanos < WINDOW.toNanos();
+      if (overloaded) {
+        if (!inWindowAfterDecrease) {
+          limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+          decreased = true;
+          lastDecreaseNanos = nowNanos;
+        }
+      } else if (error == null && !inWindowAfterDecrease && 2 * inFlightBefore >= limit) {
+        limit = Math.min(maxLimit, limit + 1d);
+      }
+    }
+  }
+
+  /** Releases a permit without adjusting the limit, for example for a request that was not used. */
+  synchronized void release() {
+    inFlight = Math.max(0, inFlight - 1);
+  }
+
+  /** Executes the given request with a permit and measures its latency. */
+  <T> T run(RequestType type, Supplier<T> request) {
+    acquire();
+    long startNanos = ticker.read();
+    try {
+      T result = request.get();
+      release(type, ticker.read() - startNanos, null);
+      return result;
+    } catch (RuntimeException e) {
+      release(type, ticker.read() - startNanos, e);
+      throw e;
+    }
+  }
+
+  /** A permit that is held by a result set. A permit is released at most once. */
+  final class Lease {
+    private final RequestType type;
+    private final long acquiredNanos;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Lease(RequestType type, long acquiredNanos) {
+      this.type = type;
+      this.acquiredNanos = acquiredNanos;
+    }
+
+    boolean isReleased() {
+      return released.get();
+    }
+
+    /** Releases the permit and adjusts the limit to the outcome of the request. */
+    void release(long latencyNanos, @Nullable Throwable error) {
+      if (released.compareAndSet(false, true)) {
+        synchronized (ConcurrencyLimiter.this) {
+          leases.remove(this);
+        }
+        ConcurrencyLimiter.this.release(type, latencyNanos, error);
+      }
+    }
+
+    /** Releases the permit without adjusting the limit. */
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        synchronized (ConcurrencyLimiter.this) {
+          leases.remove(this);
+          inFlight = Math.max(0, inFlight - 1);
+        }
+      }
+    }
+  }
+
+  @VisibleForTesting
+  static boolean isOverloadError(@Nullable Throwable error) {
+    // A ConcurrencyLimitExceededException uses RESOURCE_EXHAUSTED, but is raised by this client and
+    // not by Spanner, and does therefore not indicate that Spanner is overloaded.
+    if (!(error instanceof SpannerException)
+        || error instanceof ConcurrencyLimitExceededException) {
+      return false;
+    }
+    switch (((SpannerException) error).getErrorCode()) {
+      case RESOURCE_EXHAUSTED:
+      case DEADLINE_EXCEEDED:
+      case UNAVAILABLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * A {@link ResultSet} that holds a permit until the first call to {@link #next()} has returned,
+   * or until the result set is closed. The latency of the first call to {@link #next()} is the
+   * latency of the query, as result sets execute the query lazily.
+   *
+   * <p>The permit is not released by garbage collection. The permit of a result set that is neither
+   * iterated nor closed is instead reclaimed by the limiter after {@link #LEASE_TIMEOUT}, so a
+   * leaked result set does not permanently lower the number of requests that the client can
+   * execute concurrently. A query whose first call to {@link #next()} takes longer than that also
+   * loses its permit.
+   */
+  static final class LimitedResultSet extends ForwardingResultSet {
+    private final ConcurrencyLimiter limiter;
+    private final Lease lease;
+
+    LimitedResultSet(
+        ConcurrencyLimiter limiter, RequestType type, Supplier<ResultSet> resultSet) {
+      this(limiter, limiter.acquireLease(type), resultSet);
+    }
+
+    private LimitedResultSet(
+        ConcurrencyLimiter limiter, Lease lease, Supplier<ResultSet> resultSet) {
+      // The permit is acquired before the query is created, so the query fails fast if the limit
+      // has been reached.
+      super(create(lease, resultSet));
+      this.limiter = limiter;
+      this.lease = lease;
+    }
+
+    private static ResultSet create(Lease lease, Supplier<ResultSet> resultSet) {
+      try {
+        return resultSet.get();
+      } catch (RuntimeException e) {
+        lease.release();
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean next() throws SpannerException {
+      if (lease.isReleased()) {
+        return super.next();
+      }
+      long startNanos = limiter.ticker.read();
+      try {
+        boolean hasNext = super.next();
+        lease.release(limiter.ticker.read() - startNanos, null);
+        return hasNext;
+      } catch (RuntimeException e) {
+        lease.release(limiter.ticker.read() - startNanos, e);
+        throw e;
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        super.close();
+      } finally {
+        lease.release();
+      }
+    }
+  }
+
+  /**
+   * A {@link TransactionRunner} that holds a permit while the transaction runs. The latency of a
+   * transaction depends on the work that the application does in the transaction, and is therefore
+   * not compared with the latency of other requests. Errors that indicate that Spanner is
+   * overloaded still decrease the limit.
+   */
+  static final class LimitedTransactionRunner implements TransactionRunner {
+    private final ConcurrencyLimiter limiter;
+    private final TransactionRunner delegate;
+
+    LimitedTransactionRunner(ConcurrencyLimiter limiter, TransactionRunner delegate) {
+      this.limiter = limiter;
+      this.delegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    public <T> T run(TransactionCallable<T> callable) {
+      limiter.acquire();
+      try {
+        T result = delegate.run(callable);
+        limiter.release(RequestType.TRANSACTION, /* latencyNanos= */ -1L, null);
+        return result;
+      } catch (RuntimeException e) {
+        limiter.release(RequestType.TRANSACTION, /* latencyNanos= */ -1L, e);
+        throw e;
+      }
+    }
+
+    @Override
+    public Timestamp getCommitTimestamp() {
+      return delegate.getCommitTimestamp();
+    }
+
+    @Override
+    public CommitResponse getCommitResponse() {
+      return delegate.getCommitResponse();
+    }
+
+    @Override
+    public TransactionRunner allowNestedTransaction() {
+      delegate.allowNestedTransaction();
+      return this;
+    }
+  }
+}
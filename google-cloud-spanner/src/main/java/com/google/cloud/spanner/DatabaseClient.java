@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.BetaApi;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.RpcPriority;
@@ -627,4 +628,71 @@ public interface DatabaseClient {
   default StatementFactory getStatementFactory() {
     throw new UnsupportedOperationException("method should be overwritten");
   }
+
+  /**
+   * Returns a new {@link WriteBatcher} that combines the writes of many threads into shared
+   * commits. This can significantly increase the write throughput of an application that executes
+   * many small writes concurrently, as each commit has a fixed cost that is independent of the
+   * number of mutations in the commit. The returned {@link WriteBatcher} must be closed when it is
+   * no longer needed.
+   *
+   * <p>Example:
+   *
+   * <pre>{@code
+   * WriteBatcherOptions options =
+   *     WriteBatcherOptions.newBuilder()
+   *         .setMaxBatchMutations(500)
+   *         .setMaxBatchDelay(Duration.ofMillis(5))
+   *         .build();
+   * try (WriteBatcher batcher = dbClient.newWriteBatcher(options)) {
+   *   ApiFuture<CommitResponse> response =
+   *       batcher.write(
+   *           Collections.singletonList(
+   *               Mutation.newInsertBuilder("Singers")
+   *                   .set("SingerId").to(1L)
+   *                   .set("Name").to("Marc")
+   *                   .build()));
+   *   System.out.println(response.get().getCommitTimestamp());
+   * }
+   * }</pre>
+   *
+   * @param options the options for the batcher, such as the max size and delay of a batch
+   */
+  @BetaApi
+  default WriteBatcher newWriteBatcher(WriteBatcherOptions options) {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
+  /**
+   * Returns a new {@link BulkWriter} that writes an unbounded stream of {@link MutationGroup}s with
+   * BatchWrite requests. The writer packs the mutation groups into requests under the limits in
+   * the given options, executes multiple requests concurrently, and retries only the mutation
+   * groups that failed. This is intended for loading large amounts of data, for which the
+   * semantics of {@link #batchWriteAtLeastOnce(Iterable, TransactionOption...)} are acceptable.
+   * The returned {@link BulkWriter} must be closed when it is no longer needed.
+   *
+   * <p>Example:
+   *
+   * <pre>{@code
+   * try (BulkWriter writer =
+   *     dbClient.newBulkWriter(
+   *         BulkWriterOptions.newBuilder().setMaxConcurrentRequests(8).build(),
+   *         Options.priority(RpcPriority.LOW))) {
+   *   for (long singerId = 0L; singerId < 1_000_000L; singerId++) {
+   *     writer.add(
+   *         MutationGroup.of(
+   *             Mutation.newInsertBuilder("Singers").set("SingerId").to(singerId).build()));
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param options the options for the writer
+   * @param transactionOptions the options that are used for each BatchWrite request, such as the
+   *     priority or a transaction tag
+   */
+  @BetaApi
+  default BulkWriter newBulkWriter(
+      BulkWriterOptions options, TransactionOption... transactionOptions) {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
 }
@@ -18,6 +18,9 @@ package com.google.cloud.spanner;
 
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ConcurrencyLimitedReadContext.ConcurrencyLimitedReadOnlyTransaction;
+import com.google.cloud.spanner.ConcurrencyLimiter.LimitedTransactionRunner;
+import com.google.cloud.spanner.ConcurrencyLimiter.RequestType;
 import com.google.cloud.spanner.Options.TransactionOption;
 import com.google.cloud.spanner.Options.UpdateOption;
 import com.google.cloud.spanner.SessionPool.PooledSessionFuture;
@@ -26,6 +29,7 @@ import com.google.cloud.spanner.Statement.StatementFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.spanner.v1.BatchWriteResponse;
+import com.google.spanner.v1.RequestOptions.Priority;
 import io.opentelemetry.api.common.Attributes;
 import java.util.HashMap;
 import java.util.Map;
@@ -35,6 +39,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 class DatabaseClientImpl implements DatabaseClient {
@@ -118,6 +123,14 @@ class DatabaseClientImpl implements DatabaseClient {
     return pool.getSession();
   }
 
+  /**
+   * Returns a session from the pool. The priority determines the priority class of the request if
+   * it has to wait for a session.
+   */
+  private PooledSessionFuture getSession(@Nullable Priority priority) {
+    return pool.getSession(priority);
+  }
+
   @VisibleForTesting
   DatabaseClient getMultiplexedSession() {
     if (canUseMultiplexedSessions()) {
@@ -127,11 +140,11 @@ class DatabaseClientImpl implements DatabaseClient {
   }
 
   @VisibleForTesting
-  DatabaseClient getMultiplexedSessionForRW() {
+  DatabaseClient getMultiplexedSessionForRW(TransactionOption... options) {
     if (canUseMultiplexedSessionsForRW()) {
       return getMultiplexedSession();
     }
-    return getSession();
+    return getSession(Options.fromTransactionOptions(options).priority());
   }
 
   private MultiplexedSessionDatabaseClient getMultiplexedSessionDatabaseClient() {
@@ -188,6 +201,17 @@ class DatabaseClientImpl implements DatabaseClient {
     }
   }
 
+  @Override
+  public WriteBatcher newWriteBatcher(WriteBatcherOptions options) {
+    return new WriteBatcherImpl(this, options);
+  }
+
+  @Override
+  public BulkWriter newBulkWriter(
+      BulkWriterOptions options, TransactionOption... transactionOptions) {
+    return new BulkWriterImpl(this, options, transactionOptions);
+  }
+
   @Override
   @Nullable
   public String getDatabaseRole() {
@@ -205,13 +229,18 @@ class DatabaseClientImpl implements DatabaseClient {
       throws SpannerException {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      if (canUseMultiplexedSessionsForRW() && getMultiplexedSessionDatabaseClient() != null) {
-        return getMultiplexedSessionDatabaseClient().writeWithOptions(mutations, options);
-      }
-
-      return runWithSessionRetry(
-          (session, reqId) -> {
-            return session.writeWithOptions(mutations, withReqId(reqId, options));
+      return runWithConcurrencyLimit(
+          RequestType.WRITE,
+          () -> {
+            if (canUseMultiplexedSessionsForRW() && getMultiplexedSessionDatabaseClient() != null) {
+              return getMultiplexedSessionDatabaseClient().writeWithOptions(mutations, options);
+            }
+
+            return runWithSessionRetry(
+                Options.fromTransactionOptions(options).priority(),
+                (session, reqId) -> {
+                  return session.writeWithOptions(mutations, withReqId(reqId, options));
+                });
           });
     } catch (RuntimeException e) {
       span.setStatus(e);
@@ -232,13 +261,18 @@ class DatabaseClientImpl implements DatabaseClient {
       throws SpannerException {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      if (useMultiplexedSessionBlindWrite && getMultiplexedSessionDatabaseClient() != null) {
-        return getMultiplexedSessionDatabaseClient()
-            .writeAtLeastOnceWithOptions(mutations, options);
-      }
-      return runWithSessionRetry(
-          (session, reqId) ->
-              session.writeAtLeastOnceWithOptions(mutations, withReqId(reqId, options)));
+      return runWithConcurrencyLimit(
+          RequestType.WRITE,
+          () -> {
+            if (useMultiplexedSessionBlindWrite && getMultiplexedSessionDatabaseClient() != null) {
+              return getMultiplexedSessionDatabaseClient()
+                  .writeAtLeastOnceWithOptions(mutations, options);
+            }
+            return runWithSessionRetry(
+                Options.fromTransactionOptions(options).priority(),
+                (session, reqId) ->
+                    session.writeAtLeastOnceWithOptions(mutations, withReqId(reqId, options)));
+          });
     } catch (RuntimeException e) {
       span.setStatus(e);
       throw e;
@@ -262,12 +296,18 @@ class DatabaseClientImpl implements DatabaseClient {
       throws SpannerException {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      if (canUseMultiplexedSessionsForRW() && getMultiplexedSessionDatabaseClient() != null) {
-        return getMultiplexedSessionDatabaseClient().batchWriteAtLeastOnce(mutationGroups, options);
-      }
-      return runWithSessionRetry(
-          (session, reqId) ->
-              session.batchWriteAtLeastOnce(mutationGroups, withReqId(reqId, options)));
+      return runWithConcurrencyLimit(
+          RequestType.BATCH_WRITE,
+          () -> {
+            if (canUseMultiplexedSessionsForRW() && getMultiplexedSessionDatabaseClient() != null) {
+              return getMultiplexedSessionDatabaseClient()
+                  .batchWriteAtLeastOnce(mutationGroups, options);
+            }
+            return runWithSessionRetry(
+                Options.fromTransactionOptions(options).priority(),
+                (session, reqId) ->
+                    session.batchWriteAtLeastOnce(mutationGroups, withReqId(reqId, options)));
+          });
     } catch (RuntimeException e) {
       span.setStatus(e);
       throw e;
@@ -280,7 +320,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadContext singleUse() {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().singleUse();
+      return withConcurrencyLimit(getMultiplexedSession().singleUse());
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -292,7 +332,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadContext singleUse(TimestampBound bound) {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().singleUse(bound);
+      return withConcurrencyLimit(getMultiplexedSession().singleUse(bound));
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -304,7 +344,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadOnlyTransaction singleUseReadOnlyTransaction() {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().singleUseReadOnlyTransaction();
+      return withConcurrencyLimit(getMultiplexedSession().singleUseReadOnlyTransaction());
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -316,7 +356,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadOnlyTransaction singleUseReadOnlyTransaction(TimestampBound bound) {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().singleUseReadOnlyTransaction(bound);
+      return withConcurrencyLimit(getMultiplexedSession().singleUseReadOnlyTransaction(bound));
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -328,7 +368,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadOnlyTransaction readOnlyTransaction() {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().readOnlyTransaction();
+      return withConcurrencyLimit(getMultiplexedSession().readOnlyTransaction());
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -340,7 +380,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public ReadOnlyTransaction readOnlyTransaction(TimestampBound bound) {
     ISpan span = tracer.spanBuilder(READ_ONLY_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSession().readOnlyTransaction(bound);
+      return withConcurrencyLimit(getMultiplexedSession().readOnlyTransaction(bound));
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -352,7 +392,8 @@ class DatabaseClientImpl implements DatabaseClient {
   public TransactionRunner readWriteTransaction(TransactionOption... options) {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSessionForRW().readWriteTransaction(options);
+      return withConcurrencyLimit(
+          getMultiplexedSessionForRW(options).readWriteTransaction(options));
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -364,7 +405,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public TransactionManager transactionManager(TransactionOption... options) {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSessionForRW().transactionManager(options);
+      return getMultiplexedSessionForRW(options).transactionManager(options);
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -376,7 +417,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public AsyncRunner runAsync(TransactionOption... options) {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSessionForRW().runAsync(options);
+      return getMultiplexedSessionForRW(options).runAsync(options);
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -388,7 +429,7 @@ class DatabaseClientImpl implements DatabaseClient {
   public AsyncTransactionManager transactionManagerAsync(TransactionOption... options) {
     ISpan span = tracer.spanBuilder(READ_WRITE_TRANSACTION, commonAttributes, options);
     try (IScope s = tracer.withSpan(span)) {
-      return getMultiplexedSessionForRW().transactionManagerAsync(options);
+      return getMultiplexedSessionForRW(options).transactionManagerAsync(options);
     } catch (RuntimeException e) {
       span.setStatus(e);
       span.end();
@@ -447,11 +488,40 @@ class DatabaseClientImpl implements DatabaseClient {
     return allOptions;
   }
 
+  /**
+   * Executes the given request with a permit from the concurrency limiter of the pool, if the
+   * number of concurrent requests is limited.
+   */
+  private <T> T runWithConcurrencyLimit(RequestType type, Supplier<T> request) {
+    ConcurrencyLimiter limiter = pool.getConcurrencyLimiter();
+    return limiter == null ? request.get() : limiter.run(type, request);
+  }
+
+  private ReadContext withConcurrencyLimit(ReadContext readContext) {
+    ConcurrencyLimiter limiter = pool.getConcurrencyLimiter();
+    return limiter == null
+        ? readContext
+        : new ConcurrencyLimitedReadContext<>(limiter, readContext);
+  }
+
+  private ReadOnlyTransaction withConcurrencyLimit(ReadOnlyTransaction transaction) {
+    ConcurrencyLimiter limiter = pool.getConcurrencyLimiter();
+    return limiter == null
+        ? transaction
+        : new ConcurrencyLimitedReadOnlyTransaction(limiter, transaction);
+  }
+
+  private TransactionRunner withConcurrencyLimit(TransactionRunner runner) {
+    ConcurrencyLimiter limiter = pool.getConcurrencyLimiter();
+    return limiter == null ? runner : new LimitedTransactionRunner(limiter, runner);
+  }
+
   private long executePartitionedUpdateWithPooledSession(
       final Statement stmt, final UpdateOption... options) {
     ISpan span = tracer.spanBuilder(PARTITION_DML_TRANSACTION, commonAttributes);
     try (IScope s = tracer.withSpan(span)) {
       return runWithSessionRetry(
+          Options.fromUpdateOptions(options).priority(),
           (session, reqId) -> {
             return session.executePartitionedUpdate(stmt, withReqId(reqId, options));
           });
@@ -464,7 +534,12 @@ class DatabaseClientImpl implements DatabaseClient {
 
   @VisibleForTesting
   <T> T runWithSessionRetry(BiFunction<Session, XGoogSpannerRequestId, T> callable) {
-    PooledSessionFuture session = getSession();
+    return runWithSessionRetry(/* priority= */ null, callable);
+  }
+
+  private <T> T runWithSessionRetry(
+      @Nullable Priority priority, BiFunction<Session, XGoogSpannerRequestId, T> callable) {
+    PooledSessionFuture session = getSession(priority);
     XGoogSpannerRequestId reqId =
         XGoogSpannerRequestId.of(
             this.dbId, Long.valueOf(session.getChannel()), this.nextNthRequest(), 1);
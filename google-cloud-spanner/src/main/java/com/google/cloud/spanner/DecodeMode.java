@@ -32,4 +32,10 @@ public enum DecodeMode {
    * Decodes a columns of a row the first time the value of that column is retrieved from the row.
    */
   LAZY_PER_COL,
+  /**
+   * Decodes rows directly into per-column vectors when the {@link ResultSet} is consumed in batches
+   * with {@link ResultSet#nextBatch(int)}. Rows that are read with {@link ResultSet#next()} are
+   * decoded in the same way as with {@link #DIRECT}.
+   */
+  COLUMNAR,
 }
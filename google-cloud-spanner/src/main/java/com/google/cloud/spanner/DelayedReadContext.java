@@ -123,6 +123,28 @@ class DelayedReadContext<T extends ReadContext> implements ReadContext {
         Suppliers.memoize(() -> getReadContext().executeQueryAsync(statement, options)));
   }
 
+  @Override
+  public QueryPublisher executeQueryPublisher(Statement statement, QueryOption... options) {
+    // Subscribe to the actual read context once it is ready, so the subscriber is never blocked
+    // while the multiplexed session is being created.
+    return subscriber ->
+        readContextFuture.addListener(
+            () -> {
+              QueryPublisher publisher;
+              try {
+                publisher = getReadContext().executeQueryPublisher(statement, options);
+              } catch (Throwable t) {
+                publisher =
+                    new ResultSetPublisher(
+                        () -> {
+                          throw SpannerExceptionFactory.asSpannerException(t);
+                        });
+              }
+              publisher.subscribe(subscriber);
+            },
+            MoreExecutors.directExecutor());
+  }
+
   @Override
   public ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode) {
     return new ForwardingResultSet(
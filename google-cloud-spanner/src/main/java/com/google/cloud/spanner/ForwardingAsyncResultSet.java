@@ -49,6 +49,11 @@ public class ForwardingAsyncResultSet extends ForwardingResultSet implements Asy
     return getDelegate().setCallback(exec, cb);
   }
 
+  @Override
+  public ApiFuture<Void> setBatchCallback(Executor exec, int batchSize, BatchReadyCallback cb) {
+    return getDelegate().setBatchCallback(exec, batchSize, cb);
+  }
+
   @Override
   public void cancel() {
     getDelegate().cancel();
@@ -61,6 +61,11 @@ public class ForwardingResultSet extends ForwardingStructReader
     return delegate.get().next();
   }
 
+  @Override
+  public ColumnBatch nextBatch(int maxRows) throws SpannerException {
+    return delegate.get().nextBatch(maxRows);
+  }
+
   @Override
   public boolean canGetProtobufValue(int columnIndex) {
     ResultSet resultSetDelegate = delegate.get();
@@ -110,4 +115,10 @@ public class ForwardingResultSet extends ForwardingStructReader
   public boolean initiateStreaming(AsyncResultSet.StreamMessageListener streamMessageListener) {
     return StreamingUtil.initiateStreaming(delegate.get(), streamMessageListener);
   }
+
+  @Override
+  @InternalApi
+  public boolean isNextRowReady() {
+    return StreamingUtil.isNextRowReady(delegate.get());
+  }
 }
@@ -17,6 +17,7 @@
 package com.google.cloud.spanner;
 
 import static com.google.cloud.spanner.SpannerExceptionFactory.newSpannerException;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.api.core.InternalApi;
@@ -36,12 +37,14 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
   private final GrpcValueIterator iterator;
   private final Listener listener;
   private final DecodeMode decodeMode;
+  private final boolean reuseRows;
   private ResultSetMetadata metadata;
   private GrpcStruct currRow;
   private List<Object> rowData;
   private SpannerException error;
   private ResultSetStats statistics;
   private boolean closed;
+  private boolean batchMode;
 
   GrpcResultSet(CloseableIterator<PartialResultSet> iterator, Listener listener) {
     this(iterator, listener, DecodeMode.DIRECT);
@@ -49,9 +52,27 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
 
   GrpcResultSet(
       CloseableIterator<PartialResultSet> iterator, Listener listener, DecodeMode decodeMode) {
-    this.iterator = new GrpcValueIterator(iterator, listener);
+    this(iterator, listener, decodeMode, /* reuseRows= */ false);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      boolean reuseRows) {
+    this(iterator, listener, decodeMode, reuseRows, RowTypeCache.DISABLED);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      boolean reuseRows,
+      RowTypeCache rowTypeCache) {
+    this.iterator = new GrpcValueIterator(iterator, listener, rowTypeCache);
     this.listener = listener;
     this.decodeMode = decodeMode;
+    this.reuseRows = reuseRows;
   }
 
   @Override
@@ -69,36 +90,25 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
   @Override
   protected GrpcStruct currRow() {
     checkState(!closed, "ResultSet is closed");
-    checkState(currRow != null, "next() call required");
+    checkState(currRow != null && !batchMode, "next() call required");
     return currRow;
   }
 
+  @Override
+  public Struct getCurrentRowAsStruct() {
+    // The row object is re-used for all rows, so it can be returned directly if the caller has
+    // opted in to row reuse.
+    return reuseRows ? currRow() : currRow().immutableCopy();
+  }
+
   @Override
   public boolean next() throws SpannerException {
     if (error != null) {
       throw newSpannerException(error);
     }
     try {
-      if (currRow == null) {
-        metadata = iterator.getMetadata();
-        if (metadata.hasTransaction()) {
-          listener.onTransactionMetadata(
-              metadata.getTransaction(), iterator.isWithBeginTransaction());
-        } else if (iterator.isWithBeginTransaction()) {
-          // The query should have returned a transaction.
-          throw SpannerExceptionFactory.newSpannerException(
-              ErrorCode.FAILED_PRECONDITION, AbstractReadContext.NO_TRANSACTION_RETURNED_MSG);
-        }
-        if (rowData == null) {
-          rowData = new ArrayList<>(metadata.getRowType().getFieldsCount());
-          if (decodeMode != DecodeMode.DIRECT) {
-            rowData = Collections.synchronizedList(rowData);
-          }
-        } else {
-          rowData.clear();
-        }
-        currRow = new GrpcStruct(iterator.type(), rowData, decodeMode);
-      }
+      initialize();
+      batchMode = false;
       boolean hasNext = currRow.consumeRow(iterator);
       if (!hasNext) {
         statistics = iterator.getStats();
@@ -113,6 +123,74 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
     }
   }
 
+  @Override
+  @Nullable
+  public ColumnBatch nextBatch(int maxRows) throws SpannerException {
+    if (decodeMode != DecodeMode.COLUMNAR) {
+      return super.nextBatch(maxRows);
+    }
+    checkArgument(maxRows > 0, "maxRows must be > 0");
+    if (error != null) {
+      throw newSpannerException(error);
+    }
+    if (closed) {
+      return null;
+    }
+    try {
+      initialize();
+      batchMode = true;
+      ColumnBatch.Builder builder = new ColumnBatch.Builder(currRow.getType(), maxRows);
+      int columnCount = builder.getColumnCount();
+      while (builder.getRowCount() < maxRows && iterator.hasNext()) {
+        for (int col = 0; col < columnCount; col++) {
+          if (!iterator.hasNext()) {
+            throw newSpannerException(
+                ErrorCode.INTERNAL,
+                "Invalid value stream: end of stream reached before row is complete");
+          }
+          builder.setProtoValue(col, iterator.next());
+        }
+        builder.endRow();
+      }
+      if (builder.getRowCount() < maxRows) {
+        statistics = iterator.getStats();
+        // Close the ResultSet when there is no more data.
+        close();
+      }
+      return builder.getRowCount() == 0 ? null : builder.build();
+    } catch (Throwable t) {
+      throw yieldError(
+          SpannerExceptionFactory.asSpannerException(t),
+          iterator.isWithBeginTransaction() && currRow == null);
+    }
+  }
+
+  /** Reads the metadata of the result set and creates the row holder if not already done. */
+  private void initialize() {
+    if (currRow != null) {
+      return;
+    }
+    metadata = iterator.getMetadata();
+    if (metadata.hasTransaction()) {
+      listener.onTransactionMetadata(metadata.getTransaction(), iterator.isWithBeginTransaction());
+    } else if (iterator.isWithBeginTransaction()) {
+      // The query should have returned a transaction.
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.FAILED_PRECONDITION, AbstractReadContext.NO_TRANSACTION_RETURNED_MSG);
+    }
+    // Rows that are read with next() in COLUMNAR mode are decoded in the same way as DIRECT.
+    DecodeMode rowDecodeMode = decodeMode == DecodeMode.COLUMNAR ? DecodeMode.DIRECT : decodeMode;
+    if (rowData == null) {
+      rowData = new ArrayList<>(metadata.getRowType().getFieldsCount());
+      if (rowDecodeMode != DecodeMode.DIRECT) {
+        rowData = Collections.synchronizedList(rowData);
+      }
+    } else {
+      rowData.clear();
+    }
+    currRow = new GrpcStruct(iterator.type(), rowData, rowDecodeMode);
+  }
+
   @Override
   @Nullable
   public ResultSetStats getStats() {
@@ -131,6 +209,27 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
     return iterator.initiateStreaming(streamMessageListener);
   }
 
+  @Override
+  @InternalApi
+  public boolean isNextRowReady() {
+    if (error != null || closed) {
+      return true;
+    }
+    try {
+      if (currRow == null) {
+        if (!iterator.isReady(0)) {
+          return false;
+        }
+        initialize();
+      }
+      return iterator.isReady(currRow.getType().getStructFields().size());
+    } catch (Throwable t) {
+      throw yieldError(
+          SpannerExceptionFactory.asSpannerException(t),
+          iterator.isWithBeginTransaction() && currRow == null);
+    }
+  }
+
   @Override
   public void close() {
     synchronized (this) {
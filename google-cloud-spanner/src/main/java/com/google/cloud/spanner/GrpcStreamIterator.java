@@ -34,13 +34,33 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 
-/** Adapts a streaming read/query call into an iterator over partial result sets. */
+/**
+ * Adapts a streaming read/query call into an iterator over partial result sets.
+ *
+ * <p>The iterator keeps a window of {@code prefetchChunks} chunks requested from the server. If
+ * adaptive prefetching is enabled by setting a maximum number of prefetch bytes, the window is
+ * adjusted based on how fast the chunks are consumed: The window is doubled each time the consumer
+ * has drained the local queue, and shrunk by one chunk each time more than half of the window is
+ * waiting in the local queue. The window is never larger than the number of chunks of average size
+ * that fit in the maximum number of prefetch bytes.
+ */
 @VisibleForTesting
 class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
     implements CloseableIterator<PartialResultSet> {
   private static final Logger logger = Logger.getLogger(GrpcStreamIterator.class.getName());
   static final PartialResultSet END_OF_STREAM = PartialResultSet.newBuilder().build();
+
+  /** The maximum number of chunks that will be requested when adaptive prefetching is enabled. */
+  @VisibleForTesting static final int MAX_ADAPTIVE_PREFETCH_CHUNKS = 512;
+
   private final int prefetchChunks;
+  private final long maxPrefetchBytes;
+
+  /** The current number of chunks that are either requested or in the local queue. */
+  private volatile int window;
+
+  private long consumedBytes;
+  private long consumedChunks;
   private AsyncResultSet.StreamMessageListener streamMessageListener;
 
   private final ConsumerImpl consumer;
@@ -53,6 +73,7 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
   private long streamWaitTimeoutValue;
   private SpannerException error;
   private boolean done;
+  private boolean endOfStreamConsumed;
 
   @VisibleForTesting
   GrpcStreamIterator(int prefetchChunks, boolean cancelQueryWhenClientIsClosed) {
@@ -62,11 +83,37 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
   @VisibleForTesting
   GrpcStreamIterator(
       Statement statement, int prefetchChunks, boolean cancelQueryWhenClientIsClosed) {
+    this(statement, prefetchChunks, 0L, cancelQueryWhenClientIsClosed);
+  }
+
+  /**
+   * Creates a new iterator. Adaptive prefetching is enabled if {@code maxPrefetchBytes} is greater
+   * than 0. The window then starts at {@code prefetchChunks} chunks.
+   */
+  GrpcStreamIterator(
+      Statement statement,
+      int prefetchChunks,
+      long maxPrefetchBytes,
+      boolean cancelQueryWhenClientIsClosed) {
+    Preconditions.checkArgument(maxPrefetchBytes >= 0L, "maxPrefetchBytes must be >= 0");
     this.statement = statement;
-    this.prefetchChunks = prefetchChunks;
+    this.maxPrefetchBytes = maxPrefetchBytes;
+    this.prefetchChunks =
+        maxPrefetchBytes > 0L
+            ? Math.min(prefetchChunks, MAX_ADAPTIVE_PREFETCH_CHUNKS)
+            : prefetchChunks;
+    this.window = this.prefetchChunks;
     this.consumer = new ConsumerImpl(cancelQueryWhenClientIsClosed);
     // One extra to allow for END_OF_STREAM message.
-    this.stream = new LinkedBlockingQueue<>(prefetchChunks + 1);
+    this.stream =
+        new LinkedBlockingQueue<>(
+            (maxPrefetchBytes > 0L ? MAX_ADAPTIVE_PREFETCH_CHUNKS : prefetchChunks) + 1);
+  }
+
+  /** Returns the current number of chunks that are either requested or in the local queue. */
+  @VisibleForTesting
+  int getWindow() {
+    return window;
   }
 
   protected final SpannerRpc.ResultStreamConsumer consumer() {
@@ -118,6 +165,11 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
     return withBeginTransaction;
   }
 
+  @Override
+  public boolean isReady() {
+    return endOfStreamConsumed || !stream.isEmpty();
+  }
+
   @Override
   protected final PartialResultSet computeNext() {
     PartialResultSet next;
@@ -136,12 +188,16 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
       throw SpannerExceptionFactory.propagateInterrupt(e);
     }
     if (next != END_OF_STREAM) {
-      call.request(1);
+      int numMessages = maxPrefetchBytes > 0L ? adjustWindow(next) : 1;
+      if (numMessages > 0) {
+        call.request(numMessages);
+      }
       return next;
     }
 
     // All done - close() no longer needs to cancel the call.
     call = null;
+    endOfStreamConsumed = true;
 
     if (error != null) {
       throw SpannerExceptionFactory.newSpannerException(error);
@@ -151,6 +207,42 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
     return null;
   }
 
+  /**
+   * Adjusts the prefetch window after a chunk has been consumed and returns the number of chunks
+   * that should be requested from the server.
+   */
+  private int adjustWindow(PartialResultSet consumed) {
+    consumedBytes += consumed.getSerializedSize();
+    consumedChunks++;
+    long averageChunkSize = Math.max(1L, consumedBytes / consumedChunks);
+    int maxWindow =
+        (int)
+            Math.max(
+                1L, Math.min(MAX_ADAPTIVE_PREFETCH_CHUNKS, maxPrefetchBytes / averageChunkSize));
+    int currentWindow = window;
+    int queued = stream.size();
+    if (currentWindow > maxWindow || (currentWindow > 1 && queued > currentWindow / 2)) {
+      // The local queue is backing up or the window uses too much memory. Do not replace the
+      // chunk that was consumed.
+      window = currentWindow - 1;
+      return 0;
+    }
+    // The consumer has drained the local queue, and will have to wait for the next chunk.
+    if (queued == 0 && currentWindow < maxWindow) {
+      int newWindow = Math.min(currentWindow * 2, maxWindow);
+      window = newWindow;
+      return 1 + newWindow - currentWindow;
+    }
+    return 1;
+  }
+
+  private boolean isStreamFull() {
+    if (maxPrefetchBytes > 0L) {
+      return stream.size() >= window;
+    }
+    return stream.remainingCapacity() <= 1;
+  }
+
   private void addToStream(PartialResultSet results) {
     // We assume that nothing from the user will interrupt gRPC event threads.
     Uninterruptibles.putUninterruptibly(stream, results);
@@ -211,6 +303,6 @@ class GrpcStreamIterator extends AbstractIterator<PartialResultSet>
 
   private void onStreamMessage(PartialResultSet partialResultSet) {
     Optional.ofNullable(streamMessageListener)
-        .ifPresent(sl -> sl.onStreamMessage(partialResultSet, stream.remainingCapacity() <= 1));
+        .ifPresent(sl -> sl.onStreamMessage(partialResultSet, isStreamFull()));
   }
 }
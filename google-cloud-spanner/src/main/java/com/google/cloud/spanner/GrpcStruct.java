@@ -58,8 +58,21 @@ class GrpcStruct extends Struct implements Serializable {
   private static final com.google.protobuf.Value NULL_VALUE =
       com.google.protobuf.Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
 
+  /**
+   * Marker that is stored in {@link #rowData} for non-null values of fixed-width columns. The
+   * actual value of these columns is stored in {@link #primitiveData}, which prevents a boxed
+   * value from being created for each cell.
+   */
+  private static final Object PRIMITIVE_VALUE = new Object();
+
   private final Type type;
   private final List<Object> rowData;
+  /**
+   * Values of non-null BOOL, INT64, ENUM, PG_OID, FLOAT32 and FLOAT64 columns. This is only used
+   * for {@link DecodeMode#DIRECT}, and is null if the type does not contain any such columns.
+   */
+  private final long[] primitiveData;
+
   private final DecodeMode decodeMode;
   private final BitSet colDecoded;
   private final AtomicBoolean rowDecoded;
@@ -75,7 +88,7 @@ class GrpcStruct extends Struct implements Serializable {
       Type.StructField field = structFields.get(i);
       String fieldName = field.getName();
       ensureDecoded(i);
-      Object value = rowData.get(i);
+      Object value = getBoxedValue(i);
       Type fieldType = field.getType();
       switch (fieldType.getCode()) {
         case BOOL:
@@ -222,6 +235,9 @@ class GrpcStruct extends Struct implements Serializable {
     this(
         type,
         rowData,
+        decodeMode == DecodeMode.DIRECT && hasPrimitiveFields(type)
+            ? new long[type.getStructFields().size()]
+            : null,
         decodeMode,
         /* rowDecoded= */ false,
         /* colDecoded= */ decodeMode == DecodeMode.LAZY_PER_COL
@@ -232,11 +248,13 @@ class GrpcStruct extends Struct implements Serializable {
   private GrpcStruct(
       Type type,
       List<Object> rowData,
+      long[] primitiveData,
       DecodeMode decodeMode,
       boolean rowDecoded,
       BitSet colDecoded) {
     this.type = type;
     this.rowData = rowData;
+    this.primitiveData = primitiveData;
     this.decodeMode = decodeMode;
     this.rowDecoded = new AtomicBoolean(rowDecoded);
     this.colDecoded = colDecoded;
@@ -244,7 +262,90 @@ class GrpcStruct extends Struct implements Serializable {
 
   @Override
   public String toString() {
-    return this.rowData.toString();
+    if (primitiveData == null) {
+      return this.rowData.toString();
+    }
+    List<Object> values = new ArrayList<>(rowData.size());
+    for (int i = 0; i < rowData.size(); i++) {
+      values.add(getBoxedValue(i));
+    }
+    return values.toString();
+  }
+
+  private static boolean isPrimitiveType(Type type) {
+    switch (type.getCode()) {
+      case BOOL:
+      case INT64:
+      case PG_OID:
+      case ENUM:
+      case FLOAT64:
+      case FLOAT32:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean hasPrimitiveFields(Type type) {
+    for (StructField field : type.getStructFields()) {
+      if (isPrimitiveType(field.getType())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Decodes the given protobuf value and adds it as the next value of this struct. Non-null values
+   * of fixed-width columns are stored in {@link #primitiveData} if possible.
+   */
+  private void addDecodedValue(int columnIndex, Type fieldType, com.google.protobuf.Value proto) {
+    if (primitiveData != null
+        && proto.getKindCase() != KindCase.NULL_VALUE
+        && isPrimitiveType(fieldType)) {
+      primitiveData[columnIndex] = decodePrimitiveValue(fieldType, proto);
+      rowData.add(PRIMITIVE_VALUE);
+    } else {
+      rowData.add(decodeValue(fieldType, proto));
+    }
+  }
+
+  private static long decodePrimitiveValue(Type fieldType, com.google.protobuf.Value proto) {
+    switch (fieldType.getCode()) {
+      case BOOL:
+        checkType(fieldType, proto, KindCase.BOOL_VALUE);
+        return proto.getBoolValue() ? 1L : 0L;
+      case INT64:
+      case PG_OID:
+      case ENUM:
+        checkType(fieldType, proto, KindCase.STRING_VALUE);
+        return Long.parseLong(proto.getStringValue());
+      case FLOAT64:
+        return Double.doubleToRawLongBits(valueProtoToFloat64(proto));
+      case FLOAT32:
+        return Float.floatToRawIntBits(valueProtoToFloat32(proto));
+      default:
+        throw new AssertionError("Unhandled primitive type code: " + fieldType.getCode());
+    }
+  }
+
+  /** Returns the value at the given index, boxing it if it is stored as a primitive value. */
+  private Object getBoxedValue(int columnIndex) {
+    Object value = rowData.get(columnIndex);
+    if (value != PRIMITIVE_VALUE) {
+      return value;
+    }
+    long primitive = primitiveData[columnIndex];
+    switch (type.getStructFields().get(columnIndex).getType().getCode()) {
+      case BOOL:
+        return primitive != 0L;
+      case FLOAT64:
+        return Double.longBitsToDouble(primitive);
+      case FLOAT32:
+        return Float.intBitsToFloat((int) primitive);
+      default:
+        return primitive;
+    }
   }
 
   boolean consumeRow(Iterator<com.google.protobuf.Value> iterator) {
@@ -258,7 +359,8 @@ class GrpcStruct extends Struct implements Serializable {
       if (!iterator.hasNext()) {
         return false;
       }
-      for (Type.StructField fieldType : getType().getStructFields()) {
+      List<Type.StructField> fields = getType().getStructFields();
+      for (int i = 0; i < fields.size(); i++) {
         if (!iterator.hasNext()) {
           throw newSpannerException(
               ErrorCode.INTERNAL,
@@ -266,7 +368,7 @@ class GrpcStruct extends Struct implements Serializable {
         }
         com.google.protobuf.Value value = iterator.next();
         if (decodeMode == DecodeMode.DIRECT) {
-          rowData.add(decodeValue(fieldType.getType(), value));
+          addDecodedValue(i, fields.get(i).getType(), value);
         } else {
           rowData.add(value);
         }
@@ -275,7 +377,7 @@ class GrpcStruct extends Struct implements Serializable {
     }
   }
 
-  private static Object decodeValue(Type fieldType, com.google.protobuf.Value proto) {
+  static Object decodeValue(Type fieldType, com.google.protobuf.Value proto) {
     if (proto.getKindCase() == KindCase.NULL_VALUE) {
       return null;
     }
@@ -337,12 +439,13 @@ class GrpcStruct extends Struct implements Serializable {
     checkArgument(
         structValue.getValuesCount() == fieldTypes.size(),
         "Size mismatch between type descriptor and actual values.");
-    List<Object> fields = new ArrayList<>(fieldTypes.size());
+    GrpcStruct struct =
+        new GrpcStruct(structType, new ArrayList<>(fieldTypes.size()), DecodeMode.DIRECT);
     List<com.google.protobuf.Value> fieldValues = structValue.getValuesList();
     for (int i = 0; i < fieldTypes.size(); ++i) {
-      fields.add(decodeValue(fieldTypes.get(i).getType(), fieldValues.get(i)));
+      struct.addDecodedValue(i, fieldTypes.get(i).getType(), fieldValues.get(i));
     }
-    return new GrpcStruct(structType, fields, DecodeMode.DIRECT);
+    return struct;
   }
 
   static Object decodeArrayValue(Type elementType, ListValue listValue) {
@@ -376,8 +479,7 @@ class GrpcStruct extends Struct implements Serializable {
     }
   }
 
-  private static void checkType(
-      Type fieldType, com.google.protobuf.Value proto, KindCase expected) {
+  static void checkType(Type fieldType, com.google.protobuf.Value proto, KindCase expected) {
     if (proto.getKindCase() != expected) {
       throw newSpannerException(
           ErrorCode.INTERNAL,
@@ -397,6 +499,7 @@ class GrpcStruct extends Struct implements Serializable {
           this.decodeMode == DecodeMode.DIRECT
               ? new ArrayList<>(rowData)
               : Collections.synchronizedList(new ArrayList<>(rowData)),
+          this.primitiveData == null ? null : this.primitiveData.clone(),
           this.decodeMode,
           this.rowDecoded.get(),
           this.colDecoded == null ? null : (BitSet) this.colDecoded.clone());
@@ -456,25 +559,41 @@ class GrpcStruct extends Struct implements Serializable {
   @Override
   protected boolean getBooleanInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Boolean) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return primitiveData[columnIndex] != 0L;
+    }
+    return (Boolean) value;
   }
 
   @Override
   protected long getLongInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Long) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return primitiveData[columnIndex];
+    }
+    return (Long) value;
   }
 
   @Override
   protected double getDoubleInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Double) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return Double.longBitsToDouble(primitiveData[columnIndex]);
+    }
+    return (Double) value;
   }
 
   @Override
   protected float getFloatInternal(int columnIndex) {
     ensureDecoded(columnIndex);
-    return (Float) rowData.get(columnIndex);
+    Object value = rowData.get(columnIndex);
+    if (value == PRIMITIVE_VALUE) {
+      return Float.intBitsToFloat((int) primitiveData[columnIndex]);
+    }
+    return (Float) value;
   }
 
   @Override
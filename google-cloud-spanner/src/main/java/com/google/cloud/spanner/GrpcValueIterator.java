@@ -27,7 +27,7 @@ import com.google.protobuf.Value.KindCase;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.ResultSetStats;
-import com.google.spanner.v1.TypeCode;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -44,15 +44,25 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
   private Type type;
   private PartialResultSet current;
   private int pos;
+  /** Chunks that have been read from the stream by {@link #isReady(int)}, but not yet consumed. */
+  private final ArrayDeque<PartialResultSet> lookahead = new ArrayDeque<>();
+  /** The number of complete values in {@link #lookahead}. */
+  private int lookaheadValues;
   private ResultSetStats statistics;
   private final Listener listener;
+  private final RowTypeCache rowTypeCache;
 
   GrpcValueIterator(CloseableIterator<PartialResultSet> stream, Listener listener) {
+    this(stream, listener, RowTypeCache.DISABLED);
+  }
+
+  GrpcValueIterator(
+      CloseableIterator<PartialResultSet> stream, Listener listener, RowTypeCache rowTypeCache) {
     this.stream = stream;
     this.listener = listener;
+    this.rowTypeCache = rowTypeCache;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   protected com.google.protobuf.Value computeNext() {
     if (!ensureReady(StreamValue.RESULT)) {
@@ -73,10 +83,7 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
       return value;
     }
 
-    Object merged =
-        kind == KindCase.STRING_VALUE
-            ? value.getStringValue()
-            : new ArrayList<>(value.getListValue().getValuesList());
+    ChunkedValueBuilder merged = new ChunkedValueBuilder(value);
     while (current.getChunkedValue() && pos == current.getValuesCount()) {
       if (!ensureReady(StreamValue.RESULT)) {
         throw newSpannerException(
@@ -91,21 +98,9 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
                 + " but got: "
                 + newValue.getKindCase());
       }
-      if (kind == KindCase.STRING_VALUE) {
-        merged = merged + newValue.getStringValue();
-      } else {
-        concatLists(
-            (List<com.google.protobuf.Value>) merged, newValue.getListValue().getValuesList());
-      }
-    }
-    if (kind == KindCase.STRING_VALUE) {
-      return com.google.protobuf.Value.newBuilder().setStringValue((String) merged).build();
-    } else {
-      return com.google.protobuf.Value.newBuilder()
-          .setListValue(
-              ListValue.newBuilder().addAllValues((List<com.google.protobuf.Value>) merged))
-          .build();
+      merged.append(newValue);
     }
+    return merged.build();
   }
 
   ResultSetMetadata getMetadata() throws SpannerException {
@@ -136,12 +131,50 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
     return type;
   }
 
+  /**
+   * Returns true if the metadata and the next {@code numValues} values can be returned without
+   * waiting for more data from the server. Chunks that have already been received by the stream
+   * are moved to a local lookahead buffer.
+   */
+  boolean isReady(int numValues) throws SpannerException {
+    while ((type == null && current == null && lookahead.isEmpty())
+        || availableValues() < numValues) {
+      if (!stream.isReady()) {
+        return false;
+      }
+      if (!stream.hasNext()) {
+        return true;
+      }
+      PartialResultSet next = stream.next();
+      lookahead.add(next);
+      lookaheadValues += completeValues(next, 0);
+    }
+    return true;
+  }
+
+  /** Returns the number of complete values in the current chunk and the lookahead buffer. */
+  private int availableValues() {
+    return (current == null ? 0 : Math.max(0, completeValues(current, pos))) + lookaheadValues;
+  }
+
+  /**
+   * Returns the number of complete values in the given chunk starting at {@code from}. A chunked
+   * value is counted as part of the chunk that contains its last part.
+   */
+  private static int completeValues(PartialResultSet partialResultSet, int from) {
+    return partialResultSet.getValuesCount() - from - (partialResultSet.getChunkedValue() ? 1 : 0);
+  }
+
   private boolean ensureReady(StreamValue requiredValue) throws SpannerException {
     while (current == null || pos >= current.getValuesCount()) {
-      if (!stream.hasNext()) {
+      if (!lookahead.isEmpty()) {
+        current = lookahead.poll();
+        lookaheadValues -= completeValues(current, 0);
+      } else if (stream.hasNext()) {
+        current = stream.next();
+      } else {
         return false;
       }
-      current = stream.next();
       pos = 0;
       if (type == null) {
         // This is the first message on the stream.
@@ -149,13 +182,8 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
           throw newSpannerException(ErrorCode.INTERNAL, "Missing type metadata in first message");
         }
         metadata = current.getMetadata();
-        com.google.spanner.v1.Type typeProto =
-            com.google.spanner.v1.Type.newBuilder()
-                .setCode(TypeCode.STRUCT)
-                .setStructType(metadata.getRowType())
-                .build();
         try {
-          type = Type.fromProto(typeProto);
+          type = rowTypeCache.getRowType(metadata.getRowType());
         } catch (IllegalArgumentException e) {
           throw newSpannerException(
               ErrorCode.INTERNAL, "Invalid type metadata: " + e.getMessage(), e);
@@ -184,42 +212,75 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
   }
 
   /**
-   * @param a is a mutable list and b will be concatenated into a.
+   * Accumulates the chunks of a chunked value and builds the merged value once all chunks have been
+   * received. Strings are appended to a {@link StringBuilder}, and lists are appended to an {@link
+   * ArrayList}. The last element of a list is kept open in a nested builder, as it can be continued
+   * in the next chunk. This ensures that merging a value that has been split into many chunks takes
+   * linear time.
    */
-  private void concatLists(List<com.google.protobuf.Value> a, List<com.google.protobuf.Value> b) {
-    if (a.size() == 0 || b.size() == 0) {
-      a.addAll(b);
-      return;
-    } else {
-      com.google.protobuf.Value last = a.get(a.size() - 1);
-      com.google.protobuf.Value first = b.get(0);
-      KindCase lastKind = last.getKindCase();
-      KindCase firstKind = first.getKindCase();
-      if (isMergeable(lastKind) && lastKind == firstKind) {
-        com.google.protobuf.Value merged;
-        if (lastKind == KindCase.STRING_VALUE) {
-          String lastStr = last.getStringValue();
-          String firstStr = first.getStringValue();
-          merged =
-              com.google.protobuf.Value.newBuilder().setStringValue(lastStr + firstStr).build();
-        } else { // List
-          List<com.google.protobuf.Value> mergedList = new ArrayList<>();
-          mergedList.addAll(last.getListValue().getValuesList());
-          concatLists(mergedList, first.getListValue().getValuesList());
-          merged =
-              com.google.protobuf.Value.newBuilder()
-                  .setListValue(ListValue.newBuilder().addAllValues(mergedList))
-                  .build();
-        }
-        a.set(a.size() - 1, merged);
-        a.addAll(b.subList(1, b.size()));
+  private static final class ChunkedValueBuilder {
+    private final KindCase kind;
+    private StringBuilder stringValue;
+    private List<com.google.protobuf.Value> listValues;
+    /** The last element of the list if it is a string or a list that could be continued. */
+    private ChunkedValueBuilder last;
+
+    ChunkedValueBuilder(com.google.protobuf.Value value) {
+      this.kind = value.getKindCase();
+      if (kind == KindCase.STRING_VALUE) {
+        stringValue = new StringBuilder(value.getStringValue());
       } else {
-        a.addAll(b);
+        listValues = new ArrayList<>(value.getListValue().getValuesCount());
+        append(value);
+      }
+    }
+
+    /** Appends the given value to this value. The value must be of the same kind. */
+    void append(com.google.protobuf.Value value) {
+      if (kind == KindCase.STRING_VALUE) {
+        stringValue.append(value.getStringValue());
+        return;
       }
+      List<com.google.protobuf.Value> values = value.getListValue().getValuesList();
+      int size = values.size();
+      for (int i = 0; i < size; i++) {
+        com.google.protobuf.Value element = values.get(i);
+        KindCase elementKind = element.getKindCase();
+        if (i == 0 && last != null && last.kind == elementKind) {
+          // The first element continues the last element of the previous chunk.
+          last.append(element);
+          continue;
+        }
+        closeLast();
+        if (i == size - 1 && isMergeable(elementKind)) {
+          last = new ChunkedValueBuilder(element);
+        } else {
+          listValues.add(element);
+        }
+      }
+    }
+
+    private void closeLast() {
+      if (last != null) {
+        listValues.add(last.build());
+        last = null;
+      }
+    }
+
+    com.google.protobuf.Value build() {
+      if (kind == KindCase.STRING_VALUE) {
+        return com.google.protobuf.Value.newBuilder()
+            .setStringValue(stringValue.toString())
+            .build();
+      }
+      closeLast();
+      return com.google.protobuf.Value.newBuilder()
+          .setListValue(ListValue.newBuilder().addAllValues(listValues))
+          .build();
     }
   }
 
-  private boolean isMergeable(KindCase kind) {
+  private static boolean isMergeable(KindCase kind) {
     return kind == KindCase.STRING_VALUE || kind == KindCase.LIST_VALUE;
   }
 }
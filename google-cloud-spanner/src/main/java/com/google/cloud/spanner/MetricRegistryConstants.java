@@ -97,6 +97,13 @@ class MetricRegistryConstants {
   static final String NUM_RELEASED_SESSIONS_DESCRIPTION =
       "The number of sessions released by the user and pool maintainer.";
   static final String NUM_SESSIONS_IN_POOL_DESCRIPTION = "The number of sessions in the pool.";
+  static final String GET_SESSION_WAIT_LATENCIES = "spanner/get_session_wait_latencies";
+  static final String GET_SESSION_WAIT_LATENCIES_DESCRIPTION =
+      "The time that requests waited for a session because the session pool was exhausted.";
+  static final String PRIORITY_CLASS = "priority_class";
+  static final String CONCURRENCY_LIMIT = "spanner/concurrency_limit";
+  static final String CONCURRENCY_LIMIT_DESCRIPTION =
+      "The current adaptive limit on the number of concurrent requests of the client.";
 
   static final String SPANNER_GFE_LATENCY = "spanner/gfe_latency";
   static final String SPANNER_GFE_LATENCY_DESCRIPTION =
@@ -106,4 +113,21 @@ class MetricRegistryConstants {
   static final String SPANNER_GFE_HEADER_MISSING_COUNT_DESCRIPTION =
       "Number of RPC responses received without the server-timing header, most likely means that"
           + " the RPC never reached Google's network";
+
+  static final String RESUME_BUFFER_HIGH_WATER_MARK = "spanner/resume_buffer_high_water_mark";
+  static final String RESUME_BUFFER_HIGH_WATER_MARK_DESCRIPTION =
+      "The maximum number of bytes of partial result sets without a resume token that were"
+          + " buffered for a single read or query";
+  static final String RESUMABILITY_LOST_COUNT = "spanner/resumability_lost_count";
+  static final String RESUMABILITY_LOST_COUNT_DESCRIPTION =
+      "The number of times that the resume buffer of a read or query overflowed, which made the"
+          + " stream temporarily not resumable";
+  static final String STREAM_NAME = "stream_name";
+
+  static final String ROW_TYPE_CACHE_HIT_COUNT = "spanner/row_type_cache_hit_count";
+  static final String ROW_TYPE_CACHE_HIT_COUNT_DESCRIPTION =
+      "The number of result sets that re-used a cached row type";
+  static final String ROW_TYPE_CACHE_MISS_COUNT = "spanner/row_type_cache_miss_count";
+  static final String ROW_TYPE_CACHE_MISS_COUNT_DESCRIPTION =
+      "The number of result sets with a row type that was not in the row type cache";
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Stores the multiplexed sessions that have been created by a client in a file, so a client in a
+ * new process can reuse a multiplexed session instead of creating a new one. The file is a
+ * properties file with the name, the creation time and the database role of the session for each
+ * combination of endpoint and database, so clients that connect to different endpoints (e.g. the
+ * emulator and Spanner) do not share sessions.
+ *
+ * <p>The cache is only an optimization. Errors while reading or writing the file are logged and
+ * otherwise ignored.
+ */
+final class MultiplexedSessionCache {
+  private static final Logger logger = Logger.getLogger(MultiplexedSessionCache.class.getName());
+
+  private static final String SESSION_SUFFIX = ".session";
+  private static final String CREATE_TIME_SUFFIX = ".createTimeMillis";
+  private static final String DATABASE_ROLE_SUFFIX = ".databaseRole";
+
+  /** Serializes all updates of cache files in this process. */
+  private static final Object WRITE_LOCK = new Object();
+
+  /** A multiplexed session that was read from the cache. */
+  static final class CachedSession {
+    private final String name;
+    private final Instant createTime;
+
+    CachedSession(String name, Instant createTime) {
+      this.name = name;
+      this.createTime = createTime;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Instant getCreateTime() {
+      return createTime;
+    }
+  }
+
+  private final Path file;
+
+  private final String endpoint;
+
+  MultiplexedSessionCache(Path file, String endpoint) {
+    this.file = Preconditions.checkNotNull(file);
+    this.endpoint = Preconditions.checkNotNull(endpoint);
+  }
+
+  private String key(DatabaseId databaseId) {
+    return endpoint + "/" + databaseId.getName();
+  }
+
+  /**
+   * Returns the multiplexed session for the given database and database role, or null if the cache
+   * does not contain a session for that combination.
+   */
+  @Nullable
+  CachedSession get(DatabaseId databaseId, @Nullable String databaseRole) {
+    Properties properties = read();
+    if (properties == null) {
+      return null;
+    }
+    String key = key(databaseId);
+    String name = properties.getProperty(key + SESSION_SUFFIX);
+    String createTime = properties.getProperty(key + CREATE_TIME_SUFFIX);
+    if (name == null
+        || createTime == null
+        || !name.startsWith(databaseId.getName() + "/sessions/")
+        || !Strings.nullToEmpty(databaseRole)
+            .equals(properties.getProperty(key + DATABASE_ROLE_SUFFIX, ""))) {
+      return null;
+    }
+    try {
+      return new CachedSession(name, Instant.ofEpochMilli(Long.parseLong(createTime)));
+    } catch (NumberFormatException numberFormatException) {
+      return null;
+    }
+  }
+
+  /** Stores the given multiplexed session as the session for its database. */
+  void put(DatabaseId databaseId, @Nullable String databaseRole, String name, Instant createTime) {
+    synchronized (WRITE_LOCK) {
+      Properties properties = read();
+      if (properties == null) {
+        properties = new Properties();
+      }
+      String key = key(databaseId);
+      properties.setProperty(key + SESSION_SUFFIX, name);
+      properties.setProperty(key + CREATE_TIME_SUFFIX, String.valueOf(createTime.toEpochMilli()));
+      properties.setProperty(key + DATABASE_ROLE_SUFFIX, Strings.nullToEmpty(databaseRole));
+      write(properties);
+    }
+  }
+
+  /**
+   * Removes the given session from the cache. The cache is not changed if it contains a different
+   * session for the database, as that session could have been stored by another client.
+   */
+  void remove(DatabaseId databaseId, String name) {
+    synchronized (WRITE_LOCK) {
+      Properties properties = read();
+      String key = key(databaseId);
+      if (properties == null || !name.equals(properties.getProperty(key + SESSION_SUFFIX))) {
+        return;
+      }
+      properties.remove(key + SESSION_SUFFIX);
+      properties.remove(key + CREATE_TIME_SUFFIX);
+      properties.remove(key + DATABASE_ROLE_SUFFIX);
+      write(properties);
+    }
+  }
+
+  @Nullable
+  private Properties read() {
+    Properties properties = new Properties();
+    if (!Files.exists(file)) {
+      return properties;
+    }
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      properties.load(inputStream);
+      return properties;
+    } catch (IOException | IllegalArgumentException exception) {
+      logger.log(Level.WARNING, "Failed to read multiplexed session cache " + file, exception);
+      return null;
+    }
+  }
+
+  private void write(Properties properties) {
+    Path directory = file.toAbsolutePath().getParent();
+    Path tempFile = null;
+    try {
+      // Write to a temporary file and move that file, so other processes never read a partially
+      // written file.
+      tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        properties.store(outputStream, "Spanner multiplexed sessions");
+      }
+      try {
+        Files.move(
+            tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException exception) {
+      logger.log(Level.WARNING, "Failed to write multiplexed session cache " + file, exception);
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException ignore) {
+          // Ignore, the temporary file is only left behind.
+        }
+      }
+    }
+  }
+}
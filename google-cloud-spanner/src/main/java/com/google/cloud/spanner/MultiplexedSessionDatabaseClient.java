@@ -20,10 +20,12 @@ import static com.google.cloud.spanner.SessionImpl.NO_CHANNEL_HINT;
 import static com.google.cloud.spanner.SpannerExceptionFactory.newSpannerException;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
 import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.MultiplexedSessionCache.CachedSession;
 import com.google.cloud.spanner.Options.TransactionOption;
 import com.google.cloud.spanner.Options.UpdateOption;
 import com.google.cloud.spanner.SessionClient.SessionConsumer;
@@ -32,10 +34,13 @@ import com.google.cloud.spanner.SpannerException.ResourceNotFoundException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
 import com.google.spanner.v1.BatchWriteResponse;
 import com.google.spanner.v1.BeginTransactionRequest;
 import com.google.spanner.v1.RequestOptions;
 import com.google.spanner.v1.Transaction;
+import com.google.spanner.v1.TransactionOptions;
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -53,6 +58,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 
 /**
  * {@link TransactionRunner} that automatically handles "UNIMPLEMENTED" errors with the message
@@ -197,6 +203,10 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
         // synchronizing, as it does not really matter exactly which error is set.
         this.client.resourceNotFoundException.set((ResourceNotFoundException) spannerException);
       }
+      if (spannerException instanceof SessionNotFoundException) {
+        // Make sure that new clients do not pick up a session that no longer exists.
+        this.client.removeFromSessionCache(getName());
+      }
       // Mark multiplexed sessions for RW as unimplemented and fall back to regular sessions if
       // UNIMPLEMENTED with error message "Transaction type read_write not supported with
       // multiplexed sessions" is returned.
@@ -236,6 +246,11 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
       return new MultiplexedSessionTransactionRunner(this, pool, options);
     }
 
+    @Override
+    ByteString pollPreBegunTransactionId(Options options) {
+      return client.pollPreBegunTransactionId(getName(), options);
+    }
+
     @Override
     void onTransactionDone() {
       boolean markedDone = false;
@@ -266,6 +281,12 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
   private final int numChannels;
 
+  /**
+   * Single-use transactions do not get a channel hint if load-aware channel selection is enabled,
+   * as the RPCs are then sent on the least loaded channel.
+   */
+  private final boolean loadAwareChannelSelection;
+
   /**
    * The number of single-use read-only transactions currently running on this multiplexed session.
    */
@@ -278,6 +299,9 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
   private final SessionClient sessionClient;
 
+  /** Stores the multiplexed session for new processes, or null if sessions are not stored. */
+  @Nullable private final MultiplexedSessionCache sessionCache;
+
   private final TraceWrapper tracer;
 
   /** The current multiplexed session that is used by this client. */
@@ -305,6 +329,17 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
   private final AtomicReference<ResourceNotFoundException> resourceNotFoundException =
       new AtomicReference<>();
 
+  /** The read/write transaction options that transactions that were begun in advance use. */
+  private static final TransactionOptions PRE_BEGUN_TRANSACTION_OPTIONS =
+      SessionImpl.createReadWriteTransactionOptions(
+          Options.fromTransactionOptions(), /* previousTransactionId= */ null);
+
+  /**
+   * Read/write transactions that have been begun in advance on the multiplexed session, or null if
+   * read/write transactions are not begun in advance.
+   */
+  @Nullable private final PreBegunTransactionPool preBegunTransactions;
+
   private final AtomicLong numSessionsAcquired = new AtomicLong();
 
   private final AtomicLong numSessionsReleased = new AtomicLong();
@@ -336,6 +371,8 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
   @VisibleForTesting
   MultiplexedSessionDatabaseClient(SessionClient sessionClient, Clock clock) {
     this.numChannels = sessionClient.getSpanner().getOptions().getNumChannels();
+    this.loadAwareChannelSelection =
+        sessionClient.getSpanner().getOptions().isLoadAwareChannelSelectionEnabled();
     synchronized (CHANNEL_USAGE) {
       CHANNEL_USAGE.putIfAbsent(sessionClient.getSpanner(), new BitSet(numChannels));
       this.channelUsage = CHANNEL_USAGE.get(sessionClient.getSpanner());
@@ -352,42 +389,52 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
     // The time difference with the actual creation is small enough that it does not matter.
     this.expirationDate = new AtomicReference<>(Instant.now().plus(this.sessionExpirationDuration));
     this.sessionClient = sessionClient;
+    SessionPoolOptions sessionPoolOptions =
+        sessionClient.getSpanner().getOptions().getSessionPoolOptions();
+    if (sessionPoolOptions.getUseMultiplexedSessionForRW()
+        && sessionPoolOptions.getNumPreBegunReadWriteTransactions() > 0) {
+      this.preBegunTransactions =
+          new PreBegunTransactionPool(
+              sessionPoolOptions.getNumPreBegunReadWriteTransactions(),
+              PreBegunTransactionPool.DEFAULT_MAX_AGE,
+              clock,
+              this::beginReadWriteTransactionInAdvance);
+    } else {
+      this.preBegunTransactions = null;
+    }
     this.maintainer = new MultiplexedSessionMaintainer(clock);
     this.tracer = sessionClient.getSpanner().getTracer();
     final SettableApiFuture<SessionReference> initialSessionReferenceFuture =
         SettableApiFuture.create();
     this.readWriteBeginTransactionReferenceFuture = SettableApiFuture.create();
     this.multiplexedSessionReference = new AtomicReference<>(initialSessionReferenceFuture);
+    String sessionCacheFile =
+        sessionClient.getSpanner().getOptions().getMultiplexedSessionCacheFile();
+    this.sessionCache =
+        sessionCacheFile == null
+            ? null
+            : new MultiplexedSessionCache(
+                Paths.get(sessionCacheFile), sessionClient.getSpanner().getOptions().getHost());
+    SessionReference cachedSessionReference = getCachedSessionReference(clock);
+    if (cachedSessionReference != null) {
+      validateCachedSession(cachedSessionReference, initialSessionReferenceFuture, clock);
+    } else {
+      createInitialSession(initialSessionReferenceFuture, clock);
+    }
+    maybeWaitForSessionCreation(
+        sessionClient.getSpanner().getOptions().getSessionPoolOptions(),
+        initialSessionReferenceFuture);
+  }
+
+  private void createInitialSession(
+      SettableApiFuture<SessionReference> initialSessionReferenceFuture, Clock clock) {
     this.sessionClient.asyncCreateMultiplexedSession(
         new SessionConsumer() {
           @Override
           public void onSessionReady(SessionImpl session) {
             initialSessionReferenceFuture.set(session.getSessionReference());
-            // only start the maintainer if we actually managed to create a session in the first
-            // place.
-            maintainer.start();
-
-            // initiate a begin transaction request to verify if read-write transactions are
-            // supported using multiplexed sessions.
-            if (sessionClient
-                    .getSpanner()
-                    .getOptions()
-                    .getSessionPoolOptions()
-                    .getUseMultiplexedSessionForRW()
-                && !sessionClient
-                    .getSpanner()
-                    .getOptions()
-                    .getSessionPoolOptions()
-                    .getSkipVerifyBeginTransactionForMuxRW()) {
-              verifyBeginTransactionWithRWOnMultiplexedSessionAsync(session.getName());
-            }
-            if (sessionClient
-                .getSpanner()
-                .getOptions()
-                .getSessionPoolOptions()
-                .isAutoDetectDialect()) {
-              MAINTAINER_SERVICE.submit(() -> getDialect());
-            }
+            storeInSessionCache(session.getSessionReference(), clock);
+            onInitialSessionReady(session.getName());
           }
 
           @Override
@@ -398,9 +445,124 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
             initialSessionReferenceFuture.setException(t);
           }
         });
-    maybeWaitForSessionCreation(
-        sessionClient.getSpanner().getOptions().getSessionPoolOptions(),
-        initialSessionReferenceFuture);
+  }
+
+  /**
+   * Reuses the session that was stored by an earlier client if it still exists on the server.
+   * Otherwise, the session is removed from the cache and a new session is created. The maintainer
+   * replaces a reused session in the background when it passes the maintenance duration.
+   */
+  private void validateCachedSession(
+      SessionReference cachedSessionReference,
+      SettableApiFuture<SessionReference> initialSessionReferenceFuture,
+      Clock clock) {
+    ApiFuture<com.google.spanner.v1.Session> sessionFuture;
+    try {
+      sessionFuture =
+          sessionClient
+              .getSpanner()
+              .getRpc()
+              .asyncGetSession(cachedSessionReference.getName(), /* options= */ null);
+    } catch (UnsupportedOperationException unsupportedOperationException) {
+      createInitialSession(initialSessionReferenceFuture, clock);
+      return;
+    }
+    ApiFutures.addCallback(
+        sessionFuture,
+        new ApiFutureCallback<com.google.spanner.v1.Session>() {
+          @Override
+          public void onSuccess(com.google.spanner.v1.Session session) {
+            expirationDate.set(
+                cachedSessionReference.getCreateTime().plus(sessionExpirationDuration));
+            initialSessionReferenceFuture.set(cachedSessionReference);
+            onInitialSessionReady(cachedSessionReference.getName());
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            if (newSpannerException(t).getErrorCode() == ErrorCode.NOT_FOUND) {
+              removeFromSessionCache(cachedSessionReference.getName());
+            }
+            createInitialSession(initialSessionReferenceFuture, clock);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void onInitialSessionReady(String sessionName) {
+    // only start the maintainer if we actually managed to create a session in the first
+    // place.
+    maintainer.start();
+
+    // initiate a begin transaction request to verify if read-write transactions are
+    // supported using multiplexed sessions.
+    if (sessionClient
+            .getSpanner()
+            .getOptions()
+            .getSessionPoolOptions()
+            .getUseMultiplexedSessionForRW()
+        && !sessionClient
+            .getSpanner()
+            .getOptions()
+            .getSessionPoolOptions()
+            .getSkipVerifyBeginTransactionForMuxRW()) {
+      verifyBeginTransactionWithRWOnMultiplexedSessionAsync(sessionName);
+    }
+    if (sessionClient.getSpanner().getOptions().getSessionPoolOptions().isAutoDetectDialect()) {
+      MAINTAINER_SERVICE.submit(() -> getDialect());
+    }
+  }
+
+  /**
+   * Returns a reference to the multiplexed session for this database in the session cache, or null
+   * if there is no cache, or if the session in the cache has passed the maintenance duration.
+   */
+  @Nullable
+  private SessionReference getCachedSessionReference(Clock clock) {
+    if (sessionCache == null) {
+      return null;
+    }
+    CachedSession cachedSession =
+        sessionCache.get(
+            sessionClient.getDatabaseId(),
+            sessionClient.getSpanner().getOptions().getDatabaseRole());
+    if (cachedSession == null
+        || !clock
+            .instant()
+            .isBefore(cachedSession.getCreateTime().plus(this.sessionExpirationDuration))) {
+      return null;
+    }
+    return new SessionReference(
+        cachedSession.getName(),
+        com.google.protobuf.Timestamp.newBuilder()
+            .setSeconds(cachedSession.getCreateTime().getEpochSecond())
+            .setNanos(cachedSession.getCreateTime().getNano())
+            .build(),
+        /* isMultiplexed= */ true,
+        /* options= */ null);
+  }
+
+  private void storeInSessionCache(SessionReference sessionReference, Clock clock) {
+    if (sessionCache == null) {
+      return;
+    }
+    // Fall back to the current time if the server did not return a creation time.
+    Instant createTime = sessionReference.getCreateTime();
+    if (createTime == null || createTime.equals(Instant.EPOCH)) {
+      createTime = clock.instant();
+    }
+    sessionCache.put(
+        sessionClient.getDatabaseId(),
+        sessionClient.getSpanner().getOptions().getDatabaseRole(),
+        sessionReference.getName(),
+        createTime);
+  }
+
+  private void removeFromSessionCache(String sessionName) {
+    if (sessionCache == null) {
+      return;
+    }
+    sessionCache.remove(sessionClient.getDatabaseId(), sessionName);
   }
 
   void setPool(SessionPool pool) {
@@ -508,6 +670,46 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
         MoreExecutors.directExecutor());
   }
 
+  private ApiFuture<ByteString> beginReadWriteTransactionInAdvance(String sessionName) {
+    BeginTransactionRequest request =
+        BeginTransactionRequest.newBuilder()
+            .setSession(sessionName)
+            .setOptions(
+                sessionClient.getSpanner().getOptions().getDefaultTransactionOptions().toBuilder()
+                    .mergeFrom(PRE_BEGUN_TRANSACTION_OPTIONS))
+            .build();
+    return ApiFutures.transform(
+        sessionClient
+            .getSpanner()
+            .getRpc()
+            .beginTransactionAsync(request, /* options= */ null, /* routeToLeader= */ true),
+        Transaction::getId,
+        MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Returns the id of a read/write transaction that was begun in advance on the given multiplexed
+   * session, or null if no such transaction is available or the given options require a
+   * transaction with different options.
+   */
+  @Nullable
+  ByteString pollPreBegunTransactionId(String sessionName, Options options) {
+    if (preBegunTransactions == null
+        || !isMultiplexedSessionsForRWSupported()
+        || !PRE_BEGUN_TRANSACTION_OPTIONS.equals(
+            SessionImpl.createReadWriteTransactionOptions(
+                options, /* previousTransactionId= */ null))) {
+      return null;
+    }
+    return preBegunTransactions.poll(sessionName);
+  }
+
+  @VisibleForTesting
+  @Nullable
+  PreBegunTransactionPool getPreBegunTransactions() {
+    return this.preBegunTransactions;
+  }
+
   boolean isValid() {
     return resourceNotFoundException.get() == null;
   }
@@ -537,6 +739,9 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
       if (!this.isClosed) {
         this.isClosed = true;
         this.maintainer.stop();
+        if (this.preBegunTransactions != null) {
+          this.preBegunTransactions.close();
+        }
       }
     }
   }
@@ -612,7 +817,8 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
   }
 
   private int getSingleUseChannelHint() {
-    if (this.numCurrentSingleUseTransactions.incrementAndGet() > this.numChannels) {
+    if (this.numCurrentSingleUseTransactions.incrementAndGet() > this.numChannels
+        || this.loadAwareChannelSelection) {
       return NO_CHANNEL_HINT;
     }
     synchronized (this.channelUsage) {
@@ -767,6 +973,8 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
     private ScheduledFuture<?> scheduledFuture;
 
+    private ScheduledFuture<?> refreshPreBegunTransactionsFuture;
+
     MultiplexedSessionMaintainer(Clock clock) {
       this.clock = clock;
     }
@@ -784,12 +992,41 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
       this.scheduledFuture =
           MAINTAINER_SERVICE.scheduleAtFixedRate(
               this::maintain, loopFrequencyMillis, loopFrequencyMillis, TimeUnit.MILLISECONDS);
+      if (preBegunTransactions != null) {
+        // Transactions that are begun in advance must be replaced long before the maintenance loop
+        // would run, so these are refreshed in a separate loop. The first refresh fills the pool.
+        long refreshIntervalMillis = preBegunTransactions.getRefreshInterval().toMillis();
+        this.refreshPreBegunTransactionsFuture =
+            MAINTAINER_SERVICE.scheduleAtFixedRate(
+                this::refreshPreBegunTransactions,
+                0L,
+                refreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+      }
     }
 
     void stop() {
       if (this.scheduledFuture != null) {
         this.scheduledFuture.cancel(false);
       }
+      if (this.refreshPreBegunTransactionsFuture != null) {
+        this.refreshPreBegunTransactionsFuture.cancel(false);
+      }
+    }
+
+    void refreshPreBegunTransactions() {
+      ApiFuture<SessionReference> sessionReference = multiplexedSessionReference.get();
+      if (preBegunTransactions == null
+          || !sessionReference.isDone()
+          || !isMultiplexedSessionsForRWSupported()) {
+        return;
+      }
+      try {
+        preBegunTransactions.refresh(sessionReference.get().getName());
+      } catch (Throwable ignore) {
+        // Ignore any errors, as transactions that are begun in advance are only an optimization.
+        // An exception in a scheduled task would also stop all future refreshes.
+      }
     }
 
     void maintain() {
@@ -800,6 +1037,7 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
               public void onSessionReady(SessionImpl session) {
                 multiplexedSessionReference.set(
                     ApiFutures.immediateFuture(session.getSessionReference()));
+                storeInSessionCache(session.getSessionReference(), clock);
                 expirationDate.set(
                     clock
                         .instant()
@@ -19,14 +19,19 @@ package com.google.cloud.spanner;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.cloud.Timestamp;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ListValue;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -406,7 +411,9 @@ public final class Mutation implements Serializable {
 
   /**
    * Converts the list of mutations to the corresponding protobuf mutations and returns a random
-   * mutation from the available list based on the following heuristics:
+   * mutation from the available list. If {@code coalesce} is true, the mutations are first
+   * reordered with {@link #coalesce(Iterable)}. The random mutation is selected based on the
+   * following heuristics:
    *
    * <ol>
    *   <li>1. Prefer mutations other than INSERT, as INSERT mutations may contain autogenerated
@@ -415,36 +422,82 @@ public final class Mutation implements Serializable {
    *       values.
    * </ol>
    */
+  static com.google.spanner.v1.Mutation toProtoAndReturnRandomMutation(
+      Iterable<Mutation> mutations, List<com.google.spanner.v1.Mutation> out, boolean coalesce) {
+    return toProtoAndReturnRandomMutation(coalesce ? coalesce(mutations) : mutations, out);
+  }
+
+  /**
+   * Converts the list of mutations to the corresponding protobuf mutations and returns a random
+   * mutation. Mutations with the same operation, table and columns are only coalesced if they
+   * directly follow each other. See {@link #toProtoAndReturnRandomMutation(Iterable, List,
+   * boolean)}.
+   */
   static com.google.spanner.v1.Mutation toProtoAndReturnRandomMutation(
       Iterable<Mutation> mutations, List<com.google.spanner.v1.Mutation> out) {
-    Mutation last = null;
+    ProtoEncoder encoder = new ProtoEncoder();
+    for (Mutation mutation : mutations) {
+      encoder.add(mutation);
+    }
+    return encoder.finish(out);
+  }
+
+  /**
+   * Returns the size in bytes of the protobuf mutations that the given mutations are converted to.
+   * This is used as an estimate of the size of the mutations in a request.
+   */
+  static long getSerializedSize(Iterable<Mutation> mutations) {
+    List<com.google.spanner.v1.Mutation> protos = new ArrayList<>();
+    toProtoAndReturnRandomMutation(mutations, protos);
+    long size = 0L;
+    for (com.google.spanner.v1.Mutation proto : protos) {
+      size += proto.getSerializedSize();
+    }
+    return size;
+  }
+
+  /**
+   * Incrementally converts mutations to the corresponding protobuf mutations. Mutations with the
+   * same operation, table and columns that directly follow each other are coalesced into one
+   * protobuf mutation. The values of a mutation are converted to protobuf when the mutation is
+   * added, so the encoder does not keep a reference to the mutations that have been added.
+   *
+   * <p>This class is not thread-safe.
+   */
+  static final class ProtoEncoder {
+    // The operation, table and columns of the last mutation that was added, for coalescing.
+    private Op lastOperation;
+    private String lastTable;
+    private ImmutableList<String> lastColumns;
     // The mutation currently being built.
-    com.google.spanner.v1.Mutation.Builder proto = null;
+    private com.google.spanner.v1.Mutation.Builder proto;
     // The "write" (!= DELETE) or "keySet" (==DELETE) for the last mutation encoded, for coalescing.
-    com.google.spanner.v1.Mutation.Write.Builder write = null;
-    com.google.spanner.v1.KeySet.Builder keySet = null;
+    private com.google.spanner.v1.Mutation.Write.Builder write;
+    private com.google.spanner.v1.KeySet.Builder keySet;
 
+    private final List<com.google.spanner.v1.Mutation> built = new ArrayList<>();
     // Stores all the mutations excluding INSERT mutations.
-    List<com.google.spanner.v1.Mutation> allMutationsExcludingInsert = new ArrayList<>();
+    private final List<com.google.spanner.v1.Mutation> allMutationsExcludingInsert =
+        new ArrayList<>();
     // Stores the INSERT mutation with largest number of values.
-    com.google.spanner.v1.Mutation largestInsertMutation =
+    private com.google.spanner.v1.Mutation largestInsertMutation =
         com.google.spanner.v1.Mutation.getDefaultInstance();
 
-    for (Mutation mutation : mutations) {
+    private boolean finished;
+
+    /** Returns true if no mutations have been added to this encoder. */
+    boolean isEmpty() {
+      return proto == null;
+    }
+
+    /** Converts the given mutation to protobuf and adds it to the encoded mutations. */
+    void add(Mutation mutation) {
+      checkState(!finished, "This encoder has already finished");
       if (mutation.operation == Op.DELETE) {
-        if (last != null && last.operation == Op.DELETE && mutation.table.equals(last.table)) {
+        if (lastOperation == Op.DELETE && mutation.table.equals(lastTable)) {
           mutation.keySet.appendToProto(keySet);
         } else {
-          if (proto != null) {
-            com.google.spanner.v1.Mutation builtMutation = proto.build();
-            out.add(builtMutation);
-            // Skip tracking the largest insert mutation if there are mutations other than INSERT.
-            if (allMutationsExcludingInsert.isEmpty()
-                && checkIfInsertMutationWithLargeValue(builtMutation, largestInsertMutation)) {
-              largestInsertMutation = builtMutation;
-            }
-            maybeAddMutationToListExcludingInserts(builtMutation, allMutationsExcludingInsert);
-          }
+          flush();
           proto = com.google.spanner.v1.Mutation.newBuilder();
           com.google.spanner.v1.Mutation.Delete.Builder delete =
               proto.getDeleteBuilder().setTable(mutation.table);
@@ -457,23 +510,14 @@ public final class Mutation implements Serializable {
         for (Value value : mutation.getValues()) {
           values.addValues(value.toProto());
         }
-        if (last != null
-            && mutation.operation == last.operation
-            && mutation.table.equals(last.table)
-            && mutation.columns.equals(last.columns)) {
+        if (lastOperation != null
+            && mutation.operation == lastOperation
+            && mutation.table.equals(lastTable)
+            && mutation.columns.equals(lastColumns)) {
           // Same as previous mutation: coalesce values to reduce request size.
           write.addValues(values);
         } else {
-          if (proto != null) {
-            com.google.spanner.v1.Mutation builtMutation = proto.build();
-            out.add(builtMutation);
-            // Skip tracking the largest insert mutation if there are mutations other than INSERT.
-            if (allMutationsExcludingInsert.isEmpty()
-                && checkIfInsertMutationWithLargeValue(builtMutation, largestInsertMutation)) {
-              largestInsertMutation = builtMutation;
-            }
-            maybeAddMutationToListExcludingInserts(builtMutation, allMutationsExcludingInsert);
-          }
+          flush();
           proto = com.google.spanner.v1.Mutation.newBuilder();
           switch (mutation.operation) {
             case INSERT:
@@ -495,50 +539,269 @@ public final class Mutation implements Serializable {
         }
         keySet = null;
       }
-      last = mutation;
+      lastOperation = mutation.operation;
+      lastTable = mutation.table;
+      lastColumns = mutation.columns;
     }
-    // Flush last item.
-    if (proto != null) {
+
+    /**
+     * Adds the encoded mutations to {@code out} and returns a random mutation based on the
+     * heuristics that are described in {@link #toProtoAndReturnRandomMutation(Iterable, List,
+     * boolean)}. No more mutations can be added after this method has been called.
+     */
+    com.google.spanner.v1.Mutation finish(List<com.google.spanner.v1.Mutation> out) {
+      checkState(!finished, "This encoder has already finished");
+      finished = true;
+      // Flush last item.
+      flush();
+      out.addAll(built);
+
+      // Select a random mutation based on the heuristic.
+      if (!allMutationsExcludingInsert.isEmpty()) {
+        return allMutationsExcludingInsert.get(
+            ThreadLocalRandom.current().nextInt(allMutationsExcludingInsert.size()));
+      } else {
+        return largestInsertMutation;
+      }
+    }
+
+    private void flush() {
+      if (proto == null) {
+        return;
+      }
       com.google.spanner.v1.Mutation builtMutation = proto.build();
-      out.add(proto.build());
+      built.add(builtMutation);
       // Skip tracking the largest insert mutation if there are mutations other than INSERT.
       if (allMutationsExcludingInsert.isEmpty()
           && checkIfInsertMutationWithLargeValue(builtMutation, largestInsertMutation)) {
         largestInsertMutation = builtMutation;
       }
-      maybeAddMutationToListExcludingInserts(builtMutation, allMutationsExcludingInsert);
+      if (!builtMutation.hasInsert()) {
+        allMutationsExcludingInsert.add(builtMutation);
+      }
     }
 
-    // Select a random mutation based on the heuristic.
-    if (!allMutationsExcludingInsert.isEmpty()) {
-      return allMutationsExcludingInsert.get(
-          ThreadLocalRandom.current().nextInt(allMutationsExcludingInsert.size()));
-    } else {
-      return largestInsertMutation;
+    // Returns true if the input mutation is of type INSERT and has more values than the current
+    // largest insert mutation.
+    private static boolean checkIfInsertMutationWithLargeValue(
+        com.google.spanner.v1.Mutation mutation,
+        com.google.spanner.v1.Mutation largestInsertMutation) {
+      // If largestInsertMutation is a default instance of Mutation, replace it with the current
+      // INSERT mutation, even if it contains zero values.
+      if (mutation.hasInsert() && !largestInsertMutation.hasInsert()) {
+        return true;
+      }
+      return mutation.hasInsert()
+          && mutation.getInsert().getValuesCount()
+              > largestInsertMutation.getInsert().getValuesCount();
     }
   }
 
-  // Returns true if the input mutation is of type INSERT and has more values than the current
-  // largest insert mutation.
-  private static boolean checkIfInsertMutationWithLargeValue(
-      com.google.spanner.v1.Mutation mutation,
-      com.google.spanner.v1.Mutation largestInsertMutation) {
-    // If largestInsertMutation is a default instance of Mutation, replace it with the current
-    // INSERT mutation, even if it contains zero values.
-    if (mutation.hasInsert() && !largestInsertMutation.hasInsert()) {
-      return true;
+  /**
+   * Returns the given mutations in an order in which the mutations with the same operation, table
+   * and columns directly follow each other, so that they are encoded as one protobuf mutation. The
+   * mutations of each group keep their relative order, and the groups are ordered by their first
+   * mutation.
+   *
+   * <p>A mutation is only added to an earlier group if moving it in front of the mutations in the
+   * groups after that group cannot change the outcome of the mutations:
+   *
+   * <ul>
+   *   <li>Deletes and replaces can delete rows in other tables through interleaving, and are never
+   *       moved. Mutations are also never moved in front of a delete or a replace.
+   *   <li>A write is only moved in front of another write if the two writes have no column with the
+   *       same name and value. Two writes of the same row always have the same key values, and a
+   *       write of an interleaved child row has the same key values as its parent row. Writes
+   *       without a column with the same value therefore touch different rows that are not each
+   *       other's parent or child. String-encoded values are compared after parsing them as a
+   *       number or a timestamp, as the same key can be written with different representations,
+   *       such as {@code "1.0"} and {@code "1"} for NUMERIC.
+   *   <li>Mutations with untyped values are never moved, as these values cannot be compared
+   *       reliably.
+   * </ul>
+   */
+  static List<Mutation> coalesce(Iterable<Mutation> mutations) {
+    List<CoalescedGroup> groups = new ArrayList<>();
+    // The groups after the last mutation that cannot be moved. Only these groups can be extended.
+    Map<CoalescedGroup.Key, CoalescedGroup> openGroups = new HashMap<>();
+    int numMutations = 0;
+    for (Mutation mutation : mutations) {
+      numMutations++;
+      if (!canBeMoved(mutation)) {
+        CoalescedGroup barrier = new CoalescedGroup(groups.size(), /* trackValues= */ false);
+        barrier.add(mutation);
+        groups.add(barrier);
+        openGroups.clear();
+        continue;
+      }
+      CoalescedGroup.Key key = new CoalescedGroup.Key(mutation);
+      CoalescedGroup group = openGroups.get(key);
+      if (group == null || conflictsWithLaterGroups(mutation, group, groups)) {
+        group = new CoalescedGroup(groups.size(), /* trackValues= */ true);
+        groups.add(group);
+        openGroups.put(key, group);
+      }
+      group.add(mutation);
+    }
+    List<Mutation> result = new ArrayList<>(numMutations);
+    for (CoalescedGroup group : groups) {
+      result.addAll(group.mutations);
     }
-    return mutation.hasInsert()
-        && mutation.getInsert().getValuesCount()
-            > largestInsertMutation.getInsert().getValuesCount();
+    return result;
   }
 
-  // Stores all mutations that are not of type INSERT.
-  private static void maybeAddMutationToListExcludingInserts(
-      com.google.spanner.v1.Mutation mutation,
-      List<com.google.spanner.v1.Mutation> allMutationsExcludingInsert) {
-    if (!mutation.hasInsert()) {
-      allMutationsExcludingInsert.add(mutation);
+  private static boolean canBeMoved(Mutation mutation) {
+    if (mutation.operation == Op.DELETE || mutation.operation == Op.REPLACE) {
+      return false;
+    }
+    for (Value value : mutation.values) {
+      if (value.getType() == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean conflictsWithLaterGroups(
+      Mutation mutation, CoalescedGroup group, List<CoalescedGroup> groups) {
+    List<Object> keys = null;
+    for (int i = group.index + 1; i < groups.size(); i++) {
+      if (keys == null) {
+        keys = new ArrayList<>(mutation.values.size());
+        for (Value value : mutation.values) {
+          keys.add(conflictKey(value));
+        }
+      }
+      if (groups.get(i).containsAnyValue(mutation.columns, keys)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns an object that is equal for all values that Spanner could consider equal when they are
+   * used in a key. Two values may only get a different conflict key if they can never be the same
+   * key, so string-encoded values are canonicalized whatever their client-side type is: The type
+   * of the column decides how Spanner interprets a string, and for example {@code
+   * Value.string("1.0")} and {@code Value.numeric(new BigDecimal("1"))} are the same key in a
+   * NUMERIC column.
+   */
+  private static Object conflictKey(Value value) {
+    com.google.protobuf.Value proto = value.toProto();
+    if (proto.hasNumberValue()) {
+      double number = proto.getNumberValue();
+      if (Double.isFinite(number)) {
+        // Also makes 0.0 and -0.0 the same key.
+        return BigDecimal.valueOf(number).stripTrailingZeros();
+      }
+      return number;
+    }
+    if (proto.hasStringValue()) {
+      String string = proto.getStringValue();
+      if (mayBeNumber(string)) {
+        try {
+          return new BigDecimal(string).stripTrailingZeros();
+        } catch (NumberFormatException ignore) {
+          // Not a number.
+        }
+      }
+      if (mayBeTimestamp(string)) {
+        try {
+          // A timestamp can be written with a different number of fractional digits.
+          return Timestamp.parseTimestamp(string);
+        } catch (IllegalArgumentException | DateTimeParseException ignore) {
+          // Not a timestamp.
+        }
+      }
+    }
+    return proto;
+  }
+
+  /** Cheap check that prevents parsing most strings that are not a number. */
+  private static boolean mayBeNumber(String string) {
+    if (string.isEmpty()) {
+      return false;
+    }
+    char first = string.charAt(0);
+    return (first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.';
+  }
+
+  /** Cheap check that prevents parsing most strings that are not an RFC 3339 timestamp. */
+  private static boolean mayBeTimestamp(String string) {
+    return string.length() >= 20
+        && string.charAt(4) == '-'
+        && (string.charAt(10) == 'T' || string.charAt(10) == 't');
+  }
+
+  /** A group of mutations with the same operation, table and columns. */
+  private static final class CoalescedGroup {
+    /** The operation, table and columns of a group. */
+    private static final class Key {
+      private final Op operation;
+      private final String table;
+      private final List<String> columns;
+
+      private Key(Mutation mutation) {
+        this.operation = mutation.operation;
+        this.table = mutation.table;
+        this.columns = mutation.columns;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        if (!(o instanceof Key)) {
+          return false;
+        }
+        Key other = (Key) o;
+        return operation == other.operation
+            && table.equals(other.table)
+            && columns.equals(other.columns);
+      }
+
+      @Override
+      public int hashCode() {
+        return Objects.hash(operation, table, columns);
+      }
+    }
+
+    private final int index;
+    private final List<Mutation> mutations = new ArrayList<>();
+    // The conflict keys of the values of the mutations in this group by lower case column name.
+    @Nullable private final Map<String, Set<Object>> valuesByColumn;
+
+    private CoalescedGroup(int index, boolean trackValues) {
+      this.index = index;
+      this.valuesByColumn = trackValues ? new HashMap<>() : null;
+    }
+
+    private void add(Mutation mutation) {
+      mutations.add(mutation);
+      if (valuesByColumn != null) {
+        for (int i = 0; i < mutation.columns.size(); i++) {
+          valuesByColumn
+              .computeIfAbsent(columnKey(mutation.columns.get(i)), c -> new HashSet<>())
+              .add(conflictKey(mutation.values.get(i)));
+        }
+      }
+    }
+
+    private boolean containsAnyValue(List<String> columns, List<Object> keys) {
+      if (valuesByColumn == null) {
+        return true;
+      }
+      for (int i = 0; i < columns.size(); i++) {
+        Set<Object> values = valuesByColumn.get(columnKey(columns.get(i)));
+        if (values != null && values.contains(keys.get(i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static String columnKey(String column) {
+      // Column names in Spanner are case-insensitive.
+      return column.toLowerCase(Locale.ENGLISH);
     }
   }
 }
@@ -177,6 +177,69 @@ public final class Options implements Serializable {
     return EXCLUDE_TXN_FROM_CHANGE_STREAMS_OPTION;
   }
 
+  /**
+   * Specifying this allows the client to reorder the mutations of a transaction, so that all
+   * mutations with the same operation, table and columns are sent as one mutation, instead of only
+   * mutations that directly follow each other. This reduces the size of the commit request and the
+   * work that Spanner needs to do to apply the mutations if the transaction for example alternates
+   * between writes to a parent and a child table.
+   *
+   * <p>A mutation is only moved in front of other mutations if the client can prove that this does
+   * not change the outcome of the transaction: Deletes and replaces are never reordered, and a
+   * write is only moved in front of another write if the two writes have no column with the same
+   * name and value. That is for example the case if the two rows have different keys, and the row
+   * that is moved is not a child row of the other row. Values that could be different
+   * representations of the same key, such as the strings {@code "1.0"} and {@code "1"} for a
+   * NUMERIC column, count as the same value.
+   */
+  public static TransactionOption coalesceMutations() {
+    return COALESCE_MUTATIONS_OPTION;
+  }
+
+  /**
+   * Specifying this instructs a read/write transaction to convert mutations to protobuf when they
+   * are buffered with {@link TransactionContext#buffer(Mutation)}, instead of converting all
+   * buffered mutations when the transaction is committed. This reduces the commit latency and the
+   * memory usage of transactions that buffer a large number of mutations, as the commit only has
+   * to send the mutations that have already been converted, and the {@link Mutation} objects can
+   * be garbage collected as soon as they have been buffered.
+   *
+   * <p>This option has no effect if it is combined with {@link #coalesceMutations()}, as
+   * mutations can only be reordered once all mutations have been buffered.
+   */
+  public static TransactionOption eagerMutationEncoding() {
+    return EAGER_MUTATION_ENCODING_OPTION;
+  }
+
+  /**
+   * Specifying this instructs {@link TransactionContext#batchUpdate} and {@link
+   * TransactionContext#batchUpdateAsync} to split a batch of DML statements that does not fit in
+   * one ExecuteBatchDml request into multiple requests. The requests are executed sequentially in
+   * the same transaction, and the statements of the next request are converted to protobuf while
+   * the previous request is being executed. The update counts of all requests are returned as if
+   * the batch had been executed in one request.
+   *
+   * <p>The statements in a batch are executed in order, and execution stops at the first statement
+   * that fails. A {@link SpannerBatchUpdateException} that is thrown for a request therefore
+   * contains the update counts of all statements in the batch that were executed successfully,
+   * including the statements in earlier requests, and the statements in later requests are not
+   * executed. Any other error after one or more requests have succeeded, such as an error for the
+   * whole ExecuteBatchDml RPC, is also thrown as a {@link SpannerBatchUpdateException} with the
+   * update counts of the earlier requests, and with the original error as its cause. An {@link
+   * AbortedException} is thrown as is, as the whole transaction must then be retried.
+   *
+   * @param maxStatementsPerRequest the max number of statements in one request
+   * @param maxBytesPerRequest the max size in bytes of the statements in one request, including
+   *     their parameters. A single statement that is larger is sent in a request of its own.
+   */
+  public static UpdateOption splitBatchUpdate(
+      int maxStatementsPerRequest, long maxBytesPerRequest) {
+    Preconditions.checkArgument(
+        maxStatementsPerRequest > 0, "maxStatementsPerRequest must be > 0");
+    Preconditions.checkArgument(maxBytesPerRequest > 0L, "maxBytesPerRequest must be > 0");
+    return new SplitBatchUpdateOption(maxStatementsPerRequest, maxBytesPerRequest);
+  }
+
   public static RequestIdOption requestId(XGoogSpannerRequestId reqId) {
     return new RequestIdOption(reqId);
   }
@@ -218,6 +281,36 @@ public final class Options implements Serializable {
     return new BufferRowsOption(bufferRows);
   }
 
+  /**
+   * Specifying this will enable adaptive prefetching for a read or query. The client then starts
+   * with prefetching {@link #prefetchChunks(int) prefetchChunks} {@code PartialResultSet} chunks,
+   * and grows the number of prefetched chunks when the results are consumed faster than they are
+   * received, and shrinks it when the results are received faster than they are consumed. The total
+   * size of the prefetched chunks is limited to approximately {@code maxPrefetchBytes}. {@code
+   * maxPrefetchBytes} should be greater than 0. This overrides {@link
+   * SpannerOptions.Builder#setMaxPrefetchBytes(long)}.
+   */
+  public static ReadAndQueryOption adaptivePrefetch(long maxPrefetchBytes) {
+    Preconditions.checkArgument(
+        maxPrefetchBytes > 0L, "maxPrefetchBytes should be greater than 0");
+    return new AdaptivePrefetchOption(maxPrefetchBytes);
+  }
+
+  /**
+   * Specifying this will limit the number of bytes of {@code PartialResultSet} chunks without a
+   * resume token that the client buffers for a read or query to {@code resumeBufferBytes}. Buffered
+   * chunks are only returned to the application once a resume token has been seen, which allows
+   * the stream to be resumed transparently after a transient error. If the buffer exceeds this
+   * limit, the chunks are returned to the application and the stream can no longer be resumed
+   * until the next resume token. {@code resumeBufferBytes} should be greater than 0. This
+   * overrides {@link SpannerOptions.Builder#setMaxResumeBufferBytes(long)}.
+   */
+  public static ReadAndQueryOption resumeBufferBytes(long resumeBufferBytes) {
+    Preconditions.checkArgument(
+        resumeBufferBytes > 0L, "resumeBufferBytes should be greater than 0");
+    return new ResumeBufferBytesOption(resumeBufferBytes);
+  }
+
   /** Specifies the priority to use for the RPC. */
   public static ReadQueryUpdateTransactionOption priority(RpcPriority priority) {
     return new PriorityOption(priority);
@@ -343,6 +436,18 @@ public final class Options implements Serializable {
     return new DecodeOption(decodeMode);
   }
 
+  /**
+   * Specifying this instructs the {@link ResultSet} to return the same {@link Struct} instance
+   * from {@link ResultSet#getCurrentRowAsStruct()} for every row, instead of creating an immutable
+   * copy of each row. The returned {@link Struct} is only valid until the next call to {@link
+   * ResultSet#next()}, and must be copied by the caller if it needs to be retained.
+   *
+   * <p>This option is ignored for {@link AsyncResultSet}s, as these need to buffer rows.
+   */
+  public static ReadAndQueryOption reuseRows() {
+    return REUSE_ROWS_OPTION;
+  }
+
   /** Option to request {@link CommitStats} for read/write transactions. */
   static final class CommitStatsOption extends InternalOption implements TransactionOption {
     @Override
@@ -389,6 +494,59 @@ public final class Options implements Serializable {
   static final ExcludeTxnFromChangeStreamsOption EXCLUDE_TXN_FROM_CHANGE_STREAMS_OPTION =
       new ExcludeTxnFromChangeStreamsOption();
 
+  /** Option to allow the client to reorder mutations so they can be coalesced. */
+  static final class CoalesceMutationsOption extends InternalOption implements TransactionOption {
+    @Override
+    void appendToOptions(Options options) {
+      options.withCoalesceMutations = true;
+    }
+  }
+
+  static final CoalesceMutationsOption COALESCE_MUTATIONS_OPTION = new CoalesceMutationsOption();
+
+  /** Option to convert mutations to protobuf when they are buffered. */
+  static final class EagerMutationEncodingOption extends InternalOption
+      implements TransactionOption {
+    @Override
+    void appendToOptions(Options options) {
+      options.withEagerMutationEncoding = true;
+    }
+  }
+
+  static final EagerMutationEncodingOption EAGER_MUTATION_ENCODING_OPTION =
+      new EagerMutationEncodingOption();
+
+  /** Option to split a batch of DML statements into multiple requests. */
+  static final class SplitBatchUpdateOption extends InternalOption implements UpdateOption {
+    private final int maxStatements;
+    private final long maxBytes;
+
+    SplitBatchUpdateOption(int maxStatements, long maxBytes) {
+      this.maxStatements = maxStatements;
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    void appendToOptions(Options options) {
+      options.maxBatchUpdateStatements = maxStatements;
+      options.maxBatchUpdateBytes = maxBytes;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(maxStatements, maxBytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof SplitBatchUpdateOption)) {
+        return false;
+      }
+      SplitBatchUpdateOption other = (SplitBatchUpdateOption) o;
+      return maxStatements == other.maxStatements && maxBytes == other.maxBytes;
+    }
+  }
+
   /** Option pertaining to flow control. */
   static final class FlowControlOption extends InternalOption implements ReadAndQueryOption {
     final int prefetchChunks;
@@ -416,6 +574,32 @@ public final class Options implements Serializable {
     }
   }
 
+  static final class AdaptivePrefetchOption extends InternalOption implements ReadAndQueryOption {
+    final long maxPrefetchBytes;
+
+    AdaptivePrefetchOption(long maxPrefetchBytes) {
+      this.maxPrefetchBytes = maxPrefetchBytes;
+    }
+
+    @Override
+    void appendToOptions(Options options) {
+      options.maxPrefetchBytes = maxPrefetchBytes;
+    }
+  }
+
+  static final class ResumeBufferBytesOption extends InternalOption implements ReadAndQueryOption {
+    final long resumeBufferBytes;
+
+    ResumeBufferBytesOption(long resumeBufferBytes) {
+      this.resumeBufferBytes = resumeBufferBytes;
+    }
+
+    @Override
+    void appendToOptions(Options options) {
+      options.resumeBufferBytes = resumeBufferBytes;
+    }
+  }
+
   static final class PriorityOption extends InternalOption
       implements ReadQueryUpdateTransactionOption {
     private final RpcPriority priority;
@@ -502,6 +686,15 @@ public final class Options implements Serializable {
     }
   }
 
+  static final class ReuseRowsOption extends InternalOption implements ReadAndQueryOption {
+    @Override
+    void appendToOptions(Options options) {
+      options.reuseRows = true;
+    }
+  }
+
+  static final ReuseRowsOption REUSE_ROWS_OPTION = new ReuseRowsOption();
+
   /** Option to set isolation level for read/write transactions. */
   static final class IsolationLevelOption extends InternalOption implements TransactionOption {
     private final IsolationLevel isolationLevel;
@@ -523,6 +716,8 @@ public final class Options implements Serializable {
   private Long limit;
   private Integer prefetchChunks;
   private Integer bufferRows;
+  private Long maxPrefetchBytes;
+  private Long resumeBufferBytes;
   private Integer pageSize;
   private String pageToken;
   private String filter;
@@ -532,9 +727,14 @@ public final class Options implements Serializable {
   private Boolean validateOnly;
   private Boolean withOptimisticLock;
   private Boolean withExcludeTxnFromChangeStreams;
+  private Boolean withCoalesceMutations;
+  private Boolean withEagerMutationEncoding;
+  private Integer maxBatchUpdateStatements;
+  private Long maxBatchUpdateBytes;
   private Boolean dataBoostEnabled;
   private DirectedReadOptions directedReadOptions;
   private DecodeMode decodeMode;
+  private boolean reuseRows;
   private RpcOrderBy orderBy;
   private RpcLockHint lockHint;
   private Boolean lastStatement;
@@ -580,6 +780,22 @@ public final class Options implements Serializable {
     return bufferRows;
   }
 
+  boolean hasMaxPrefetchBytes() {
+    return maxPrefetchBytes != null;
+  }
+
+  long maxPrefetchBytes() {
+    return maxPrefetchBytes;
+  }
+
+  boolean hasResumeBufferBytes() {
+    return resumeBufferBytes != null;
+  }
+
+  long resumeBufferBytes() {
+    return resumeBufferBytes;
+  }
+
   boolean hasPageSize() {
     return pageSize != null;
   }
@@ -652,6 +868,26 @@ public final class Options implements Serializable {
     return withExcludeTxnFromChangeStreams;
   }
 
+  Boolean withCoalesceMutations() {
+    return withCoalesceMutations;
+  }
+
+  Boolean withEagerMutationEncoding() {
+    return withEagerMutationEncoding;
+  }
+
+  boolean hasSplitBatchUpdate() {
+    return maxBatchUpdateStatements != null;
+  }
+
+  int maxBatchUpdateStatements() {
+    return maxBatchUpdateStatements;
+  }
+
+  long maxBatchUpdateBytes() {
+    return maxBatchUpdateBytes;
+  }
+
   boolean hasDataBoostEnabled() {
     return dataBoostEnabled != null;
   }
@@ -676,6 +912,16 @@ public final class Options implements Serializable {
     return decodeMode;
   }
 
+  boolean reuseRows() {
+    return reuseRows;
+  }
+
+  /** Disables row reuse for these options. This is used for result sets that buffer rows. */
+  Options withoutRowReuse() {
+    this.reuseRows = false;
+    return this;
+  }
+
   boolean hasOrderBy() {
     return orderBy != null;
   }
@@ -719,6 +965,12 @@ public final class Options implements Serializable {
     if (prefetchChunks != null) {
       b.append("prefetchChunks: ").append(prefetchChunks).append(' ');
     }
+    if (maxPrefetchBytes != null) {
+      b.append("maxPrefetchBytes: ").append(maxPrefetchBytes).append(' ');
+    }
+    if (resumeBufferBytes != null) {
+      b.append("resumeBufferBytes: ").append(resumeBufferBytes).append(' ');
+    }
     if (pageSize != null) {
       b.append("pageSize: ").append(pageSize).append(' ');
     }
@@ -748,6 +1000,18 @@ public final class Options implements Serializable {
           .append(withExcludeTxnFromChangeStreams)
           .append(' ');
     }
+    if (withCoalesceMutations != null) {
+      b.append("withCoalesceMutations: ").append(withCoalesceMutations).append(' ');
+    }
+    if (withEagerMutationEncoding != null) {
+      b.append("withEagerMutationEncoding: ").append(withEagerMutationEncoding).append(' ');
+    }
+    if (maxBatchUpdateStatements != null) {
+      b.append("maxBatchUpdateStatements: ").append(maxBatchUpdateStatements).append(' ');
+    }
+    if (maxBatchUpdateBytes != null) {
+      b.append("maxBatchUpdateBytes: ").append(maxBatchUpdateBytes).append(' ');
+    }
     if (dataBoostEnabled != null) {
       b.append("dataBoostEnabled: ").append(dataBoostEnabled).append(' ');
     }
@@ -757,6 +1021,9 @@ public final class Options implements Serializable {
     if (decodeMode != null) {
       b.append("decodeMode: ").append(decodeMode).append(' ');
     }
+    if (reuseRows) {
+      b.append("reuseRows: ").append(reuseRows).append(' ');
+    }
     if (orderBy != null) {
       b.append("orderBy: ").append(orderBy).append(' ');
     }
@@ -799,6 +1066,8 @@ public final class Options implements Serializable {
             || hasBufferRows()
                 && that.hasBufferRows()
                 && Objects.equals(bufferRows(), that.bufferRows()))
+        && Objects.equals(maxPrefetchBytes, that.maxPrefetchBytes)
+        && Objects.equals(resumeBufferBytes, that.resumeBufferBytes)
         && (!hasPageSize() && !that.hasPageSize()
             || hasPageSize() && that.hasPageSize() && Objects.equals(pageSize(), that.pageSize()))
         && Objects.equals(pageToken(), that.pageToken())
@@ -809,8 +1078,13 @@ public final class Options implements Serializable {
         && Objects.equals(validateOnly(), that.validateOnly())
         && Objects.equals(withOptimisticLock(), that.withOptimisticLock())
         && Objects.equals(withExcludeTxnFromChangeStreams(), that.withExcludeTxnFromChangeStreams())
+        && Objects.equals(withCoalesceMutations(), that.withCoalesceMutations())
+        && Objects.equals(withEagerMutationEncoding(), that.withEagerMutationEncoding())
+        && Objects.equals(maxBatchUpdateStatements, that.maxBatchUpdateStatements)
+        && Objects.equals(maxBatchUpdateBytes, that.maxBatchUpdateBytes)
         && Objects.equals(dataBoostEnabled(), that.dataBoostEnabled())
         && Objects.equals(directedReadOptions(), that.directedReadOptions())
+        && reuseRows == that.reuseRows
         && Objects.equals(orderBy(), that.orderBy())
         && Objects.equals(isLastStatement(), that.isLastStatement())
         && Objects.equals(lockHint(), that.lockHint())
@@ -836,6 +1110,12 @@ public final class Options implements Serializable {
     if (bufferRows != null) {
       result = 31 * result + bufferRows.hashCode();
     }
+    if (maxPrefetchBytes != null) {
+      result = 31 * result + maxPrefetchBytes.hashCode();
+    }
+    if (resumeBufferBytes != null) {
+      result = 31 * result + resumeBufferBytes.hashCode();
+    }
     if (pageSize != null) {
       result = 31 * result + pageSize.hashCode();
     }
@@ -863,6 +1143,18 @@ public final class Options implements Serializable {
     if (withExcludeTxnFromChangeStreams != null) {
       result = 31 * result + withExcludeTxnFromChangeStreams.hashCode();
     }
+    if (withCoalesceMutations != null) {
+      result = 31 * result + withCoalesceMutations.hashCode();
+    }
+    if (withEagerMutationEncoding != null) {
+      result = 31 * result + withEagerMutationEncoding.hashCode();
+    }
+    if (maxBatchUpdateStatements != null) {
+      result = 31 * result + maxBatchUpdateStatements.hashCode();
+    }
+    if (maxBatchUpdateBytes != null) {
+      result = 31 * result + maxBatchUpdateBytes.hashCode();
+    }
     if (dataBoostEnabled != null) {
       result = 31 * result + dataBoostEnabled.hashCode();
     }
@@ -872,6 +1164,9 @@ public final class Options implements Serializable {
     if (decodeMode != null) {
       result = 31 * result + decodeMode.hashCode();
     }
+    if (reuseRows) {
+      result = 31 * result + 1237;
+    }
     if (orderBy != null) {
       result = 31 * result + orderBy.hashCode();
     }
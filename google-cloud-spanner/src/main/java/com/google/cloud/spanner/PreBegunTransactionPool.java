@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A bounded pool of read/write transactions that have been begun in advance on a multiplexed
+ * session. A read/write transaction that takes a transaction from this pool does not need to
+ * inline a BeginTransaction option in its first statement or execute a separate BeginTransaction
+ * RPC.
+ *
+ * <p>Spanner aborts read/write transactions that have been idle for too long. Transactions in the
+ * pool are therefore only handed out until they reach the max age, and are replaced by {@link
+ * #refresh(String)} before that. The pool is only refilled if it has been used since the last
+ * refresh, so that an idle client does not keep beginning transactions.
+ */
+final class PreBegunTransactionPool {
+  /**
+   * The default max age of a transaction in the pool. Spanner aborts read/write transactions that
+   * have been idle for 10 seconds.
+   */
+  static final Duration DEFAULT_MAX_AGE = Duration.ofSeconds(5L);
+
+  private static final class PreBegunTransaction {
+    private final String sessionName;
+    private final ByteString transactionId;
+    private final Instant begunAt;
+
+    private PreBegunTransaction(String sessionName, ByteString transactionId, Instant begunAt) {
+      this.sessionName = sessionName;
+      this.transactionId = transactionId;
+      this.begunAt = begunAt;
+    }
+  }
+
+  private final int size;
+  private final Duration maxAge;
+  private final Clock clock;
+  private final Function<String, ApiFuture<ByteString>> beginTransaction;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final Deque<PreBegunTransaction> transactions = new ArrayDeque<>();
+
+  @GuardedBy("lock")
+  private int numPending;
+
+  @GuardedBy("lock")
+  private boolean usedSinceLastRefresh = true;
+
+  @GuardedBy("lock")
+  private Instant lastFailure;
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  /**
+   * @param size the max number of transactions in the pool
+   * @param maxAge the max time between beginning a transaction and handing it out
+   * @param clock the clock that is used to determine the age of a transaction
+   * @param beginTransaction begins a read/write transaction on the multiplexed session with the
+   *     given name, and returns the id of the transaction
+   */
+  PreBegunTransactionPool(
+      int size,
+      Duration maxAge,
+      Clock clock,
+      Function<String, ApiFuture<ByteString>> beginTransaction) {
+    Preconditions.checkArgument(size > 0, "size must be positive");
+    Preconditions.checkArgument(
+        !maxAge.isNegative() && !maxAge.isZero(), "maxAge must be positive");
+    this.size = size;
+    this.maxAge = maxAge;
+    this.clock = Preconditions.checkNotNull(clock);
+    this.beginTransaction = Preconditions.checkNotNull(beginTransaction);
+  }
+
+  /** Returns the time between two calls to {@link #refresh(String)}. */
+  Duration getRefreshInterval() {
+    return maxAge.dividedBy(2L);
+  }
+
+  /**
+   * Takes a transaction that was begun on the multiplexed session with the given name from the
+   * pool, and begins a new transaction to replace it. Returns null if the pool contains no
+   * transaction that can be used.
+   */
+  @Nullable
+  ByteString poll(String sessionName) {
+    PreBegunTransaction transaction;
+    synchronized (lock) {
+      if (closed) {
+        return null;
+      }
+      usedSinceLastRefresh = true;
+      removeTransactionsBegunAtOrBefore(sessionName, clock.instant().minus(maxAge));
+      // Hand out the oldest transaction first, as that one will become unusable first.
+      transaction = transactions.pollFirst();
+    }
+    replenish(sessionName);
+    return transaction == null ? null : transaction.transactionId;
+  }
+
+  /**
+   * Removes all transactions that would reach their max age before the next refresh, and refills
+   * the pool if it has been used since the last refresh. This method should be called every {@link
+   * #getRefreshInterval()}.
+   */
+  void refresh(String sessionName) {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      removeTransactionsBegunAtOrBefore(
+          sessionName, clock.instant().minus(maxAge).plus(getRefreshInterval()));
+      if (!usedSinceLastRefresh) {
+        return;
+      }
+      usedSinceLastRefresh = false;
+    }
+    replenish(sessionName);
+  }
+
+  @GuardedBy("lock")
+  private void removeTransactionsBegunAtOrBefore(String sessionName, Instant cutoff) {
+    Iterator<PreBegunTransaction> iterator = transactions.iterator();
+    while (iterator.hasNext()) {
+      PreBegunTransaction transaction = iterator.next();
+      // Transactions that were begun on a multiplexed session that has since been replaced are
+      // also removed, so the pool only contains transactions for the current session.
+      if (!transaction.sessionName.equals(sessionName) || !transaction.begunAt.isAfter(cutoff)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void replenish(String sessionName) {
+    int numToBegin;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      // Back off for a max age after a failed attempt, so a persistent error does not cause every
+      // read/write transaction to start an extra BeginTransaction RPC.
+      if (lastFailure != null && clock.instant().isBefore(lastFailure.plus(maxAge))) {
+        return;
+      }
+      numToBegin = size - transactions.size() - numPending;
+      if (numToBegin <= 0) {
+        return;
+      }
+      numPending += numToBegin;
+    }
+    for (int i = 0; i < numToBegin; i++) {
+      begin(sessionName);
+    }
+  }
+
+  private void begin(String sessionName) {
+    // Use the time that the request was sent, as the transaction cannot have become idle on Spanner
+    // before that.
+    Instant begunAt = clock.instant();
+    ApiFuture<ByteString> future;
+    try {
+      future = beginTransaction.apply(sessionName);
+    } catch (Throwable t) {
+      onBeginFailed();
+      return;
+    }
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<ByteString>() {
+          @Override
+          public void onFailure(Throwable t) {
+            onBeginFailed();
+          }
+
+          @Override
+          public void onSuccess(ByteString transactionId) {
+            synchronized (lock) {
+              numPending--;
+              if (!closed) {
+                transactions.addLast(
+                    new PreBegunTransaction(sessionName, transactionId, begunAt));
+              }
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private void onBeginFailed() {
+    synchronized (lock) {
+      numPending--;
+      lastFailure = clock.instant();
+    }
+  }
+
+  /** Removes all transactions from the pool, and stops beginning new transactions. */
+  void close() {
+    synchronized (lock) {
+      closed = true;
+      transactions.clear();
+    }
+  }
+
+  @VisibleForTesting
+  int size() {
+    synchronized (lock) {
+      return transactions.size();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+
+/**
+ * Publishes the rows of a query to a {@link Subscriber} as they are received from Spanner. The
+ * publisher only reads as many rows from the stream as the subscriber has requested, and the
+ * stream stops requesting data from Spanner when there is no outstanding demand.
+ *
+ * <p>The interfaces follow the same protocol as {@code java.util.concurrent.Flow} and Reactive
+ * Streams, and can be adapted to those with a simple wrapper:
+ *
+ * <pre>{@code
+ * Flow.Publisher<Struct> publisher =
+ *     subscriber ->
+ *         readContext
+ *             .executeQueryPublisher(statement)
+ *             .subscribe(
+ *                 new QueryPublisher.Subscriber() {
+ *                   public void onSubscribe(QueryPublisher.Subscription subscription) {
+ *                     subscriber.onSubscribe(
+ *                         new Flow.Subscription() {
+ *                           public void request(long n) {
+ *                             subscription.request(n);
+ *                           }
+ *
+ *                           public void cancel() {
+ *                             subscription.cancel();
+ *                           }
+ *                         });
+ *                   }
+ *
+ *                   public void onNext(Struct row) {
+ *                     subscriber.onNext(row);
+ *                   }
+ *
+ *                   public void onError(Throwable t) {
+ *                     subscriber.onError(t);
+ *                   }
+ *
+ *                   public void onComplete() {
+ *                     subscriber.onComplete();
+ *                   }
+ *                 });
+ * }</pre>
+ *
+ * <p>The methods of a {@link Subscriber} are called on the thread that calls {@link
+ * Subscription#request(long)}, or on the gRPC thread that receives the data from Spanner. The
+ * methods of a {@link Subscriber} should therefore never block.
+ */
+@BetaApi
+public interface QueryPublisher {
+
+  /**
+   * Executes the query and publishes the rows to the given subscriber. The query is executed when
+   * the subscriber requests the first rows. Each subscription executes the query once.
+   */
+  void subscribe(Subscriber subscriber);
+
+  /** Receives the rows of a query. */
+  interface Subscriber {
+    /** Called once before any other method with the subscription that controls the demand. */
+    void onSubscribe(Subscription subscription);
+
+    /** Called for each row. This method is never called for more rows than requested. */
+    void onNext(Struct row);
+
+    /** Called once if the query fails. No other methods are called after this method. */
+    void onError(Throwable throwable);
+
+    /** Called once when all rows have been returned. No other methods are called after this. */
+    void onComplete();
+  }
+
+  /** Controls the number of rows that are published to a {@link Subscriber}. */
+  interface Subscription {
+    /**
+     * Requests {@code n} more rows. The demand is cumulative. {@code Long.MAX_VALUE} requests all
+     * rows. A value of {@code n <= 0} will cause the subscriber to receive an {@link
+     * IllegalArgumentException}.
+     */
+    void request(long n);
+
+    /** Stops publishing rows and cancels the query. This method may be called multiple times. */
+    void cancel();
+  }
+}
@@ -17,6 +17,7 @@
 package com.google.cloud.spanner;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.BetaApi;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.cloud.spanner.Options.ReadOption;
 import javax.annotation.Nullable;
@@ -193,6 +194,18 @@ public interface ReadContext extends AutoCloseable {
    */
   AsyncResultSet executeQueryAsync(Statement statement, QueryOption... options);
 
+  /**
+   * Same as {@link #executeQuery(Statement, QueryOption...)}, but returns its results as a {@link
+   * QueryPublisher}. The query is executed when the subscriber requests the first rows. Rows are
+   * published when they have been received from Spanner and requested by the subscriber, and the
+   * gRPC stream only requests more data from Spanner when the subscriber has requested more rows.
+   * No buffer other than the prefetch window of the gRPC stream and no executor thread is used.
+   */
+  @BetaApi
+  default QueryPublisher executeQueryPublisher(Statement statement, QueryOption... options) {
+    return new ResultSetPublisher(() -> executeQuery(statement, options));
+  }
+
   /**
    * Analyzes a query and returns query plan and/or query execution statistics information.
    *
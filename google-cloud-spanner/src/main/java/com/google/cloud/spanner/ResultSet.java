@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.BetaApi;
 import com.google.cloud.spanner.Options.QueryOption;
 import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.ResultSetStats;
@@ -45,6 +46,36 @@ public interface ResultSet extends AutoCloseable, StructReader {
    */
   boolean next() throws SpannerException;
 
+  /**
+   * Advances the result set over the next batch of at most {@link ColumnBatch#DEFAULT_BATCH_SIZE}
+   * rows and returns these in columnar form, or returns {@code null} if no more rows exist. This
+   * method may block.
+   *
+   * @see #nextBatch(int)
+   */
+  @BetaApi
+  @Nullable
+  default ColumnBatch nextBatch() throws SpannerException {
+    return nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Advances the result set over the next batch of at most {@code maxRows} rows and returns these
+   * in columnar form, or returns {@code null} if no more rows exist. The returned batch can contain
+   * fewer than {@code maxRows} rows, also if the result set contains more rows. This method may
+   * block.
+   *
+   * <p>The methods from the {@link StructReader} interface should not be used after this method
+   * has been called until {@link #next()} has been called. Queries and reads that use {@link
+   * DecodeMode#COLUMNAR} decode the rows directly into the batch. Other result sets copy the rows
+   * one by one into the batch.
+   */
+  @BetaApi
+  @Nullable
+  default ColumnBatch nextBatch(int maxRows) throws SpannerException {
+    return ColumnBatch.readFrom(this, maxRows);
+  }
+
   /**
    * Creates an immutable version of the row that the result set is positioned over. This may
    * involve copying internal data structures, and so converting all rows to {@code Struct} objects
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.math.LongMath;
+import com.google.spanner.v1.PartialResultSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link QueryPublisher} that publishes the rows of a {@link ResultSet}. Rows are only read from
+ * the {@link ResultSet} when they have already been received from Spanner, so reading never blocks
+ * the calling thread. The gRPC stream is notified through a {@link
+ * AsyncResultSet.StreamMessageListener} when new data has been received. The stream only requests
+ * more data from Spanner when data is consumed, which means that the demand of the subscriber is
+ * propagated to the flow control of the gRPC stream.
+ *
+ * <p>Rows are often published on the gRPC thread that delivered the data. If the stream fails with
+ * a retryable error, the stream is resumed after a backoff by a separate thread, so the gRPC thread
+ * never waits for the backoff or for the resumed stream.
+ */
+class ResultSetPublisher implements QueryPublisher {
+  private static final Logger logger = Logger.getLogger(ResultSetPublisher.class.getName());
+
+  private final Supplier<ResultSet> resultSetSupplier;
+
+  ResultSetPublisher(Supplier<ResultSet> resultSetSupplier) {
+    this.resultSetSupplier = Preconditions.checkNotNull(resultSetSupplier);
+  }
+
+  @Override
+  public void subscribe(Subscriber subscriber) {
+    Preconditions.checkNotNull(subscriber);
+    ResultSetSubscription subscription = new ResultSetSubscription(subscriber);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private class ResultSetSubscription
+      implements Subscription, AsyncResultSet.StreamMessageListener {
+    private final Subscriber subscriber;
+    private final AtomicLong requested = new AtomicLong();
+
+    /**
+     * The number of times that {@link #drain()} has been called and not yet been handled. Only the
+     * thread that increments this value from 0 publishes rows, which ensures that the rows are
+     * published serially.
+     */
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // The following fields are only accessed by the thread that is draining the result set.
+    private ResultSet resultSet;
+    private boolean done;
+
+    private ResultSetSubscription(Subscriber subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0L) {
+        invalidRequest =
+            new IllegalArgumentException("The number of requested rows must be > 0, got " + n);
+      } else {
+        requested.getAndUpdate(current -> LongMath.saturatedAdd(current, n));
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    @Override
+    public void onStreamMessage(PartialResultSet partialResultSet, boolean bufferIsFull) {
+      drain();
+    }
+
+    private void drain() {
+      if (pendingDrains.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        if (!done) {
+          publishRows();
+        }
+        missed = pendingDrains.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    /** Publishes rows until the demand has been met or no more rows are ready. */
+    private void publishRows() {
+      try {
+        while (true) {
+          if (invalidRequest != null) {
+            terminate();
+            subscriber.onError(invalidRequest);
+            return;
+          }
+          if (cancelled) {
+            terminate();
+            return;
+          }
+          if (requested.get() == 0L) {
+            return;
+          }
+          if (resultSet == null) {
+            resultSet = resultSetSupplier.get();
+            StreamingUtil.initiateStreaming(resultSet, this);
+          }
+          if (!StreamingUtil.isNextRowReady(resultSet)) {
+            // onStreamMessage will call drain() when more data has been received.
+            return;
+          }
+          if (!resultSet.next()) {
+            terminate();
+            subscriber.onComplete();
+            return;
+          }
+          Struct row = resultSet.getCurrentRowAsStruct();
+          if (requested.get() != Long.MAX_VALUE) {
+            requested.decrementAndGet();
+          }
+          subscriber.onNext(row);
+        }
+      } catch (Throwable t) {
+        if (!done) {
+          terminate();
+          subscriber.onError(t);
+        } else {
+          logger.log(Level.FINE, "Ignoring error after the subscription has terminated", t);
+        }
+      }
+    }
+
+    private void terminate() {
+      done = true;
+      if (resultSet != null) {
+        try {
+          resultSet.close();
+        } catch (Throwable t) {
+          logger.log(Level.FINE, "Ignoring error from closing result set", t);
+        }
+      }
+    }
+  }
+}
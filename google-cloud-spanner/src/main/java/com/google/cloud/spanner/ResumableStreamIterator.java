@@ -37,11 +37,14 @@ import com.google.spanner.v1.PartialResultSet;
 import io.grpc.Context;
 import io.opentelemetry.api.common.Attributes;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -51,27 +54,62 @@ import javax.annotation.Nullable;
  * Wraps an iterator over partial result sets, supporting resuming RPCs on error. This class keeps
  * track of the most recent resume token seen, and will buffer partial result set chunks that do not
  * have a resume token until one is seen or buffer space is exceeded, which reduces the chance of
- * yielding data to the caller that cannot be resumed.
+ * yielding data to the caller that cannot be resumed. The buffer space can be limited either by the
+ * number of chunks or by the total serialized size of the buffered chunks.
  */
 @VisibleForTesting
 abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet>
     implements CloseableIterator<PartialResultSet> {
   private static final RetrySettings DEFAULT_STREAMING_RETRY_SETTINGS =
       SpannerStubSettings.newBuilder().executeStreamingSqlSettings().getRetrySettings();
+
+  /**
+   * Restarts streams after a backoff when the iterator is read without blocking. See {@link
+   * #isReady()}.
+   */
+  private static final ScheduledExecutorService RESTART_SCHEDULER =
+      Executors.newScheduledThreadPool(
+          /* corePoolSize= */ 1,
+          ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+              "resumable-stream-restart", /* tryVirtual= */ false));
+
   private final ErrorHandler errorHandler;
   private AsyncResultSet.StreamMessageListener streamMessageListener;
   private final RetrySettings streamingRetrySettings;
   private final Set<Code> retryableCodes;
   private static final Logger logger = Logger.getLogger(ResumableStreamIterator.class.getName());
   private BackOff backOff;
-  private final LinkedList<PartialResultSet> buffer = new LinkedList<>();
+  private final ArrayDeque<PartialResultSet> buffer = new ArrayDeque<>();
   private final int maxBufferSize;
+  private final long maxBufferBytes;
+  private final ResumableStreamMetrics metrics;
+  private final Attributes metricAttributes;
+  private long bufferedBytes;
+  private long maxBufferedBytes;
+  private int maxBufferedChunks;
+  private int resumabilityLostCount;
+  private boolean highWaterMarkRecorded;
   private final ISpan span;
   private final TraceWrapper tracer;
   private CloseableIterator<PartialResultSet> stream;
   private ByteString resumeToken;
   private boolean finished;
 
+  /**
+   * An error that was received from the stream by {@link #isReady()}. The error is handled by the
+   * next call to {@link #computeNext()}, so it can be retried in the same way as any other error.
+   */
+  private SpannerException pendingException;
+
+  /**
+   * True while {@link #isReady()} waits for the backoff after a retryable error. This is reset by
+   * the scheduler thread before it notifies the stream message listener.
+   */
+  private volatile boolean restartPending;
+
+  /** The last restart that was scheduled by {@link #isReady()}. */
+  private ScheduledFuture<?> scheduledRestart;
+
   /**
    * Indicates whether it is currently safe to retry RPCs. This will be {@code false} if we have
    * reached the maximum buffer size without seeing a restart token; in this case, we will drain the
@@ -107,8 +145,41 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
       ErrorHandler errorHandler,
       RetrySettings streamingRetrySettings,
       Set<Code> retryableCodes) {
+    this(
+        maxBufferSize,
+        0L,
+        ResumableStreamMetrics.NOOP,
+        streamName,
+        parent,
+        tracer,
+        attributes,
+        errorHandler,
+        streamingRetrySettings,
+        retryableCodes);
+  }
+
+  /**
+   * Creates a new iterator. If {@code maxBufferBytes} is greater than 0, the buffer is limited to
+   * the given number of bytes, and {@code maxBufferSize} is ignored. Otherwise, the buffer is
+   * limited to {@code maxBufferSize} chunks.
+   */
+  protected ResumableStreamIterator(
+      int maxBufferSize,
+      long maxBufferBytes,
+      ResumableStreamMetrics metrics,
+      String streamName,
+      ISpan parent,
+      TraceWrapper tracer,
+      Attributes attributes,
+      ErrorHandler errorHandler,
+      RetrySettings streamingRetrySettings,
+      Set<Code> retryableCodes) {
     checkArgument(maxBufferSize >= 0);
+    checkArgument(maxBufferBytes >= 0L);
     this.maxBufferSize = maxBufferSize;
+    this.maxBufferBytes = maxBufferBytes;
+    this.metrics = checkNotNull(metrics);
+    this.metricAttributes = ResumableStreamMetrics.createAttributes(streamName);
     this.tracer = tracer;
     this.span = tracer.spanBuilderWithExplicitParent(streamName, parent, attributes);
     this.errorHandler = errorHandler;
@@ -210,8 +281,64 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
     return false;
   }
 
+  /** Returns the maximum number of bytes that have been buffered by this iterator. */
+  @VisibleForTesting
+  long getMaxBufferedBytes() {
+    return maxBufferedBytes;
+  }
+
+  /** Returns the maximum number of chunks that have been buffered by this iterator. */
+  @VisibleForTesting
+  int getMaxBufferedChunks() {
+    return maxBufferedChunks;
+  }
+
+  /**
+   * Returns the number of times that the buffer overflowed, and the iterator therefore could not
+   * resume the stream until it saw a new resume token.
+   */
+  @VisibleForTesting
+  int getResumabilityLostCount() {
+    return resumabilityLostCount;
+  }
+
+  private void addToBuffer(PartialResultSet partialResultSet) {
+    buffer.add(partialResultSet);
+    bufferedBytes += partialResultSet.getSerializedSize();
+    maxBufferedBytes = Math.max(maxBufferedBytes, bufferedBytes);
+    maxBufferedChunks = Math.max(maxBufferedChunks, buffer.size());
+  }
+
+  private PartialResultSet removeFirstFromBuffer() {
+    PartialResultSet partialResultSet = buffer.pop();
+    bufferedBytes -= partialResultSet.getSerializedSize();
+    return partialResultSet;
+  }
+
+  private void removeLastFromBuffer() {
+    bufferedBytes -= buffer.removeLast().getSerializedSize();
+  }
+
+  private boolean isBufferFull() {
+    if (maxBufferBytes > 0L) {
+      return bufferedBytes > maxBufferBytes;
+    }
+    return buffer.size() > maxBufferSize;
+  }
+
+  private void recordHighWaterMark() {
+    if (!highWaterMarkRecorded) {
+      highWaterMarkRecorded = true;
+      metrics.recordBufferHighWaterMark(maxBufferedBytes, metricAttributes);
+    }
+  }
+
   @Override
   public void close(@Nullable String message) {
+    if (scheduledRestart != null) {
+      scheduledRestart.cancel(false);
+    }
+    recordHighWaterMark();
     if (stream != null) {
       stream.close(message);
       span.end();
@@ -232,6 +359,124 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
     return true;
   }
 
+  /**
+   * Moves the chunks that have already been received by the underlying stream to the buffer, and
+   * returns true if {@link #hasNext()} will return without waiting for more data from the server.
+   * An error from the stream that cannot be retried is handled by the next call to {@link
+   * #hasNext()}.
+   *
+   * <p>A retryable error does not block the caller. This method instead returns false, and restarts
+   * the stream after the backoff on a separate thread. That thread notifies the stream message
+   * listener when the restart is due, and the next call to this method starts the new stream.
+   */
+  @Override
+  public boolean isReady() {
+    if (finished) {
+      return true;
+    }
+    if (restartPending) {
+      return false;
+    }
+    startGrpcStreaming();
+    while (!isBufferReadyToFlush()) {
+      if (pendingException != null) {
+        return true;
+      }
+      if (!stream.isReady()) {
+        return false;
+      }
+      try {
+        if (!stream.hasNext()) {
+          return true;
+        }
+        PartialResultSet next = stream.next();
+        updateResumeToken(next);
+        bufferChunk(next);
+      } catch (SpannerException spannerException) {
+        if (safeToRetry && isRetryable(spannerException) && streamMessageListener != null) {
+          scheduleRestart(spannerException);
+          return false;
+        }
+        pendingException = spannerException;
+      }
+    }
+    return true;
+  }
+
+  private void scheduleRestart(SpannerException spannerException) {
+    prepareRestart(spannerException);
+    long delay = spannerException.getRetryDelayInMillis();
+    if (delay == -1) {
+      delay = nextBackOffMillis(getOrCreateBackOff());
+      if (delay == BackOff.STOP) {
+        delay = streamingRetrySettings.getMaxRetryDelay().toMillis();
+      }
+    }
+    span.addAnnotation("Backing off", "Delay", delay);
+    AsyncResultSet.StreamMessageListener listener = streamMessageListener;
+    restartPending = true;
+    scheduledRestart =
+        RESTART_SCHEDULER.schedule(
+            () -> {
+              restartPending = false;
+              listener.onStreamMessage(PartialResultSet.getDefaultInstance(), false);
+            },
+            delay,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Removes the chunks after the last resume token from the buffer and discards the broken stream,
+   * so the next call to {@link #startGrpcStreaming()} resumes the stream from the last resume
+   * token.
+   */
+  private void prepareRestart(SpannerException spannerException) {
+    span.addAnnotation("Stream broken. Safe to retry", spannerException);
+    logger.log(Level.FINE, "Retryable exception, will sleep and retry", spannerException);
+    // Truncate any items in the buffer before the last retry token.
+    while (!buffer.isEmpty() && buffer.getLast().getResumeToken().isEmpty()) {
+      removeLastFromBuffer();
+    }
+    assert buffer.isEmpty() || buffer.getLast().getResumeToken().equals(resumeToken);
+    stream = null;
+  }
+
+  private BackOff getOrCreateBackOff() {
+    if (this.backOff == null) {
+      this.backOff = newBackOff();
+    }
+    return this.backOff;
+  }
+
+  /** Returns true if the buffer contains items up to a resume token or has reached capacity. */
+  private boolean isBufferReadyToFlush() {
+    return !buffer.isEmpty()
+        && (finished || !safeToRetry || !buffer.getLast().getResumeToken().isEmpty());
+  }
+
+  /** Registers the resume token of the given chunk, and returns true if it had one. */
+  private boolean updateResumeToken(PartialResultSet next) {
+    boolean hasResumeToken = !next.getResumeToken().isEmpty();
+    if (hasResumeToken) {
+      resumeToken = next.getResumeToken();
+      safeToRetry = true;
+    }
+    return hasResumeToken;
+  }
+
+  private void bufferChunk(PartialResultSet next) {
+    addToBuffer(next);
+    if (isBufferFull() && buffer.getLast().getResumeToken().isEmpty()) {
+      // We need to flush without a restart token.  Errors encountered until we see
+      // such a token will fail the read.
+      if (safeToRetry) {
+        resumabilityLostCount++;
+        metrics.recordResumabilityLost(metricAttributes);
+      }
+      safeToRetry = false;
+    }
+  }
+
   @Override
   protected PartialResultSet computeNext() {
     int numAttemptsOnOtherChannel = 0;
@@ -240,56 +485,42 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
       // Eagerly start stream before consuming any buffered items.
       startGrpcStreaming();
       // Buffer contains items up to a resume token or has reached capacity: flush.
-      if (!buffer.isEmpty()
-          && (finished || !safeToRetry || !buffer.getLast().getResumeToken().isEmpty())) {
-        return buffer.pop();
+      if (isBufferReadyToFlush()) {
+        return removeFirstFromBuffer();
       }
       try {
+        if (pendingException != null) {
+          SpannerException spannerException = pendingException;
+          pendingException = null;
+          throw spannerException;
+        }
         if (stream.hasNext()) {
           PartialResultSet next = stream.next();
-          boolean hasResumeToken = !next.getResumeToken().isEmpty();
-          if (hasResumeToken) {
-            resumeToken = next.getResumeToken();
-            safeToRetry = true;
-          }
+          boolean hasResumeToken = updateResumeToken(next);
           // If the buffer is empty and this chunk has a resume token or we cannot resume safely
           // anyway, we can yield it immediately rather than placing it in the buffer to be
           // returned on the next iteration.
           if ((hasResumeToken || !safeToRetry) && buffer.isEmpty()) {
             return next;
           }
-          buffer.add(next);
-          if (buffer.size() > maxBufferSize && buffer.getLast().getResumeToken().isEmpty()) {
-            // We need to flush without a restart token.  Errors encountered until we see
-            // such a token will fail the read.
-            safeToRetry = false;
-          }
+          bufferChunk(next);
         } else {
           finished = true;
           if (buffer.isEmpty()) {
+            recordHighWaterMark();
             endOfData();
             return null;
           }
         }
       } catch (SpannerException spannerException) {
         if (safeToRetry && isRetryable(spannerException)) {
-          span.addAnnotation("Stream broken. Safe to retry", spannerException);
-          logger.log(Level.FINE, "Retryable exception, will sleep and retry", spannerException);
-          // Truncate any items in the buffer before the last retry token.
-          while (!buffer.isEmpty() && buffer.getLast().getResumeToken().isEmpty()) {
-            buffer.removeLast();
-          }
-          assert buffer.isEmpty() || buffer.getLast().getResumeToken().equals(resumeToken);
-          stream = null;
+          prepareRestart(spannerException);
           try (IScope s = tracer.withSpan(span)) {
             long delay = spannerException.getRetryDelayInMillis();
             if (delay != -1) {
               backoffSleep(context, delay);
             } else {
-              if (this.backOff == null) {
-                this.backOff = newBackOff();
-              }
-              backoffSleep(context, this.backOff);
+              backoffSleep(context, getOrCreateBackOff());
             }
           }
 
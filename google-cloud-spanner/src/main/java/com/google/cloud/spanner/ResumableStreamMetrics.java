@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import java.util.Arrays;
+import java.util.List;
+
+/** OpenTelemetry metrics for the resume buffer of {@link ResumableStreamIterator}. */
+class ResumableStreamMetrics {
+  static final ResumableStreamMetrics NOOP = new ResumableStreamMetrics(null, null);
+
+  private static final AttributeKey<String> STREAM_NAME_KEY =
+      AttributeKey.stringKey(MetricRegistryConstants.STREAM_NAME);
+
+  private static final List<Long> BYTES_BUCKET_BOUNDARIES =
+      Arrays.asList(
+          0L,
+          1024L,
+          4096L,
+          16384L,
+          65536L,
+          262144L,
+          1048576L,
+          4194304L,
+          16777216L,
+          67108864L,
+          268435456L,
+          1073741824L);
+
+  private final LongHistogram bufferHighWaterMark;
+  private final LongCounter resumabilityLostCount;
+
+  ResumableStreamMetrics(OpenTelemetry openTelemetry) {
+    if (!SpannerOptions.isEnabledOpenTelemetryMetrics() || openTelemetry == null) {
+      bufferHighWaterMark = null;
+      resumabilityLostCount = null;
+      return;
+    }
+    Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+    bufferHighWaterMark =
+        meter
+            .histogramBuilder(MetricRegistryConstants.RESUME_BUFFER_HIGH_WATER_MARK)
+            .ofLongs()
+            .setDescription(MetricRegistryConstants.RESUME_BUFFER_HIGH_WATER_MARK_DESCRIPTION)
+            .setUnit("By")
+            .setExplicitBucketBoundariesAdvice(BYTES_BUCKET_BOUNDARIES)
+            .build();
+    resumabilityLostCount =
+        meter
+            .counterBuilder(MetricRegistryConstants.RESUMABILITY_LOST_COUNT)
+            .setDescription(MetricRegistryConstants.RESUMABILITY_LOST_COUNT_DESCRIPTION)
+            .setUnit(MetricRegistryConstants.COUNT)
+            .build();
+  }
+
+  private ResumableStreamMetrics(
+      LongHistogram bufferHighWaterMark, LongCounter resumabilityLostCount) {
+    this.bufferHighWaterMark = bufferHighWaterMark;
+    this.resumabilityLostCount = resumabilityLostCount;
+  }
+
+  /** Creates the (low-cardinality) attributes that are used for the metrics of a stream. */
+  static Attributes createAttributes(String streamName) {
+    return Attributes.of(STREAM_NAME_KEY, streamName);
+  }
+
+  void recordBufferHighWaterMark(long bytes, Attributes attributes) {
+    if (bufferHighWaterMark != null) {
+      bufferHighWaterMark.record(bytes, attributes);
+    }
+  }
+
+  void recordResumabilityLost(Attributes attributes) {
+    if (resumabilityLostCount != null) {
+      resumabilityLostCount.add(1L, attributes);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.TypeCode;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import javax.annotation.Nullable;
+
+/**
+ * Interns the row {@link Type}s of the result sets that are returned by Spanner. Applications
+ * often execute the same queries many times, and each of these queries returns the same row type
+ * in its {@link com.google.spanner.v1.ResultSetMetadata}. Re-using the {@link Type} instance for
+ * these result sets means that the {@link Type.StructField}s and the lookup table for {@link
+ * Type#getFieldIndex(String)} are only created once for each query shape.
+ *
+ * <p>Each {@link SpannerImpl} owns a bounded cache that is shared by all result sets of that
+ * instance. {@link Type} instances are immutable, which makes them safe to share. The number of
+ * hits and misses are exported as the {@code row_type_cache_hit_count} and {@code
+ * row_type_cache_miss_count} metrics if OpenTelemetry metrics are enabled.
+ */
+final class RowTypeCache {
+  /** A {@link RowTypeCache} that does not cache any row types and does not record any metrics. */
+  static final RowTypeCache DISABLED = new RowTypeCache(/* maxSize= */ 0, null);
+
+  /** The maximum number of different row types that are cached. */
+  @VisibleForTesting static final int MAX_SIZE = 1000;
+
+  @Nullable private final Cache<StructType, Type> cache;
+  @Nullable private final LongCounter hitCount;
+  @Nullable private final LongCounter missCount;
+
+  RowTypeCache(@Nullable OpenTelemetry openTelemetry) {
+    this(MAX_SIZE, openTelemetry);
+  }
+
+  @VisibleForTesting
+  RowTypeCache(int maxSize, @Nullable OpenTelemetry openTelemetry) {
+    this.cache = maxSize > 0 ? CacheBuilder.newBuilder().maximumSize(maxSize).build() : null;
+    if (cache == null
+        || !SpannerOptions.isEnabledOpenTelemetryMetrics()
+        || openTelemetry == null) {
+      this.hitCount = null;
+      this.missCount = null;
+      return;
+    }
+    Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+    this.hitCount =
+        meter
+            .counterBuilder(MetricRegistryConstants.ROW_TYPE_CACHE_HIT_COUNT)
+            .setDescription(MetricRegistryConstants.ROW_TYPE_CACHE_HIT_COUNT_DESCRIPTION)
+            .setUnit(MetricRegistryConstants.COUNT)
+            .build();
+    this.missCount =
+        meter
+            .counterBuilder(MetricRegistryConstants.ROW_TYPE_CACHE_MISS_COUNT)
+            .setDescription(MetricRegistryConstants.ROW_TYPE_CACHE_MISS_COUNT_DESCRIPTION)
+            .setUnit(MetricRegistryConstants.COUNT)
+            .build();
+  }
+
+  /**
+   * Returns the {@link Type} for the given row type proto. The returned {@link Type} is shared
+   * with all other result sets of this cache that have an equal row type.
+   *
+   * @throws IllegalArgumentException if the row type is not valid
+   */
+  Type getRowType(StructType rowType) {
+    Type type = cache == null ? null : cache.getIfPresent(rowType);
+    if (type != null) {
+      if (hitCount != null) {
+        hitCount.add(1L);
+      }
+      return type;
+    }
+    // Two threads could in theory both miss and create the same type. That is harmless, as the
+    // types are equal.
+    type =
+        Type.fromProto(
+            com.google.spanner.v1.Type.newBuilder()
+                .setCode(TypeCode.STRUCT)
+                .setStructType(rowType)
+                .build());
+    if (cache != null) {
+      cache.put(rowType, type);
+    }
+    if (missCount != null) {
+      missCount.add(1L);
+    }
+    return type;
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache == null ? 0L : cache.size();
+  }
+}
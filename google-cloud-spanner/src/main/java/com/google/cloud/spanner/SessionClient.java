@@ -368,6 +368,22 @@ class SessionClient implements AutoCloseable, XGoogSpannerRequestId.RequestIdCre
    */
   void asyncBatchCreateSessions(
       final int sessionCount, boolean distributeOverChannels, SessionConsumer consumer) {
+    asyncBatchCreateSessions(
+        sessionCount, distributeOverChannels, /* parallelismPerChannel= */ 1, consumer);
+  }
+
+  /**
+   * Asynchronously creates a batch of sessions like {@link #asyncBatchCreateSessions(int, boolean,
+   * SessionConsumer)}, but splits the sessions of each channel over at most {@code
+   * parallelismPerChannel} BatchCreateSessions RPCs that are executed in parallel. The sessions of
+   * each RPC are handed to the consumer as soon as that RPC has returned.
+   */
+  void asyncBatchCreateSessions(
+      final int sessionCount,
+      boolean distributeOverChannels,
+      int parallelismPerChannel,
+      SessionConsumer consumer) {
+    Preconditions.checkArgument(parallelismPerChannel > 0, "parallelismPerChannel must be > 0");
     int sessionCountPerChannel;
     int remainder;
     if (distributeOverChannels) {
@@ -394,10 +410,16 @@ class SessionClient implements AutoCloseable, XGoogSpannerRequestId.RequestIdCre
         }
         if (createCountForChannel > 0 && numBeingCreated < sessionCount) {
           try {
-            executor.submit(
-                new BatchCreateSessionsRunnable(
-                    createCountForChannel, sessionChannelCounter++, consumer));
-            numBeingCreated += createCountForChannel;
+            // All RPCs for this channel use the same channel hint.
+            long channelHint = sessionChannelCounter++;
+            int numRpcs = Math.min(parallelismPerChannel, createCountForChannel);
+            for (int rpc = 0; rpc < numRpcs; rpc++) {
+              int createCountForRpc =
+                  createCountForChannel / numRpcs + (rpc < createCountForChannel % numRpcs ? 1 : 0);
+              executor.submit(
+                  new BatchCreateSessionsRunnable(createCountForRpc, channelHint, consumer));
+              numBeingCreated += createCountForRpc;
+            }
           } catch (Throwable t) {
             consumer.onSessionCreateFailure(t, sessionCount - numBeingCreated);
           }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Forecasts the number of sessions that a {@link SessionPool} will need a fixed time ahead. The
+ * forecast is the maximum of two predictions:
+ *
+ * <ol>
+ *   <li>A trend-aware exponentially weighted moving average (Holt's linear method) of the recent
+ *       demand. This prediction follows gradual ramps in the load.
+ *   <li>An exponentially weighted moving average of the peak demand in the same slot of the day on
+ *       previous days. This prediction anticipates recurring daily peaks.
+ * </ol>
+ *
+ * <p>This class is not thread-safe. It is only used by the pool maintainer.
+ */
+final class SessionDemandForecaster {
+  /** The length of a slot of the day. */
+  @VisibleForTesting static final Duration SLOT_LENGTH = Duration.ofMinutes(5L);
+
+  private static final int SLOTS_PER_DAY =
+      (int) (Duration.ofDays(1L).toMillis() / SLOT_LENGTH.toMillis());
+
+  /** The weight of a new sample in the moving average of the demand. */
+  private static final double LEVEL_WEIGHT = 0.3d;
+
+  /** The weight of a new sample in the moving average of the trend of the demand. */
+  private static final double TREND_WEIGHT = 0.1d;
+
+  /** The weight of a new day in the moving average of the demand in a slot of the day. */
+  private static final double DAILY_WEIGHT = 0.5d;
+
+  /** The extra percentage of sessions that is added to the forecast to absorb small deviations. */
+  private static final int HEADROOM_PERCENT = 10;
+
+  private final long horizonMillis;
+  private final double horizonCycles;
+
+  private boolean initialized;
+  private double level;
+  private double trend;
+
+  private final double[] dailyPeaks = new double[SLOTS_PER_DAY];
+  private long currentSlot = -1L;
+  private double currentSlotPeak;
+
+  /**
+   * @param horizon how far ahead the demand is forecast
+   * @param cycleLength the time between two calls to {@link #record(Instant, int)}
+   */
+  SessionDemandForecaster(Duration horizon, Duration cycleLength) {
+    Preconditions.checkArgument(cycleLength.toMillis() > 0L, "cycleLength must be positive");
+    this.horizonMillis = horizon.toMillis();
+    this.horizonCycles = (double) horizon.toMillis() / cycleLength.toMillis();
+    Arrays.fill(dailyPeaks, -1.0d);
+  }
+
+  /**
+   * Records the demand for sessions that was observed in the maintenance cycle that ended at the
+   * given time. The demand is the peak number of sessions that were in use plus the number of
+   * requests that were waiting for a session.
+   */
+  void record(Instant time, int demand) {
+    if (!initialized) {
+      level = demand;
+      trend = 0.0d;
+      initialized = true;
+    } else {
+      double previousLevel = level;
+      level = LEVEL_WEIGHT * demand + (1.0d - LEVEL_WEIGHT) * (level + trend);
+      trend = TREND_WEIGHT * (level - previousLevel) + (1.0d - TREND_WEIGHT) * trend;
+    }
+
+    long slot = time.toEpochMilli() / SLOT_LENGTH.toMillis();
+    if (slot != currentSlot) {
+      foldCurrentSlot();
+      currentSlot = slot;
+      currentSlotPeak = demand;
+    } else {
+      currentSlotPeak = Math.max(currentSlotPeak, demand);
+    }
+  }
+
+  private void foldCurrentSlot() {
+    if (currentSlot < 0L) {
+      return;
+    }
+    int index = (int) (currentSlot % SLOTS_PER_DAY);
+    if (dailyPeaks[index] < 0.0d) {
+      dailyPeaks[index] = currentSlotPeak;
+    } else {
+      dailyPeaks[index] =
+          DAILY_WEIGHT * currentSlotPeak + (1.0d - DAILY_WEIGHT) * dailyPeaks[index];
+    }
+  }
+
+  /**
+   * Returns the number of sessions that is expected to be needed at the given time plus the
+   * horizon of this forecaster, or 0 if no demand has been recorded yet.
+   */
+  int forecast(Instant time) {
+    if (!initialized) {
+      return 0;
+    }
+    double trendForecast = level + Math.max(0.0d, trend) * horizonCycles;
+    long slot = (time.toEpochMilli() + horizonMillis) / SLOT_LENGTH.toMillis();
+    double dailyForecast = dailyPeaks[(int) (slot % SLOTS_PER_DAY)];
+    double forecast = Math.max(trendForecast, dailyForecast);
+    return (int) Math.ceil(Math.max(0.0d, forecast) * (100 + HEADROOM_PERCENT) / 100.0d);
+  }
+}
@@ -265,9 +265,10 @@ class SessionImpl implements Session {
       Iterable<Mutation> mutations, TransactionOption... transactionOptions)
       throws SpannerException {
     setActive(null);
-    List<com.google.spanner.v1.Mutation> mutationsProto = new ArrayList<>();
-    Mutation.toProtoAndReturnRandomMutation(mutations, mutationsProto);
     Options options = Options.fromTransactionOptions(transactionOptions);
+    List<com.google.spanner.v1.Mutation> mutationsProto = new ArrayList<>();
+    Mutation.toProtoAndReturnRandomMutation(
+        mutations, mutationsProto, options.withCoalesceMutations() == Boolean.TRUE);
     final CommitRequest.Builder requestBuilder =
         CommitRequest.newBuilder()
             .setSession(getName())
@@ -388,6 +389,10 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setDefaultMaxPrefetchBytes(spanner.getDefaultMaxPrefetchBytes())
+            .setDefaultMaxResumeBufferBytes(spanner.getDefaultMaxResumeBufferBytes())
+            .setResumableStreamMetrics(spanner.getResumableStreamMetrics())
+            .setRowTypeCache(spanner.getRowTypeCache())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -411,6 +416,10 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setDefaultMaxPrefetchBytes(spanner.getDefaultMaxPrefetchBytes())
+            .setDefaultMaxResumeBufferBytes(spanner.getDefaultMaxResumeBufferBytes())
+            .setResumableStreamMetrics(spanner.getResumableStreamMetrics())
+            .setRowTypeCache(spanner.getRowTypeCache())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -434,6 +443,10 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setDefaultMaxPrefetchBytes(spanner.getDefaultMaxPrefetchBytes())
+            .setDefaultMaxResumeBufferBytes(spanner.getDefaultMaxResumeBufferBytes())
+            .setResumableStreamMetrics(spanner.getResumableStreamMetrics())
+            .setRowTypeCache(spanner.getRowTypeCache())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -540,17 +553,35 @@ class SessionImpl implements Session {
     return res;
   }
 
+  /**
+   * Returns the id of a read/write transaction that has already been begun and that can be used
+   * for a new transaction with the given options, or null if there is no such transaction.
+   */
+  @Nullable
+  ByteString pollPreBegunTransactionId(Options options) {
+    return null;
+  }
+
   TransactionContextImpl newTransaction(Options options, ByteString previousTransactionId) {
+    // A retry of an aborted transaction must begin a new transaction that includes the id of the
+    // previous attempt, and can therefore not use a transaction that was begun in advance.
+    boolean canUsePreBegunTransaction =
+        previousTransactionId == null || previousTransactionId.isEmpty();
     return TransactionContextImpl.newBuilder()
         .setSession(this)
         .setOptions(options)
-        .setTransactionId(null)
         .setPreviousTransactionId(previousTransactionId)
+        .setPreBegunTransactionIdSupplier(
+            canUsePreBegunTransaction ? () -> pollPreBegunTransactionId(options) : null)
         .setTrackTransactionStarter(spanner.getOptions().isTrackTransactionStarter())
         .setRpc(spanner.getRpc())
         .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
         .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
         .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+        .setDefaultMaxPrefetchBytes(spanner.getDefaultMaxPrefetchBytes())
+        .setDefaultMaxResumeBufferBytes(spanner.getDefaultMaxResumeBufferBytes())
+        .setResumableStreamMetrics(spanner.getResumableStreamMetrics())
+        .setRowTypeCache(spanner.getRowTypeCache())
         .setSpan(currentSpan)
         .setTracer(tracer)
         .setExecutorProvider(spanner.getAsyncExecutorProvider())
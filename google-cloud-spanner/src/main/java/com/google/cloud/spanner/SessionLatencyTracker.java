@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.Collection;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Keeps track of the latency of the keep-alive queries that are executed on the sessions in a
+ * {@link SessionPool}, and of the channels that these sessions use. The latency is an
+ * exponentially weighted moving average of the observed round-trip times. Only a fixed-cost RPC is
+ * sampled, so that for example large writes do not make a healthy session look slow.
+ *
+ * <p>The session pool uses these numbers to prefer fast sessions at checkout, to avoid channels
+ * that are much slower than the other channels, and to replace sessions that are persistently much
+ * slower than the other sessions in the pool. A session or channel is only considered slow once
+ * enough samples have been recorded for it, so a single slow RPC does not cause a session to be
+ * replaced.
+ *
+ * <p>The set of slow channels is read on every session checkout. It is therefore computed once per
+ * maintenance cycle by {@link #updateSlowChannels()}, and checkouts only read the last snapshot.
+ */
+final class SessionLatencyTracker {
+  /** The weight of a new sample in the moving average. */
+  @VisibleForTesting static final double ALPHA = 0.2d;
+
+  /** The number of samples that are needed before a latency is used to classify it as slow. */
+  @VisibleForTesting static final int MIN_SAMPLES = 3;
+
+  /** A latency that is this many times the median latency is considered slow. */
+  @VisibleForTesting static final double SLOW_FACTOR = 3.0d;
+
+  /** An exponentially weighted moving average of a latency. This class is thread-safe. */
+  static final class MovingLatency {
+    @GuardedBy("this")
+    private double averageNanos;
+
+    @GuardedBy("this")
+    private int numSamples;
+
+    synchronized void record(long nanos) {
+      if (numSamples == 0) {
+        averageNanos = nanos;
+      } else {
+        averageNanos += ALPHA * (nanos - averageNanos);
+      }
+      if (numSamples < Integer.MAX_VALUE) {
+        numSamples++;
+      }
+    }
+
+    /** Returns the moving average in nanoseconds, or 0 if no samples have been recorded. */
+    synchronized double getAverageNanos() {
+      return averageNanos;
+    }
+
+    /** Returns true if enough samples have been recorded for the average to be meaningful. */
+    synchronized boolean hasEnoughSamples() {
+      return numSamples >= MIN_SAMPLES;
+    }
+  }
+
+  private final MovingLatency[] channels;
+
+  /**
+   * The channels that were slow when {@link #updateSlowChannels()} was last called. The array is
+   * replaced and never modified, so it can be read without locking.
+   */
+  private volatile boolean[] slowChannels;
+
+  SessionLatencyTracker(int numChannels) {
+    Preconditions.checkArgument(numChannels > 0, "numChannels must be > 0");
+    this.channels = new MovingLatency[numChannels];
+    for (int i = 0; i < numChannels; i++) {
+      channels[i] = new MovingLatency();
+    }
+    this.slowChannels = new boolean[numChannels];
+  }
+
+  /** Records the latency of an RPC that was executed on the given session and channel. */
+  void record(MovingLatency session, int channel, long nanos) {
+    session.record(nanos);
+    channel(channel).record(nanos);
+  }
+
+  /**
+   * Returns the expected latency of the next RPC on the given session and channel. The latency of
+   * the channel is used as long as there are not enough samples for the session. Returns 0 if
+   * nothing is known about the session or channel, so that new sessions are tried.
+   */
+  double estimate(MovingLatency session, int channel) {
+    if (session.hasEnoughSamples()) {
+      return session.getAverageNanos();
+    }
+    MovingLatency channelLatency = channel(channel);
+    return channelLatency.hasEnoughSamples() ? channelLatency.getAverageNanos() : 0d;
+  }
+
+  /**
+   * Returns true if the given channel was persistently much slower than the median of all channels
+   * when {@link #updateSlowChannels()} was last called.
+   */
+  boolean isSlowChannel(int channel) {
+    return slowChannels[Math.floorMod(channel, channels.length)];
+  }
+
+  /**
+   * Computes the median latency of all channels and the set of channels that are persistently much
+   * slower than that median. This method is called once per maintenance cycle of the session pool.
+   */
+  void updateSlowChannels() {
+    boolean[] slow = new boolean[channels.length];
+    double median = median(Arrays.asList(channels));
+    if (median > 0d) {
+      for (int i = 0; i < channels.length; i++) {
+        slow[i] = isSlow(channels[i], median);
+      }
+    }
+    slowChannels = slow;
+  }
+
+  /**
+   * Returns true if the given session is persistently much slower than the given median latency of
+   * the sessions in the pool.
+   */
+  static boolean isSlow(MovingLatency session, double medianNanos) {
+    return medianNanos > 0d
+        && session.hasEnoughSamples()
+        && session.getAverageNanos() > SLOW_FACTOR * medianNanos;
+  }
+
+  /**
+   * Returns the median of the latencies that have enough samples, or 0 if there are fewer than two
+   * such latencies.
+   */
+  static double median(Collection<MovingLatency> latencies) {
+    double[] values = new double[latencies.size()];
+    int count = 0;
+    for (MovingLatency latency : latencies) {
+      if (latency.hasEnoughSamples()) {
+        values[count++] = latency.getAverageNanos();
+      }
+    }
+    if (count < 2) {
+      return 0d;
+    }
+    Arrays.sort(values, 0, count);
+    return count % 2 == 1 ? values[count / 2] : (values[count / 2 - 1] + values[count / 2]) / 2d;
+  }
+
+  private MovingLatency channel(int channel) {
+    return channels[Math.floorMod(channel, channels.length)];
+  }
+}
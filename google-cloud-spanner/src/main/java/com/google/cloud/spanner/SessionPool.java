@@ -16,8 +16,12 @@
 
 package com.google.cloud.spanner;
 
+import static com.google.cloud.spanner.MetricRegistryConstants.CONCURRENCY_LIMIT;
+import static com.google.cloud.spanner.MetricRegistryConstants.CONCURRENCY_LIMIT_DESCRIPTION;
 import static com.google.cloud.spanner.MetricRegistryConstants.COUNT;
 import static com.google.cloud.spanner.MetricRegistryConstants.GET_SESSION_TIMEOUTS;
+import static com.google.cloud.spanner.MetricRegistryConstants.GET_SESSION_WAIT_LATENCIES;
+import static com.google.cloud.spanner.MetricRegistryConstants.GET_SESSION_WAIT_LATENCIES_DESCRIPTION;
 import static com.google.cloud.spanner.MetricRegistryConstants.IS_MULTIPLEXED;
 import static com.google.cloud.spanner.MetricRegistryConstants.MAX_ALLOWED_SESSIONS;
 import static com.google.cloud.spanner.MetricRegistryConstants.MAX_ALLOWED_SESSIONS_DESCRIPTION;
@@ -36,6 +40,7 @@ import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_IN_P
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_IN_POOL_DESCRIPTION;
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_IN_USE;
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_WRITE_SESSIONS;
+import static com.google.cloud.spanner.MetricRegistryConstants.PRIORITY_CLASS;
 import static com.google.cloud.spanner.MetricRegistryConstants.SESSIONS_TIMEOUTS_DESCRIPTION;
 import static com.google.cloud.spanner.MetricRegistryConstants.SESSIONS_TYPE;
 import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_DEFAULT_LABEL_VALUES;
@@ -60,7 +65,9 @@ import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.Options.TransactionOption;
 import com.google.cloud.spanner.Options.UpdateOption;
 import com.google.cloud.spanner.SessionClient.SessionConsumer;
+import com.google.cloud.spanner.SessionLatencyTracker.MovingLatency;
 import com.google.cloud.spanner.SessionPoolOptions.InactiveTransactionRemovalOptions;
+import com.google.cloud.spanner.SessionWaiterQueue.PriorityClass;
 import com.google.cloud.spanner.SpannerException.ResourceNotFoundException;
 import com.google.cloud.spanner.SpannerImpl.ClosedException;
 import com.google.cloud.spanner.spi.v1.SpannerRpc;
@@ -78,7 +85,10 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.Empty;
 import com.google.spanner.v1.BatchWriteResponse;
+import com.google.spanner.v1.RequestOptions.Priority;
 import com.google.spanner.v1.ResultSetStats;
+import io.grpc.Context;
+import io.grpc.Deadline;
 import io.opencensus.metrics.DerivedLongCumulative;
 import io.opencensus.metrics.DerivedLongGauge;
 import io.opencensus.metrics.LabelValue;
@@ -88,19 +98,25 @@ import io.opencensus.metrics.Metrics;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.Meter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -113,6 +129,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
@@ -269,9 +287,18 @@ class SessionPool {
 
         @Override
         public boolean next() throws SpannerException {
+          return retryOnSessionNotFound(super::next, hasNext -> hasNext);
+        }
+
+        @Override
+        public ColumnBatch nextBatch(int maxRows) throws SpannerException {
+          return retryOnSessionNotFound(() -> super.nextBatch(maxRows), Objects::nonNull);
+        }
+
+        private <R> R retryOnSessionNotFound(Supplier<R> advance, Predicate<R> hasMore) {
           while (true) {
             try {
-              return internalNext();
+              return internalAdvance(advance, hasMore);
             } catch (SessionNotFoundException e) {
               while (true) {
                 // Keep the replace-if-possible outside the try-block to let the exception bubble up
@@ -289,9 +316,9 @@ class SessionPool {
           }
         }
 
-        private boolean internalNext() {
+        private <R> R internalAdvance(Supplier<R> advance, Predicate<R> hasMore) {
           try {
-            boolean ret = super.next();
+            R ret = advance.get();
             if (beforeFirst) {
               synchronized (lock) {
                 session.get().markUsed();
@@ -299,7 +326,7 @@ class SessionPool {
                 sessionUsedForQuery = true;
               }
             }
-            if (!ret && isSingleUse) {
+            if (!hasMore.test(ret) && isSingleUse) {
               close();
             }
             return ret;
@@ -573,12 +600,10 @@ class SessionPool {
     public PooledSessionFuture replaceSession(
         SessionNotFoundException e, PooledSessionFuture session) {
       if (!options.isFailIfSessionNotFound() && session.get().isAllowReplacing()) {
-        synchronized (lock) {
-          numSessionsInUse--;
-          numSessionsReleased++;
-          checkedOutSessions.remove(session);
-          markedCheckedOutSessions.remove(session);
-        }
+        numSessionsInUse.decrementAndGet();
+        numSessionsReleased.incrementAndGet();
+        checkedOutSessions.remove(session);
+        markedCheckedOutSessions.remove(session);
         session.leakedException = null;
         invalidateSession(session.get());
         return getSession();
@@ -643,6 +668,24 @@ class SessionPool {
         throw handler.handleSessionNotFound(e);
       }
     }
+
+    @Override
+    public ColumnBatch nextBatch(int maxRows) {
+      try {
+        return super.nextBatch(maxRows);
+      } catch (SessionNotFoundException e) {
+        throw handler.handleSessionNotFound(e);
+      }
+    }
+
+    @Override
+    public boolean isNextRowReady() {
+      try {
+        return super.isNextRowReady();
+      } catch (SessionNotFoundException e) {
+        throw handler.handleSessionNotFound(e);
+      }
+    }
   }
 
   static class AsyncSessionPoolResultSet extends ForwardingAsyncResultSet {
@@ -666,6 +709,21 @@ class SessionPool {
           });
     }
 
+    @Override
+    public ApiFuture<Void> setBatchCallback(
+        Executor executor, int batchSize, final BatchReadyCallback callback) {
+      return super.setBatchCallback(
+          executor,
+          batchSize,
+          (resultSet, rows) -> {
+            try {
+              return callback.batchReady(resultSet, rows);
+            } catch (SessionNotFoundException e) {
+              throw handler.handleSessionNotFound(e);
+            }
+          });
+    }
+
     @Override
     public boolean next() {
       try {
@@ -675,6 +733,15 @@ class SessionPool {
       }
     }
 
+    @Override
+    public ColumnBatch nextBatch(int maxRows) {
+      try {
+        return super.nextBatch(maxRows);
+      } catch (SessionNotFoundException e) {
+        throw handler.handleSessionNotFound(e);
+      }
+    }
+
     @Override
     public CursorState tryNext() {
       try {
@@ -1335,9 +1402,7 @@ class SessionPool {
 
       if (options.isTrackStackTraceOfSessionCheckout()) {
         this.leakedException = new LeakedSessionException();
-        synchronized (SessionPool.this.lock) {
-          SessionPool.this.markedCheckedOutSessions.add(this);
-        }
+        SessionPool.this.markedCheckedOutSessions.add(this);
       }
     }
 
@@ -1535,11 +1600,9 @@ class SessionPool {
           return delegate.asyncClose();
         }
       } finally {
-        synchronized (lock) {
-          leakedException = null;
-          checkedOutSessions.remove(this);
-          markedCheckedOutSessions.remove(this);
-        }
+        leakedException = null;
+        checkedOutSessions.remove(this);
+        markedCheckedOutSessions.remove(this);
       }
       return ApiFutures.immediateFuture(Empty.getDefaultInstance());
     }
@@ -1568,10 +1631,8 @@ class SessionPool {
         if (res != null) {
           res.markBusy(span);
           span.addAnnotation("Using Session", "sessionId", res.getName());
-          synchronized (lock) {
-            incrementNumSessionsInUse();
-            checkedOutSessions.add(this);
-          }
+          incrementNumSessionsInUse();
+          checkedOutSessions.add(this);
           res.eligibleForLongRunning = eligibleForLongRunning;
         }
         initialized.countDown();
@@ -1644,6 +1705,9 @@ class SessionPool {
     @GuardedBy("lock")
     private SessionState state;
 
+    /** The moving average of the latency of the RPCs on this session. */
+    private final MovingLatency latency = new MovingLatency();
+
     private PooledSession(SessionImpl delegate) {
       this.delegate = Preconditions.checkNotNull(delegate);
       this.state = SessionState.AVAILABLE;
@@ -1783,10 +1847,8 @@ class SessionPool {
 
     @Override
     public void close() {
-      synchronized (lock) {
-        numSessionsInUse--;
-        numSessionsReleased++;
-      }
+      numSessionsInUse.decrementAndGet();
+      numSessionsReleased.incrementAndGet();
       if ((lastException != null && isSessionNotFound(lastException)) || isRemovedFromPool) {
         invalidateSession(this);
       } else {
@@ -1818,16 +1880,37 @@ class SessionPool {
       markUsed();
       final ISpan previousSpan = delegate.getCurrentSpan();
       delegate.setCurrentSpan(tracer.getBlankSpan());
+      long startNanos = System.nanoTime();
       try (ResultSet resultSet =
           delegate
               .singleUse(TimestampBound.ofMaxStaleness(60, TimeUnit.SECONDS))
               .executeQuery(Statement.newBuilder("SELECT 1").build())) {
         resultSet.next();
+        recordLatency(startNanos);
       } finally {
         delegate.setCurrentSpan(previousSpan);
       }
     }
 
+    /**
+     * Records the latency of a keep-alive query on this session that started at the given time.
+     * Only the keep-alive query is sampled, as it has a fixed cost. The latency of for example a
+     * write depends on the size of the write and on lock contention, which says nothing about the
+     * health of the session.
+     */
+    private void recordLatency(long startNanos) {
+      if (latencyTracker != null) {
+        recordLatencyNanos(System.nanoTime() - startNanos);
+      }
+    }
+
+    @VisibleForTesting
+    void recordLatencyNanos(long nanos) {
+      if (latencyTracker != null) {
+        latencyTracker.record(latency, getChannel(), nanos);
+      }
+    }
+
     private void determineDialectAsync(final SettableFuture<Dialect> dialect) {
       Preconditions.checkNotNull(dialect);
       executor.submit(
@@ -1892,9 +1975,33 @@ class SessionPool {
     }
   }
 
-  private final class WaiterFuture extends ForwardingListenableFuture<PooledSession> {
+  private final class WaiterFuture extends ForwardingListenableFuture<PooledSession>
+      implements SessionWaiterQueue.Waiter {
     private static final long MAX_SESSION_WAIT_TIMEOUT = 240_000L;
     private final SettableFuture<PooledSession> waiter = SettableFuture.create();
+    private final PriorityClass priorityClass;
+    private final long createdNanos = System.nanoTime();
+
+    /**
+     * The value of {@link System#nanoTime()} after which the waiter should no longer get a session,
+     * or null if the waiter has no deadline.
+     */
+    @Nullable private final Long deadlineNanos;
+
+    private WaiterFuture(PriorityClass priorityClass) {
+      this.priorityClass = priorityClass;
+      Long deadline = null;
+      Deadline contextDeadline = Context.current().getDeadline();
+      if (contextDeadline != null) {
+        deadline = createdNanos + contextDeadline.timeRemaining(TimeUnit.NANOSECONDS);
+      }
+      Duration acquireSessionTimeout = options.getAcquireSessionTimeout();
+      if (acquireSessionTimeout != null) {
+        long timeoutDeadline = createdNanos + acquireSessionTimeout.toNanos();
+        deadline = deadline == null ? timeoutDeadline : Math.min(deadline, timeoutDeadline);
+      }
+      this.deadlineNanos = deadline;
+    }
 
     @Override
     @Nonnull
@@ -1902,14 +2009,45 @@ class SessionPool {
       return waiter;
     }
 
-    private void put(PooledSession session) {
-      waiter.set(session);
+    /**
+     * Hands the given session to this waiter. Returns false if the waiter was already done, which
+     * means that the session must be given to another waiter or returned to the pool.
+     */
+    private boolean put(PooledSession session) {
+      if (waiter.set(session)) {
+        recordWaitForSessionLatency(priorityClass, System.nanoTime() - createdNanos);
+        return true;
+      }
+      return false;
     }
 
     private void put(SpannerException e) {
       waiter.setException(e);
     }
 
+    @Override
+    public PriorityClass getPriorityClass() {
+      return priorityClass;
+    }
+
+    @Override
+    public boolean isDone() {
+      return waiter.isDone();
+    }
+
+    @Override
+    public boolean failIfDeadlineExceeded() {
+      if (deadlineNanos == null || System.nanoTime() - deadlineNanos < 0L) {
+        return false;
+      }
+      // The timeout has already been counted by the thread that waited for the session.
+      waiter.setException(
+          SpannerExceptionFactory.newSpannerException(
+              ErrorCode.DEADLINE_EXCEEDED,
+              "The deadline was exceeded while waiting for a session from the session pool"));
+      return true;
+    }
+
     @Override
     public PooledSession get() {
       long currentTimeout = options.getInitialWaitForSessionTimeoutMillis();
@@ -2078,23 +2216,36 @@ class SessionPool {
         running = true;
         if (loopFrequency >= 1000L) {
           SessionPool.this.transactionsPerSecond =
-              (SessionPool.this.numSessionsAcquired - prevNumSessionsAcquired)
+              (SessionPool.this.numSessionsAcquired.get() - prevNumSessionsAcquired)
                   / (loopFrequency / 1000L);
         }
-        this.prevNumSessionsAcquired = SessionPool.this.numSessionsAcquired;
+        this.prevNumSessionsAcquired = SessionPool.this.numSessionsAcquired.get();
 
         currTime = clock.instant();
         // Reset the start time for recording the maximum number of sessions in the pool
         if (currTime.isAfter(SessionPool.this.lastResetTime.plus(Duration.ofMinutes(10)))) {
-          SessionPool.this.maxSessionsInUse = SessionPool.this.numSessionsInUse;
+          SessionPool.this.maxSessionsInUse.set(SessionPool.this.numSessionsInUse.get());
           SessionPool.this.lastResetTime = currTime;
         }
+        if (demandForecaster != null) {
+          int demand =
+              SessionPool.this.maxSessionsInUseInCycle.getAndSet(
+                      SessionPool.this.numSessionsInUse.get())
+                  + waiters.size();
+          demandForecaster.record(currTime, demand);
+          SessionPool.this.predictedNumSessions =
+              Math.min(
+                  options.getMaxSessions(),
+                  Math.max(options.getMinSessions(), demandForecaster.forecast(currTime)));
+        }
       }
 
       removeIdleSessions(currTime);
       // Now go over all the remaining sessions and see if they need to be kept alive explicitly.
       keepAliveSessions(currTime);
+      replaceSlowSessions();
       replenishPool();
+      growPoolToForecast();
       synchronized (lock) {
         running = false;
         if (SessionPool.this.isClosed()) {
@@ -2110,12 +2261,37 @@ class SessionPool {
         // all sessions that have a lastUseTime before that time, unless it would cause us to go
         // below MinSessions.
         Instant minLastUseTime = currTime.minus(options.getRemoveInactiveSessionAfterDuration());
+        // Do not remove sessions that are expected to be needed soon.
+        int maxSessionsToRemove =
+            demandForecaster == null
+                ? Integer.MAX_VALUE
+                : Math.max(0, totalSessions() - predictedNumSessions);
+        if (idleSessions != null) {
+          List<PooledSession> idle =
+              idleSessions.removeIf(
+                  session ->
+                      session.delegate.getLastUseTime() != null
+                          && session.delegate.getLastUseTime().isBefore(minLastUseTime)
+                          && session.state != SessionState.CLOSING,
+                  maxSessionsToRemove);
+          for (PooledSession session : idle) {
+            if (removeFromPool(session)) {
+              numIdleSessionsRemoved++;
+              if (idleSessionRemovedListener != null) {
+                idleSessionRemovedListener.apply(session);
+              }
+            }
+          }
+          return;
+        }
         Iterator<PooledSession> iterator = sessions.descendingIterator();
-        while (iterator.hasNext()) {
+        int numSessionsRemoved = 0;
+        while (iterator.hasNext() && numSessionsRemoved < maxSessionsToRemove) {
           PooledSession session = iterator.next();
           if (session.delegate.getLastUseTime() != null
               && session.delegate.getLastUseTime().isBefore(minLastUseTime)) {
             if (session.state != SessionState.CLOSING) {
+              numSessionsRemoved++;
               boolean isRemoved = removeFromPool(session);
               if (isRemoved) {
                 numIdleSessionsRemoved++;
@@ -2133,7 +2309,7 @@ class SessionPool {
     private void keepAliveSessions(Instant currTime) {
       long numSessionsToKeepAlive = 0;
       synchronized (lock) {
-        if (numSessionsInUse >= (options.getMinSessions() + options.getMaxIdleSessions())) {
+        if (numSessionsInUse.get() >= (options.getMinSessions() + options.getMaxIdleSessions())) {
           // At least MinSessions are in use, so we don't have to ping any sessions.
           return;
         }
@@ -2143,7 +2319,7 @@ class SessionPool {
                 Math.ceil(
                     (double)
                             ((options.getMinSessions() + options.getMaxIdleSessions())
-                                - numSessionsInUse)
+                                - numSessionsInUse.get())
                         / numKeepAliveCycles);
       }
       // Now go over all the remaining sessions and see if they need to be kept alive explicitly.
@@ -2153,7 +2329,10 @@ class SessionPool {
       while (numSessionsToKeepAlive > 0) {
         Tuple<PooledSession, Integer> sessionToKeepAlive;
         synchronized (lock) {
-          sessionToKeepAlive = findSessionToKeepAlive(sessions, keepAliveThreshold, 0);
+          sessionToKeepAlive =
+              idleSessions == null
+                  ? findSessionToKeepAlive(sessions, keepAliveThreshold, 0)
+                  : findIdleSessionToKeepAlive(keepAliveThreshold);
         }
         if (sessionToKeepAlive == null) {
           break;
@@ -2169,6 +2348,53 @@ class SessionPool {
       }
     }
 
+    /**
+     * Updates the slow channels that are skipped at checkout, and replaces one idle session that is
+     * persistently much slower than the median session in the pool. Only one session is replaced
+     * per cycle, so a pool-wide slowdown that is not yet visible in the median does not cause a
+     * burst of session creation.
+     */
+    private void replaceSlowSessions() {
+      if (latencyTracker == null) {
+        return;
+      }
+      latencyTracker.updateSlowChannels();
+      synchronized (lock) {
+        List<MovingLatency> latencies = new ArrayList<>(allSessions.size());
+        for (PooledSession session : allSessions) {
+          latencies.add(session.latency);
+        }
+        double median = SessionLatencyTracker.median(latencies);
+        if (median == 0d) {
+          return;
+        }
+        Predicate<PooledSession> isSlow =
+            session ->
+                session.state != SessionState.CLOSING
+                    && SessionLatencyTracker.isSlow(session.latency, median);
+        PooledSession slowSession = null;
+        if (idleSessions != null) {
+          List<PooledSession> removed = idleSessions.removeIf(isSlow, 1);
+          slowSession = removed.isEmpty() ? null : removed.get(0);
+        } else {
+          Iterator<PooledSession> iterator = sessions.iterator();
+          while (iterator.hasNext()) {
+            PooledSession session = iterator.next();
+            if (isSlow.test(session)) {
+              iterator.remove();
+              slowSession = session;
+              break;
+            }
+          }
+        }
+        if (slowSession != null && removeFromPool(slowSession)) {
+          logger.log(Level.FINE, "Replacing slow session " + slowSession.getName());
+          numSlowSessionsReplaced++;
+          createSessions(getAllowedCreateSessions(1), false);
+        }
+      }
+    }
+
     private void replenishPool() {
       synchronized (lock) {
         // If we have gone below min pool size, create that many sessions.
@@ -2179,6 +2405,19 @@ class SessionPool {
       }
     }
 
+    private void growPoolToForecast() {
+      if (demandForecaster == null) {
+        return;
+      }
+      synchronized (lock) {
+        // Create the sessions that are expected to be needed before the demand arrives.
+        int sessionCount = predictedNumSessions - (totalSessions() + numSessionsBeingCreated);
+        if (sessionCount > 0) {
+          createSessions(getAllowedCreateSessions(sessionCount), true);
+        }
+      }
+    }
+
     // cleans up sessions which are unexpectedly long-running.
     void removeLongRunningSessions(Instant currentTime) {
       try {
@@ -2313,38 +2552,84 @@ class SessionPool {
   @GuardedBy("lock")
   private int pendingClosure;
 
-  @GuardedBy("lock")
-  private SettableFuture<Void> closureFuture;
+  /** This field is only written while holding the lock, but may be read without the lock. */
+  private volatile SettableFuture<Void> closureFuture;
 
   @GuardedBy("lock")
   private ClosedException closedException;
 
-  @GuardedBy("lock")
-  private ResourceNotFoundException resourceNotFoundException;
+  /** This field is only written while holding the lock, but may be read without the lock. */
+  private volatile ResourceNotFoundException resourceNotFoundException;
 
   @GuardedBy("lock")
   private final LinkedList<PooledSession> sessions = new LinkedList<>();
 
-  @GuardedBy("lock")
-  private final Queue<WaiterFuture> waiters = new LinkedList<>();
+  /**
+   * The idle sessions of the pool if {@link SessionPoolOptions#isUseStripedSessionPool()} is
+   * enabled. The pool then uses these lock-free stacks instead of {@link #sessions}. There is one
+   * stack per gRPC channel.
+   */
+  @Nullable private final StripedStack<PooledSession> idleSessions;
+
+  /**
+   * The waiters for a session. New waiters are only added while holding the lock. The queue is
+   * thread-safe, so the striped pool can check whether there are any waiters without the lock.
+   */
+  private final SessionWaiterQueue<WaiterFuture> waiters = new SessionWaiterQueue<>();
+
+  /**
+   * Records the time that requests waited for a session, or null if OpenTelemetry metrics are not
+   * enabled.
+   */
+  @Nullable private DoubleHistogram waitForSessionLatencies;
+
+  private final Map<PriorityClass, Attributes> waitForSessionLatencyAttributes =
+      new EnumMap<>(PriorityClass.class);
 
   @GuardedBy("lock")
   private int numSessionsBeingCreated = 0;
 
+  private final AtomicInteger numSessionsInUse = new AtomicInteger();
+
+  private final AtomicInteger maxSessionsInUse = new AtomicInteger();
+
+  /** The max number of sessions in use since the last run of the pool maintainer. */
+  private final AtomicInteger maxSessionsInUseInCycle = new AtomicInteger();
+
+  /**
+   * Forecasts the demand for sessions if {@link SessionPoolOptions#isUsePredictiveSizing()} is
+   * enabled.
+   */
+  @Nullable private final SessionDemandForecaster demandForecaster;
+
+  /**
+   * Tracks the latency of sessions and channels if {@link
+   * SessionPoolOptions#isUseLatencyAwarePlacement()} is enabled.
+   */
+  @Nullable private final SessionLatencyTracker latencyTracker;
+
+  /**
+   * Limits the number of concurrent requests of the clients that use this pool if {@link
+   * SessionPoolOptions#isUseAdaptiveConcurrencyLimit()} is enabled.
+   */
+  @Nullable private final ConcurrencyLimiter concurrencyLimiter;
+
+  /** The number of idle sessions that are compared at checkout with latency-aware placement. */
+  @VisibleForTesting static final int NUM_PLACEMENT_CANDIDATES = 4;
+
   @GuardedBy("lock")
-  private int numSessionsInUse = 0;
+  private long numSlowSessionsReplaced = 0;
 
+  /** The number of sessions that the pool expects to need, based on the demand forecast. */
   @GuardedBy("lock")
-  private int maxSessionsInUse = 0;
+  private int predictedNumSessions;
 
   @GuardedBy("lock")
   private Instant lastResetTime = Clock.INSTANCE.instant();
 
-  @GuardedBy("lock")
-  private long numSessionsAcquired = 0;
+  private final AtomicLong numSessionsAcquired = new AtomicLong();
 
-  @GuardedBy("lock")
-  private long numSessionsReleased = 0;
+  private final AtomicLong numSessionsReleased = new AtomicLong();
 
   @GuardedBy("lock")
   private long numIdleSessionsRemoved = 0;
@@ -2360,12 +2645,10 @@ class SessionPool {
   @GuardedBy("lock")
   private final Set<PooledSession> allSessions = new HashSet<>();
 
-  @GuardedBy("lock")
   @VisibleForTesting
-  final Set<PooledSessionFuture> checkedOutSessions = new HashSet<>();
+  final Set<PooledSessionFuture> checkedOutSessions = ConcurrentHashMap.newKeySet();
 
-  @GuardedBy("lock")
-  private final Set<PooledSessionFuture> markedCheckedOutSessions = new HashSet<>();
+  private final Set<PooledSessionFuture> markedCheckedOutSessions = ConcurrentHashMap.newKeySet();
 
   private final SessionConsumer sessionConsumer = new SessionConsumerImpl();
 
@@ -2508,6 +2791,22 @@ class SessionPool {
     this.executor = executor;
     this.sessionClient = sessionClient;
     this.numChannels = sessionClient.getSpanner().getOptions().getNumChannels();
+    this.idleSessions =
+        options.isUseStripedSessionPool() ? new StripedStack<>(Math.max(1, numChannels)) : null;
+    this.demandForecaster =
+        options.isUsePredictiveSizing()
+            ? new SessionDemandForecaster(
+                options.getPredictiveSizingHorizon(), Duration.ofMillis(options.getLoopFrequency()))
+            : null;
+    this.latencyTracker =
+        options.isUseLatencyAwarePlacement()
+            ? new SessionLatencyTracker(Math.max(1, numChannels))
+            : null;
+    this.concurrencyLimiter =
+        options.isUseAdaptiveConcurrencyLimit()
+            ? new ConcurrencyLimiter(
+                options.getMinConcurrencyLimit(), options.getMaxConcurrencyLimit())
+            : null;
     this.clock = clock;
     this.initialReleasePosition = initialReleasePosition;
     this.poolMaintainer = new PoolMaintainer();
@@ -2587,15 +2886,18 @@ class SessionPool {
 
   @VisibleForTesting
   int getNumberOfSessionsInUse() {
-    synchronized (lock) {
-      return numSessionsInUse;
-    }
+    return numSessionsInUse.get();
   }
 
   @VisibleForTesting
   int getMaxSessionsInUse() {
+    return maxSessionsInUse.get();
+  }
+
+  @VisibleForTesting
+  int getPredictedNumSessions() {
     synchronized (lock) {
-      return maxSessionsInUse;
+      return predictedNumSessions;
     }
   }
 
@@ -2606,7 +2908,7 @@ class SessionPool {
       if (maxSessions == 0) {
         return 0;
       }
-      return (double) numSessionsInUse / maxSessions;
+      return (double) numSessionsInUse.get() / maxSessions;
     }
   }
 
@@ -2622,6 +2924,19 @@ class SessionPool {
     }
   }
 
+  /** Returns the concurrency limiter of this pool, or null if concurrency is not limited. */
+  @Nullable
+  ConcurrencyLimiter getConcurrencyLimiter() {
+    return concurrencyLimiter;
+  }
+
+  @VisibleForTesting
+  long numSlowSessionsReplaced() {
+    synchronized (lock) {
+      return numSlowSessionsReplaced;
+    }
+  }
+
   long numIdleSessionsRemoved() {
     synchronized (lock) {
       return numIdleSessionsRemoved;
@@ -2638,7 +2953,7 @@ class SessionPool {
   @VisibleForTesting
   int getNumberOfSessionsInPool() {
     synchronized (lock) {
-      return sessions.size();
+      return numIdleSessions();
     }
   }
 
@@ -2665,7 +2980,8 @@ class SessionPool {
     synchronized (lock) {
       poolMaintainer.init();
       if (options.getMinSessions() > 0) {
-        createSessions(options.getMinSessions(), true);
+        createSessions(
+            options.getMinSessions(), true, options.getStartupBatchCreateSessionsParallelism());
       }
     }
   }
@@ -2710,7 +3026,7 @@ class SessionPool {
     Iterator<PooledSession> iterator = queue.iterator();
     while (iterator.hasNext()
         && (numChecked + numAlreadyChecked)
-            < (options.getMinSessions() + options.getMaxIdleSessions() - numSessionsInUse)) {
+            < (options.getMinSessions() + options.getMaxIdleSessions() - numSessionsInUse.get())) {
       PooledSession session = iterator.next();
       if (session.delegate.getLastUseTime() != null
           && session.delegate.getLastUseTime().isBefore(keepAliveThreshold)) {
@@ -2722,6 +3038,20 @@ class SessionPool {
     return null;
   }
 
+  /**
+   * Removes and returns an idle session that needs to be kept alive from the striped pool, or
+   * returns null if there is no such session.
+   */
+  private Tuple<PooledSession, Integer> findIdleSessionToKeepAlive(Instant keepAliveThreshold) {
+    List<PooledSession> found =
+        idleSessions.removeIf(
+            session ->
+                session.delegate.getLastUseTime() != null
+                    && session.delegate.getLastUseTime().isBefore(keepAliveThreshold),
+            1);
+    return found.isEmpty() ? null : Tuple.of(found.get(0), 0);
+  }
+
   /**
    * @return true if this {@link SessionPool} is still valid.
    */
@@ -2755,8 +3085,25 @@ class SessionPool {
    * </ol>
    */
   PooledSessionFuture getSession() throws SpannerException {
+    return getSession(/* priority= */ null);
+  }
+
+  /**
+   * Returns a session from the pool. The priority of the request determines its {@link
+   * PriorityClass} if the request has to wait for a session. Requests with {@link
+   * Priority#PRIORITY_LOW} are served after other requests when the pool is exhausted.
+   */
+  PooledSessionFuture getSession(@Nullable Priority priority) throws SpannerException {
     ISpan span = tracer.getCurrentSpan();
     span.addAnnotation("Acquiring session");
+    if (idleSessions != null && closureFuture == null && resourceNotFoundException == null) {
+      // The striped pool can check out an idle session without taking the global lock.
+      PooledSession sess = pollIdleSession();
+      if (sess != null) {
+        span.addAnnotation("Acquired session");
+        return checkoutSession(span, sess, null);
+      }
+    }
     WaiterFuture waiter = null;
     PooledSession sess = null;
     synchronized (lock) {
@@ -2774,7 +3121,9 @@ class SessionPool {
                 resourceNotFoundException.getMessage()),
             resourceNotFoundException);
       }
-      if (denyListedChannels != null
+      if (idleSessions != null) {
+        sess = pollIdleSession();
+      } else if (denyListedChannels != null
           && denyListedChannels.size() > 0
           && denyListedChannels.size() < numChannels) {
         // There are deny-listed channels. Get a session that is not affiliated with a deny-listed
@@ -2791,21 +3140,125 @@ class SessionPool {
           }
         }
       }
-      if (sess == null) {
-        sess = sessions.poll();
+      if (sess == null && idleSessions == null) {
+        sess = latencyTracker == null ? sessions.poll() : pollFastSession();
       }
       if (sess == null) {
         span.addAnnotation("No session available");
         maybeCreateSession();
-        waiter = new WaiterFuture();
+        waiter = new WaiterFuture(PriorityClass.of(priority));
         waiters.add(waiter);
-      } else {
+        if (idleSessions != null) {
+          // A session could have been released to the striped pool after the poll above and
+          // before the waiter was added. The release of that session did then not see the waiter.
+          sess = pollIdleSession();
+          if (sess != null) {
+            waiters.remove(waiter);
+            waiter = null;
+          }
+        }
+      }
+      if (sess != null) {
         span.addAnnotation("Acquired session");
       }
       return checkoutSession(span, sess, waiter);
     }
   }
 
+  /**
+   * Takes an idle session from the striped pool. The stack of the channel that is assigned to the
+   * current thread is tried first, and then the stacks of the other channels. Channels that have
+   * been deny-listed are skipped, unless all channels have been deny-listed.
+   */
+  private PooledSession pollIdleSession() {
+    int preferredStripe = (int) (Thread.currentThread().getId() % idleSessions.getNumStripes());
+    if (latencyTracker != null) {
+      PooledSession session =
+          idleSessions.poll(
+              preferredStripe,
+              stripe ->
+                  !latencyTracker.isSlowChannel(stripe)
+                      && (denyListedChannels == null
+                          || denyListedChannels.getIfPresent(stripe) == null));
+      if (session != null) {
+        return session;
+      }
+    }
+    if (denyListedChannels != null
+        && denyListedChannels.size() > 0
+        && denyListedChannels.size() < numChannels) {
+      PooledSession session =
+          idleSessions.poll(
+              preferredStripe, stripe -> denyListedChannels.getIfPresent(stripe) == null);
+      if (session != null) {
+        return session;
+      }
+    }
+    return idleSessions.poll(preferredStripe, stripe -> true);
+  }
+
+  /**
+   * Takes the session with the lowest expected latency from the first {@link
+   * #NUM_PLACEMENT_CANDIDATES} idle sessions. Sessions on channels that are persistently slow are
+   * only taken if all candidates use such a channel.
+   */
+  @GuardedBy("lock")
+  private PooledSession pollFastSession() {
+    PooledSession fastest = null;
+    double fastestLatency = Double.MAX_VALUE;
+    boolean fastestOnSlowChannel = true;
+    int numCandidates = 0;
+    for (PooledSession session : sessions) {
+      if (numCandidates++ >= NUM_PLACEMENT_CANDIDATES) {
+        break;
+      }
+      int channel = session.getChannel();
+      boolean onSlowChannel = latencyTracker.isSlowChannel(channel);
+      double latency = latencyTracker.estimate(session.latency, channel);
+      if (fastest == null
+          || (fastestOnSlowChannel && !onSlowChannel)
+          || (fastestOnSlowChannel == onSlowChannel && latency < fastestLatency)) {
+        fastest = session;
+        fastestLatency = latency;
+        fastestOnSlowChannel = onSlowChannel;
+      }
+    }
+    if (fastest != null) {
+      sessions.remove(fastest);
+    }
+    return fastest;
+  }
+
+  /**
+   * Releases a session to the striped pool. The session is pushed onto the stack of its channel
+   * without taking the global lock, unless there are waiters for a session.
+   */
+  private void releaseToStripedPool(PooledSession session) {
+    if (closureFuture != null) {
+      return;
+    }
+    session.releaseToPosition = options.getReleaseToPosition();
+    idleSessions.push(session.getChannel(), session);
+    if (!waiters.isEmpty()) {
+      synchronized (lock) {
+        while (!waiters.isEmpty()) {
+          PooledSession idleSession = pollIdleSession();
+          if (idleSession == null) {
+            break;
+          }
+          if (!handToWaiter(idleSession)) {
+            idleSessions.push(idleSession.getChannel(), idleSession);
+            break;
+          }
+        }
+      }
+    }
+    if (closureFuture != null) {
+      // The pool was closed while the session was being released.
+      idleSessions.clear();
+    }
+  }
+
   private PooledSessionFuture checkoutSession(
       final ISpan span, final PooledSession readySession, WaiterFuture waiter) {
     ListenableFuture<PooledSession> sessionFuture;
@@ -2826,12 +3279,10 @@ class SessionPool {
   }
 
   private void incrementNumSessionsInUse() {
-    synchronized (lock) {
-      if (maxSessionsInUse < ++numSessionsInUse) {
-        maxSessionsInUse = numSessionsInUse;
-      }
-      numSessionsAcquired++;
-    }
+    int inUse = numSessionsInUse.incrementAndGet();
+    maxSessionsInUse.accumulateAndGet(inUse, Math::max);
+    maxSessionsInUseInCycle.accumulateAndGet(inUse, Math::max);
+    numSessionsAcquired.incrementAndGet();
   }
 
   private void maybeCreateSession() {
@@ -2901,11 +3352,15 @@ class SessionPool {
   private void releaseSession(
       PooledSession session, boolean isNewSession, @Nullable Integer position) {
     Preconditions.checkNotNull(session);
+    if (idleSessions != null) {
+      releaseToStripedPool(session);
+      return;
+    }
     synchronized (lock) {
       if (closureFuture != null) {
         return;
       }
-      if (waiters.isEmpty()) {
+      if (!handToWaiter(session)) {
         // There are no pending waiters.
         // Add to a random position if the transactions per second is high or the head of the
         // session pool already contains many sessions with the same channel as this one.
@@ -2940,12 +3395,35 @@ class SessionPool {
           sessions.addFirst(session);
         }
         session.releaseToPosition = options.getReleaseToPosition();
-      } else {
-        waiters.poll().put(session);
       }
     }
   }
 
+  /**
+   * Hands the given session to the next waiter. Returns false if there is no waiter that still
+   * needs a session.
+   */
+  @GuardedBy("lock")
+  private boolean handToWaiter(PooledSession session) {
+    WaiterFuture waiter;
+    while ((waiter = waiters.poll()) != null) {
+      // The waiter could have timed out after it was polled from the queue.
+      if (waiter.put(session)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void recordWaitForSessionLatency(PriorityClass priorityClass, long nanos) {
+    DoubleHistogram histogram = this.waitForSessionLatencies;
+    if (histogram != null) {
+      histogram.record(
+          nanos / 1_000_000.0d,
+          waitForSessionLatencyAttributes.getOrDefault(priorityClass, Attributes.empty()));
+    }
+  }
+
   /**
    * Returns true if the position where we return the session should be random if:
    *
@@ -2962,7 +3440,7 @@ class SessionPool {
   boolean shouldRandomize() {
     return this.options.getRandomizePositionQPSThreshold() > 0
         && this.transactionsPerSecond >= this.options.getRandomizePositionQPSThreshold()
-        && this.numSessionsInUse >= this.numChannels;
+        && this.numSessionsInUse.get() >= this.numChannels;
   }
 
   private boolean isUnbalanced(PooledSession session) {
@@ -3051,11 +3529,11 @@ class SessionPool {
   private void handleCreateSessionsFailure(SpannerException e, int count) {
     synchronized (lock) {
       for (int i = 0; i < count; i++) {
-        if (!waiters.isEmpty()) {
-          waiters.poll().put(e);
-        } else {
+        WaiterFuture waiter = waiters.poll();
+        if (waiter == null) {
           break;
         }
+        waiter.put(e);
       }
       if (!dialect.isDone()) {
         dialect.setException(e);
@@ -3107,6 +3585,9 @@ class SessionPool {
       }
 
       sessions.clear();
+      if (idleSessions != null) {
+        idleSessions.clear();
+      }
       for (PooledSessionFuture session : checkedOutSessions) {
         if (session.leakedException != null) {
           if (options.isFailOnSessionLeak()) {
@@ -3142,7 +3623,8 @@ class SessionPool {
     return retFuture;
   }
 
-  private int numWaiters() {
+  @VisibleForTesting
+  int numWaiters() {
     synchronized (lock) {
       return waiters.size();
     }
@@ -3158,10 +3640,15 @@ class SessionPool {
   @VisibleForTesting
   int numSessionsInPool() {
     synchronized (lock) {
-      return sessions.size();
+      return numIdleSessions();
     }
   }
 
+  /** Returns the number of idle sessions in the pool. */
+  private int numIdleSessions() {
+    return idleSessions == null ? sessions.size() : idleSessions.size();
+  }
+
   private ApiFuture<Empty> closeSessionAsync(final PooledSession sess) {
     ApiFuture<Empty> res = sess.delegate.asyncClose();
     res.addListener(
@@ -3201,6 +3688,11 @@ class SessionPool {
   }
 
   private void createSessions(final int sessionCount, boolean distributeOverChannels) {
+    createSessions(sessionCount, distributeOverChannels, /* parallelismPerChannel= */ 1);
+  }
+
+  private void createSessions(
+      final int sessionCount, boolean distributeOverChannels, int parallelismPerChannel) {
     logger.log(Level.FINE, String.format("Creating %d sessions", sessionCount));
     synchronized (lock) {
       numSessionsBeingCreated += sessionCount;
@@ -3209,8 +3701,13 @@ class SessionPool {
         // calls and the session consumer consumes the returned sessions as they become available.
         // The batchCreateSessions method automatically spreads the sessions evenly over all
         // available channels.
-        sessionClient.asyncBatchCreateSessions(
-            sessionCount, distributeOverChannels, sessionConsumer);
+        if (parallelismPerChannel > 1) {
+          sessionClient.asyncBatchCreateSessions(
+              sessionCount, distributeOverChannels, parallelismPerChannel, sessionConsumer);
+        } else {
+          sessionClient.asyncBatchCreateSessions(
+              sessionCount, distributeOverChannels, sessionConsumer);
+        }
       } catch (Throwable t) {
         // Expose this to customer via a metric.
         numSessionsBeingCreated -= sessionCount;
@@ -3355,7 +3852,7 @@ class SessionPool {
     // invoked whenever metrics are collected.
     maxInUseSessionsMetric.removeTimeSeries(labelValues);
     maxInUseSessionsMetric.createTimeSeries(
-        labelValues, this, sessionPool -> sessionPool.maxSessionsInUse);
+        labelValues, this, sessionPool -> sessionPool.maxSessionsInUse.get());
 
     // The value of a maxSessions is observed from a callback function. This function is invoked
     // whenever metrics are collected.
@@ -3375,14 +3872,14 @@ class SessionPool {
 
     numAcquiredSessionsMetric.removeTimeSeries(labelValuesWithRegularSessions);
     numAcquiredSessionsMetric.createTimeSeries(
-        labelValuesWithRegularSessions, this, sessionPool -> sessionPool.numSessionsAcquired);
+        labelValuesWithRegularSessions, this, sessionPool -> sessionPool.numSessionsAcquired.get());
     numAcquiredSessionsMetric.removeTimeSeries(labelValuesWithMultiplexedSessions);
     numAcquiredSessionsMetric.createTimeSeries(
         labelValuesWithMultiplexedSessions, this, unused -> numMultiplexedSessionsAcquired.get());
 
     numReleasedSessionsMetric.removeTimeSeries(labelValuesWithRegularSessions);
     numReleasedSessionsMetric.createTimeSeries(
-        labelValuesWithRegularSessions, this, sessionPool -> sessionPool.numSessionsReleased);
+        labelValuesWithRegularSessions, this, sessionPool -> sessionPool.numSessionsReleased.get());
     numReleasedSessionsMetric.removeTimeSeries(labelValuesWithMultiplexedSessions);
     numReleasedSessionsMetric.createTimeSeries(
         labelValuesWithMultiplexedSessions, this, unused -> numMultiplexedSessionsReleased.get());
@@ -3400,13 +3897,13 @@ class SessionPool {
     labelValuesWithInUseType.add(NUM_IN_USE_SESSIONS);
     numSessionsInPoolMetric.removeTimeSeries(labelValuesWithInUseType);
     numSessionsInPoolMetric.createTimeSeries(
-        labelValuesWithInUseType, this, sessionPool -> sessionPool.numSessionsInUse);
+        labelValuesWithInUseType, this, sessionPool -> sessionPool.numSessionsInUse.get());
 
     List<LabelValue> labelValuesWithReadType = new ArrayList<>(labelValues);
     labelValuesWithReadType.add(NUM_READ_SESSIONS);
     numSessionsInPoolMetric.removeTimeSeries(labelValuesWithReadType);
     numSessionsInPoolMetric.createTimeSeries(
-        labelValuesWithReadType, this, sessionPool -> sessionPool.sessions.size());
+        labelValuesWithReadType, this, sessionPool -> sessionPool.numIdleSessions());
 
     List<LabelValue> labelValuesWithWriteType = new ArrayList<>(labelValues);
     labelValuesWithWriteType.add(NUM_WRITE_SESSIONS);
@@ -3449,7 +3946,7 @@ class SessionPool {
         .setUnit(COUNT)
         .buildWithCallback(
             measurement -> {
-              measurement.record(this.maxSessionsInUse, attributes);
+              measurement.record(this.maxSessionsInUse.get(), attributes);
             });
 
     AttributesBuilder attributesBuilder;
@@ -3468,8 +3965,8 @@ class SessionPool {
         .setUnit(COUNT)
         .buildWithCallback(
             measurement -> {
-              measurement.record(this.numSessionsInUse, attributesInUseSessions);
-              measurement.record(this.sessions.size(), attributesAvailableSessions);
+              measurement.record(this.numSessionsInUse.get(), attributesInUseSessions);
+              measurement.record(this.numIdleSessions(), attributesAvailableSessions);
             });
 
     AttributesBuilder attributesBuilderIsMultiplexed;
@@ -3497,7 +3994,7 @@ class SessionPool {
         .setUnit(COUNT)
         .buildWithCallback(
             measurement -> {
-              measurement.record(this.numSessionsAcquired, attributesRegularSession);
+              measurement.record(this.numSessionsAcquired.get(), attributesRegularSession);
               measurement.record(
                   numMultiplexedSessionsAcquired.get(), attributesMultiplexedSession);
             });
@@ -3508,9 +4005,35 @@ class SessionPool {
         .setUnit(COUNT)
         .buildWithCallback(
             measurement -> {
-              measurement.record(this.numSessionsReleased, attributesRegularSession);
+              measurement.record(this.numSessionsReleased.get(), attributesRegularSession);
               measurement.record(
                   numMultiplexedSessionsReleased.get(), attributesMultiplexedSession);
             });
+
+    for (PriorityClass priorityClass : PriorityClass.values()) {
+      AttributesBuilder attributesBuilderPriorityClass =
+          attributes == null ? Attributes.builder() : attributes.toBuilder();
+      waitForSessionLatencyAttributes.put(
+          priorityClass,
+          attributesBuilderPriorityClass
+              .put(PRIORITY_CLASS, priorityClass.name().toLowerCase(Locale.ENGLISH))
+              .build());
+    }
+    this.waitForSessionLatencies =
+        meter
+            .histogramBuilder(GET_SESSION_WAIT_LATENCIES)
+            .setDescription(GET_SESSION_WAIT_LATENCIES_DESCRIPTION)
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(BuiltInMetricsConstant.BUCKET_BOUNDARIES)
+            .build();
+
+    if (concurrencyLimiter != null) {
+      meter
+          .gaugeBuilder(CONCURRENCY_LIMIT)
+          .setDescription(CONCURRENCY_LIMIT_DESCRIPTION)
+          .setUnit(COUNT)
+          .buildWithCallback(
+              measurement -> measurement.record(concurrencyLimiter.getLimit(), attributes));
+    }
   }
 }
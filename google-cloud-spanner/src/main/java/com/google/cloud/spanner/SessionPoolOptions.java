@@ -19,6 +19,7 @@ package com.google.cloud.spanner;
 import static com.google.api.gax.util.TimeConversionUtils.toJavaTimeDuration;
 import static com.google.api.gax.util.TimeConversionUtils.toThreetenDuration;
 
+import com.google.api.core.BetaApi;
 import com.google.api.core.InternalApi;
 import com.google.api.core.ObsoleteApi;
 import com.google.cloud.spanner.SessionPool.Position;
@@ -36,6 +37,8 @@ public class SessionPoolOptions {
   private static final int DEFAULT_INC_STEP = 25;
   private static final int EXPERIMENTAL_HOST_REGULAR_SESSIONS = 0;
   private static final ActionOnExhaustion DEFAULT_ACTION = ActionOnExhaustion.BLOCK;
+  private static final int MAX_PRE_BEGUN_READ_WRITE_TRANSACTIONS = 100;
+  private static final int MAX_STARTUP_BATCH_CREATE_SESSIONS_PARALLELISM = 16;
   private final int minSessions;
   private final int maxSessions;
   private final int incStep;
@@ -74,6 +77,14 @@ public class SessionPoolOptions {
   private final Duration acquireSessionTimeout;
   private final Position releaseToPosition;
   private final long randomizePositionQPSThreshold;
+  private final boolean useStripedSessionPool;
+  private final boolean useLatencyAwarePlacement;
+  private final int startupBatchCreateSessionsParallelism;
+  private final int minConcurrencyLimit;
+  private final int maxConcurrencyLimit;
+  private final boolean usePredictiveSizing;
+  private final Duration predictiveSizingHorizon;
+  private final int numPreBegunReadWriteTransactions;
 
   /** Property for allowing mocking of session maintenance clock. */
   private final Clock poolMaintainerClock;
@@ -116,6 +127,14 @@ public class SessionPoolOptions {
     this.acquireSessionTimeout = builder.acquireSessionTimeout;
     this.releaseToPosition = builder.releaseToPosition;
     this.randomizePositionQPSThreshold = builder.randomizePositionQPSThreshold;
+    this.useStripedSessionPool = builder.useStripedSessionPool;
+    this.useLatencyAwarePlacement = builder.useLatencyAwarePlacement;
+    this.startupBatchCreateSessionsParallelism = builder.startupBatchCreateSessionsParallelism;
+    this.minConcurrencyLimit = builder.minConcurrencyLimit;
+    this.maxConcurrencyLimit = builder.maxConcurrencyLimit;
+    this.usePredictiveSizing = builder.usePredictiveSizing;
+    this.predictiveSizingHorizon = builder.predictiveSizingHorizon;
+    this.numPreBegunReadWriteTransactions = builder.numPreBegunReadWriteTransactions;
     this.inactiveTransactionRemovalOptions = builder.inactiveTransactionRemovalOptions;
     this.poolMaintainerClock = builder.poolMaintainerClock;
     // useMultiplexedSession priority => Environment var > private setter > client default
@@ -176,6 +195,16 @@ public class SessionPoolOptions {
         && Objects.equals(this.acquireSessionTimeout, other.acquireSessionTimeout)
         && Objects.equals(this.releaseToPosition, other.releaseToPosition)
         && Objects.equals(this.randomizePositionQPSThreshold, other.randomizePositionQPSThreshold)
+        && Objects.equals(this.useStripedSessionPool, other.useStripedSessionPool)
+        && Objects.equals(this.useLatencyAwarePlacement, other.useLatencyAwarePlacement)
+        && Objects.equals(
+            this.startupBatchCreateSessionsParallelism, other.startupBatchCreateSessionsParallelism)
+        && Objects.equals(this.minConcurrencyLimit, other.minConcurrencyLimit)
+        && Objects.equals(this.maxConcurrencyLimit, other.maxConcurrencyLimit)
+        && Objects.equals(this.usePredictiveSizing, other.usePredictiveSizing)
+        && Objects.equals(this.predictiveSizingHorizon, other.predictiveSizingHorizon)
+        && Objects.equals(
+            this.numPreBegunReadWriteTransactions, other.numPreBegunReadWriteTransactions)
         && Objects.equals(
             this.inactiveTransactionRemovalOptions, other.inactiveTransactionRemovalOptions)
         && Objects.equals(this.poolMaintainerClock, other.poolMaintainerClock)
@@ -210,6 +239,14 @@ public class SessionPoolOptions {
         this.acquireSessionTimeout,
         this.releaseToPosition,
         this.randomizePositionQPSThreshold,
+        this.useStripedSessionPool,
+        this.useLatencyAwarePlacement,
+        this.startupBatchCreateSessionsParallelism,
+        this.minConcurrencyLimit,
+        this.maxConcurrencyLimit,
+        this.usePredictiveSizing,
+        this.predictiveSizingHorizon,
+        this.numPreBegunReadWriteTransactions,
         this.inactiveTransactionRemovalOptions,
         this.poolMaintainerClock,
         this.useMultiplexedSession,
@@ -348,6 +385,81 @@ public class SessionPoolOptions {
     return randomizePositionQPSThreshold;
   }
 
+  /**
+   * Returns true if the session pool keeps its idle sessions in lock-free stacks per gRPC channel
+   * instead of in one list that is guarded by a global lock.
+   */
+  @BetaApi
+  public boolean isUseStripedSessionPool() {
+    return useStripedSessionPool;
+  }
+
+  /**
+   * Returns true if the session pool uses the latency that it observes on its sessions to prefer
+   * fast sessions at checkout and to replace sessions that are persistently slow.
+   */
+  @BetaApi
+  public boolean isUseLatencyAwarePlacement() {
+    return useLatencyAwarePlacement;
+  }
+
+  /**
+   * Returns the max number of BatchCreateSessions RPCs per channel that the session pool executes
+   * in parallel to create the initial {@link #getMinSessions()} sessions.
+   */
+  @BetaApi
+  public int getStartupBatchCreateSessionsParallelism() {
+    return startupBatchCreateSessionsParallelism;
+  }
+
+  /**
+   * Returns true if the client limits the number of concurrent requests with an adaptive
+   * concurrency limit.
+   */
+  @BetaApi
+  public boolean isUseAdaptiveConcurrencyLimit() {
+    return maxConcurrencyLimit > 0;
+  }
+
+  /** Returns the lowest value of the adaptive concurrency limit. */
+  @BetaApi
+  public int getMinConcurrencyLimit() {
+    return minConcurrencyLimit;
+  }
+
+  /**
+   * Returns the highest value of the adaptive concurrency limit, or 0 if the number of concurrent
+   * requests is not limited.
+   */
+  @BetaApi
+  public int getMaxConcurrencyLimit() {
+    return maxConcurrencyLimit;
+  }
+
+  /**
+   * Returns true if the session pool creates sessions ahead of the demand that it predicts from the
+   * load that it has observed.
+   */
+  @BetaApi
+  public boolean isUsePredictiveSizing() {
+    return usePredictiveSizing;
+  }
+
+  /** Returns how far ahead the session pool predicts the demand for sessions. */
+  @BetaApi
+  public Duration getPredictiveSizingHorizon() {
+    return predictiveSizingHorizon;
+  }
+
+  /**
+   * Returns the number of read/write transactions that are begun in advance on the multiplexed
+   * session. 0 means that read/write transactions are not begun in advance.
+   */
+  @BetaApi
+  public int getNumPreBegunReadWriteTransactions() {
+    return numPreBegunReadWriteTransactions;
+  }
+
   @VisibleForTesting
   @InternalApi
   public boolean getUseMultiplexedSession() {
@@ -611,6 +723,22 @@ public class SessionPoolOptions {
      */
     private long randomizePositionQPSThreshold = 0L;
 
+    private boolean useStripedSessionPool = false;
+
+    private boolean useLatencyAwarePlacement = false;
+
+    private int startupBatchCreateSessionsParallelism = 1;
+
+    private int minConcurrencyLimit = 0;
+
+    private int maxConcurrencyLimit = 0;
+
+    private boolean usePredictiveSizing = false;
+
+    private Duration predictiveSizingHorizon = Duration.ofMinutes(5L);
+
+    private int numPreBegunReadWriteTransactions = 0;
+
     // This field controls the default behavior of session management in Java client.
     // Set useMultiplexedSession to true to make multiplexed session the default.
     private boolean useMultiplexedSession = true;
@@ -668,6 +796,14 @@ public class SessionPoolOptions {
       this.waitForMinSessions = options.waitForMinSessions;
       this.acquireSessionTimeout = options.acquireSessionTimeout;
       this.randomizePositionQPSThreshold = options.randomizePositionQPSThreshold;
+      this.useStripedSessionPool = options.useStripedSessionPool;
+      this.useLatencyAwarePlacement = options.useLatencyAwarePlacement;
+      this.startupBatchCreateSessionsParallelism = options.startupBatchCreateSessionsParallelism;
+      this.minConcurrencyLimit = options.minConcurrencyLimit;
+      this.maxConcurrencyLimit = options.maxConcurrencyLimit;
+      this.usePredictiveSizing = options.usePredictiveSizing;
+      this.predictiveSizingHorizon = options.predictiveSizingHorizon;
+      this.numPreBegunReadWriteTransactions = options.numPreBegunReadWriteTransactions;
       this.inactiveTransactionRemovalOptions = options.inactiveTransactionRemovalOptions;
       this.useMultiplexedSession = options.useMultiplexedSession;
       this.useMultiplexedSessionForRW = options.useMultiplexedSessionForRW;
@@ -1040,6 +1176,159 @@ public class SessionPoolOptions {
       return this;
     }
 
+    /**
+     * Sets whether the session pool should keep its idle sessions in lock-free stacks, with one
+     * stack per gRPC channel, instead of in one list that is guarded by a global lock. Checking out
+     * a session takes an idle session from the stack of a channel that is chosen based on the
+     * current thread, and takes a session from one of the other stacks if that stack is empty.
+     * Releasing a session pushes it onto the stack of the channel of the session. This reduces the
+     * lock contention in the session pool for applications that check out and release sessions
+     * from many threads in parallel.
+     *
+     * <p>The striped pool always re-uses the most recently used session of a channel first.
+     * Consequently, the options for the position that a session is released to are not used by the
+     * striped pool. The pool maintainer, the leak detection and the metrics work in the same way as
+     * for the default pool. The default is false.
+     */
+    @BetaApi
+    public Builder setUseStripedSessionPool(boolean useStripedSessionPool) {
+      this.useStripedSessionPool = useStripedSessionPool;
+      return this;
+    }
+
+    /**
+     * Sets whether the session pool should use the latency that it observes on its sessions to
+     * place requests on fast sessions. The pool keeps a moving average of the round-trip time of
+     * the keep-alive pings on each session, and on each gRPC channel. Other RPCs are not sampled,
+     * as their latency depends on the work that they do and not only on the session.
+     *
+     * <p>A checkout takes the fastest of the first few idle sessions, instead of always the first
+     * one, and skips channels that are persistently much slower than the other channels. The pool
+     * maintainer replaces idle sessions that are persistently much slower than the median session
+     * in the pool. This limits the effect of a subset of sessions or channels that are stuck on a
+     * slow backend path on the tail latency of the application. The default is false.
+     */
+    @BetaApi
+    public Builder setUseLatencyAwarePlacement(boolean useLatencyAwarePlacement) {
+      this.useLatencyAwarePlacement = useLatencyAwarePlacement;
+      return this;
+    }
+
+    /**
+     * Sets the max number of BatchCreateSessions RPCs per channel that the session pool executes in
+     * parallel to create the initial {@link #setMinSessions(int)} sessions. By default, the pool
+     * executes one RPC per channel, and Spanner can return fewer sessions than requested in one
+     * RPC. The remaining sessions are then requested in sequential RPCs, which makes the startup
+     * of a pool with a large number of min sessions slow.
+     *
+     * <p>With a higher value, the sessions of each channel are split into smaller batches that are
+     * requested in parallel. Each batch is added to the pool as soon as it has been returned, so
+     * the first sessions are also available sooner. The number of RPCs that are actually executed
+     * in parallel is also limited by the number of threads of the executor of the client. The
+     * value must be between 1 and 16. The default is 1.
+     */
+    @BetaApi
+    public Builder setStartupBatchCreateSessionsParallelism(
+        int startupBatchCreateSessionsParallelism) {
+      Preconditions.checkArgument(
+          startupBatchCreateSessionsParallelism >= 1
+              && startupBatchCreateSessionsParallelism
+                  <= MAX_STARTUP_BATCH_CREATE_SESSIONS_PARALLELISM,
+          "startupBatchCreateSessionsParallelism must be between 1 and "
+              + MAX_STARTUP_BATCH_CREATE_SESSIONS_PARALLELISM);
+      this.startupBatchCreateSessionsParallelism = startupBatchCreateSessionsParallelism;
+      return this;
+    }
+
+    /**
+     * Enables an adaptive limit on the number of concurrent reads, queries and commits that a
+     * {@link DatabaseClient} executes. The limit starts at the max value, and is adjusted to the
+     * latency that the client observes: It is increased by one for each request that finishes in
+     * time while the limit is being used. It is decreased by a fixed ratio when the 90th percentile
+     * latency of a type of request in a window of one second is much higher than the baseline
+     * latency of that type of request, or when a request fails with an error that indicates that
+     * Spanner is overloaded. The limit is decreased at most once per second, and never drops below
+     * the min value.
+     *
+     * <p>A request that would exceed the current limit fails immediately with a {@link
+     * ConcurrencyLimitExceededException}, instead of adding more load to a backend that is already
+     * slowing down. The application can handle this error by shedding load or by retrying the
+     * request with a backoff. The current limit is exported as the {@code concurrency_limit}
+     * metric if OpenTelemetry metrics are enabled.
+     *
+     * <p>A query holds a permit until the first call to {@link ResultSet#next()} has returned, or
+     * until the {@link ResultSet} is closed. The permit of a {@link ResultSet} that is neither
+     * iterated nor closed is reclaimed after one minute.
+     *
+     * <p>Set the max value to 0 to disable the limit. The limit is disabled by default.
+     */
+    @BetaApi
+    public Builder setAdaptiveConcurrencyLimit(int minLimit, int maxLimit) {
+      Preconditions.checkArgument(maxLimit >= 0, "maxLimit must be >= 0");
+      Preconditions.checkArgument(
+          maxLimit == 0 || (minLimit >= 1 && minLimit <= maxLimit),
+          "minLimit must be between 1 and maxLimit");
+      this.minConcurrencyLimit = maxLimit == 0 ? 0 : minLimit;
+      this.maxConcurrencyLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Sets whether the session pool should size itself based on the load that it has observed,
+     * instead of only creating sessions when a checkout finds no idle session. The pool maintainer
+     * records the peak number of sessions in use and the number of waiters in each maintenance
+     * cycle, and uses these to forecast the demand for sessions {@link
+     * #setPredictiveSizingHorizon(Duration)} ahead. The forecast uses a trend-aware moving average
+     * of the recent load, and a moving average of the load at the same time of day on previous
+     * days for recurring peaks. The pool creates sessions when the forecast exceeds the current
+     * size of the pool, and does not remove idle sessions that are needed for the forecast. The
+     * size of the pool always stays between the min and max sessions. The default is false.
+     */
+    @BetaApi
+    public Builder setUsePredictiveSizing(boolean usePredictiveSizing) {
+      this.usePredictiveSizing = usePredictiveSizing;
+      return this;
+    }
+
+    /**
+     * Sets how far ahead the session pool should forecast the demand for sessions when {@link
+     * #setUsePredictiveSizing(boolean)} is enabled. This should be at least the time that it takes
+     * to create a batch of sessions. The default is 5 minutes.
+     */
+    @BetaApi
+    public Builder setPredictiveSizingHorizon(Duration predictiveSizingHorizon) {
+      Preconditions.checkNotNull(predictiveSizingHorizon);
+      Preconditions.checkArgument(
+          !predictiveSizingHorizon.isNegative() && !predictiveSizingHorizon.isZero(),
+          "predictiveSizingHorizon must be positive");
+      this.predictiveSizingHorizon = predictiveSizingHorizon;
+      return this;
+    }
+
+    /**
+     * Sets the number of read/write transactions that the client should begin in advance on the
+     * multiplexed session. The first statement of a read/write transaction that uses the default
+     * transaction options then uses one of these transactions instead of inlining a
+     * BeginTransaction option. Other statements in the same transaction therefore do not need to
+     * wait for the first statement to return a transaction id. Transactions that only buffer
+     * mutations do not use these transactions, as they must be begun with a mutation key to get
+     * the precommit token that is required for the commit. The client replaces transactions that
+     * it has begun in advance before Spanner aborts them for being idle, but only while the
+     * application keeps using them. Transactions that are not used are not rolled back, and are
+     * cleaned up by Spanner. This option is only used for read/write transactions on multiplexed
+     * sessions. The default is 0, which disables this feature.
+     */
+    @BetaApi
+    public Builder setNumPreBegunReadWriteTransactions(int numPreBegunReadWriteTransactions) {
+      Preconditions.checkArgument(
+          numPreBegunReadWriteTransactions >= 0
+              && numPreBegunReadWriteTransactions <= MAX_PRE_BEGUN_READ_WRITE_TRANSACTIONS,
+          "numPreBegunReadWriteTransactions must be between 0 and "
+              + MAX_PRE_BEGUN_READ_WRITE_TRANSACTIONS);
+      this.numPreBegunReadWriteTransactions = numPreBegunReadWriteTransactions;
+      return this;
+    }
+
     /** Build a SessionPoolOption object */
     public SessionPoolOptions build() {
       validate();
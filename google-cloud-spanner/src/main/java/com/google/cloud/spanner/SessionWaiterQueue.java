@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.spanner.v1.RequestOptions.Priority;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * The queue of requests that are waiting for a session from a {@link SessionPool}. Waiters are
+ * grouped in priority classes, and are served in the order that they were added within a class.
+ * Interactive waiters are served before batch waiters, but a batch waiter is served after at most
+ * {@link #INTERACTIVE_WEIGHT} interactive waiters in a row. This prevents batch requests from
+ * starving, while interactive requests still get most of the sessions when the pool is exhausted.
+ *
+ * <p>Waiters that are already done, for example because they timed out, and waiters whose deadline
+ * has passed, are removed from the queue instead of being served.
+ *
+ * <p>Adding and removing waiters and checking whether the queue is empty is thread-safe and
+ * lock-free. Serving waiters is serialized.
+ */
+final class SessionWaiterQueue<W extends SessionWaiterQueue.Waiter> {
+
+  /** The priority class of a request that is waiting for a session. */
+  enum PriorityClass {
+    INTERACTIVE,
+    BATCH;
+
+    /** Returns the priority class for a request with the given RPC priority. */
+    static PriorityClass of(@Nullable Priority priority) {
+      return priority == Priority.PRIORITY_LOW ? BATCH : INTERACTIVE;
+    }
+  }
+
+  /** A request that is waiting for a session. */
+  interface Waiter {
+    PriorityClass getPriorityClass();
+
+    /** Returns true if this waiter no longer needs a session. */
+    boolean isDone();
+
+    /** Fails this waiter and returns true if the deadline of the waiter has passed. */
+    boolean failIfDeadlineExceeded();
+  }
+
+  /**
+   * The max number of interactive waiters that are served in a row while there are batch waiters.
+   */
+  @VisibleForTesting static final int INTERACTIVE_WEIGHT = 4;
+
+  private final Queue<W> interactiveWaiters = new ConcurrentLinkedQueue<>();
+  private final Queue<W> batchWaiters = new ConcurrentLinkedQueue<>();
+
+  @GuardedBy("this")
+  private int numInteractiveServedInRow;
+
+  void add(W waiter) {
+    queueFor(waiter.getPriorityClass()).add(waiter);
+  }
+
+  boolean remove(W waiter) {
+    return queueFor(waiter.getPriorityClass()).remove(waiter);
+  }
+
+  boolean isEmpty() {
+    return interactiveWaiters.isEmpty() && batchWaiters.isEmpty();
+  }
+
+  /** Returns the number of waiters in the queue, including waiters that are already done. */
+  int size() {
+    return interactiveWaiters.size() + batchWaiters.size();
+  }
+
+  /**
+   * Removes and returns the next waiter that should get a session, or null if there is no waiter
+   * that still needs a session.
+   */
+  @Nullable
+  synchronized W poll() {
+    while (true) {
+      Queue<W> queue;
+      if (batchWaiters.isEmpty()
+          || (!interactiveWaiters.isEmpty() && numInteractiveServedInRow < INTERACTIVE_WEIGHT)) {
+        queue = interactiveWaiters;
+      } else {
+        queue = batchWaiters;
+      }
+      W waiter = queue.poll();
+      if (waiter == null) {
+        // The other queue could have become empty after it was checked.
+        queue = queue == interactiveWaiters ? batchWaiters : interactiveWaiters;
+        waiter = queue.poll();
+        if (waiter == null) {
+          return null;
+        }
+      }
+      if (waiter.isDone() || waiter.failIfDeadlineExceeded()) {
+        continue;
+      }
+      if (queue == interactiveWaiters && !batchWaiters.isEmpty()) {
+        numInteractiveServedInRow++;
+      } else {
+        numInteractiveServedInRow = 0;
+      }
+      return waiter;
+    }
+  }
+
+  private Queue<W> queueFor(PriorityClass priorityClass) {
+    return priorityClass == PriorityClass.BATCH ? batchWaiters : interactiveWaiters;
+  }
+}
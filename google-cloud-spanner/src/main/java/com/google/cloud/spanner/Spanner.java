@@ -16,6 +16,9 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.BetaApi;
 import com.google.api.gax.core.ExecutorProvider;
 import com.google.cloud.Service;
 
@@ -150,6 +153,28 @@ public interface Spanner extends Service<SpannerOptions>, AutoCloseable {
    */
   BatchClient getBatchClient(DatabaseId db);
 
+  /**
+   * Connects all gRPC channels of this {@link Spanner} instance to Spanner. The gRPC channels are
+   * by default connected lazily by the first requests that use them, which means that these
+   * requests also have to wait for DNS resolution, connection setup, TLS handshake and
+   * authentication. Calling this method directly after creating the {@link Spanner} instance moves
+   * this work out of the request path. All channels are warmed up in parallel.
+   *
+   * <p>The returned future is done when all channels have made a round-trip to Spanner, and fails
+   * if any channel could not reach Spanner. Calling this method multiple times returns the same
+   * future. See also {@link SpannerOptions.Builder#setWarmUpChannelsOnStartup(boolean)}.
+   *
+   * <pre>{@code
+   * Spanner spanner = options.getService();
+   * spanner.warmUpChannels().get();
+   * // Mark the application as ready to receive traffic.
+   * }</pre>
+   */
+  @BetaApi
+  default ApiFuture<Void> warmUpChannels() {
+    return ApiFutures.immediateFuture(null);
+  }
+
   /**
    * Closes all the clients associated with this instance and frees up all the resources. This
    * method will block until it can clean up all the resources. Specifically, it deletes all the
@@ -110,6 +110,12 @@ public class SpannerException extends BaseGrpcServiceException {
     return requestId.toString();
   }
 
+  /** Returns the request id of the request that caused this exception, or null if unknown. */
+  @Nullable
+  XGoogSpannerRequestId getRequestIdObject() {
+    return requestId;
+  }
+
   enum DoNotConstructDirectly {
     ALLOWED
   }
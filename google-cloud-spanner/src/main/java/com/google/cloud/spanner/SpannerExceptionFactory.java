@@ -155,6 +155,23 @@ public final class SpannerExceptionFactory {
     return new SpannerBatchUpdateException(token, code, message, updateCounts, cause, reqId);
   }
 
+  /**
+   * Returns a {@link SpannerBatchUpdateException} with the same error code, message and request id
+   * as the given exception, but with the given update counts. The given exception is used as the
+   * cause. This is used to combine the update counts of a batch that was executed in multiple
+   * requests, and the given exception can be any error of one of those requests.
+   */
+  static SpannerBatchUpdateException newSpannerBatchUpdateException(
+      SpannerException exception, long[] updateCounts) {
+    return new SpannerBatchUpdateException(
+        DoNotConstructDirectly.ALLOWED,
+        exception.getErrorCode(),
+        exception.getMessage(),
+        updateCounts,
+        exception,
+        exception.getRequestIdObject());
+  }
+
   /** Constructs a specific error that */
   public static DmlBatchUpdateCountVerificationFailedException
       newDmlBatchUpdateCountVerificationFailedException(long[] expected, long[] actual) {
@@ -254,6 +271,19 @@ public final class SpannerExceptionFactory {
     return new RetryOnDifferentGrpcChannelException(message, channel, cause);
   }
 
+  /**
+   * Creates a new exception that indicates that a request was rejected by the client, because the
+   * client already executes as many requests as the given concurrency limit allows.
+   */
+  static ConcurrencyLimitExceededException newConcurrencyLimitExceededException(int limit) {
+    return new ConcurrencyLimitExceededException(
+        DoNotConstructDirectly.ALLOWED,
+        formatMessage(
+            ErrorCode.RESOURCE_EXHAUSTED,
+            "The client already executes the max number of concurrent requests: " + limit),
+        limit);
+  }
+
   static SpannerException newSpannerExceptionForCancellation(
       @Nullable Context context, @Nullable Throwable cause) {
     return newSpannerExceptionForCancellation(context, cause, null);
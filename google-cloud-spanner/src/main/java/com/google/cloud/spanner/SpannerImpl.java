@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.gax.core.ExecutorProvider;
 import com.google.api.gax.core.GaxProperties;
 import com.google.api.gax.paging.Page;
@@ -43,6 +44,7 @@ import io.opencensus.trace.Tracing;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -115,6 +117,9 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
 
   private final CloseableExecutorProvider asyncExecutorProvider;
 
+  private final ResumableStreamMetrics resumableStreamMetrics;
+  private final RowTypeCache rowTypeCache;
+
   @GuardedBy("this")
   private final Map<DatabaseId, SessionClient> sessionClients = new HashMap<>();
 
@@ -138,6 +143,12 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
   @GuardedBy("this")
   private ClosedException closedException;
 
+  /** The maximum time that the warm-up RPC on a gRPC channel may take. */
+  private static final Duration CHANNEL_WARM_UP_TIMEOUT = Duration.ofSeconds(60L);
+
+  @GuardedBy("this")
+  private ApiFuture<Void> channelWarmUpFuture;
+
   @VisibleForTesting
   SpannerImpl(SpannerRpc gapicRpc, SpannerOptions options) {
     super(options);
@@ -146,9 +157,14 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
         MoreObjects.firstNonNull(
             options.getAsyncExecutorProvider(),
             SpannerOptions.createDefaultAsyncExecutorProvider());
+    this.resumableStreamMetrics = new ResumableStreamMetrics(options.getOpenTelemetry());
+    this.rowTypeCache = new RowTypeCache(options.getOpenTelemetry());
     this.dbAdminClient = new DatabaseAdminClientImpl(options.getProjectId(), gapicRpc);
     this.instanceClient =
         new InstanceAdminClientImpl(options.getProjectId(), gapicRpc, dbAdminClient);
+    if (options.isWarmUpChannelsOnStartup()) {
+      warmUpChannels();
+    }
   }
 
   SpannerImpl(SpannerOptions options) {
@@ -169,6 +185,22 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     return getOptions().getDecodeMode();
   }
 
+  long getDefaultMaxPrefetchBytes() {
+    return getOptions().getMaxPrefetchBytes();
+  }
+
+  long getDefaultMaxResumeBufferBytes() {
+    return getOptions().getMaxResumeBufferBytes();
+  }
+
+  ResumableStreamMetrics getResumableStreamMetrics() {
+    return resumableStreamMetrics;
+  }
+
+  RowTypeCache getRowTypeCache() {
+    return rowTypeCache;
+  }
+
   /** Returns the default query options that should be used for the specified database. */
   QueryOptions getDefaultQueryOptions(DatabaseId databaseId) {
     return getOptions().getDefaultQueryOptions(databaseId);
@@ -370,6 +402,15 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
         getSessionClient(db), /* useMultiplexedSessionPartitionedOps= */ false);
   }
 
+  @Override
+  public synchronized ApiFuture<Void> warmUpChannels() {
+    checkClosed();
+    if (channelWarmUpFuture == null) {
+      channelWarmUpFuture = gapicRpc.warmUpChannels(CHANNEL_WARM_UP_TIMEOUT);
+    }
+    return channelWarmUpFuture;
+  }
+
   @Override
   public void close() {
     close(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
@@ -380,6 +421,10 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     synchronized (this) {
       checkClosed();
       closedException = new ClosedException();
+      if (channelWarmUpFuture != null) {
+        // Stop the warm-up RPCs that are still running, as the channels are about to be closed.
+        channelWarmUpFuture.cancel(true);
+      }
     }
     try {
       closureFutures = new ArrayList<>();
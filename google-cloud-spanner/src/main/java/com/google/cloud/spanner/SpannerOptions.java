@@ -140,6 +140,8 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private final SessionPoolOptions sessionPoolOptions;
   private final int prefetchChunks;
   private final DecodeMode decodeMode;
+  private final long maxResumeBufferBytes;
+  private final long maxPrefetchBytes;
   private final int numChannels;
   private final String transportChannelExecutorThreadNameFormat;
   private final String databaseRole;
@@ -178,6 +180,9 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private final boolean attemptDirectPath;
   private final DirectedReadOptions directedReadOptions;
   private final boolean useVirtualThreads;
+  private final boolean loadAwareChannelSelectionEnabled;
+  private final boolean warmUpChannelsOnStartup;
+  private final String multiplexedSessionCacheFile;
   private final OpenTelemetry openTelemetry;
   private final boolean enableApiTracing;
   private final boolean enableBuiltInMetrics;
@@ -775,6 +780,8 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
             : SessionPoolOptions.newBuilder().build();
     prefetchChunks = builder.prefetchChunks;
     decodeMode = builder.decodeMode;
+    maxResumeBufferBytes = builder.maxResumeBufferBytes;
+    maxPrefetchBytes = builder.maxPrefetchBytes;
     databaseRole = builder.databaseRole;
     sessionLabels = builder.sessionLabels;
     try {
@@ -809,6 +816,9 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     attemptDirectPath = builder.attemptDirectPath;
     directedReadOptions = builder.directedReadOptions;
     useVirtualThreads = builder.useVirtualThreads;
+    loadAwareChannelSelectionEnabled = builder.loadAwareChannelSelectionEnabled;
+    warmUpChannelsOnStartup = builder.warmUpChannelsOnStartup;
+    multiplexedSessionCacheFile = builder.multiplexedSessionCacheFile;
     openTelemetry = builder.openTelemetry;
     enableApiTracing = builder.enableApiTracing;
     enableExtendedTracing = builder.enableExtendedTracing;
@@ -951,6 +961,8 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     static final int DEFAULT_PREFETCH_CHUNKS = 4;
     static final QueryOptions DEFAULT_QUERY_OPTIONS = QueryOptions.getDefaultInstance();
     static final DecodeMode DEFAULT_DECODE_MODE = DecodeMode.DIRECT;
+    static final long DEFAULT_MAX_RESUME_BUFFER_BYTES = 0L;
+    static final long DEFAULT_MAX_PREFETCH_BYTES = 0L;
     static final RetrySettings DEFAULT_ADMIN_REQUESTS_LIMIT_EXCEEDED_RETRY_SETTINGS =
         RetrySettings.newBuilder()
             .setInitialRetryDelayDuration(Duration.ofSeconds(5L))
@@ -978,6 +990,8 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
 
     private int prefetchChunks = DEFAULT_PREFETCH_CHUNKS;
     private DecodeMode decodeMode = DEFAULT_DECODE_MODE;
+    private long maxResumeBufferBytes = DEFAULT_MAX_RESUME_BUFFER_BYTES;
+    private long maxPrefetchBytes = DEFAULT_MAX_PREFETCH_BYTES;
     private SessionPoolOptions sessionPoolOptions;
     private String databaseRole;
     private ImmutableMap<String, String> sessionLabels;
@@ -1003,6 +1017,9 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     private boolean attemptDirectPath = true;
     private DirectedReadOptions directedReadOptions;
     private boolean useVirtualThreads = false;
+    private boolean loadAwareChannelSelectionEnabled = false;
+    private boolean warmUpChannelsOnStartup = false;
+    private String multiplexedSessionCacheFile;
     private OpenTelemetry openTelemetry;
     private boolean enableApiTracing = SpannerOptions.environment.isEnableApiTracing();
     private boolean enableExtendedTracing = SpannerOptions.environment.isEnableExtendedTracing();
@@ -1054,6 +1071,8 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       this.sessionPoolOptions = options.sessionPoolOptions;
       this.prefetchChunks = options.prefetchChunks;
       this.decodeMode = options.decodeMode;
+      this.maxResumeBufferBytes = options.maxResumeBufferBytes;
+      this.maxPrefetchBytes = options.maxPrefetchBytes;
       this.databaseRole = options.databaseRole;
       this.sessionLabels = options.sessionLabels;
       this.spannerStubSettingsBuilder = options.spannerStubSettings.toBuilder();
@@ -1075,6 +1094,9 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       this.attemptDirectPath = options.attemptDirectPath;
       this.directedReadOptions = options.directedReadOptions;
       this.useVirtualThreads = options.useVirtualThreads;
+      this.loadAwareChannelSelectionEnabled = options.loadAwareChannelSelectionEnabled;
+      this.warmUpChannelsOnStartup = options.warmUpChannelsOnStartup;
+      this.multiplexedSessionCacheFile = options.multiplexedSessionCacheFile;
       this.enableApiTracing = options.enableApiTracing;
       this.enableExtendedTracing = options.enableExtendedTracing;
       this.enableBuiltInMetrics = options.enableBuiltInMetrics;
@@ -1503,6 +1525,44 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       return this;
     }
 
+    /**
+     * Sets the maximum number of bytes of {@code PartialResultSet} chunks without a resume token
+     * that the client will buffer for each read and query. Chunks are held back from the
+     * application until a resume token is seen, so that the stream can be resumed transparently if
+     * it fails. If the buffer exceeds this size, the buffered chunks are handed to the application
+     * and the stream cannot be resumed until a new resume token is received. This can be overridden
+     * on a per read/query basis by {@link Options#resumeBufferBytes(long)}.
+     *
+     * <p>The default is 0, which means that the buffer is limited by a fixed number of chunks
+     * instead of by size.
+     */
+    @BetaApi
+    public Builder setMaxResumeBufferBytes(long maxResumeBufferBytes) {
+      Preconditions.checkArgument(
+          maxResumeBufferBytes >= 0L, "maxResumeBufferBytes must be >= 0");
+      this.maxResumeBufferBytes = maxResumeBufferBytes;
+      return this;
+    }
+
+    /**
+     * Enables adaptive prefetching for each read and query. With adaptive prefetching, the client
+     * starts with requesting {@link #setPrefetchChunks(int) prefetchChunks} chunks from the server,
+     * and then increases the number of requested chunks when the application consumes the results
+     * faster than they are received, and decreases it when the results are received faster than
+     * they are consumed. The total size of the requested and buffered chunks is limited to
+     * approximately {@code maxPrefetchBytes}. This can be overridden on a per read/query basis by
+     * {@link Options#adaptivePrefetch(long)}.
+     *
+     * <p>The default is 0, which disables adaptive prefetching. The client then always requests a
+     * fixed number of {@code prefetchChunks} chunks.
+     */
+    @BetaApi
+    public Builder setMaxPrefetchBytes(long maxPrefetchBytes) {
+      Preconditions.checkArgument(maxPrefetchBytes >= 0L, "maxPrefetchBytes must be >= 0");
+      this.maxPrefetchBytes = maxPrefetchBytes;
+      return this;
+    }
+
     @Override
     public Builder setHost(String host) {
       super.setHost(host);
@@ -1620,6 +1680,51 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       return this;
     }
 
+    /**
+     * Enables/disables load-aware channel selection. When enabled, RPCs that are not bound to a
+     * specific gRPC channel, such as the RPCs of transactions on multiplexed sessions, are sent on
+     * the least loaded of two randomly chosen channels. The load of a channel is determined by the
+     * number of RPCs that are in flight on the channel and the recent latency of the channel. This
+     * prevents RPCs from piling up on a few channels and hitting the maximum number of concurrent
+     * streams of those channels while other channels are idle.
+     *
+     * <p>This option has no effect if the gRPC-GCP extension is enabled or if a custom {@link
+     * TransportChannelProvider} is set. The default is false.
+     */
+    @BetaApi
+    public Builder setEnableLoadAwareChannelSelection(boolean enableLoadAwareChannelSelection) {
+      this.loadAwareChannelSelectionEnabled = enableLoadAwareChannelSelection;
+      return this;
+    }
+
+    /**
+     * Sets whether all gRPC channels should be connected when the {@link Spanner} instance is
+     * created, instead of when the first requests are sent. The channels are connected in the
+     * background, and {@link Spanner#warmUpChannels()} returns a future that is done when all
+     * channels are ready. The default is false.
+     */
+    @BetaApi
+    public Builder setWarmUpChannelsOnStartup(boolean warmUpChannelsOnStartup) {
+      this.warmUpChannelsOnStartup = warmUpChannelsOnStartup;
+      return this;
+    }
+
+    /**
+     * Sets the path of a file that the client uses to store the multiplexed sessions that it
+     * creates. A new client reads the file, and reuses a multiplexed session from the file if that
+     * session has not yet passed its maintenance duration, instead of creating a new multiplexed
+     * session before it can execute its first request. The client replaces the session in the
+     * background when it passes its maintenance duration, as it would for a session that it
+     * created itself. The file can be shared by multiple processes that use the same credentials.
+     * Errors while reading or writing the file are ignored. The default is null, which means that
+     * multiplexed sessions are not stored.
+     */
+    @BetaApi
+    public Builder setMultiplexedSessionCacheFile(String multiplexedSessionCacheFile) {
+      this.multiplexedSessionCacheFile = multiplexedSessionCacheFile;
+      return this;
+    }
+
     /**
      * Creates and sets an {@link com.google.api.gax.tracing.ApiTracer} for the RPCs that are
      * executed by this client. Enabling this creates traces for each individual RPC execution,
@@ -2084,6 +2189,32 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     return useVirtualThreads;
   }
 
+  /**
+   * Returns whether RPCs that are not bound to a specific gRPC channel are sent on the least
+   * loaded channel. See {@link Builder#setEnableLoadAwareChannelSelection(boolean)}.
+   */
+  @BetaApi
+  public boolean isLoadAwareChannelSelectionEnabled() {
+    return loadAwareChannelSelectionEnabled;
+  }
+
+  /**
+   * Returns whether all gRPC channels are connected when the {@link Spanner} instance is created.
+   */
+  @BetaApi
+  public boolean isWarmUpChannelsOnStartup() {
+    return warmUpChannelsOnStartup;
+  }
+
+  /**
+   * Returns the path of the file that multiplexed sessions are stored in, or null if multiplexed
+   * sessions are not stored. See {@link Builder#setMultiplexedSessionCacheFile(String)}.
+   */
+  @BetaApi
+  public String getMultiplexedSessionCacheFile() {
+    return multiplexedSessionCacheFile;
+  }
+
   /**
    * Returns whether extended OpenTelemetry tracing is enabled. Enabling this option will add the
    * following additional attributes to the traces that are generated by the client:
@@ -2130,6 +2261,24 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     return decodeMode;
   }
 
+  /**
+   * Returns the maximum number of bytes of chunks without a resume token that are buffered for
+   * each read and query, or 0 if the buffer is limited by the number of chunks.
+   */
+  @BetaApi
+  public long getMaxResumeBufferBytes() {
+    return maxResumeBufferBytes;
+  }
+
+  /**
+   * Returns the maximum number of bytes that are requested and buffered for each read and query
+   * when adaptive prefetching is used, or 0 if adaptive prefetching is disabled.
+   */
+  @BetaApi
+  public long getMaxPrefetchBytes() {
+    return maxPrefetchBytes;
+  }
+
   public static GrpcTransportOptions getDefaultGrpcTransportOptions() {
     return GrpcTransportOptions.newBuilder().build();
   }
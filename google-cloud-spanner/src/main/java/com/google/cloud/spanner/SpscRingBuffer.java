@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread. {@link
+ * #offer(Object)} may only be called by the producer, and {@link #poll()} and {@link
+ * #drainTo(Collection, int)} may only be called by the consumer. The producer and the consumer
+ * may be different threads over time, as long as there is a happens-before relationship between
+ * two subsequent producers or consumers. All other methods may be called by any thread.
+ */
+final class SpscRingBuffer<E> {
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+
+  /** The index of the next element that will be read by the consumer. */
+  private final AtomicLong head = new AtomicLong();
+
+  /** The index of the next element that will be written by the producer. */
+  private final AtomicLong tail = new AtomicLong();
+
+  SpscRingBuffer(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+    Preconditions.checkArgument(capacity <= 1 << 30, "capacity must be <= 2^30");
+    this.capacity = capacity;
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.mask = size - 1;
+    this.elements = new AtomicReferenceArray<>(size);
+  }
+
+  /** Returns the maximum number of elements in this buffer. */
+  int capacity() {
+    return capacity;
+  }
+
+  /** Returns the number of elements in this buffer. */
+  int size() {
+    // Read head before tail, so the result is never negative.
+    long currentHead = head.get();
+    long currentTail = tail.get();
+    return (int) Math.max(0L, Math.min(capacity, currentTail - currentHead));
+  }
+
+  boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  boolean isFull() {
+    return tail.get() - head.get() >= capacity;
+  }
+
+  /**
+   * Adds an element to the buffer. Returns false if the buffer is full. May only be called by the
+   * producer.
+   */
+  boolean offer(E element) {
+    Preconditions.checkNotNull(element);
+    long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      return false;
+    }
+    elements.lazySet((int) currentTail & mask, element);
+    // Publish the element to the consumer.
+    tail.set(currentTail + 1);
+    return true;
+  }
+
+  /**
+   * Removes and returns the first element of the buffer, or returns null if the buffer is empty.
+   * May only be called by the consumer.
+   */
+  E poll() {
+    long currentHead = head.get();
+    if (currentHead == tail.get()) {
+      return null;
+    }
+    int index = (int) currentHead & mask;
+    E element = elements.get(index);
+    elements.lazySet(index, null);
+    // Release the slot to the producer.
+    head.set(currentHead + 1);
+    return element;
+  }
+
+  /**
+   * Removes at most {@code maxElements} elements from the buffer and adds these to the given
+   * collection. Returns the number of elements that were removed. May only be called by the
+   * consumer.
+   */
+  int drainTo(Collection<? super E> collection, int maxElements) {
+    long currentHead = head.get();
+    int count = (int) Math.min(maxElements, tail.get() - currentHead);
+    for (int i = 0; i < count; i++) {
+      int index = (int) (currentHead + i) & mask;
+      collection.add(elements.get(index));
+      elements.lazySet(index, null);
+    }
+    if (count > 0) {
+      head.set(currentHead + count);
+    }
+    return Math.max(0, count);
+  }
+}
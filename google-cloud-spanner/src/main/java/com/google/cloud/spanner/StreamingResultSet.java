@@ -28,4 +28,12 @@ interface StreamingResultSet extends ResultSet {
    */
   @InternalApi
   boolean initiateStreaming(AsyncResultSet.StreamMessageListener streamMessageListener);
+
+  /**
+   * Returns true if the next call to {@link #next()} will return without waiting for more data
+   * from Spanner. This method will be used by {@link QueryPublisher} internally to only consume
+   * rows that have already been received. This method should not be called by the users.
+   */
+  @InternalApi
+  boolean isNextRowReady();
 }
@@ -27,4 +27,12 @@ final class StreamingUtil {
     }
     return false;
   }
+
+  static boolean isNextRowReady(ResultSet resultSet) {
+    if (resultSet instanceof StreamingResultSet) {
+      return ((StreamingResultSet) resultSet).isNextRowReady();
+    }
+    // Result sets that are not streamed from Spanner do not wait for data.
+    return true;
+  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * A set of lock-free LIFO stacks (Treiber stacks). Items are pushed onto a specific stripe, and
+ * {@link #poll(int, IntPredicate)} takes an item from a preferred stripe, or steals an item from
+ * one of the other stripes if the preferred stripe is empty. Threads that use different stripes do
+ * not contend with each other.
+ *
+ * <p>This class is thread-safe.
+ */
+final class StripedStack<E> {
+  /**
+   * The heads of the stripes are spread out in the array, so the heads of two different stripes
+   * are not on the same cache line.
+   */
+  private static final int PADDING = 16;
+
+  private static final class Node<E> {
+    private final E item;
+    private Node<E> next;
+
+    private Node(E item) {
+      this.item = item;
+    }
+  }
+
+  private final int numStripes;
+  private final AtomicReferenceArray<Node<E>> heads;
+  private final LongAdder size = new LongAdder();
+
+  StripedStack(int numStripes) {
+    Preconditions.checkArgument(numStripes > 0, "numStripes must be > 0");
+    this.numStripes = numStripes;
+    this.heads = new AtomicReferenceArray<>(numStripes * PADDING);
+  }
+
+  int getNumStripes() {
+    return numStripes;
+  }
+
+  /**
+   * Returns the number of items in the stacks. The value is not exact if items are pushed or
+   * polled concurrently.
+   */
+  int size() {
+    return (int) Math.max(0L, size.sum());
+  }
+
+  /** Pushes the given item onto the top of the given stripe. */
+  void push(int stripe, E item) {
+    Preconditions.checkNotNull(item);
+    Node<E> node = new Node<>(item);
+    int index = index(stripe);
+    Node<E> head;
+    do {
+      head = heads.get(index);
+      node.next = head;
+    } while (!heads.compareAndSet(index, head, node));
+    size.increment();
+  }
+
+  /**
+   * Takes the top item from the preferred stripe. If that stripe is empty, the top item from the
+   * next stripe that is accepted by the given predicate is returned. Returns null if all accepted
+   * stripes are empty.
+   */
+  E poll(int preferredStripe, IntPredicate acceptStripe) {
+    int first = Math.floorMod(preferredStripe, numStripes);
+    for (int i = 0; i < numStripes; i++) {
+      int stripe = (first + i) % numStripes;
+      if (acceptStripe.test(stripe)) {
+        E item = pop(stripe);
+        if (item != null) {
+          return item;
+        }
+      }
+    }
+    return null;
+  }
+
+  private E pop(int stripe) {
+    int index = index(stripe);
+    while (true) {
+      Node<E> head = heads.get(index);
+      if (head == null) {
+        return null;
+      }
+      // A node is never pushed twice, so there is no ABA problem.
+      if (heads.compareAndSet(index, head, head.next)) {
+        size.decrement();
+        return head.item;
+      }
+    }
+  }
+
+  /**
+   * Removes at most {@code maxItems} items that match the given filter and returns these. Each
+   * stripe is temporarily detached while it is being filtered, which means that concurrent calls
+   * to {@link #poll(int, IntPredicate)} do not see the items of that stripe.
+   */
+  List<E> removeIf(Predicate<? super E> filter, int maxItems) {
+    List<E> removed = new ArrayList<>();
+    for (int stripe = 0; stripe < numStripes && removed.size() < maxItems; stripe++) {
+      int index = index(stripe);
+      Node<E> node = heads.getAndSet(index, null);
+      Node<E> keptHead = null;
+      Node<E> keptTail = null;
+      while (node != null) {
+        Node<E> next = node.next;
+        if (removed.size() < maxItems && filter.test(node.item)) {
+          removed.add(node.item);
+          size.decrement();
+        } else {
+          // Create a new node instead of re-using the old one. A concurrent pop could still hold a
+          // reference to the old node, and re-using it would cause an ABA problem.
+          Node<E> kept = new Node<>(node.item);
+          if (keptTail == null) {
+            keptHead = kept;
+          } else {
+            keptTail.next = kept;
+          }
+          keptTail = kept;
+        }
+        node = next;
+      }
+      if (keptHead != null) {
+        // Put the remaining items back in their original order on top of any items that were
+        // pushed in the meantime.
+        Node<E> head;
+        do {
+          head = heads.get(index);
+          keptTail.next = head;
+        } while (!heads.compareAndSet(index, head, keptHead));
+      }
+    }
+    return removed;
+  }
+
+  /** Removes all items from all stripes and returns these. */
+  List<E> clear() {
+    return removeIf(item -> true, Integer.MAX_VALUE);
+  }
+
+  private int index(int stripe) {
+    return Math.floorMod(stripe, numStripes) * PADDING;
+  }
+}
@@ -55,6 +55,7 @@ import com.google.spanner.v1.Transaction;
 import com.google.spanner.v1.TransactionOptions;
 import com.google.spanner.v1.TransactionSelector;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -66,6 +67,7 @@ import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -88,6 +90,68 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       "Options.excludeTxnFromChangeStreams() cannot be specified for individual DML requests. "
           + "This option should be set at the transaction level.";
 
+  /**
+   * Splits a batch of DML statements into ExecuteBatchDml requests with at most a given number of
+   * statements and a given size. The statements are converted to protobuf when the request that
+   * contains them is created, so the requests of a large batch are not all created up front.
+   *
+   * <p>This class is not thread-safe.
+   */
+  @VisibleForTesting
+  static final class BatchUpdateSplitter {
+    /** The statements of one ExecuteBatchDml request. */
+    static final class Request {
+      final List<Statement> statements = new ArrayList<>();
+      final List<ExecuteBatchDmlRequest.Statement> encodedStatements = new ArrayList<>();
+    }
+
+    private final Iterator<Statement> statements;
+    private final int maxStatements;
+    private final long maxBytes;
+    // The next statement, which has already been converted to determine its size.
+    private Statement nextStatement;
+    private ExecuteBatchDmlRequest.Statement nextEncodedStatement;
+
+    BatchUpdateSplitter(Iterable<Statement> statements, int maxStatements, long maxBytes) {
+      this.statements = statements.iterator();
+      this.maxStatements = maxStatements;
+      this.maxBytes = maxBytes;
+    }
+
+    boolean hasNext() {
+      return nextStatement != null || statements.hasNext();
+    }
+
+    /**
+     * Returns the next request. A request always contains at least one statement, unless the batch
+     * is empty.
+     */
+    Request next() {
+      Request request = new Request();
+      long bytes = 0L;
+      while (request.statements.size() < maxStatements) {
+        if (nextStatement == null) {
+          if (!statements.hasNext()) {
+            break;
+          }
+          Statement statement = statements.next();
+          nextEncodedStatement = AbstractReadContext.toBatchDmlStatement(statement);
+          nextStatement = statement;
+        }
+        long size = nextEncodedStatement.getSerializedSize();
+        if (!request.statements.isEmpty() && bytes + size > maxBytes) {
+          break;
+        }
+        request.statements.add(nextStatement);
+        request.encodedStatements.add(nextEncodedStatement);
+        bytes += size;
+        nextStatement = null;
+        nextEncodedStatement = null;
+      }
+      return request;
+    }
+  }
+
   @VisibleForTesting
   static class TransactionContextImpl extends AbstractReadContext implements TransactionContext {
 
@@ -98,6 +162,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       // This field is set only when the transaction is created during a retry and uses a
       // multiplexed session.
       private ByteString previousTransactionId;
+      @Nullable private Supplier<ByteString> preBegunTransactionIdSupplier;
       private Options options;
       private boolean trackTransactionStarter;
 
@@ -128,6 +193,17 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
         return self();
       }
 
+      /**
+       * Sets a supplier for the id of a transaction that has already been begun. The supplier is
+       * called when the first statement of the transaction is executed, and the transaction uses
+       * the returned id instead of inlining a BeginTransaction option if it is not null.
+       */
+      Builder setPreBegunTransactionIdSupplier(
+          @Nullable Supplier<ByteString> preBegunTransactionIdSupplier) {
+        this.preBegunTransactionIdSupplier = preBegunTransactionIdSupplier;
+        return self();
+      }
+
       @Override
       TransactionContextImpl build() {
         Preconditions.checkState(this.options != null, "Options must be set");
@@ -153,11 +229,21 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
 
       @Override
       public ApiFuture<Void> setCallback(Executor exec, ReadyCallback cb) {
+        return trackAsyncOperation(() -> super.setCallback(exec, cb));
+      }
+
+      @Override
+      public ApiFuture<Void> setBatchCallback(
+          Executor exec, int batchSize, BatchReadyCallback cb) {
+        return trackAsyncOperation(() -> super.setBatchCallback(exec, batchSize, cb));
+      }
+
+      private ApiFuture<Void> trackAsyncOperation(Supplier<ApiFuture<Void>> operation) {
         Runnable listener = TransactionContextImpl.this::decreaseAsyncOperations;
         try {
           increaseAsyncOperations();
           addListener(listener);
-          return super.setCallback(exec, cb);
+          return operation.get();
         } catch (Throwable t) {
           removeListener(listener);
           decreaseAsyncOperations();
@@ -194,6 +280,15 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
 
     private final Queue<Mutation> mutations = new ConcurrentLinkedQueue<>();
 
+    /**
+     * Converts mutations to protobuf when they are buffered if {@link
+     * Options#eagerMutationEncoding()} is enabled. The mutations are then not added to {@link
+     * #mutations}.
+     */
+    @GuardedBy("committingLock")
+    @Nullable
+    private final Mutation.ProtoEncoder mutationEncoder;
+
     @GuardedBy("lock")
     private boolean aborted;
 
@@ -218,6 +313,13 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
 
     final ByteString previousTransactionId;
 
+    /**
+     * Supplies the id of a transaction that was begun in advance. This is only used by the first
+     * statement of the transaction. A transaction that only buffers mutations never uses it, as
+     * such a transaction must be begun with a mutation key to get a precommit token for the commit.
+     */
+    @Nullable private final Supplier<ByteString> preBegunTransactionIdSupplier;
+
     private CommitResponse commitResponse;
     private final Clock clock;
 
@@ -228,12 +330,18 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       this.transactionId = builder.transactionId;
       this.trackTransactionStarter = builder.trackTransactionStarter;
       this.options = builder.options;
+      this.mutationEncoder =
+          options.withEagerMutationEncoding() == Boolean.TRUE
+                  && options.withCoalesceMutations() != Boolean.TRUE
+              ? new Mutation.ProtoEncoder()
+              : null;
       this.finishedAsyncOperations.set(null);
       this.clock = builder.clock;
       this.channelHint =
           getChannelHintOptions(
               session.getOptions(), ThreadLocalRandom.current().nextLong(Long.MAX_VALUE));
       this.previousTransactionId = builder.previousTransactionId;
+      this.preBegunTransactionIdSupplier = builder.preBegunTransactionIdSupplier;
     }
 
     @Override
@@ -386,8 +494,14 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
           throw new IllegalStateException(TRANSACTION_ALREADY_COMMITTED_MESSAGE);
         }
         committing = true;
-        if (!mutations.isEmpty()) {
-          randomMutation = Mutation.toProtoAndReturnRandomMutation(mutations, mutationsProto);
+        if (mutationEncoder != null) {
+          if (!mutationEncoder.isEmpty()) {
+            randomMutation = mutationEncoder.finish(mutationsProto);
+          }
+        } else if (!mutations.isEmpty()) {
+          randomMutation =
+              Mutation.toProtoAndReturnRandomMutation(
+                  mutations, mutationsProto, options.withCoalesceMutations() == Boolean.TRUE);
         }
       }
       final SettableApiFuture<CommitResponse> res = SettableApiFuture.create();
@@ -644,6 +758,15 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
             }
           }
           if (tx == null) {
+            ByteString preBegunTransactionId =
+                preBegunTransactionIdSupplier == null ? null : preBegunTransactionIdSupplier.get();
+            if (preBegunTransactionId != null) {
+              // Use a transaction that was begun in advance. Spanner returns a precommit token for
+              // the transaction with the result of the statement.
+              this.transactionId = preBegunTransactionId;
+              this.transactionIdFuture.set(preBegunTransactionId);
+              return TransactionSelector.newBuilder().setId(preBegunTransactionId).build();
+            }
             return TransactionSelector.newBuilder()
                 .setBegin(
                     this.session.defaultTransactionOptions().toBuilder()
@@ -833,7 +956,16 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
         if (committing) {
           throw new IllegalStateException(TRANSACTION_ALREADY_COMMITTED_MESSAGE);
         }
-        mutations.add(checkNotNull(mutation));
+        addMutation(checkNotNull(mutation));
+      }
+    }
+
+    @GuardedBy("committingLock")
+    private void addMutation(Mutation mutation) {
+      if (mutationEncoder != null) {
+        mutationEncoder.add(mutation);
+      } else {
+        mutations.add(mutation);
       }
     }
 
@@ -853,7 +985,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
           throw new IllegalStateException(TRANSACTION_ALREADY_COMMITTED_MESSAGE);
         }
         for (Mutation mutation : mutations) {
-          this.mutations.add(checkNotNull(mutation));
+          addMutation(checkNotNull(mutation));
         }
       }
     }
@@ -1043,6 +1175,9 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     @Override
     public long[] batchUpdate(Iterable<Statement> statements, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
+      if (options.hasSplitBatchUpdate()) {
+        return SpannerApiFutures.get(splitBatchUpdateAsync(statements, options, updateOptions));
+      }
       ISpan span =
           tracer.spanBuilderWithExplicitParent(
               BATCH_UPDATE,
@@ -1102,6 +1237,20 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     public ApiFuture<long[]> batchUpdateAsync(
         Iterable<Statement> statements, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
+      if (options.hasSplitBatchUpdate()) {
+        return splitBatchUpdateAsync(statements, options, updateOptions);
+      }
+      return batchUpdateAsync(statements, /* encodedStatements= */ null, options);
+    }
+
+    /**
+     * Executes the given statements in one ExecuteBatchDml request. The statements are converted to
+     * protobuf, unless the already converted statements are given.
+     */
+    private ApiFuture<long[]> batchUpdateAsync(
+        Iterable<Statement> statements,
+        @Nullable List<ExecuteBatchDmlRequest.Statement> encodedStatements,
+        Options options) {
       ISpan span =
           tracer.spanBuilderWithExplicitParent(
               BATCH_UPDATE,
@@ -1114,7 +1263,9 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
               ErrorCode.INVALID_ARGUMENT, DML_INVALID_EXCLUDE_CHANGE_STREAMS_OPTION_MESSAGE);
         }
         final ExecuteBatchDmlRequest.Builder builder =
-            getExecuteBatchDmlRequestBuilder(statements, options);
+            encodedStatements == null
+                ? getExecuteBatchDmlRequestBuilder(statements, options)
+                : getExecuteBatchDmlRequestBuilder(encodedStatements, options);
         ApiFuture<com.google.spanner.v1.ExecuteBatchDmlResponse> response;
         try {
           // Register the update as an async operation that must finish before the transaction may
@@ -1178,6 +1329,105 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
       }
     }
 
+    /**
+     * Executes a batch of statements in sequential ExecuteBatchDml requests that each stay under
+     * the limits of {@link Options#splitBatchUpdate(int, long)}, and returns the update counts of
+     * all requests as if the batch had been executed in one request. The statements of the next
+     * request are converted to protobuf while the previous request is being executed. A request is
+     * only sent when the previous request has succeeded, so the transaction id that is returned by
+     * a request that includes a BeginTransaction option is used by the following requests.
+     */
+    private ApiFuture<long[]> splitBatchUpdateAsync(
+        Iterable<Statement> statements, Options options, UpdateOption[] updateOptions) {
+      // Only the last request of the batch may be marked as the last statement of the transaction.
+      Options intermediateOptions = options;
+      if (options.hasLastStatement()) {
+        List<UpdateOption> withoutLastStatement = new ArrayList<>(updateOptions.length);
+        for (UpdateOption option : updateOptions) {
+          if (!(option instanceof Options.LastStatementUpdateOption)) {
+            withoutLastStatement.add(option);
+          }
+        }
+        intermediateOptions =
+            Options.fromUpdateOptions(withoutLastStatement.toArray(new UpdateOption[0]));
+      }
+      BatchUpdateSplitter splitter =
+          new BatchUpdateSplitter(
+              statements, options.maxBatchUpdateStatements(), options.maxBatchUpdateBytes());
+      return executeSplitBatchUpdate(
+          splitter, splitter.next(), new long[0], intermediateOptions, options);
+    }
+
+    private ApiFuture<long[]> executeSplitBatchUpdate(
+        BatchUpdateSplitter splitter,
+        BatchUpdateSplitter.Request request,
+        long[] previousUpdateCounts,
+        Options intermediateOptions,
+        Options lastOptions) {
+      boolean last = !splitter.hasNext();
+      Options options = last ? lastOptions : intermediateOptions;
+      ApiFuture<long[]> updateCounts =
+          batchUpdateAsync(request.statements, request.encodedStatements, options);
+      // Convert the statements of the next request while this request is being executed.
+      BatchUpdateSplitter.Request next = null;
+      RuntimeException nextError = null;
+      if (!last) {
+        try {
+          next = splitter.next();
+        } catch (RuntimeException e) {
+          nextError = e;
+        }
+      }
+      // A failed request contains the update counts of the statements that succeeded in that
+      // request. The statements in all previous requests succeeded as well, so any other error
+      // after the first request is also returned with the update counts of the previous requests.
+      // An aborted transaction is retried as a whole, and the error is therefore not wrapped.
+      updateCounts =
+          ApiFutures.catching(
+              updateCounts,
+              Throwable.class,
+              input -> {
+                SpannerException e = SpannerExceptionFactory.asSpannerException(input);
+                if (e instanceof SpannerBatchUpdateException) {
+                  throw SpannerExceptionFactory.newSpannerBatchUpdateException(
+                      e,
+                      concat(
+                          previousUpdateCounts,
+                          ((SpannerBatchUpdateException) e).getUpdateCounts()));
+                }
+                if (previousUpdateCounts.length > 0 && !(e instanceof AbortedException)) {
+                  throw SpannerExceptionFactory.newSpannerBatchUpdateException(
+                      e, previousUpdateCounts);
+                }
+                throw e;
+              },
+              MoreExecutors.directExecutor());
+      BatchUpdateSplitter.Request nextRequest = next;
+      RuntimeException nextRequestError = nextError;
+      return ApiFutures.transformAsync(
+          updateCounts,
+          counts -> {
+            long[] allUpdateCounts = concat(previousUpdateCounts, counts);
+            if (nextRequestError != null) {
+              throw SpannerExceptionFactory.newSpannerBatchUpdateException(
+                  SpannerExceptionFactory.asSpannerException(nextRequestError), allUpdateCounts);
+            }
+            if (nextRequest == null) {
+              return ApiFutures.immediateFuture(allUpdateCounts);
+            }
+            return executeSplitBatchUpdate(
+                splitter, nextRequest, allUpdateCounts, intermediateOptions, lastOptions);
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+      long[] result = new long[first.length + second.length];
+      System.arraycopy(first, 0, result, 0, first.length);
+      System.arraycopy(second, 0, result, first.length, second.length);
+      return result;
+    }
+
     private ListenableAsyncResultSet wrap(ListenableAsyncResultSet delegate) {
       return new TransactionContextAsyncResultSetImpl(delegate);
     }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.BetaApi;
+
+/**
+ * Combines writes from many threads into shared commits (group commit). Each write is added to the
+ * current batch, and the batch is committed when it reaches the max number of mutations or bytes,
+ * or when the max delay of the batch has passed. See {@link WriteBatcherOptions}.
+ *
+ * <p>Each write gets its own {@link ApiFuture} that is done when the batch that contains the write
+ * has been committed. A write that causes the commit of a batch to fail with an error that is
+ * specific to the data in the batch, such as {@link ErrorCode#ALREADY_EXISTS}, does not fail the
+ * other writes in the batch: The writes in the batch are then each committed in a separate commit,
+ * so that only the write that caused the error fails. These commits run in parallel, and cost one
+ * extra commit for each write in the batch.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * try (WriteBatcher batcher = dbClient.newWriteBatcher(WriteBatcherOptions.getDefaultInstance())) {
+ *   ApiFuture<CommitResponse> response =
+ *       batcher.write(
+ *           Collections.singletonList(
+ *               Mutation.newInsertBuilder("Events").set("Id").to(1L).build()));
+ * }
+ * }</pre>
+ *
+ * <p>This class is thread-safe.
+ */
+@BetaApi
+public interface WriteBatcher extends AutoCloseable {
+
+  /**
+   * Adds the given mutations to the current batch. The mutations of one call are always committed
+   * atomically and in the same commit. This method blocks if the current batch must be sent while
+   * the max number of concurrent batches is already being committed, until one of those commits
+   * has finished.
+   *
+   * @return a future that is done when the mutations have been committed
+   * @throws IllegalStateException if the batcher has been closed
+   */
+  ApiFuture<CommitResponse> write(Iterable<Mutation> mutations);
+
+  /**
+   * Sends the current batch without waiting for more writes. This method does not wait for the
+   * commit, but blocks until the batch can be sent if the max number of concurrent batches is
+   * already being committed.
+   */
+  void flush();
+
+  /** Sends the current batch and waits until all writes have been committed or have failed. */
+  @Override
+  void close();
+}
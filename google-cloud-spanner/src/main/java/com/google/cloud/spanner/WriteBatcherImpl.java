@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.cloud.Timestamp;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.rpc.Code;
+import com.google.spanner.v1.BatchWriteResponse;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Default implementation of {@link WriteBatcher}. Batches are committed on a pool of {@link
+ * WriteBatcherOptions#getMaxConcurrentBatches()} daemon threads. A semaphore with the same number
+ * of permits limits the number of batches that have been sent but not yet committed, so a caller
+ * that writes faster than the batches can be committed is blocked instead of filling up the queue
+ * of the pool. The timers that send a batch when its max delay has passed run on a separate daemon
+ * thread, so they are not delayed by commits that are running.
+ */
+final class WriteBatcherImpl implements WriteBatcher {
+  /**
+   * The errors that are caused by the data in a batch, and not by the batch itself. A batch that
+   * fails with one of these errors is retried one write at a time, so that only the write that
+   * caused the error fails.
+   */
+  @VisibleForTesting
+  static final Set<ErrorCode> DATA_ERRORS =
+      EnumSet.of(
+          ErrorCode.ALREADY_EXISTS,
+          ErrorCode.NOT_FOUND,
+          ErrorCode.FAILED_PRECONDITION,
+          ErrorCode.INVALID_ARGUMENT,
+          ErrorCode.OUT_OF_RANGE);
+
+  /** A write that has been added to a batch, together with the future for its result. */
+  private static final class PendingWrite {
+    private final ImmutableList<Mutation> mutations;
+    private final long bytes;
+    private final SettableApiFuture<CommitResponse> result = SettableApiFuture.create();
+
+    private PendingWrite(ImmutableList<Mutation> mutations) {
+      this.mutations = mutations;
+      this.bytes = Mutation.getSerializedSize(mutations);
+    }
+  }
+
+  private final DatabaseClient client;
+  private final WriteBatcherOptions options;
+  private final ExecutorService executor;
+  private final ScheduledExecutorService lingerScheduler;
+  private final Semaphore batchPermits;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private List<PendingWrite> batch = new ArrayList<>();
+
+  @GuardedBy("lock")
+  private int batchMutations;
+
+  @GuardedBy("lock")
+  private long batchBytes;
+
+  @GuardedBy("lock")
+  private ScheduledFuture<?> lingerFuture;
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  WriteBatcherImpl(DatabaseClient client, WriteBatcherOptions options) {
+    this.client = Preconditions.checkNotNull(client);
+    this.options = Preconditions.checkNotNull(options);
+    this.executor =
+        Executors.newFixedThreadPool(
+            options.getMaxConcurrentBatches(),
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "write-batcher", /* tryVirtualThreads= */ false));
+    this.lingerScheduler =
+        Executors.newScheduledThreadPool(
+            1,
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "write-batcher-timer", /* tryVirtualThreads= */ false));
+    this.batchPermits = new Semaphore(options.getMaxConcurrentBatches());
+  }
+
+  @Override
+  public ApiFuture<CommitResponse> write(Iterable<Mutation> mutations) {
+    PendingWrite write = new PendingWrite(ImmutableList.copyOf(mutations));
+    Preconditions.checkArgument(!write.mutations.isEmpty(), "mutations must not be empty");
+    synchronized (lock) {
+      Preconditions.checkState(!closed, "This WriteBatcher has been closed");
+      if (!batch.isEmpty()
+          && (batchMutations + write.mutations.size() > options.getMaxBatchMutations()
+              || batchBytes + write.bytes > options.getMaxBatchBytes())) {
+        sendBatch();
+      }
+      batch.add(write);
+      batchMutations += write.mutations.size();
+      batchBytes += write.bytes;
+      if (batchMutations >= options.getMaxBatchMutations()
+          || batchBytes >= options.getMaxBatchBytes()
+          || options.getMaxBatchDelay().isZero()) {
+        sendBatch();
+      } else if (lingerFuture == null) {
+        List<PendingWrite> current = batch;
+        lingerFuture =
+            lingerScheduler.schedule(
+                () -> flushIfCurrent(current),
+                options.getMaxBatchDelay().toNanos(),
+                TimeUnit.NANOSECONDS);
+      }
+    }
+    return write.result;
+  }
+
+  @Override
+  public void flush() {
+    synchronized (lock) {
+      sendBatch();
+    }
+  }
+
+  /** Sends the given batch if it is still the current batch when its max delay has passed. */
+  private void flushIfCurrent(List<PendingWrite> expected) {
+    synchronized (lock) {
+      if (batch == expected) {
+        sendBatch();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      sendBatch();
+      closed = true;
+    }
+    lingerScheduler.shutdownNow();
+    // A batch that is retried one write at a time keeps its permit until all its writes have
+    // finished, so all permits are only available when all writes have finished.
+    try {
+      batchPermits.acquire(options.getMaxConcurrentBatches());
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+    batchPermits.release(options.getMaxConcurrentBatches());
+    executor.shutdown();
+  }
+
+  /**
+   * Sends the current batch. Blocks until a permit is available, which means that all other
+   * callers of this method also wait, as the lock is held.
+   */
+  @GuardedBy("lock")
+  private void sendBatch() {
+    if (lingerFuture != null) {
+      lingerFuture.cancel(false);
+      lingerFuture = null;
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    // The permit is acquired before the batch is sealed, so an interrupted caller leaves the writes
+    // in the current batch instead of dropping them.
+    try {
+      batchPermits.acquire();
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+    List<PendingWrite> ready = batch;
+    batch = new ArrayList<>();
+    batchMutations = 0;
+    batchBytes = 0L;
+    executor.execute(() -> commit(ready));
+  }
+
+  private void commit(List<PendingWrite> writes) {
+    if (options.getCommitMode() == WriteBatcherOptions.CommitMode.BATCH_WRITE) {
+      try {
+        commitBatchWrite(writes);
+      } finally {
+        batchPermits.release();
+      }
+    } else {
+      commitTogether(writes, batchPermits::release);
+    }
+  }
+
+  /**
+   * Commits all writes in one transaction, and retries the writes one at a time if the transaction
+   * fails with a data error. The single-write commits run in parallel on the commit pool, and
+   * there is no order between them. Such a retry costs one extra commit for each write in the
+   * batch, so a batch of n writes that contains one bad write needs n + 1 commits in total.
+   *
+   * @param done is run when all writes in the list have finished, including any retries
+   */
+  private void commitTogether(List<PendingWrite> writes, Runnable done) {
+    List<Mutation> mutations = new ArrayList<>();
+    for (PendingWrite write : writes) {
+      mutations.addAll(write.mutations);
+    }
+    try {
+      CommitResponse response = commitMutations(mutations);
+      for (PendingWrite write : writes) {
+        write.result.set(response);
+      }
+    } catch (RuntimeException e) {
+      if (writes.size() > 1 && isDataError(e)) {
+        // The retries are not run on this thread, as that would commit the writes one after the
+        // other. The permit of the batch is released when the last retry has finished.
+        AtomicInteger remaining = new AtomicInteger(writes.size());
+        Runnable retryDone =
+            () -> {
+              if (remaining.decrementAndGet() == 0) {
+                done.run();
+              }
+            };
+        for (PendingWrite write : writes) {
+          executor.execute(() -> commitTogether(ImmutableList.of(write), retryDone));
+        }
+        return;
+      }
+      for (PendingWrite write : writes) {
+        write.result.setException(e);
+      }
+    }
+    done.run();
+  }
+
+  private CommitResponse commitMutations(List<Mutation> mutations) {
+    if (options.getCommitMode() == WriteBatcherOptions.CommitMode.AT_LEAST_ONCE) {
+      return client.writeAtLeastOnceWithOptions(mutations);
+    }
+    return client.writeWithOptions(mutations);
+  }
+
+  /** Commits each write as a separate mutation group in one BatchWrite request. */
+  private void commitBatchWrite(List<PendingWrite> writes) {
+    List<MutationGroup> groups = new ArrayList<>(writes.size());
+    for (PendingWrite write : writes) {
+      groups.add(MutationGroup.of(write.mutations));
+    }
+    try {
+      ServerStream<BatchWriteResponse> stream = client.batchWriteAtLeastOnce(groups);
+      for (BatchWriteResponse response : stream) {
+        for (int index : response.getIndexesList()) {
+          PendingWrite write = writes.get(index);
+          if (response.getStatus().getCode() == Code.OK_VALUE) {
+            write.result.set(
+                new CommitResponse(Timestamp.fromProto(response.getCommitTimestamp())));
+          } else {
+            write.result.setException(
+                SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.fromRpcStatus(response.getStatus()),
+                    response.getStatus().getMessage()));
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      for (PendingWrite write : writes) {
+        write.result.setException(e);
+      }
+      return;
+    }
+    for (PendingWrite write : writes) {
+      if (!write.result.isDone()) {
+        write.result.setException(
+            SpannerExceptionFactory.newSpannerException(
+                ErrorCode.INTERNAL, "BatchWrite did not return a result for this write"));
+      }
+    }
+  }
+
+  private static boolean isDataError(RuntimeException e) {
+    return e instanceof SpannerException
+        && DATA_ERRORS.contains(((SpannerException) e).getErrorCode());
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Options for a {@link WriteBatcher} that is created with {@link
+ * DatabaseClient#newWriteBatcher(WriteBatcherOptions)}.
+ */
+@BetaApi
+public class WriteBatcherOptions {
+
+  /** The way that a {@link WriteBatcher} commits a batch of writes. */
+  public enum CommitMode {
+    /**
+     * Commits all writes in a batch in one read/write transaction, in the same way as {@link
+     * DatabaseClient#write(Iterable)}. All writes in the batch get the same commit timestamp.
+     */
+    TRANSACTION,
+
+    /**
+     * Commits all writes in a batch in one single-use transaction, in the same way as {@link
+     * DatabaseClient#writeAtLeastOnce(Iterable)}. All writes in the batch get the same commit
+     * timestamp.
+     */
+    AT_LEAST_ONCE,
+
+    /**
+     * Sends each write in a batch as a separate {@link MutationGroup} in one {@link
+     * DatabaseClient#batchWriteAtLeastOnce(Iterable, Options.TransactionOption...)} request. Each
+     * write is committed separately, and the writes in a batch can get different commit
+     * timestamps.
+     */
+    BATCH_WRITE
+  }
+
+  private final CommitMode commitMode;
+  private final int maxBatchMutations;
+  private final long maxBatchBytes;
+  private final Duration maxBatchDelay;
+  private final int maxConcurrentBatches;
+
+  private WriteBatcherOptions(Builder builder) {
+    this.commitMode = builder.commitMode;
+    this.maxBatchMutations = builder.maxBatchMutations;
+    this.maxBatchBytes = builder.maxBatchBytes;
+    this.maxBatchDelay = builder.maxBatchDelay;
+    this.maxConcurrentBatches = builder.maxConcurrentBatches;
+  }
+
+  /** Builder for {@link WriteBatcherOptions}. */
+  public static class Builder {
+    private CommitMode commitMode = CommitMode.TRANSACTION;
+    private int maxBatchMutations = 1000;
+    private long maxBatchBytes = 1024L * 1024L;
+    private Duration maxBatchDelay = Duration.ofMillis(10L);
+    private int maxConcurrentBatches = 4;
+
+    private Builder() {}
+
+    /** Sets the way that batches are committed. The default is {@link CommitMode#TRANSACTION}. */
+    public Builder setCommitMode(CommitMode commitMode) {
+      this.commitMode = Preconditions.checkNotNull(commitMode);
+      return this;
+    }
+
+    /**
+     * Sets the max number of mutations in a batch. A batch is sent as soon as it contains this
+     * number of mutations. A single write with more mutations is sent as a batch of its own. The
+     * default is 1000.
+     */
+    public Builder setMaxBatchMutations(int maxBatchMutations) {
+      Preconditions.checkArgument(maxBatchMutations > 0, "maxBatchMutations must be > 0");
+      this.maxBatchMutations = maxBatchMutations;
+      return this;
+    }
+
+    /**
+     * Sets the max estimated size in bytes of the mutations in a batch. A batch is sent as soon as
+     * it reaches this size. A single write that is larger is sent as a batch of its own. The
+     * default is 1MiB.
+     */
+    public Builder setMaxBatchBytes(long maxBatchBytes) {
+      Preconditions.checkArgument(maxBatchBytes > 0L, "maxBatchBytes must be > 0");
+      this.maxBatchBytes = maxBatchBytes;
+      return this;
+    }
+
+    /**
+     * Sets the max time that a write waits for other writes to be added to the same batch. A
+     * batch is sent when this time has passed after the first write was added to it, even if it
+     * has not reached the max number of mutations or bytes. Set to zero to send each write
+     * directly. The default is 10 milliseconds.
+     */
+    public Builder setMaxBatchDelay(Duration maxBatchDelay) {
+      Preconditions.checkNotNull(maxBatchDelay);
+      Preconditions.checkArgument(!maxBatchDelay.isNegative(), "maxBatchDelay must be >= 0");
+      this.maxBatchDelay = maxBatchDelay;
+      return this;
+    }
+
+    /**
+     * Sets the max number of batches that are committed at the same time. A call to {@link
+     * WriteBatcher#write(Iterable)} or {@link WriteBatcher#flush()} that must send a batch while
+     * this number of batches is being committed blocks until one of these commits has finished.
+     * The default is 4.
+     */
+    public Builder setMaxConcurrentBatches(int maxConcurrentBatches) {
+      Preconditions.checkArgument(maxConcurrentBatches > 0, "maxConcurrentBatches must be > 0");
+      this.maxConcurrentBatches = maxConcurrentBatches;
+      return this;
+    }
+
+    public WriteBatcherOptions build() {
+      return new WriteBatcherOptions(this);
+    }
+  }
+
+  public static WriteBatcherOptions getDefaultInstance() {
+    return newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Returns the way that batches are committed. */
+  public CommitMode getCommitMode() {
+    return commitMode;
+  }
+
+  /** Returns the max number of mutations in a batch. */
+  public int getMaxBatchMutations() {
+    return maxBatchMutations;
+  }
+
+  /** Returns the max estimated size in bytes of the mutations in a batch. */
+  public long getMaxBatchBytes() {
+    return maxBatchBytes;
+  }
+
+  /** Returns the max time that a write waits for other writes to be added to the same batch. */
+  public Duration getMaxBatchDelay() {
+    return maxBatchDelay;
+  }
+
+  /** Returns the max number of batches that are committed at the same time. */
+  public int getMaxConcurrentBatches() {
+    return maxConcurrentBatches;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "commitMode: %s, maxBatchMutations: %d, maxBatchBytes: %d, maxBatchDelay: %s,"
+            + " maxConcurrentBatches: %d",
+        commitMode, maxBatchMutations, maxBatchBytes, maxBatchDelay, maxConcurrentBatches);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    WriteBatcherOptions that = (WriteBatcherOptions) o;
+    return commitMode == that.commitMode
+        && maxBatchMutations == that.maxBatchMutations
+        && maxBatchBytes == that.maxBatchBytes
+        && Objects.equals(maxBatchDelay, that.maxBatchDelay)
+        && maxConcurrentBatches == that.maxConcurrentBatches;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        commitMode, maxBatchMutations, maxBatchBytes, maxBatchDelay, maxConcurrentBatches);
+  }
+}
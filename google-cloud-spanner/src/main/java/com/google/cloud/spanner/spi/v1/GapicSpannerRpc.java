@@ -21,6 +21,7 @@ import static com.google.cloud.spanner.ThreadFactoryUtil.tryCreateVirtualThreadP
 
 import com.google.api.core.ApiFunction;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.api.core.InternalApi;
 import com.google.api.core.NanoClock;
 import com.google.api.gax.core.CredentialsProvider;
@@ -64,6 +65,7 @@ import com.google.cloud.grpc.GcpManagedChannelOptions.GcpMetricsOptions;
 import com.google.cloud.grpc.GrpcTransportOptions;
 import com.google.cloud.spanner.AdminRequestsPerMinuteExceededException;
 import com.google.cloud.spanner.BackupId;
+import com.google.cloud.spanner.BuiltInMetricsConstant;
 import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.Restore;
 import com.google.cloud.spanner.SpannerException;
@@ -90,6 +92,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Resources;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.RateLimiter;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.iam.v1.GetIamPolicyRequest;
@@ -172,6 +175,7 @@ import com.google.spanner.v1.DeleteSessionRequest;
 import com.google.spanner.v1.ExecuteBatchDmlRequest;
 import com.google.spanner.v1.ExecuteBatchDmlResponse;
 import com.google.spanner.v1.ExecuteSqlRequest;
+import com.google.spanner.v1.GetSessionRequest;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.PartitionQueryRequest;
 import com.google.spanner.v1.PartitionReadRequest;
@@ -193,6 +197,7 @@ import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -222,6 +227,14 @@ import javax.annotation.Nullable;
 public class GapicSpannerRpc implements SpannerRpc {
   private static final PathTemplate PROJECT_NAME_TEMPLATE =
       PathTemplate.create("projects/{project}");
+  /**
+   * The name of the session that is used to warm up the gRPC channels. The session does not
+   * exist. Any response from Spanner, including NOT_FOUND, means that the channel is connected.
+   * The RPCs that use this name are therefore excluded from the built-in metrics.
+   */
+  private static final PathTemplate WARM_UP_SESSION_NAME_TEMPLATE =
+      PathTemplate.create(
+          "projects/{project}/instances/warm-up/databases/warm-up/sessions/warm-up");
   private static final PathTemplate OPERATION_NAME_TEMPLATE =
       PathTemplate.create("{database=projects/*/instances/*/databases/*}/operations/{operation}");
   private static final int MAX_MESSAGE_SIZE = 100 * 1024 * 1024;
@@ -279,6 +292,7 @@ public class GapicSpannerRpc implements SpannerRpc {
   private final boolean endToEndTracingEnabled;
   private final int numChannels;
   private final boolean isGrpcGcpExtensionEnabled;
+  @Nullable private final LoadAwareChannelPicker channelPicker;
 
   private final GrpcCallContext baseGrpcCallContext;
 
@@ -335,6 +349,15 @@ public class GapicSpannerRpc implements SpannerRpc {
     this.endToEndTracingEnabled = options.isEndToEndTracingEnabled();
     this.numChannels = options.getNumChannels();
     this.isGrpcGcpExtensionEnabled = options.isGrpcGcpExtensionEnabled();
+    // gRPC-GCP has its own channel selection, and a custom channel provider does not use the
+    // interceptors of the picker.
+    this.channelPicker =
+        options.isLoadAwareChannelSelectionEnabled()
+                && !this.isGrpcGcpExtensionEnabled
+                && options.getChannelProvider() == null
+                && this.numChannels > 1
+            ? new LoadAwareChannelPicker(this.numChannels)
+            : null;
     this.baseGrpcCallContext = createBaseCallContext();
 
     if (initializeStubs) {
@@ -362,7 +385,9 @@ public class GapicSpannerRpc implements SpannerRpc {
                       // This sets the trace context headers.
                       .withTraceContext(endToEndTracingEnabled, options.getOpenTelemetry())
                       // This sets the response compressor (Server -> Client).
-                      .withEncoding(compressorName))
+                      .withEncoding(compressorName)
+                      // This keeps track of the load of each channel.
+                      .withChannelPicker(channelPicker))
               .setHeaderProvider(headerProviderWithUserAgent)
               .setAllowNonDefaultServiceAccount(true);
       boolean isAttemptDirectPathXds = isEnableDirectPathXdsEnv();
@@ -1688,6 +1713,66 @@ public class GapicSpannerRpc implements SpannerRpc {
     get(asyncDeleteSession(sessionName, options));
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each channel is warmed up with a GetSession RPC for a session that does not exist. The RPCs
+   * are excluded from the built-in metrics, so the expected NOT_FOUND errors are not reported as
+   * errors of the client.
+   *
+   * <p>Without the gRPC-GCP extension, each RPC uses the GAX channel with the same index. With the
+   * gRPC-GCP extension, the channel index is only an affinity key. gRPC-GCP binds each key to a
+   * channel when the first RPC with that key is sent, and it picks the least busy channel for this.
+   * The parallel warm-up RPCs are therefore normally spread over different channels, but gRPC-GCP
+   * does not guarantee that every channel in its pool receives one of them.
+   */
+  @Override
+  public ApiFuture<Void> warmUpChannels(Duration timeout) {
+    if (spannerStub == null) {
+      return ApiFutures.immediateFuture(null);
+    }
+    String sessionName = WARM_UP_SESSION_NAME_TEMPLATE.instantiate("project", this.projectId);
+    GetSessionRequest request = GetSessionRequest.newBuilder().setName(sessionName).build();
+    List<ApiFuture<Void>> futures = new ArrayList<>(numChannels);
+    for (int channel = 0; channel < numChannels; channel++) {
+      GrpcCallContext context =
+          newCallContext(
+                  ImmutableMap.of(Option.CHANNEL_HINT, (long) channel),
+                  sessionName,
+                  request,
+                  SpannerGrpc.getGetSessionMethod())
+              .withTimeoutDuration(timeout)
+              .withTracer(BuiltInMetricsConstant.NO_BUILT_IN_METRICS_TRACER);
+      futures.add(
+          ApiFutures.catching(
+              ApiFutures.transform(
+                  spannerStub.getSessionCallable().futureCall(request, context),
+                  session -> null,
+                  MoreExecutors.directExecutor()),
+              ApiException.class,
+              exception -> {
+                Code code = exception.getStatusCode().getCode();
+                if (code == Code.UNAVAILABLE || code == Code.DEADLINE_EXCEEDED) {
+                  // The channel could not reach Spanner.
+                  throw exception;
+                }
+                // Any other error is returned by Spanner, which means that the channel is ready.
+                return null;
+              },
+              MoreExecutors.directExecutor()));
+    }
+    return ApiFutures.transform(
+        ApiFutures.allAsList(futures), ignore -> null, MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public ApiFuture<Session> asyncGetSession(String sessionName, @Nullable Map<Option, ?> options) {
+    GetSessionRequest request = GetSessionRequest.newBuilder().setName(sessionName).build();
+    GrpcCallContext context =
+        newCallContext(options, sessionName, request, SpannerGrpc.getGetSessionMethod());
+    return spannerStub.getSessionCallable().futureCall(request, context);
+  }
+
   @Override
   public ApiFuture<Empty> asyncDeleteSession(String sessionName, @Nullable Map<Option, ?> options) {
     DeleteSessionRequest request = DeleteSessionRequest.newBuilder().setName(sessionName).build();
@@ -2039,7 +2124,24 @@ public class GapicSpannerRpc implements SpannerRpc {
       } else {
         // Set channel affinity in GAX.
         context = context.withChannelAffinity(affinity.intValue());
+        if (channelPicker != null) {
+          // Only track the load of the channel, as the RPC must use the given channel.
+          context =
+              context.withCallOptions(
+                  context
+                      .getCallOptions()
+                      .withOption(
+                          LoadAwareChannelPicker.CHANNEL_KEY,
+                          channelPicker.channelForAffinity(affinity.intValue())));
+        }
       }
+    } else if (channelPicker != null) {
+      // The RPC is not bound to a specific channel. Send it on the least loaded channel.
+      int channel = channelPicker.pickChannel();
+      context = context.withChannelAffinity(channel);
+      context =
+          context.withCallOptions(
+              context.getCallOptions().withOption(LoadAwareChannelPicker.CHANNEL_KEY, channel));
     }
     if (options != null) {
       context = withRequestId(context, options);
@@ -2089,6 +2191,12 @@ public class GapicSpannerRpc implements SpannerRpc {
     responseObservers.clear();
   }
 
+  @VisibleForTesting
+  @Nullable
+  LoadAwareChannelPicker getChannelPicker() {
+    return channelPicker;
+  }
+
   @InternalApi
   @VisibleForTesting
   public int getNumActiveResponseObservers() {
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Picks the gRPC channel for RPCs that are not bound to a specific channel, based on the current
+ * load of each channel. The picker uses the power-of-two-choices algorithm: Two channels are chosen
+ * at random, and the one with the lowest load is used. The load of a channel is the number of RPCs
+ * that are in flight on the channel multiplied by the moving average of the time that it took the
+ * channel to return the first response of an RPC.
+ *
+ * <p>The picker is also a {@link ClientInterceptor} that keeps track of the load of each channel.
+ * The interceptor only tracks RPCs that have the {@link #CHANNEL_KEY} call option set.
+ */
+class LoadAwareChannelPicker implements ClientInterceptor {
+  /** The call option that contains the index of the channel that is used for an RPC. */
+  static final CallOptions.Key<Integer> CHANNEL_KEY =
+      CallOptions.Key.create("spanner-load-aware-channel");
+
+  /** The weight of a new latency sample in the moving average is 1 / 2^LATENCY_WEIGHT_SHIFT. */
+  private static final int LATENCY_WEIGHT_SHIFT = 3;
+
+  private final int numChannels;
+  private final AtomicIntegerArray numInFlight;
+  private final AtomicLongArray latencyNanos;
+
+  LoadAwareChannelPicker(int numChannels) {
+    Preconditions.checkArgument(numChannels > 1, "numChannels must be > 1");
+    this.numChannels = numChannels;
+    this.numInFlight = new AtomicIntegerArray(numChannels);
+    this.latencyNanos = new AtomicLongArray(numChannels);
+  }
+
+  /** Returns the index of the channel that should be used for the next RPC. */
+  int pickChannel() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(numChannels);
+    int second = random.nextInt(numChannels - 1);
+    if (second >= first) {
+      second++;
+    }
+    return getLoad(first) <= getLoad(second) ? first : second;
+  }
+
+  /** Returns the index of the channel that GAX uses for the given channel affinity. */
+  int channelForAffinity(int affinity) {
+    return Math.abs(affinity % numChannels);
+  }
+
+  @VisibleForTesting
+  long getLoad(int channel) {
+    // A channel without any latency samples yet is considered to be fast. This ensures that new
+    // and idle channels are tried.
+    return (numInFlight.get(channel) + 1L) * Math.max(1L, latencyNanos.get(channel));
+  }
+
+  @VisibleForTesting
+  int getNumInFlight(int channel) {
+    return numInFlight.get(channel);
+  }
+
+  @VisibleForTesting
+  void callStarted(int channel) {
+    numInFlight.incrementAndGet(channel);
+  }
+
+  @VisibleForTesting
+  void callFinished(int channel) {
+    numInFlight.decrementAndGet(channel);
+  }
+
+  @VisibleForTesting
+  void recordLatency(int channel, long nanos) {
+    long current;
+    long updated;
+    do {
+      current = latencyNanos.get(channel);
+      updated = current == 0L ? nanos : current + ((nanos - current) >> LATENCY_WEIGHT_SHIFT);
+    } while (!latencyNanos.compareAndSet(channel, current, updated));
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    Integer channel = callOptions.getOption(CHANNEL_KEY);
+    if (channel == null) {
+      return next.newCall(method, callOptions);
+    }
+    return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        long startNanos = System.nanoTime();
+        callStarted(channel);
+        try {
+          super.start(
+              new SimpleForwardingClientCallListener<RespT>(responseListener) {
+                // The callbacks of a listener are never called concurrently.
+                private boolean receivedResponse;
+
+                private void maybeRecordLatency() {
+                  if (!receivedResponse) {
+                    receivedResponse = true;
+                    recordLatency(channel, System.nanoTime() - startNanos);
+                  }
+                }
+
+                @Override
+                public void onMessage(RespT message) {
+                  // Use the time to the first response as the latency, as the duration of a
+                  // streaming RPC depends on the number of results that it returns.
+                  maybeRecordLatency();
+                  super.onMessage(message);
+                }
+
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                  // Errors are not included in the latency, as a channel that fails fast should
+                  // not attract more RPCs.
+                  if (status.isOk()) {
+                    maybeRecordLatency();
+                  }
+                  callFinished(channel);
+                  super.onClose(status, trailers);
+                }
+              },
+              headers);
+        } catch (RuntimeException exception) {
+          callFinished(channel);
+          throw exception;
+        }
+      }
+    };
+  }
+}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * For internal use only. An interceptor provider that provides a list of grpc interceptors for
@@ -87,6 +88,13 @@ public class SpannerInterceptorProvider implements GrpcInterceptorProvider {
     return this;
   }
 
+  SpannerInterceptorProvider withChannelPicker(@Nullable LoadAwareChannelPicker channelPicker) {
+    if (channelPicker != null) {
+      return with(channelPicker);
+    }
+    return this;
+  }
+
   SpannerInterceptorProvider withTraceContext(
       boolean endToEndTracingEnabled, OpenTelemetry openTelemetry) {
     if (endToEndTracingEnabled) {
@@ -17,6 +17,7 @@
 package com.google.cloud.spanner.spi.v1;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.api.core.InternalApi;
 import com.google.api.gax.longrunning.OperationFuture;
 import com.google.api.gax.retrying.RetrySettings;
@@ -367,6 +368,20 @@ public interface SpannerRpc extends ServiceRpc {
   ApiFuture<Empty> asyncDeleteSession(String sessionName, @Nullable Map<Option, ?> options)
       throws SpannerException;
 
+  /** Returns the session with the given name. The returned future fails if it does not exist. */
+  default ApiFuture<Session> asyncGetSession(String sessionName, @Nullable Map<Option, ?> options) {
+    throw new UnsupportedOperationException("Unimplemented");
+  }
+
+  /**
+   * Connects all gRPC channels that are used for data operations by sending a cheap RPC on each
+   * channel. The returned future is done when a round-trip to Spanner has been made on all
+   * channels, and fails if any of the channels could not reach Spanner within the given timeout.
+   */
+  default ApiFuture<Void> warmUpChannels(Duration timeout) {
+    return ApiFutures.immediateFuture(null);
+  }
+
   /** Returns the retry settings for streaming read operations. */
   default RetrySettings getReadRetrySettings() {
     return SpannerStubSettings.newBuilder().streamingReadSettings().getRetrySettings();
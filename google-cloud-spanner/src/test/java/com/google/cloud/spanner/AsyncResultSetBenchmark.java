@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.gax.core.ExecutorProvider;
+import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the number of rows per second that can be handed from the producer to the
+ * callback of an {@link AsyncResultSet}. The handoff benchmarks compare the {@link
+ * SpscRingBuffer} that is used by {@link AsyncResultSetImpl} with the {@link LinkedBlockingDeque}
+ * that it used previously. Run with:
+ *
+ * <pre>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=AsyncResultSetBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+public class AsyncResultSetBenchmark {
+  private static final int ROWS = 100_000;
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    @Param({"10", "100"})
+    int bufferSize;
+
+    List<Struct> rows;
+    ExecutorProvider executorProvider;
+    ExecutorService producer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      rows = new ArrayList<>(ROWS);
+      for (int i = 0; i < ROWS; i++) {
+        rows.add(Struct.newBuilder().set("id").to(i).set("name").to("row-" + i).build());
+      }
+      executorProvider = SpannerOptions.createDefaultAsyncExecutorProvider();
+      producer = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+      producer.shutdown();
+      executorProvider.getExecutor().shutdown();
+    }
+
+    ResultSet createResultSet() {
+      return ResultSets.forRows(
+          Type.struct(StructField.of("id", Type.int64()), StructField.of("name", Type.string())),
+          rows);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long asyncResultSetCallback(BenchmarkState state) throws Exception {
+    AtomicLong count = new AtomicLong();
+    try (AsyncResultSetImpl resultSet =
+        new AsyncResultSetImpl(
+            state.executorProvider, state.createResultSet(), state.bufferSize)) {
+      resultSet
+          .setCallback(
+              MoreExecutors.directExecutor(),
+              rs -> {
+                while (true) {
+                  switch (rs.tryNext()) {
+                    case DONE:
+                      return CallbackResponse.DONE;
+                    case NOT_READY:
+                      return CallbackResponse.CONTINUE;
+                    case OK:
+                      count.incrementAndGet();
+                      break;
+                  }
+                }
+              })
+          .get();
+    }
+    return count.get();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long asyncResultSetBatchCallback(BenchmarkState state) throws Exception {
+    AtomicLong count = new AtomicLong();
+    try (AsyncResultSetImpl resultSet =
+        new AsyncResultSetImpl(
+            state.executorProvider, state.createResultSet(), state.bufferSize)) {
+      resultSet
+          .setBatchCallback(
+              MoreExecutors.directExecutor(),
+              state.bufferSize,
+              (rs, batch) -> {
+                count.addAndGet(batch.size());
+                return CallbackResponse.CONTINUE;
+              })
+          .get();
+    }
+    return count.get();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long ringBufferHandoff(BenchmarkState state) throws Exception {
+    SpscRingBuffer<Struct> buffer = new SpscRingBuffer<>(state.bufferSize);
+    state.producer.submit(
+        () -> {
+          for (Struct row : state.rows) {
+            while (!buffer.offer(row)) {
+              Thread.yield();
+            }
+          }
+        });
+    long count = 0L;
+    while (count < ROWS) {
+      if (buffer.poll() != null) {
+        count++;
+      } else {
+        Thread.yield();
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long blockingDequeHandoff(BenchmarkState state) throws Exception {
+    BlockingQueue<Struct> buffer = new LinkedBlockingDeque<>(state.bufferSize);
+    state.producer.submit(
+        () -> {
+          for (Struct row : state.rows) {
+            buffer.put(row);
+          }
+          return null;
+        });
+    long count = 0L;
+    while (count < ROWS) {
+      buffer.take();
+      count++;
+    }
+    return count;
+  }
+}
@@ -33,10 +33,12 @@ import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
 import com.google.cloud.spanner.AsyncResultSet.CursorState;
 import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Range;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Value;
 import com.google.spanner.v1.PartialResultSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.CountDownLatch;
@@ -205,6 +207,76 @@ public class AsyncResultSetImplTest {
     assertThat(rowCounter.get()).isEqualTo(3);
   }
 
+  @Test
+  public void withBatchCallback() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    ResultSet delegate = mock(ResultSet.class);
+    final int numRows = 25;
+    final AtomicInteger producedRows = new AtomicInteger();
+    when(delegate.next()).thenAnswer(invocation -> producedRows.incrementAndGet() <= numRows);
+    when(delegate.getCurrentRowAsStruct())
+        .thenAnswer(
+            invocation -> Struct.newBuilder().set("id").to((long) producedRows.get()).build());
+    final List<ImmutableList<Struct>> batches = new ArrayList<>();
+    try (AsyncResultSetImpl rs =
+        new AsyncResultSetImpl(simpleProvider, delegate, AsyncResultSetImpl.DEFAULT_BUFFER_SIZE)) {
+      ApiFuture<Void> result =
+          rs.setBatchCallback(
+              executor,
+              10,
+              (resultSet, rows) -> {
+                batches.add(rows);
+                return CallbackResponse.CONTINUE;
+              });
+      assertNull(result.get(10L, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+
+    // All batches except the last must be full.
+    long expectedId = 1L;
+    for (int i = 0; i < batches.size(); i++) {
+      ImmutableList<Struct> batch = batches.get(i);
+      if (i < batches.size() - 1) {
+        assertEquals(10, batch.size());
+      }
+      for (Struct row : batch) {
+        assertEquals(expectedId++, row.getLong("id"));
+      }
+    }
+    assertEquals(numRows + 1, expectedId);
+  }
+
+  @Test
+  public void batchCallbackReceivesError() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    ResultSet delegate = mock(ResultSet.class);
+    when(delegate.next())
+        .thenReturn(true)
+        .thenThrow(
+            SpannerExceptionFactory.newSpannerException(
+                ErrorCode.INVALID_ARGUMENT, "invalid query"));
+    when(delegate.getCurrentRowAsStruct()).thenReturn(mock(Struct.class));
+    final AtomicInteger rowCount = new AtomicInteger();
+    try (AsyncResultSetImpl rs =
+        new AsyncResultSetImpl(simpleProvider, delegate, AsyncResultSetImpl.DEFAULT_BUFFER_SIZE)) {
+      ApiFuture<Void> result =
+          rs.setBatchCallback(
+              executor,
+              5,
+              (resultSet, rows) -> {
+                rowCount.addAndGet(rows.size());
+                return CallbackResponse.CONTINUE;
+              });
+      ExecutionException e = assertThrows(ExecutionException.class, result::get);
+      assertThat(e.getCause()).isInstanceOf(SpannerException.class);
+      assertThat(((SpannerException) e.getCause()).getErrorCode())
+          .isEqualTo(ErrorCode.INVALID_ARGUMENT);
+    }
+    executor.shutdown();
+    // The row before the error is delivered in a last, incomplete batch.
+    assertThat(rowCount.get()).isEqualTo(1);
+  }
+
   @Test
   public void callbackReceivesError() throws InterruptedException {
     Executor executor = Executors.newSingleThreadExecutor();
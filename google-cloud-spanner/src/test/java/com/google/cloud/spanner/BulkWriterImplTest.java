@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.gax.rpc.ServerStream;
+import com.google.rpc.Code;
+import com.google.rpc.Status;
+import com.google.spanner.v1.BatchWriteResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class BulkWriterImplTest {
+  /** The mutation groups of each BatchWrite request. */
+  private final List<List<MutationGroup>> requests =
+      Collections.synchronizedList(new ArrayList<>());
+
+  /** Mutation groups on FLAKY fail with ABORTED the first time that they are written. */
+  private final Set<MutationGroup> flakyGroupsSeen = Collections.synchronizedSet(new HashSet<>());
+
+  /** The first request with a mutation group on UNAVAILABLE fails as a whole. */
+  private volatile boolean failRequests = true;
+
+  @SuppressWarnings("unchecked")
+  private final DatabaseClient client =
+      Mockito.mock(
+          DatabaseClient.class,
+          invocation -> {
+            List<MutationGroup> groups = new ArrayList<>();
+            ((Iterable<MutationGroup>) invocation.getArgument(0)).forEach(groups::add);
+            requests.add(groups);
+            List<BatchWriteResponse> responses = new ArrayList<>();
+            for (int index = 0; index < groups.size(); index++) {
+              String table = groups.get(index).getMutations().get(0).getTable();
+              if (table.equals("UNAVAILABLE") && failRequests) {
+                failRequests = false;
+                throw SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.UNAVAILABLE, "Service unavailable");
+              }
+              Code code = Code.OK;
+              if (table.equals("BAD")) {
+                code = Code.ALREADY_EXISTS;
+              } else if (table.equals("FORBIDDEN")) {
+                code = Code.PERMISSION_DENIED;
+              } else if (table.equals("FLAKY") && flakyGroupsSeen.add(groups.get(index))) {
+                code = Code.ABORTED;
+              }
+              responses.add(
+                  BatchWriteResponse.newBuilder()
+                      .addIndexes(index)
+                      .setStatus(Status.newBuilder().setCode(code.getNumber()))
+                      .build());
+            }
+            return Mockito.mock(
+                ServerStream.class,
+                streamInvocation ->
+                    streamInvocation.getMethod().getName().equals("iterator")
+                        ? responses.iterator()
+                        : null);
+          });
+
+  private static MutationGroup group(String table, long id) {
+    return MutationGroup.of(Mutation.newInsertBuilder(table).set("ID").to(id).build());
+  }
+
+  @Test
+  public void testPacksMutationGroupsIntoRequests() {
+    BulkWriter writer =
+        new BulkWriterImpl(
+            client, BulkWriterOptions.newBuilder().setMaxRequestMutations(3).build());
+    for (long id = 0L; id < 5L; id++) {
+      writer.add(group("FOO", id));
+    }
+    writer.close();
+
+    assertEquals(2, requests.size());
+    assertEquals(3, requests.get(0).size());
+    assertEquals(2, requests.get(1).size());
+    BulkWriter.Stats stats = writer.getStats();
+    assertEquals(5L, stats.getMutationGroupsWritten());
+    assertEquals(5L, stats.getMutationsWritten());
+    assertEquals(2L, stats.getRequests());
+    assertEquals(0L, stats.getMutationGroupsFailed());
+    assertTrue(stats.getBytesWritten() > 0L);
+  }
+
+  @Test
+  public void testRetriesOnlyFailedMutationGroups() {
+    BulkWriter writer = new BulkWriterImpl(client, BulkWriterOptions.getDefaultInstance());
+    writer.add(group("FOO", 1L));
+    writer.add(group("FLAKY", 1L));
+    writer.add(group("FOO", 2L));
+    writer.close();
+
+    assertEquals(2, requests.size());
+    assertEquals(3, requests.get(0).size());
+    assertEquals(1, requests.get(1).size());
+    assertEquals(group("FLAKY", 1L).getMutations(), requests.get(1).get(0).getMutations());
+    assertEquals(3L, writer.getStats().getMutationGroupsWritten());
+    assertEquals(1L, writer.getStats().getMutationGroupRetries());
+  }
+
+  @Test
+  public void testRetriesFailedRequest() {
+    BulkWriter writer = new BulkWriterImpl(client, BulkWriterOptions.getDefaultInstance());
+    writer.add(group("UNAVAILABLE", 1L));
+    writer.add(group("FOO", 1L));
+    writer.close();
+
+    assertEquals(2, requests.size());
+    assertEquals(2, requests.get(1).size());
+    assertEquals(2L, writer.getStats().getMutationGroupsWritten());
+  }
+
+  @Test
+  public void testDataErrorIsNotRetried() {
+    List<MutationGroup> failed = Collections.synchronizedList(new ArrayList<>());
+    BulkWriter writer =
+        new BulkWriterImpl(
+            client,
+            BulkWriterOptions.newBuilder()
+                .setFailureHandler(
+                    (group, error) -> {
+                      assertEquals(ErrorCode.ALREADY_EXISTS, error.getErrorCode());
+                      failed.add(group);
+                    })
+                .build());
+    writer.add(group("BAD", 1L));
+    writer.add(group("FOO", 1L));
+    writer.close();
+
+    assertEquals(1, requests.size());
+    assertEquals(1, failed.size());
+    assertEquals(group("BAD", 1L).getMutations(), failed.get(0).getMutations());
+    assertEquals(1L, writer.getStats().getMutationGroupsFailed());
+  }
+
+  @Test
+  public void testNonRetryableErrorIsNotRetried() {
+    List<SpannerException> errors = Collections.synchronizedList(new ArrayList<>());
+    BulkWriter writer =
+        new BulkWriterImpl(
+            client,
+            BulkWriterOptions.newBuilder()
+                .setFailureHandler((group, error) -> errors.add(error))
+                .build());
+    writer.add(group("FORBIDDEN", 1L));
+    writer.add(group("FOO", 1L));
+    writer.close();
+
+    assertEquals(1, requests.size());
+    assertEquals(1, errors.size());
+    assertEquals(ErrorCode.PERMISSION_DENIED, errors.get(0).getErrorCode());
+    assertEquals(0L, writer.getStats().getMutationGroupRetries());
+    assertEquals(1L, writer.getStats().getMutationGroupsWritten());
+  }
+
+  @Test
+  public void testFlushThrowsWithoutFailureHandler() {
+    BulkWriter writer = new BulkWriterImpl(client, BulkWriterOptions.getDefaultInstance());
+    writer.add(group("BAD", 1L));
+    SpannerException exception = assertThrows(SpannerException.class, writer::flush);
+    assertEquals(ErrorCode.ALREADY_EXISTS, exception.getErrorCode());
+
+    // The failure is only reported once.
+    writer.add(group("FOO", 1L));
+    writer.close();
+    assertThrows(IllegalStateException.class, () -> writer.add(group("FOO", 2L)));
+  }
+
+  @Test
+  public void testBackoff() {
+    assertEquals(BulkWriterImpl.INITIAL_BACKOFF, BulkWriterImpl.backoff(2));
+    assertEquals(BulkWriterImpl.INITIAL_BACKOFF.multipliedBy(2L), BulkWriterImpl.backoff(3));
+    assertEquals(BulkWriterImpl.MAX_BACKOFF, BulkWriterImpl.backoff(100));
+  }
+
+  @Test
+  public void testStats() {
+    BulkWriter.Stats stats = new BulkWriter.Stats(10L, 20L, 300L, 1L, 2L, 4L, 400L, 200L, 2_000L);
+    assertEquals(Duration.ofNanos(100L), stats.getAverageRequestLatency());
+    assertEquals(Duration.ofNanos(200L), stats.getMaxRequestLatency());
+    assertEquals(5_000_000_000d, stats.getMutationGroupsPerSecond(), 0d);
+    assertEquals(150_000_000_000d, stats.getBytesPerSecond(), 0d);
+  }
+}
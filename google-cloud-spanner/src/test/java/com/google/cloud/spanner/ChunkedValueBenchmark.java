@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.ResultSetMetadata;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for merging large BYTES values that are returned in multiple chunks by Cloud
+ * Spanner. Run with:
+ *
+ * <pre>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ChunkedValueBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+public class ChunkedValueBenchmark {
+  /** The size of each chunk. Cloud Spanner normally returns chunks of up to 1MiB. */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    @Param({"10", "50", "100"})
+    int valueSizeMiB;
+
+    List<PartialResultSet> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      byte[] data = new byte[valueSizeMiB << 20];
+      new Random().nextBytes(data);
+      String base64 = Base64.getEncoder().encodeToString(data);
+      ResultSetMetadata metadata =
+          ResultSetMetadata.newBuilder()
+              .setRowType(
+                  Type.struct(Type.StructField.of("blob", Type.bytes()))
+                      .toProto()
+                      .getStructType())
+              .build();
+      chunks = new ArrayList<>();
+      for (int offset = 0; offset < base64.length(); offset += CHUNK_SIZE) {
+        int end = Math.min(offset + CHUNK_SIZE, base64.length());
+        PartialResultSet.Builder builder =
+            PartialResultSet.newBuilder()
+                .addValues(
+                    com.google.protobuf.Value.newBuilder()
+                        .setStringValue(base64.substring(offset, end)))
+                .setChunkedValue(end < base64.length())
+                .setResumeToken(ByteString.copyFromUtf8(String.valueOf(offset)));
+        if (offset == 0) {
+          builder.setMetadata(metadata);
+        }
+        chunks.add(builder.build());
+      }
+    }
+  }
+
+  @Benchmark
+  public com.google.protobuf.Value mergeChunkedBytes(BenchmarkState state) {
+    GrpcValueIterator iterator =
+        new GrpcValueIterator(new ListIterator(state.chunks.iterator()), new NoOpListener());
+    return iterator.next();
+  }
+
+  private static final class ListIterator implements CloseableIterator<PartialResultSet> {
+    private final Iterator<PartialResultSet> delegate;
+
+    ListIterator(Iterator<PartialResultSet> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public PartialResultSet next() {
+      return delegate.next();
+    }
+
+    @Override
+    public void close(@Nullable String message) {}
+
+    @Override
+    public boolean isWithBeginTransaction() {
+      return false;
+    }
+  }
+
+  private static final class NoOpListener implements AbstractResultSet.Listener {
+    @Override
+    public void onTransactionMetadata(
+        com.google.spanner.v1.Transaction transaction, boolean shouldIncludeId) {}
+
+    @Override
+    public SpannerException onError(SpannerException e, boolean withBeginTransaction) {
+      return e;
+    }
+
+    @Override
+    public void onDone(boolean withBeginTransaction) {}
+
+    @Override
+    public void onPrecommitToken(com.google.spanner.v1.MultiplexedSessionPrecommitToken token) {}
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spanner.ConcurrencyLimiter.LimitedResultSet;
+import com.google.cloud.spanner.ConcurrencyLimiter.RequestType;
+import com.google.common.testing.FakeTicker;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ConcurrencyLimiterTest {
+
+  @Test
+  public void testRejectsWhenLimitIsReached() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 2);
+    limiter.acquire();
+    limiter.acquire();
+    assertEquals(2, limiter.getInFlight());
+
+    ConcurrencyLimitExceededException exception =
+        assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+    assertEquals(ErrorCode.RESOURCE_EXHAUSTED, exception.getErrorCode());
+    assertFalse(exception.isRetryable());
+    assertEquals(2, exception.getLimit());
+    assertEquals(2, limiter.getInFlight());
+
+    limiter.release();
+    limiter.acquire();
+  }
+
+  @Test
+  public void testOverloadErrorDecreasesLimit() {
+    FakeTicker ticker = new FakeTicker();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(5, 10, ticker);
+    limiter.acquire();
+    limiter.release(
+        RequestType.READ,
+        1L,
+        SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "busy"));
+    assertEquals((int) (10 * ConcurrencyLimiter.BACKOFF_RATIO), limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+
+    // The limit is decreased at most once per window.
+    limiter.acquire();
+    limiter.release(
+        RequestType.READ,
+        1L,
+        SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "busy"));
+    assertEquals((int) (10 * ConcurrencyLimiter.BACKOFF_RATIO), limiter.getLimit());
+
+    // The limit never drops below the min limit.
+    for (int i = 0; i < 20; i++) {
+      ticker.advance(ConcurrencyLimiter.WINDOW);
+      limiter.acquire();
+      limiter.release(
+          RequestType.READ,
+          1L,
+          SpannerExceptionFactory.newSpannerException(ErrorCode.RESOURCE_EXHAUSTED, "busy"));
+    }
+    assertEquals(5, limiter.getLimit());
+  }
+
+  @Test
+  public void testOtherErrorsDoNotChangeLimit() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10);
+    limiter.acquire();
+    limiter.release(
+        RequestType.READ,
+        1L,
+        SpannerExceptionFactory.newSpannerException(ErrorCode.INVALID_ARGUMENT, "invalid"));
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  public void testLimitExceededErrorDoesNotChangeLimit() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10);
+    ConcurrencyLimitExceededException exception =
+        SpannerExceptionFactory.newConcurrencyLimitExceededException(10);
+    assertEquals(ErrorCode.RESOURCE_EXHAUSTED, exception.getErrorCode());
+    assertFalse(ConcurrencyLimiter.isOverloadError(exception));
+
+    limiter.acquire();
+    limiter.release(RequestType.READ, 1L, exception);
+    assertEquals(10, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  /** Records a full window of requests with the given latency. */
+  private static void recordWindow(
+      ConcurrencyLimiter limiter, FakeTicker ticker, RequestType type, long latencyNanos) {
+    long stepNanos = ConcurrencyLimiter.WINDOW.toNanos() / ConcurrencyLimiter.MIN_WINDOW_SAMPLES;
+    for (int i = 0; i < ConcurrencyLimiter.MIN_WINDOW_SAMPLES; i++) {
+      limiter.acquire();
+      limiter.release(type, latencyNanos, null);
+      ticker.advance(stepNanos, TimeUnit.NANOSECONDS);
+    }
+    limiter.acquire();
+    limiter.release(type, latencyNanos, null);
+  }
+
+  @Test
+  public void testSlowWindowDecreasesLimit() {
+    FakeTicker ticker = new FakeTicker();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10, ticker);
+    recordWindow(limiter, ticker, RequestType.READ, 100L);
+    assertEquals(10, limiter.getLimit());
+
+    // A single slow request does not decrease the limit.
+    limiter.acquire();
+    limiter.release(RequestType.READ, 100L * 100L, null);
+    assertEquals(10, limiter.getLimit());
+
+    // A window in which most requests are slow decreases the limit once.
+    long slowLatency = (long) (100L * ConcurrencyLimiter.LATENCY_TOLERANCE) + 10L;
+    recordWindow(limiter, ticker, RequestType.READ, slowLatency);
+    assertEquals(9, limiter.getLimit());
+  }
+
+  @Test
+  public void testLatencyIsTrackedPerRequestType() {
+    FakeTicker ticker = new FakeTicker();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10, ticker);
+    recordWindow(limiter, ticker, RequestType.READ, 100L);
+    recordWindow(limiter, ticker, RequestType.WRITE, 10_000L);
+
+    // Writes that are much slower than reads do not decrease the limit, as long as they are not
+    // slower than earlier writes.
+    recordWindow(limiter, ticker, RequestType.WRITE, 10_000L);
+    assertEquals(10, limiter.getLimit());
+    recordWindow(limiter, ticker, RequestType.READ, 100L);
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  public void testLimitIncreasesWhenInUse() {
+    FakeTicker ticker = new FakeTicker();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 10, ticker);
+    limiter.acquire();
+    limiter.release(
+        RequestType.READ,
+        1L,
+        SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "busy"));
+    assertEquals(9, limiter.getLimit());
+
+    // The limit is not increased in the window after a decrease.
+    for (int i = 0; i < 5; i++) {
+      limiter.acquire();
+    }
+    limiter.release(RequestType.READ, 1L, null);
+    assertEquals(9, limiter.getLimit());
+    ticker.advance(ConcurrencyLimiter.WINDOW);
+
+    // A single request does not use enough of the limit to increase it.
+    for (int i = 0; i < 4; i++) {
+      limiter.release();
+    }
+    limiter.acquire();
+    limiter.release(RequestType.READ, 1L, null);
+    assertEquals(9, limiter.getLimit());
+
+    for (int i = 0; i < 5; i++) {
+      limiter.acquire();
+    }
+    limiter.release(RequestType.READ, 1L, null);
+    assertEquals(10, limiter.getLimit());
+    // The limit never exceeds the max limit.
+    limiter.release(RequestType.READ, 1L, null);
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  public void testRun() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1);
+    assertEquals("result", limiter.run(RequestType.READ, () -> "result"));
+    assertEquals(0, limiter.getInFlight());
+
+    limiter.acquire();
+    assertThrows(
+        ConcurrencyLimitExceededException.class,
+        () -> limiter.run(RequestType.READ, () -> "result"));
+    limiter.release();
+
+    SpannerException error = SpannerExceptionFactory.newSpannerException(ErrorCode.ABORTED, "");
+    assertSame(
+        error,
+        assertThrows(
+            SpannerException.class,
+            () ->
+                limiter.run(
+                    RequestType.READ,
+                    () -> {
+                      throw error;
+                    })));
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void testResultSetReleasesPermitAfterFirstNext() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1);
+    ResultSet delegate = mock(ResultSet.class);
+    when(delegate.next()).thenReturn(true, false);
+
+    ResultSet resultSet = new LimitedResultSet(limiter, RequestType.QUERY, () -> delegate);
+    assertEquals(1, limiter.getInFlight());
+    assertThrows(
+        ConcurrencyLimitExceededException.class,
+        () -> new LimitedResultSet(limiter, RequestType.QUERY, () -> delegate));
+
+    assertTrue(resultSet.next());
+    assertEquals(0, limiter.getInFlight());
+    assertFalse(resultSet.next());
+    resultSet.close();
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void testResultSetReleasesPermitOnClose() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1);
+    ResultSet resultSet =
+        new LimitedResultSet(limiter, RequestType.QUERY, () -> mock(ResultSet.class));
+    assertEquals(1, limiter.getInFlight());
+    resultSet.close();
+    assertEquals(0, limiter.getInFlight());
+    resultSet.close();
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void testResultSetPermitIsReclaimedAfterLeaseTimeout() {
+    FakeTicker ticker = new FakeTicker();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, ticker);
+    ResultSet delegate = mock(ResultSet.class);
+    when(delegate.next()).thenReturn(true, false);
+    // A result set that is neither iterated nor closed.
+    ResultSet leaked = new LimitedResultSet(limiter, RequestType.QUERY, () -> delegate);
+    assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+
+    ticker.advance(ConcurrencyLimiter.LEASE_TIMEOUT);
+    limiter.acquire();
+    assertEquals(1, limiter.getInFlight());
+
+    // Using or closing the result set after its permit was reclaimed does not release the permit
+    // of another request.
+    assertTrue(leaked.next());
+    leaked.close();
+    assertEquals(1, limiter.getInFlight());
+  }
+
+  @Test
+  public void testIsOverloadError() {
+    assertFalse(ConcurrencyLimiter.isOverloadError(null));
+    assertFalse(ConcurrencyLimiter.isOverloadError(new RuntimeException()));
+    assertTrue(
+        ConcurrencyLimiter.isOverloadError(
+            SpannerExceptionFactory.newSpannerException(ErrorCode.DEADLINE_EXCEEDED, "")));
+    assertFalse(
+        ConcurrencyLimiter.isOverloadError(
+            SpannerExceptionFactory.newSpannerException(ErrorCode.NOT_FOUND, "")));
+  }
+}
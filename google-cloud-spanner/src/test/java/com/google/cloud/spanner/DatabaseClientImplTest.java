@@ -25,6 +25,7 @@ import static com.google.cloud.spanner.MockSpannerTestUtil.SELECT1_FROM_TABLE;
 import static com.google.cloud.spanner.MockSpannerTestUtil.SELECT1_RESULTSET;
 import static com.google.cloud.spanner.SpannerApiFutures.get;
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -1487,6 +1488,217 @@ public class DatabaseClientImplTest {
     assertEquals(Priority.PRIORITY_UNSPECIFIED, commit.getRequestOptions().getPriority());
   }
 
+  @Test
+  public void testWriteWithCoalesceMutations() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    List<Mutation> mutations =
+        Arrays.asList(
+            Mutation.newInsertBuilder("FOO").set("ID").to(1L).set("NAME").to("Foo1").build(),
+            Mutation.newInsertBuilder("BAR").set("FOO_ID").to(1L).set("ID").to(1L).build(),
+            Mutation.newInsertBuilder("FOO").set("ID").to(2L).set("NAME").to("Foo2").build(),
+            Mutation.newInsertBuilder("BAR").set("FOO_ID").to(2L).set("ID").to(1L).build());
+    client.writeWithOptions(mutations, Options.coalesceMutations());
+    client.writeAtLeastOnceWithOptions(mutations, Options.coalesceMutations());
+    client.writeAtLeastOnce(mutations);
+
+    List<CommitRequest> commitRequests = mockSpanner.getRequestsOfType(CommitRequest.class);
+    assertThat(commitRequests).hasSize(3);
+    assertEquals(2, commitRequests.get(0).getMutationsCount());
+    assertEquals(2, commitRequests.get(1).getMutationsCount());
+    assertEquals(4, commitRequests.get(2).getMutationsCount());
+  }
+
+  @Test
+  public void testWriteBatcher() throws Exception {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    List<ApiFuture<CommitResponse>> results = new ArrayList<>();
+    try (WriteBatcher batcher =
+        client.newWriteBatcher(
+            WriteBatcherOptions.newBuilder().setMaxBatchDelay(Duration.ofHours(1L)).build())) {
+      for (long id = 0L; id < 3L; id++) {
+        results.add(
+            batcher.write(
+                Collections.singletonList(
+                    Mutation.newInsertBuilder("FOO").set("ID").to(id).build())));
+      }
+    }
+    Timestamp commitTimestamp = results.get(0).get().getCommitTimestamp();
+    for (ApiFuture<CommitResponse> result : results) {
+      assertEquals(commitTimestamp, result.get().getCommitTimestamp());
+    }
+    List<CommitRequest> commitRequests = mockSpanner.getRequestsOfType(CommitRequest.class);
+    assertThat(commitRequests).hasSize(1);
+    assertEquals(3, commitRequests.get(0).getMutationsCount());
+  }
+
+  @Test
+  public void testWriteBatcherWithBatchWrite() throws Exception {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    List<ApiFuture<CommitResponse>> results = new ArrayList<>();
+    try (WriteBatcher batcher =
+        client.newWriteBatcher(
+            WriteBatcherOptions.newBuilder()
+                .setCommitMode(WriteBatcherOptions.CommitMode.BATCH_WRITE)
+                .setMaxBatchDelay(Duration.ofHours(1L))
+                .build())) {
+      for (MutationGroup group : MUTATION_GROUPS) {
+        results.add(batcher.write(group.getMutations()));
+      }
+    }
+    for (ApiFuture<CommitResponse> result : results) {
+      assertNotNull(result.get().getCommitTimestamp());
+    }
+    List<BatchWriteRequest> requests = mockSpanner.getRequestsOfType(BatchWriteRequest.class);
+    assertThat(requests).hasSize(1);
+    assertEquals(4, requests.get(0).getMutationGroupsCount());
+  }
+
+  @Test
+  public void testBulkWriter() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    BulkWriter writer =
+        client.newBulkWriter(BulkWriterOptions.getDefaultInstance(), Options.tag("bulk-load"));
+    for (MutationGroup group : MUTATION_GROUPS) {
+      writer.add(group);
+    }
+    writer.close();
+
+    assertEquals(4L, writer.getStats().getMutationGroupsWritten());
+    assertEquals(0L, writer.getStats().getMutationGroupsFailed());
+    List<BatchWriteRequest> requests = mockSpanner.getRequestsOfType(BatchWriteRequest.class);
+    assertThat(requests).hasSize(1);
+    assertEquals(4, requests.get(0).getMutationGroupsCount());
+    assertEquals("bulk-load", requests.get(0).getRequestOptions().getTransactionTag());
+  }
+
+  @Test
+  public void testBatchUpdateWithSplit() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    long[] updateCounts =
+        client
+            .readWriteTransaction()
+            .run(
+                transaction ->
+                    transaction.batchUpdate(
+                        Collections.nCopies(5, UPDATE_STATEMENT),
+                        Options.splitBatchUpdate(2, Long.MAX_VALUE)));
+    assertArrayEquals(new long[] {1L, 1L, 1L, 1L, 1L}, updateCounts);
+
+    List<ExecuteBatchDmlRequest> requests =
+        mockSpanner.getRequestsOfType(ExecuteBatchDmlRequest.class);
+    assertThat(requests).hasSize(3);
+    assertEquals(2, requests.get(0).getStatementsCount());
+    assertEquals(2, requests.get(1).getStatementsCount());
+    assertEquals(1, requests.get(2).getStatementsCount());
+    // Only the first request begins the transaction. The other requests use the transaction id.
+    assertTrue(requests.get(0).getTransaction().hasBegin());
+    assertTrue(requests.get(1).getTransaction().hasId());
+    assertEquals(
+        requests.get(1).getTransaction().getId(), requests.get(2).getTransaction().getId());
+  }
+
+  @Test
+  public void testBatchUpdateAsyncWithSplitReturnsUpdateCountsOfAllRequests() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    long[] updateCounts =
+        client
+            .readWriteTransaction()
+            .run(
+                transaction -> {
+                  SpannerBatchUpdateException exception =
+                      assertThrows(
+                          SpannerBatchUpdateException.class,
+                          () ->
+                              get(
+                                  transaction.batchUpdateAsync(
+                                      Arrays.asList(
+                                          UPDATE_STATEMENT,
+                                          UPDATE_STATEMENT,
+                                          UPDATE_STATEMENT,
+                                          INVALID_UPDATE_STATEMENT,
+                                          UPDATE_STATEMENT),
+                                      Options.splitBatchUpdate(2, Long.MAX_VALUE))));
+                  assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+                  // The exception of the failed request is kept as the cause.
+                  assertTrue(exception.getCause() instanceof SpannerBatchUpdateException);
+                  assertArrayEquals(
+                      new long[] {1L},
+                      ((SpannerBatchUpdateException) exception.getCause()).getUpdateCounts());
+                  return exception.getUpdateCounts();
+                });
+    assertArrayEquals(new long[] {1L, 1L, 1L}, updateCounts);
+
+    // The request after the request with the invalid statement is not sent.
+    assertThat(mockSpanner.getRequestsOfType(ExecuteBatchDmlRequest.class)).hasSize(2);
+  }
+
+  @Test
+  public void testBatchUpdateAsyncWithSplitReturnsUpdateCountsOfRequestsBeforeRpcError() {
+    // The first ExecuteBatchDml RPC succeeds, and the second RPC fails as a whole.
+    mockSpanner.setExecuteBatchDmlExecutionTime(
+        SimulatedExecutionTime.ofExceptions(
+            Arrays.asList(null, Status.PERMISSION_DENIED.asRuntimeException())));
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    long[] updateCounts =
+        client
+            .readWriteTransaction()
+            .run(
+                transaction -> {
+                  SpannerBatchUpdateException exception =
+                      assertThrows(
+                          SpannerBatchUpdateException.class,
+                          () ->
+                              get(
+                                  transaction.batchUpdateAsync(
+                                      Collections.nCopies(5, UPDATE_STATEMENT),
+                                      Options.splitBatchUpdate(2, Long.MAX_VALUE))));
+                  assertEquals(ErrorCode.PERMISSION_DENIED, exception.getErrorCode());
+                  // The error of the RPC is kept as the cause.
+                  assertTrue(exception.getCause() instanceof SpannerException);
+                  assertFalse(exception.getCause() instanceof SpannerBatchUpdateException);
+                  return exception.getUpdateCounts();
+                });
+    assertArrayEquals(new long[] {1L, 1L}, updateCounts);
+    assertThat(mockSpanner.getRequestsOfType(ExecuteBatchDmlRequest.class)).hasSize(2);
+  }
+
+  @Test
+  public void testReadWriteTransactionWithEagerMutationEncoding() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    client
+        .readWriteTransaction(Options.eagerMutationEncoding())
+        .run(
+            transaction -> {
+              transaction.buffer(
+                  Mutation.newInsertBuilder("FOO").set("ID").to(1L).set("NAME").to("Foo1").build());
+              transaction.buffer(
+                  Arrays.asList(
+                      Mutation.newInsertBuilder("FOO")
+                          .set("ID")
+                          .to(2L)
+                          .set("NAME")
+                          .to("Foo2")
+                          .build(),
+                      Mutation.delete("FOO", Key.of(3L))));
+              return null;
+            });
+
+    List<CommitRequest> commitRequests = mockSpanner.getRequestsOfType(CommitRequest.class);
+    assertThat(commitRequests).hasSize(1);
+    CommitRequest commit = commitRequests.get(0);
+    assertEquals(2, commit.getMutationsCount());
+    assertEquals(2, commit.getMutations(0).getInsert().getValuesCount());
+    assertTrue(commit.getMutations(1).hasDelete());
+  }
+
   @Test
   public void testWriteAtLeastOnceWithCommitStats() {
     DatabaseClient client =
@@ -3945,7 +4157,7 @@ public class DatabaseClientImplTest {
   public void testReadWriteTransaction_usesOptions() {
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture session = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(session);
+    when(pool.getSession(any())).thenReturn(session);
     TransactionOption option = mock(TransactionOption.class);
 
     TraceWrapper traceWrapper =
@@ -3961,7 +4173,7 @@ public class DatabaseClientImplTest {
   public void testTransactionManager_usesOptions() {
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture session = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(session);
+    when(pool.getSession(any())).thenReturn(session);
     TransactionOption option = mock(TransactionOption.class);
 
     DatabaseClientImpl client = new DatabaseClientImpl(pool, mock(TraceWrapper.class));
@@ -3974,7 +4186,7 @@ public class DatabaseClientImplTest {
   public void testRunAsync_usesOptions() {
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture session = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(session);
+    when(pool.getSession(any())).thenReturn(session);
     TransactionOption option = mock(TransactionOption.class);
 
     DatabaseClientImpl client = new DatabaseClientImpl(pool, mock(TraceWrapper.class));
@@ -3987,7 +4199,7 @@ public class DatabaseClientImplTest {
   public void testTransactionManagerAsync_usesOptions() {
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture session = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(session);
+    when(pool.getSession(any())).thenReturn(session);
     TransactionOption option = mock(TransactionOption.class);
 
     DatabaseClientImpl client = new DatabaseClientImpl(pool, mock(TraceWrapper.class));
@@ -5640,7 +5852,7 @@ public class DatabaseClientImplTest {
   public void testdbIdFromClientId() {
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture session = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(session);
+    when(pool.getSession(any())).thenReturn(session);
     TransactionOption option = mock(TransactionOption.class);
     DatabaseClientImpl client = new DatabaseClientImpl(pool, mock(TraceWrapper.class));
 
@@ -5658,7 +5870,7 @@ public class DatabaseClientImplTest {
     // a fresh session returned on SessionNotFoundException.
     SessionPool pool = mock(SessionPool.class);
     PooledSessionFuture sessionFut = mock(PooledSessionFuture.class);
-    when(pool.getSession()).thenReturn(sessionFut);
+    when(pool.getSession(any())).thenReturn(sessionFut);
     SessionPool.PooledSession pooledSession = mock(SessionPool.PooledSession.class);
     when(sessionFut.get()).thenReturn(pooledSession);
     SessionPool.PooledSessionReplacementHandler sessionReplacementHandler =
@@ -5705,4 +5917,47 @@ public class DatabaseClientImplTest {
 
     assertEquals(nCalls.get(), 4);
   }
+
+  @Test
+  public void testAdaptiveConcurrencyLimit() {
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId(TEST_PROJECT)
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setSessionPoolOption(
+                SessionPoolOptions.newBuilder().setAdaptiveConcurrencyLimit(1, 1).build())
+            .build()
+            .getService()) {
+      DatabaseClientImpl client =
+          (DatabaseClientImpl)
+              spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      ConcurrencyLimiter limiter = client.pool.getConcurrencyLimiter();
+      assertNotNull(limiter);
+
+      try (ResultSet resultSet = client.singleUse().executeQuery(SELECT1)) {
+        // The query holds the only permit until it has returned its first result.
+        assertThrows(
+            ConcurrencyLimitExceededException.class,
+            () -> client.singleUse().executeQuery(SELECT1));
+        assertThrows(
+            ConcurrencyLimitExceededException.class,
+            () -> client.write(Collections.singletonList(Mutation.delete("FOO", KeySet.all()))));
+        assertTrue(resultSet.next());
+      }
+      assertEquals(0, limiter.getInFlight());
+
+      try (ResultSet resultSet = client.singleUse().executeQuery(SELECT1)) {
+        assertTrue(resultSet.next());
+        assertFalse(resultSet.next());
+      }
+      assertNotNull(client.write(Collections.singletonList(Mutation.delete("FOO", KeySet.all()))));
+      assertEquals(
+          Long.valueOf(UPDATE_COUNT),
+          client
+              .readWriteTransaction()
+              .run(transaction -> transaction.executeUpdate(UPDATE_STATEMENT)));
+      assertEquals(0, limiter.getInFlight());
+    }
+  }
 }
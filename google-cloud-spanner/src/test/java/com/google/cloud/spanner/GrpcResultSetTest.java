@@ -392,6 +392,37 @@ public class GrpcResultSetTest {
         input -> input.getStructList(0));
   }
 
+  @Test
+  public void multiResponseChunkingStringArrayElementSpanningChunks() {
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(Type.struct(Type.StructField.of("f", Type.array(Type.string())))))
+            .addValues(Value.stringArray(Arrays.asList("a", "bc")).toProto())
+            .setChunkedValue(true)
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.stringArray(Collections.emptyList()).toProto())
+            .setChunkedValue(true)
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.stringArray(Collections.singletonList("de")).toProto())
+            .setChunkedValue(true)
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.stringArray(Arrays.asList("f", null, "g")).toProto())
+            .setChunkedValue(false)
+            .build());
+    consumer.onCompleted();
+
+    assertThat(resultSet.next()).isTrue();
+    assertThat(resultSet.getStringList(0)).containsExactly("a", "bcdef", null, "g").inOrder();
+    assertThat(resultSet.next()).isFalse();
+  }
+
   @Test
   public void profileResultInFinalResultSet() {
     Map<String, com.google.protobuf.Value> statsMap =
@@ -1251,4 +1282,168 @@ public class GrpcResultSetTest {
     assertEquals("DEADLINE_EXCEEDED: stream wait timeout", spannerException.getMessage());
     consumer.onCompleted();
   }
+
+  @Test
+  public void columnarBatches() {
+    resultSet = new GrpcResultSet(stream, new NoOpListener(), DecodeMode.COLUMNAR);
+    Type type =
+        Type.struct(
+            Type.StructField.of("id", Type.int64()),
+            Type.StructField.of("score", Type.float64()),
+            Type.StructField.of("active", Type.bool()),
+            Type.StructField.of("name", Type.string()),
+            Type.StructField.of("data", Type.bytes()),
+            Type.StructField.of("ts", Type.timestamp()));
+    PartialResultSet.Builder builder =
+        PartialResultSet.newBuilder().setMetadata(makeMetadata(type));
+    for (int i = 0; i < 5; i++) {
+      builder
+          .addValues(Value.int64(i).toProto())
+          .addValues(Value.float64(i == 2 ? null : i * 1.5d).toProto())
+          .addValues(Value.bool(i % 2 == 0).toProto())
+          .addValues(Value.string("name" + i).toProto())
+          .addValues(Value.bytes(i == 3 ? null : b("data" + i)).toProto())
+          .addValues(Value.timestamp(Timestamp.ofTimeSecondsAndNanos(i, 0)).toProto());
+    }
+    consumer.onPartialResultSet(builder.build());
+    consumer.onCompleted();
+
+    ColumnBatch batch = resultSet.nextBatch(3);
+    assertThat(batch).isNotNull();
+    assertEquals(3, batch.getRowCount());
+    assertEquals(type, batch.getType());
+    assertThat(Arrays.copyOf(batch.getLongVector(0), 3)).isEqualTo(new long[] {0L, 1L, 2L});
+    assertThat(batch.getDouble(1, 1)).isWithin(0.0d).of(1.5d);
+    assertTrue(batch.isNull(1, 2));
+    assertThrows(NullPointerException.class, () -> batch.getDouble(1, 2));
+    assertEquals(Value.float64(null), batch.getValue(1, 2));
+    assertTrue(batch.getBoolean(2, 0));
+    assertFalse(batch.getBoolean(2, 1));
+    assertEquals("name2", batch.getString(3, 2));
+    assertEquals(b("data1"), batch.getBytes(4, 1));
+    assertEquals(Value.timestamp(Timestamp.ofTimeSecondsAndNanos(2, 0)), batch.getValue(5, 2));
+    assertThrows(IllegalStateException.class, () -> batch.getLong(3, 0));
+    assertThrows(IllegalStateException.class, () -> resultSet.getLong(0));
+
+    ColumnBatch last = resultSet.nextBatch(3);
+    assertThat(last).isNotNull();
+    assertEquals(2, last.getRowCount());
+    assertTrue(last.isNull(4, 0));
+    assertEquals(b("data4"), last.getBytes(4, 1));
+    int[] offsets = last.getBytesOffsets(4);
+    assertEquals(offsets[0], offsets[1]);
+    assertEquals("data4".length(), offsets[2] - offsets[1]);
+    assertThat(resultSet.nextBatch(3)).isNull();
+  }
+
+  @Test
+  public void columnarNextAfterBatch() {
+    resultSet = new GrpcResultSet(stream, new NoOpListener(), DecodeMode.COLUMNAR);
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(Type.struct(Type.StructField.of("f", Type.int64()))))
+            .addValues(Value.int64(1L).toProto())
+            .addValues(Value.int64(2L).toProto())
+            .addValues(Value.int64(3L).toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertEquals(1, resultSet.nextBatch(1).getRowCount());
+    assertTrue(resultSet.next());
+    assertEquals(2L, resultSet.getLong(0));
+    ColumnBatch batch = resultSet.nextBatch();
+    assertEquals(1, batch.getRowCount());
+    assertEquals(3L, batch.getLong(0, 0));
+    assertThat(resultSet.nextBatch()).isNull();
+  }
+
+  @Test
+  public void nextBatchWithRowDecodeMode() {
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(
+                    Type.struct(
+                        Type.StructField.of("f", Type.int64()),
+                        Type.StructField.of("g", Type.array(Type.string())))))
+            .addValues(Value.int64(1L).toProto())
+            .addValues(Value.stringArray(Arrays.asList("a", null)).toProto())
+            .addValues(Value.int64(null).toProto())
+            .addValues(Value.stringArray(null).toProto())
+            .build());
+    consumer.onCompleted();
+
+    ColumnBatch batch = resultSet.nextBatch(10);
+    assertEquals(2, batch.getRowCount());
+    assertEquals(1L, batch.getLong(0, 0));
+    assertTrue(batch.isNull(0, 1));
+    assertEquals(Value.stringArray(Arrays.asList("a", null)), batch.getValue(1, 0));
+    assertTrue(batch.isNull(1, 1));
+    assertThat(resultSet.nextBatch(10)).isNull();
+  }
+
+  @Test
+  public void primitiveValues() {
+    Type type =
+        Type.struct(
+            Type.StructField.of("b", Type.bool()),
+            Type.StructField.of("i", Type.int64()),
+            Type.StructField.of("d", Type.float64()),
+            Type.StructField.of("f", Type.float32()),
+            Type.StructField.of("s", Type.string()));
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(type))
+            .addValues(Value.bool(true).toProto())
+            .addValues(Value.int64(Long.MIN_VALUE).toProto())
+            .addValues(Value.float64(Double.NaN).toProto())
+            .addValues(Value.float32(-1.5f).toProto())
+            .addValues(Value.string("a").toProto())
+            .addValues(Value.bool(null).toProto())
+            .addValues(Value.int64(null).toProto())
+            .addValues(Value.float64(null).toProto())
+            .addValues(Value.float32(null).toProto())
+            .addValues(Value.string(null).toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertTrue(resultSet.next());
+    assertTrue(resultSet.getBoolean(0));
+    assertEquals(Long.MIN_VALUE, resultSet.getLong(1));
+    assertTrue(Double.isNaN(resultSet.getDouble(2)));
+    assertEquals(-1.5f, resultSet.getFloat(3), 0.0f);
+    assertEquals(Value.int64(Long.MIN_VALUE), resultSet.getValue(1));
+    Struct copy = resultSet.getCurrentRowAsStruct();
+    assertEquals("[true, -9223372036854775808, NaN, -1.5, a]", copy.toString());
+    assertEquals(copy, reserialize(copy));
+
+    assertTrue(resultSet.next());
+    for (int col = 0; col < type.getStructFields().size(); col++) {
+      assertTrue(resultSet.isNull(col));
+    }
+    // The copy of the previous row is not affected by moving to the next row.
+    assertEquals(Long.MIN_VALUE, copy.getLong(1));
+    assertTrue(copy.getBoolean(0));
+    assertFalse(resultSet.next());
+  }
+
+  @Test
+  public void reuseRows() {
+    resultSet = new GrpcResultSet(stream, new NoOpListener(), DecodeMode.DIRECT, true);
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(Type.struct(Type.StructField.of("f", Type.int64()))))
+            .addValues(Value.int64(1L).toProto())
+            .addValues(Value.int64(2L).toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertTrue(resultSet.next());
+    Struct row = resultSet.getCurrentRowAsStruct();
+    assertEquals(1L, row.getLong(0));
+    assertTrue(resultSet.next());
+    assertThat(resultSet.getCurrentRowAsStruct()).isSameInstanceAs(row);
+    assertEquals(2L, row.getLong(0));
+    assertFalse(resultSet.next());
+  }
 }
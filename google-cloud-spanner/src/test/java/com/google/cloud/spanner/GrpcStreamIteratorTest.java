@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.cloud.spanner.spi.v1.SpannerRpc;
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.PartialResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link GrpcStreamIterator}. */
+@RunWith(JUnit4.class)
+public class GrpcStreamIteratorTest {
+
+  private static final class RecordingCall implements SpannerRpc.StreamingCall {
+    private final List<Integer> requests = new ArrayList<>();
+
+    @Override
+    public ApiCallContext getCallContext() {
+      return null;
+    }
+
+    @Override
+    public void cancel(@Nullable String message) {}
+
+    @Override
+    public void request(int numMessages) {
+      requests.add(numMessages);
+    }
+
+    int totalRequested() {
+      return requests.stream().mapToInt(Integer::intValue).sum();
+    }
+  }
+
+  private static PartialResultSet chunk(int size) {
+    return PartialResultSet.newBuilder()
+        .setResumeToken(ByteString.copyFrom(new byte[size]))
+        .build();
+  }
+
+  private static GrpcStreamIterator createIterator(
+      int prefetchChunks, long maxPrefetchBytes, RecordingCall call) {
+    GrpcStreamIterator iterator =
+        new GrpcStreamIterator(
+            null, prefetchChunks, maxPrefetchBytes, /* cancelQueryWhenClientIsClosed= */ false);
+    iterator.setCall(call, false);
+    iterator.requestPrefetchChunks();
+    return iterator;
+  }
+
+  @Test
+  public void testFixedWindow() {
+    RecordingCall call = new RecordingCall();
+    GrpcStreamIterator iterator = createIterator(4, 0L, call);
+    SpannerRpc.ResultStreamConsumer consumer = iterator.consumer();
+
+    for (int i = 0; i < 10; i++) {
+      consumer.onPartialResultSet(chunk(100));
+      iterator.next();
+    }
+    assertEquals(4, iterator.getWindow());
+    assertEquals(4 + 10, call.totalRequested());
+  }
+
+  @Test
+  public void testWindowGrowsWhenConsumerIsStarved() {
+    RecordingCall call = new RecordingCall();
+    GrpcStreamIterator iterator = createIterator(2, 1024L * 1024L, call);
+    SpannerRpc.ResultStreamConsumer consumer = iterator.consumer();
+
+    // Simulate a fast consumer by always consuming a chunk as soon as it has been received.
+    for (int i = 0; i < 4; i++) {
+      consumer.onPartialResultSet(chunk(100));
+      iterator.next();
+    }
+    assertEquals(32, iterator.getWindow());
+    // The number of outstanding chunks should be equal to the window size.
+    assertEquals(32, call.totalRequested() - 4);
+  }
+
+  @Test
+  public void testWindowIsLimitedByMaxPrefetchBytes() {
+    RecordingCall call = new RecordingCall();
+    GrpcStreamIterator iterator = createIterator(2, 1000L, call);
+    SpannerRpc.ResultStreamConsumer consumer = iterator.consumer();
+
+    for (int i = 0; i < 10; i++) {
+      consumer.onPartialResultSet(chunk(200));
+      iterator.next();
+    }
+    int maxWindow = (int) (1000L / chunk(200).getSerializedSize());
+    assertEquals(maxWindow, iterator.getWindow());
+    assertEquals(maxWindow, call.totalRequested() - 10);
+  }
+
+  @Test
+  public void testWindowShrinksWhenQueueBacksUp() {
+    RecordingCall call = new RecordingCall();
+    GrpcStreamIterator iterator = createIterator(8, 1024L * 1024L, call);
+    SpannerRpc.ResultStreamConsumer consumer = iterator.consumer();
+
+    // Simulate a slow consumer by delivering the entire window before consuming anything.
+    for (int i = 0; i < 8; i++) {
+      consumer.onPartialResultSet(chunk(100));
+    }
+    iterator.next();
+    assertEquals(7, iterator.getWindow());
+    // The consumed chunk should not have been replaced.
+    assertEquals(8, call.totalRequested());
+  }
+
+  @Test
+  public void testWindowNeverShrinksBelowOne() {
+    RecordingCall call = new RecordingCall();
+    GrpcStreamIterator iterator = createIterator(1, 1024L * 1024L, call);
+    SpannerRpc.ResultStreamConsumer consumer = iterator.consumer();
+
+    consumer.onPartialResultSet(chunk(100));
+    consumer.onCompleted();
+    iterator.next();
+    assertEquals(1, iterator.getWindow());
+    assertFalse(iterator.hasNext());
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.cloud.spanner.MultiplexedSessionCache.CachedSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MultiplexedSessionCacheTest {
+  private static final String ENDPOINT = "https://spanner.googleapis.com";
+  private static final DatabaseId DATABASE = DatabaseId.of("p", "i", "d");
+  private static final DatabaseId OTHER_DATABASE = DatabaseId.of("p", "i", "d2");
+  private static final String SESSION = DATABASE.getName() + "/sessions/s1";
+  private static final Instant CREATE_TIME = Instant.ofEpochMilli(1_000_000L);
+
+  private Path directory;
+  private Path file;
+
+  @Before
+  public void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("multiplexed-session-cache");
+    file = directory.resolve("sessions.properties");
+  }
+
+  @After
+  public void deleteDirectory() throws IOException {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(directory);
+  }
+
+  @Test
+  public void testMissingFile() {
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    assertNull(cache.get(DATABASE, null));
+  }
+
+  @Test
+  public void testPutAndGet() {
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    cache.put(DATABASE, null, SESSION, CREATE_TIME);
+
+    // Use a new cache to verify that the session was written to the file.
+    CachedSession session = new MultiplexedSessionCache(file, ENDPOINT).get(DATABASE, null);
+    assertNotNull(session);
+    assertEquals(SESSION, session.getName());
+    assertEquals(CREATE_TIME, session.getCreateTime());
+    assertNull(cache.get(OTHER_DATABASE, null));
+  }
+
+  @Test
+  public void testPutKeepsOtherDatabases() {
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    String otherSession = OTHER_DATABASE.getName() + "/sessions/s2";
+    cache.put(DATABASE, null, SESSION, CREATE_TIME);
+    cache.put(OTHER_DATABASE, null, otherSession, CREATE_TIME);
+
+    assertNotNull(cache.get(DATABASE, null));
+    assertEquals(otherSession, cache.get(OTHER_DATABASE, null).getName());
+  }
+
+  @Test
+  public void testDatabaseRoleMustMatch() {
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    cache.put(DATABASE, "reader", SESSION, CREATE_TIME);
+
+    assertNull(cache.get(DATABASE, null));
+    assertNull(cache.get(DATABASE, "writer"));
+    assertNotNull(cache.get(DATABASE, "reader"));
+  }
+
+  @Test
+  public void testEndpointMustMatch() {
+    new MultiplexedSessionCache(file, ENDPOINT).put(DATABASE, null, SESSION, CREATE_TIME);
+
+    assertNull(new MultiplexedSessionCache(file, "http://localhost:9010").get(DATABASE, null));
+    assertNotNull(new MultiplexedSessionCache(file, ENDPOINT).get(DATABASE, null));
+  }
+
+  @Test
+  public void testRemove() {
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    cache.put(DATABASE, null, SESSION, CREATE_TIME);
+
+    // Removing a different session does not change the cache.
+    cache.remove(DATABASE, DATABASE.getName() + "/sessions/other");
+    assertNotNull(cache.get(DATABASE, null));
+
+    cache.remove(DATABASE, SESSION);
+    assertNull(cache.get(DATABASE, null));
+    assertNull(new MultiplexedSessionCache(file, ENDPOINT).get(DATABASE, null));
+  }
+
+  @Test
+  public void testInvalidContentIsIgnored() throws IOException {
+    Files.write(
+        file,
+        Collections.singletonList(
+            ENDPOINT.replace(":", "\\:") + "/" + DATABASE.getName() + ".session=invalid"),
+        StandardCharsets.ISO_8859_1);
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, ENDPOINT);
+    assertNull(cache.get(DATABASE, null));
+
+    // The invalid content is overwritten.
+    cache.put(DATABASE, null, SESSION, CREATE_TIME);
+    assertEquals(SESSION, cache.get(DATABASE, null).getName());
+  }
+}
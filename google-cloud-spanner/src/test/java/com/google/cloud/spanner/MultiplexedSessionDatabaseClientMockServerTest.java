@@ -51,6 +51,8 @@ import com.google.spanner.v1.*;
 import com.google.spanner.v1.RequestOptions.Priority;
 import com.google.spanner.v1.Session;
 import io.grpc.Status;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
@@ -2445,6 +2447,267 @@ public class MultiplexedSessionDatabaseClientMockServerTest extends AbstractMock
     assertEquals(2L, client.multiplexedSessionDatabaseClient.getNumSessionsReleased().get());
   }
 
+  @Test
+  public void testDmlTransactionUsesPreBegunTransaction() throws Exception {
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId("test-project")
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setSessionPoolOption(
+                SessionPoolOptions.newBuilder()
+                    .setUseMultiplexedSession(true)
+                    .setUseMultiplexedSessionForRW(true)
+                    .setNumPreBegunReadWriteTransactions(1)
+                    .setFailOnSessionLeak()
+                    .build())
+            .build()
+            .getService()) {
+      DatabaseClientImpl client =
+          (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      assertNotNull(client.multiplexedSessionDatabaseClient);
+      PreBegunTransactionPool preBegunTransactions =
+          client.multiplexedSessionDatabaseClient.getPreBegunTransactions();
+      assertNotNull(preBegunTransactions);
+      waitForPreBegunTransaction(preBegunTransactions);
+      List<BeginTransactionRequest> preBeginRequests =
+          mockSpanner.getRequestsOfType(BeginTransactionRequest.class);
+      assertEquals(1, preBeginRequests.size());
+      assertFalse(preBeginRequests.get(0).hasMutationKey());
+
+      client
+          .readWriteTransaction()
+          .run(transaction -> transaction.executeUpdate(UPDATE_STATEMENT));
+
+      // The first statement used the transaction that was begun in advance instead of an inlined
+      // BeginTransaction option, and the client began a new transaction to replace it.
+      waitForPreBegunTransaction(preBegunTransactions);
+      List<BeginTransactionRequest> beginTransactionRequests =
+          mockSpanner.getRequestsOfType(BeginTransactionRequest.class);
+      assertEquals(2, beginTransactionRequests.size());
+      List<ExecuteSqlRequest> executeSqlRequests =
+          mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+      assertEquals(1, executeSqlRequests.size());
+      assertTrue(executeSqlRequests.get(0).getTransaction().hasId());
+      ByteString transactionId = executeSqlRequests.get(0).getTransaction().getId();
+      List<CommitRequest> commitRequests = mockSpanner.getRequestsOfType(CommitRequest.class);
+      assertEquals(1, commitRequests.size());
+      assertEquals(transactionId, commitRequests.get(0).getTransactionId());
+      // The commit includes the precommit token that Spanner returned for the statement.
+      assertEquals(
+          MockSpannerServiceImpl.getResultSetPrecommitToken(transactionId),
+          commitRequests.get(0).getPrecommitToken());
+
+      // Transactions with non-default options do not use the transaction that was begun in
+      // advance.
+      mockSpanner.clearRequests();
+      client
+          .readWriteTransaction(Options.optimisticLock())
+          .run(transaction -> transaction.executeUpdate(UPDATE_STATEMENT));
+      executeSqlRequests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+      assertEquals(1, executeSqlRequests.size());
+      assertTrue(executeSqlRequests.get(0).getTransaction().hasBegin());
+    }
+  }
+
+  @Test
+  public void testMutationOnlyTransactionDoesNotUsePreBegunTransaction() throws Exception {
+    try (Spanner spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId("test-project")
+            .setChannelProvider(channelProvider)
+            .setCredentials(NoCredentials.getInstance())
+            .setSessionPoolOption(
+                SessionPoolOptions.newBuilder()
+                    .setUseMultiplexedSession(true)
+                    .setUseMultiplexedSessionForRW(true)
+                    .setNumPreBegunReadWriteTransactions(1)
+                    .setFailOnSessionLeak()
+                    .build())
+            .build()
+            .getService()) {
+      DatabaseClientImpl client =
+          (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      assertNotNull(client.multiplexedSessionDatabaseClient);
+      PreBegunTransactionPool preBegunTransactions =
+          client.multiplexedSessionDatabaseClient.getPreBegunTransactions();
+      assertNotNull(preBegunTransactions);
+      waitForPreBegunTransaction(preBegunTransactions);
+      mockSpanner.clearRequests();
+
+      client
+          .readWriteTransaction()
+          .run(
+              transaction -> {
+                transaction.buffer(
+                    Mutation.newInsertBuilder("FOO")
+                        .set("ID")
+                        .to(1L)
+                        .set("NAME")
+                        .to("Bar")
+                        .build());
+                return null;
+              });
+
+      // A BeginTransaction RPC without a mutation key does not return a precommit token. A
+      // mutation-only transaction therefore begins its own transaction with a mutation key, and
+      // leaves the transaction that was begun in advance in the pool.
+      assertEquals(1, preBegunTransactions.size());
+      List<BeginTransactionRequest> beginTransactionRequests =
+          mockSpanner.getRequestsOfType(BeginTransactionRequest.class).stream()
+              .filter(BeginTransactionRequest::hasMutationKey)
+              .collect(Collectors.toList());
+      assertEquals(1, beginTransactionRequests.size());
+      List<CommitRequest> commitRequests = mockSpanner.getRequestsOfType(CommitRequest.class);
+      assertEquals(1, commitRequests.size());
+      assertEquals(
+          MockSpannerServiceImpl.getTransactionPrecommitToken(
+              commitRequests.get(0).getTransactionId()),
+          commitRequests.get(0).getPrecommitToken());
+    }
+  }
+
+  @Test
+  public void testRestartedClientReusesCachedSession() throws Exception {
+    Path directory = Files.createTempDirectory("multiplexed-session-cache");
+    Path cacheFile = directory.resolve("sessions.properties");
+    try {
+      String sessionName;
+      try (Spanner spanner = createSpannerWithSessionCache(cacheFile)) {
+        DatabaseClientImpl client =
+            (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          //noinspection StatementWithEmptyBody
+          while (resultSet.next()) {
+            // ignore
+          }
+        }
+        assertNotNull(client.multiplexedSessionDatabaseClient);
+        sessionName =
+            client.multiplexedSessionDatabaseClient.getCurrentSessionReference().getName();
+      }
+      assertEquals(1, mockSpanner.countRequestsOfType(CreateSessionRequest.class));
+
+      // A new client for the same database uses the session from the cache.
+      try (Spanner spanner = createSpannerWithSessionCache(cacheFile)) {
+        DatabaseClientImpl client =
+            (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          //noinspection StatementWithEmptyBody
+          while (resultSet.next()) {
+            // ignore
+          }
+        }
+        assertNotNull(client.multiplexedSessionDatabaseClient);
+        assertEquals(
+            sessionName,
+            client.multiplexedSessionDatabaseClient.getCurrentSessionReference().getName());
+      }
+      assertEquals(1, mockSpanner.countRequestsOfType(CreateSessionRequest.class));
+      List<ExecuteSqlRequest> requests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+      assertEquals(2, requests.size());
+      assertEquals(sessionName, requests.get(1).getSession());
+    } finally {
+      Files.deleteIfExists(cacheFile);
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  @Test
+  public void testCachedSessionThatNoLongerExistsIsReplaced() throws Exception {
+    Path directory = Files.createTempDirectory("multiplexed-session-cache");
+    Path cacheFile = directory.resolve("sessions.properties");
+    try {
+      String sessionName;
+      try (Spanner spanner = createSpannerWithSessionCache(cacheFile)) {
+        DatabaseClientImpl client =
+            (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          //noinspection StatementWithEmptyBody
+          while (resultSet.next()) {
+            // ignore
+          }
+        }
+        assertNotNull(client.multiplexedSessionDatabaseClient);
+        sessionName =
+            client.multiplexedSessionDatabaseClient.getCurrentSessionReference().getName();
+      }
+      // Simulate that the server dropped the session that is in the cache.
+      mockSpanner.removeSession(sessionName);
+      assertEquals(1, mockSpanner.countRequestsOfType(CreateSessionRequest.class));
+
+      // A new client verifies the cached session and creates a new session, as the cached session
+      // no longer exists.
+      String newSessionName;
+      try (Spanner spanner = createSpannerWithSessionCache(cacheFile)) {
+        DatabaseClientImpl client =
+            (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          //noinspection StatementWithEmptyBody
+          while (resultSet.next()) {
+            // ignore
+          }
+        }
+        assertNotNull(client.multiplexedSessionDatabaseClient);
+        newSessionName =
+            client.multiplexedSessionDatabaseClient.getCurrentSessionReference().getName();
+      }
+      assertNotEquals(sessionName, newSessionName);
+      assertEquals(2, mockSpanner.countRequestsOfType(CreateSessionRequest.class));
+      List<GetSessionRequest> getSessionRequests =
+          mockSpanner.getRequestsOfType(GetSessionRequest.class);
+      assertEquals(1, getSessionRequests.size());
+      assertEquals(sessionName, getSessionRequests.get(0).getName());
+      List<ExecuteSqlRequest> requests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+      assertEquals(2, requests.size());
+      assertEquals(newSessionName, requests.get(1).getSession());
+
+      // The cache now contains the new session.
+      try (Spanner spanner = createSpannerWithSessionCache(cacheFile)) {
+        DatabaseClientImpl client =
+            (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          //noinspection StatementWithEmptyBody
+          while (resultSet.next()) {
+            // ignore
+          }
+        }
+        assertEquals(
+            newSessionName,
+            client.multiplexedSessionDatabaseClient.getCurrentSessionReference().getName());
+      }
+      assertEquals(2, mockSpanner.countRequestsOfType(CreateSessionRequest.class));
+    } finally {
+      Files.deleteIfExists(cacheFile);
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  private Spanner createSpannerWithSessionCache(Path cacheFile) {
+    return SpannerOptions.newBuilder()
+        .setProjectId("test-project")
+        .setChannelProvider(channelProvider)
+        .setCredentials(NoCredentials.getInstance())
+        .setMultiplexedSessionCacheFile(cacheFile.toString())
+        .setSessionPoolOption(
+            SessionPoolOptions.newBuilder()
+                .setUseMultiplexedSession(true)
+                .setFailOnSessionLeak()
+                .build())
+        .build()
+        .getService();
+  }
+
+  private static void waitForPreBegunTransaction(PreBegunTransactionPool preBegunTransactions)
+      throws InterruptedException {
+    Stopwatch watch = Stopwatch.createStarted();
+    while (preBegunTransactions.size() == 0 && watch.elapsed(TimeUnit.SECONDS) < 10L) {
+      //noinspection BusyWait
+      Thread.sleep(1L);
+    }
+    assertEquals(1, preBegunTransactions.size());
+  }
+
   private void waitForSessionToBeReplaced(DatabaseClientImpl client) {
     assertNotNull(client.multiplexedSessionDatabaseClient);
     SessionReference sessionReference =
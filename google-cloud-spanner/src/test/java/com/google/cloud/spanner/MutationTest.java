@@ -349,6 +349,182 @@ public class MutationTest {
         matchesProto("delete { table: 'T' key_set { keys { values { string_value: 'k' } } } }"));
   }
 
+  @Test
+  public void protoEncoderMatchesToProto() {
+    List<Mutation> mutations =
+        Arrays.asList(
+            Mutation.newInsertBuilder("T1").set("C").to("V1").build(),
+            Mutation.newInsertBuilder("T1").set("C").to("V2").build(),
+            Mutation.delete("T1", KeySet.singleKey(Key.of("k1"))),
+            Mutation.delete("T1", KeySet.singleKey(Key.of("k2"))),
+            Mutation.newUpdateBuilder("T2").set("C").to("V3").build(),
+            Mutation.newReplaceBuilder("T2").set("C").to("V4").build());
+    List<com.google.spanner.v1.Mutation> expected = new ArrayList<>();
+    Mutation.toProtoAndReturnRandomMutation(mutations, expected);
+
+    Mutation.ProtoEncoder encoder = new Mutation.ProtoEncoder();
+    assertTrue(encoder.isEmpty());
+    for (Mutation mutation : mutations) {
+      encoder.add(mutation);
+    }
+    List<com.google.spanner.v1.Mutation> proto = new ArrayList<>();
+    com.google.spanner.v1.Mutation randomMutation = encoder.finish(proto);
+
+    assertThat(proto).isEqualTo(expected);
+    assertThat(proto).hasSize(4);
+    // The random mutation is never an INSERT if there are other mutations.
+    assertThat(proto).contains(randomMutation);
+    assertThat(randomMutation.hasInsert()).isFalse();
+    assertThrows(IllegalStateException.class, () -> encoder.add(mutations.get(0)));
+    assertThrows(IllegalStateException.class, () -> encoder.finish(proto));
+  }
+
+  @Test
+  public void coalesceInterleavedTables() {
+    Mutation parent1 = Mutation.newInsertBuilder("P").set("Id").to(1L).set("V").to("a").build();
+    Mutation child1 =
+        Mutation.newInsertBuilder("C").set("Id").to(1L).set("ChildId").to(1L).build();
+    Mutation parent2 = Mutation.newInsertBuilder("P").set("Id").to(2L).set("V").to("a").build();
+    Mutation child2 =
+        Mutation.newInsertBuilder("C").set("Id").to(2L).set("ChildId").to(1L).build();
+
+    assertThat(Mutation.coalesce(Arrays.asList(parent1, child1, parent2, child2)))
+        .containsExactly(parent1, parent2, child1, child2)
+        .inOrder();
+
+    List<com.google.spanner.v1.Mutation> proto = new ArrayList<>();
+    Mutation.toProtoAndReturnRandomMutation(
+        Arrays.asList(parent1, child1, parent2, child2), proto, /* coalesce= */ true);
+    assertThat(proto).hasSize(2);
+    assertThat(proto.get(0).getInsert().getValuesCount()).isEqualTo(2);
+    assertThat(proto.get(1).getInsert().getValuesCount()).isEqualTo(2);
+
+    proto.clear();
+    Mutation.toProtoAndReturnRandomMutation(
+        Arrays.asList(parent1, child1, parent2, child2), proto, /* coalesce= */ false);
+    assertThat(proto).hasSize(4);
+  }
+
+  @Test
+  public void coalesceDoesNotMoveChildInFrontOfParent() {
+    Mutation child0 =
+        Mutation.newInsertBuilder("C").set("Id").to(0L).set("ChildId").to(1L).build();
+    Mutation parent1 = Mutation.newInsertBuilder("P").set("Id").to(1L).build();
+    Mutation child1 =
+        Mutation.newInsertBuilder("C").set("Id").to(1L).set("ChildId").to(1L).build();
+
+    assertThat(Mutation.coalesce(Arrays.asList(child0, parent1, child1)))
+        .containsExactly(child0, parent1, child1)
+        .inOrder();
+  }
+
+  @Test
+  public void coalesceDoesNotReorderWritesOfSameRow() {
+    Mutation insert = Mutation.newInsertBuilder("T").set("ID").to(1L).set("V").to("a").build();
+    Mutation update = Mutation.newUpdateBuilder("T").set("id").to(1L).set("V").to("b").build();
+    Mutation otherInsert =
+        Mutation.newInsertBuilder("T").set("ID").to(2L).set("V").to("c").build();
+    Mutation otherUpdate = Mutation.newUpdateBuilder("T").set("id").to(1L).set("V").to("d").build();
+
+    // The insert of row 2 is moved in front of the first update of row 1, and the two updates of
+    // row 1 keep their order.
+    assertThat(Mutation.coalesce(Arrays.asList(insert, update, otherInsert, otherUpdate)))
+        .containsExactly(insert, otherInsert, update, otherUpdate)
+        .inOrder();
+
+    // The second update of row 1 may not be moved in front of the insert of row 1. Column names
+    // are compared case-insensitively.
+    assertThat(Mutation.coalesce(Arrays.asList(update, insert, otherUpdate)))
+        .containsExactly(update, insert, otherUpdate)
+        .inOrder();
+  }
+
+  @Test
+  public void coalesceComparesKeyValues() {
+    Mutation numeric1 =
+        Mutation.newInsertBuilder("T1").set("K").to(new BigDecimal("1.0")).build();
+    Mutation other = Mutation.newInsertBuilder("T2").set("K").to(new BigDecimal("1")).build();
+    Mutation numeric2 =
+        Mutation.newInsertBuilder("T1").set("K").to(new BigDecimal("1.00")).build();
+    assertThat(Mutation.coalesce(Arrays.asList(numeric1, other, numeric2)))
+        .containsExactly(numeric1, other, numeric2)
+        .inOrder();
+
+    Mutation float1 = Mutation.newInsertBuilder("T1").set("K").to(0d).build();
+    Mutation float2 = Mutation.newInsertBuilder("T2").set("K").to(-0d).build();
+    Mutation float3 = Mutation.newInsertBuilder("T1").set("K").to(1d).build();
+    assertThat(Mutation.coalesce(Arrays.asList(float1, float2, float3)))
+        .containsExactly(float1, float3, float2)
+        .inOrder();
+    Mutation float4 = Mutation.newInsertBuilder("T1").set("K").to(0d).build();
+    assertThat(Mutation.coalesce(Arrays.asList(float1, float2, float4)))
+        .containsExactly(float1, float2, float4)
+        .inOrder();
+  }
+
+  @Test
+  public void coalesceComparesDifferentRepresentationsOfTheSameKey() {
+    // The same NUMERIC key as a string and as a numeric value.
+    Mutation string1 = Mutation.newInsertBuilder("T1").set("K").to("2").build();
+    Mutation numeric = Mutation.newInsertBuilder("T2").set("K").to(new BigDecimal("1")).build();
+    Mutation string2 = Mutation.newInsertBuilder("T1").set("K").to("1.0").build();
+    assertThat(Mutation.coalesce(Arrays.asList(string1, numeric, string2)))
+        .containsExactly(string1, numeric, string2)
+        .inOrder();
+
+    // The same TIMESTAMP key with a different number of fractional digits.
+    Mutation timestamp1 =
+        Mutation.newInsertBuilder("T1").set("K").to("2024-01-01T00:00:00.2Z").build();
+    Mutation timestamp =
+        Mutation.newInsertBuilder("T2")
+            .set("K")
+            .to(Timestamp.parseTimestamp("2024-01-01T00:00:00.1Z"))
+            .build();
+    Mutation timestamp2 =
+        Mutation.newInsertBuilder("T1").set("K").to("2024-01-01T00:00:00.100Z").build();
+    assertThat(Mutation.coalesce(Arrays.asList(timestamp1, timestamp, timestamp2)))
+        .containsExactly(timestamp1, timestamp, timestamp2)
+        .inOrder();
+
+    // Strings that are not a number or a timestamp are still compared as strings.
+    Mutation other1 = Mutation.newInsertBuilder("T1").set("K").to("a").build();
+    Mutation other = Mutation.newInsertBuilder("T2").set("K").to("1").build();
+    Mutation other2 = Mutation.newInsertBuilder("T1").set("K").to("b").build();
+    assertThat(Mutation.coalesce(Arrays.asList(other1, other, other2)))
+        .containsExactly(other1, other2, other)
+        .inOrder();
+  }
+
+  @Test
+  public void coalesceDoesNotMoveDeletesAndReplaces() {
+    Mutation insert1 = Mutation.newInsertBuilder("T1").set("ID").to(1L).build();
+    Mutation delete = Mutation.delete("T2", Key.of(1L));
+    Mutation insert2 = Mutation.newInsertBuilder("T1").set("ID").to(2L).build();
+    Mutation replace = Mutation.newReplaceBuilder("T2").set("ID").to(3L).build();
+    Mutation insert3 = Mutation.newInsertBuilder("T1").set("ID").to(3L).build();
+    Mutation insert4 = Mutation.newInsertBuilder("T1").set("ID").to(4L).build();
+
+    assertThat(
+            Mutation.coalesce(Arrays.asList(insert1, delete, insert2, replace, insert3, insert4)))
+        .containsExactly(insert1, delete, insert2, replace, insert3, insert4)
+        .inOrder();
+  }
+
+  @Test
+  public void coalesceDoesNotMoveUntypedValues() {
+    Mutation insert1 = Mutation.newInsertBuilder("T1").set("ID").to(1L).build();
+    Mutation other = Mutation.newInsertBuilder("T2").set("ID").to(2L).build();
+    Mutation untyped =
+        Mutation.newInsertBuilder("T1")
+            .set("ID")
+            .to(Value.untyped(com.google.protobuf.Value.newBuilder().setStringValue("3").build()))
+            .build();
+
+    assertThat(Mutation.coalesce(Arrays.asList(insert1, other, untyped)))
+        .containsExactly(insert1, other, untyped)
+        .inOrder();
+  }
+
   @Test
   public void toProtoCoalescingChangeOfTable() {
     List<Mutation> mutations =
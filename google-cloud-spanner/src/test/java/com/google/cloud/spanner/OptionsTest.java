@@ -407,6 +407,53 @@ public class OptionsTest {
     assertEquals("lockHint: " + lockHint + " ", options.toString());
   }
 
+  @Test
+  public void testQueryOptionsReuseRows() {
+    Options options = Options.fromQueryOptions(Options.reuseRows());
+    assertTrue(options.reuseRows());
+    assertEquals("reuseRows: true ", options.toString());
+    assertEquals(options, Options.fromQueryOptions(Options.reuseRows()));
+    assertEquals(options.hashCode(), Options.fromQueryOptions(Options.reuseRows()).hashCode());
+    assertNotEquals(options, Options.fromQueryOptions());
+
+    assertFalse(options.withoutRowReuse().reuseRows());
+    assertFalse(Options.fromReadOptions().reuseRows());
+  }
+
+  @Test
+  public void testQueryOptionsAdaptivePrefetch() {
+    Options options = Options.fromQueryOptions(Options.adaptivePrefetch(4096L));
+    assertTrue(options.hasMaxPrefetchBytes());
+    assertEquals(4096L, options.maxPrefetchBytes());
+    assertEquals("maxPrefetchBytes: 4096 ", options.toString());
+    assertEquals(options, Options.fromQueryOptions(Options.adaptivePrefetch(4096L)));
+    assertEquals(
+        options.hashCode(), Options.fromQueryOptions(Options.adaptivePrefetch(4096L)).hashCode());
+    assertNotEquals(options, Options.fromQueryOptions());
+
+    assertTrue(Options.fromReadOptions(Options.adaptivePrefetch(1L)).hasMaxPrefetchBytes());
+    assertFalse(Options.fromReadOptions().hasMaxPrefetchBytes());
+    assertThrows(IllegalArgumentException.class, () -> Options.adaptivePrefetch(0L));
+  }
+
+  @Test
+  public void testQueryOptionsResumeBufferBytes() {
+    Options options = Options.fromQueryOptions(Options.resumeBufferBytes(1024L));
+    assertTrue(options.hasResumeBufferBytes());
+    assertEquals(1024L, options.resumeBufferBytes());
+    assertEquals("resumeBufferBytes: 1024 ", options.toString());
+    assertEquals(options, Options.fromQueryOptions(Options.resumeBufferBytes(1024L)));
+    assertEquals(
+        options.hashCode(),
+        Options.fromQueryOptions(Options.resumeBufferBytes(1024L)).hashCode());
+    assertNotEquals(options, Options.fromQueryOptions(Options.resumeBufferBytes(2048L)));
+    assertNotEquals(options, Options.fromQueryOptions());
+
+    assertTrue(Options.fromReadOptions(Options.resumeBufferBytes(1L)).hasResumeBufferBytes());
+    assertFalse(Options.fromReadOptions().hasResumeBufferBytes());
+    assertThrows(IllegalArgumentException.class, () -> Options.resumeBufferBytes(0L));
+  }
+
   @Test
   public void testReadOptionsWithOrderByEquality() {
     Options optionsWithNoOrderBy1 = Options.fromReadOptions(Options.orderBy(RpcOrderBy.NO_ORDER));
@@ -745,6 +792,52 @@ public class OptionsTest {
     assertNotEquals(option1.hashCode(), option3.hashCode());
   }
 
+  @Test
+  public void coalesceMutationsEquality() {
+    Options option1 = Options.fromTransactionOptions(Options.coalesceMutations());
+    Options option2 = Options.fromTransactionOptions(Options.coalesceMutations());
+    Options option3 = Options.fromTransactionOptions();
+
+    assertEquals(option1, option2);
+    assertEquals(option1.hashCode(), option2.hashCode());
+    assertNotEquals(option1, option3);
+    assertTrue(option1.withCoalesceMutations());
+    assertNull(option3.withCoalesceMutations());
+    assertThat(option1.toString()).contains("withCoalesceMutations: true");
+  }
+
+  @Test
+  public void eagerMutationEncodingEquality() {
+    Options option1 = Options.fromTransactionOptions(Options.eagerMutationEncoding());
+    Options option2 = Options.fromTransactionOptions(Options.eagerMutationEncoding());
+    Options option3 = Options.fromTransactionOptions(Options.coalesceMutations());
+
+    assertEquals(option1, option2);
+    assertEquals(option1.hashCode(), option2.hashCode());
+    assertNotEquals(option1, option3);
+    assertTrue(option1.withEagerMutationEncoding());
+    assertNull(option3.withEagerMutationEncoding());
+    assertThat(option1.toString()).contains("withEagerMutationEncoding: true");
+  }
+
+  @Test
+  public void splitBatchUpdateEquality() {
+    Options option1 = Options.fromUpdateOptions(Options.splitBatchUpdate(10, 1000L));
+    Options option2 = Options.fromUpdateOptions(Options.splitBatchUpdate(10, 1000L));
+    Options option3 = Options.fromUpdateOptions(Options.splitBatchUpdate(10, 2000L));
+
+    assertEquals(option1, option2);
+    assertEquals(option1.hashCode(), option2.hashCode());
+    assertNotEquals(option1, option3);
+    assertTrue(option1.hasSplitBatchUpdate());
+    assertEquals(10, option1.maxBatchUpdateStatements());
+    assertEquals(1000L, option1.maxBatchUpdateBytes());
+    assertFalse(Options.fromUpdateOptions().hasSplitBatchUpdate());
+    assertThat(option1.toString()).contains("maxBatchUpdateStatements: 10");
+    assertThrows(IllegalArgumentException.class, () -> Options.splitBatchUpdate(0, 1000L));
+    assertThrows(IllegalArgumentException.class, () -> Options.splitBatchUpdate(10, 0L));
+  }
+
   @Test
   public void directedReadEquality() {
     Options option1 = Options.fromReadOptions(Options.directedRead(DIRECTED_READ_OPTIONS));
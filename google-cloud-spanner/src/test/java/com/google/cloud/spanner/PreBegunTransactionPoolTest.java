@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.protobuf.ByteString;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PreBegunTransactionPoolTest {
+  private static final Duration MAX_AGE = Duration.ofSeconds(4L);
+  private static final String SESSION = "session";
+
+  private final AtomicReference<Instant> now = new AtomicReference<>(Instant.EPOCH);
+  private final List<SettableApiFuture<ByteString>> begunTransactions = new ArrayList<>();
+  private Clock clock;
+
+  @Before
+  public void setupClock() {
+    clock = mock(Clock.class);
+    when(clock.instant()).thenAnswer(invocation -> now.get());
+  }
+
+  private PreBegunTransactionPool createPool(int size) {
+    return new PreBegunTransactionPool(size, MAX_AGE, clock, this::beginTransaction);
+  }
+
+  private ApiFuture<ByteString> beginTransaction(String sessionName) {
+    SettableApiFuture<ByteString> future = SettableApiFuture.create();
+    begunTransactions.add(future);
+    return future;
+  }
+
+  private void completeBegunTransactions() {
+    for (int i = 0; i < begunTransactions.size(); i++) {
+      if (!begunTransactions.get(i).isDone()) {
+        begunTransactions.get(i).set(ByteString.copyFromUtf8("tx" + i));
+      }
+    }
+  }
+
+  private void advance(Duration duration) {
+    now.set(now.get().plus(duration));
+  }
+
+  @Test
+  public void testRefreshFillsPool() {
+    PreBegunTransactionPool pool = createPool(2);
+    pool.refresh(SESSION);
+    assertEquals(2, begunTransactions.size());
+    // Transactions that are still being begun are not counted twice.
+    pool.refresh(SESSION);
+    assertEquals(2, begunTransactions.size());
+    completeBegunTransactions();
+    assertEquals(2, pool.size());
+  }
+
+  @Test
+  public void testPollReplacesTransaction() {
+    PreBegunTransactionPool pool = createPool(2);
+    pool.refresh(SESSION);
+    completeBegunTransactions();
+
+    assertEquals(ByteString.copyFromUtf8("tx0"), pool.poll(SESSION));
+    assertEquals(3, begunTransactions.size());
+    assertEquals(ByteString.copyFromUtf8("tx1"), pool.poll(SESSION));
+    assertEquals(4, begunTransactions.size());
+    // The replacements have not yet been begun.
+    assertNull(pool.poll(SESSION));
+    completeBegunTransactions();
+    assertEquals(ByteString.copyFromUtf8("tx2"), pool.poll(SESSION));
+  }
+
+  @Test
+  public void testStaleTransactionsAreNotUsed() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    completeBegunTransactions();
+
+    advance(MAX_AGE);
+    assertNull(pool.poll(SESSION));
+  }
+
+  @Test
+  public void testRefreshReplacesTransactionsBeforeTheyBecomeStale() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    completeBegunTransactions();
+    assertEquals(ByteString.copyFromUtf8("tx0"), pool.poll(SESSION));
+    completeBegunTransactions();
+
+    // The replacement would become stale before the next refresh.
+    advance(pool.getRefreshInterval());
+    pool.refresh(SESSION);
+    assertEquals(3, begunTransactions.size());
+    completeBegunTransactions();
+    assertEquals(ByteString.copyFromUtf8("tx2"), pool.poll(SESSION));
+  }
+
+  @Test
+  public void testRefreshDoesNotRefillUnusedPool() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    completeBegunTransactions();
+
+    // The pool has not been used since the first refresh.
+    advance(pool.getRefreshInterval());
+    pool.refresh(SESSION);
+    assertEquals(1, begunTransactions.size());
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void testTransactionsForOtherSessionsAreRemoved() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    completeBegunTransactions();
+
+    assertNull(pool.poll("other-session"));
+    assertEquals(2, begunTransactions.size());
+  }
+
+  @Test
+  public void testBackOffAfterFailure() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    begunTransactions.get(0).setException(new RuntimeException("begin failed"));
+
+    assertNull(pool.poll(SESSION));
+    assertEquals(1, begunTransactions.size());
+    advance(MAX_AGE);
+    assertNull(pool.poll(SESSION));
+    assertEquals(2, begunTransactions.size());
+  }
+
+  @Test
+  public void testClose() {
+    PreBegunTransactionPool pool = createPool(1);
+    pool.refresh(SESSION);
+    pool.close();
+    completeBegunTransactions();
+
+    assertEquals(0, pool.size());
+    assertNull(pool.poll(SESSION));
+    assertEquals(1, begunTransactions.size());
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.google.api.gax.rpc.ApiCallContext;
+import com.google.cloud.spanner.ErrorHandler.DefaultErrorHandler;
+import com.google.cloud.spanner.spi.v1.SpannerRpc;
+import com.google.cloud.spanner.v1.stub.SpannerStubSettings;
+import com.google.common.base.Stopwatch;
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.MultiplexedSessionPrecommitToken;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.Transaction;
+import io.opencensus.trace.Tracing;
+import io.opentelemetry.api.OpenTelemetry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ResultSetPublisher}. */
+@RunWith(JUnit4.class)
+public class ResultSetPublisherTest {
+  private static final Type ROW_TYPE =
+      Type.struct(
+          Type.StructField.of("c1", Type.string()), Type.StructField.of("c2", Type.string()));
+
+  private static final class RecordingCall implements SpannerRpc.StreamingCall {
+    private int requested;
+    private boolean cancelled;
+
+    @Override
+    public ApiCallContext getCallContext() {
+      return null;
+    }
+
+    @Override
+    public void cancel(@Nullable String message) {
+      cancelled = true;
+    }
+
+    @Override
+    public void request(int numMessages) {
+      requested += numMessages;
+    }
+  }
+
+  private static final class RecordingSubscriber implements QueryPublisher.Subscriber {
+    private QueryPublisher.Subscription subscription;
+    private final List<Struct> rows = new ArrayList<>();
+    private Throwable error;
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(QueryPublisher.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(Struct row) {
+      rows.add(row);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      this.error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      this.completed = true;
+    }
+  }
+
+  private static class NoOpListener implements AbstractResultSet.Listener {
+    @Override
+    public void onTransactionMetadata(Transaction transaction, boolean shouldIncludeId) {}
+
+    @Override
+    public SpannerException onError(SpannerException e, boolean withBeginTransaction) {
+      return e;
+    }
+
+    @Override
+    public void onDone(boolean withBeginTransaction) {}
+
+    @Override
+    public void onPrecommitToken(MultiplexedSessionPrecommitToken token) {}
+  }
+
+  private RecordingCall call;
+  private GrpcStreamIterator stream;
+  private QueryPublisher publisher;
+
+  @Before
+  public void setUp() {
+    call = new RecordingCall();
+    stream = new GrpcStreamIterator(2, /* cancelQueryWhenClientIsClosed= */ false);
+    publisher =
+        new ResultSetPublisher(() -> new GrpcResultSet(createIterator(), new NoOpListener()));
+  }
+
+  private ResumableStreamIterator createIterator() {
+    return new ResumableStreamIterator(
+        Integer.MAX_VALUE,
+        "",
+        new OpenTelemetrySpan(mock(io.opentelemetry.api.trace.Span.class)),
+        new TraceWrapper(Tracing.getTracer(), OpenTelemetry.noop().getTracer(""), false),
+        DefaultErrorHandler.INSTANCE,
+        SpannerStubSettings.newBuilder().executeStreamingSqlSettings().getRetrySettings(),
+        SpannerStubSettings.newBuilder().executeStreamingSqlSettings().getRetryableCodes()) {
+      @Override
+      AbstractResultSet.CloseableIterator<PartialResultSet> startStream(
+          @Nullable ByteString resumeToken,
+          AsyncResultSet.StreamMessageListener streamMessageListener) {
+        stream.setCall(call, false);
+        stream.registerListener(streamMessageListener);
+        return stream;
+      }
+    };
+  }
+
+  private static PartialResultSet chunk(
+      boolean withMetadata, String resumeToken, boolean chunked, String... values) {
+    PartialResultSet.Builder builder = PartialResultSet.newBuilder();
+    if (withMetadata) {
+      builder.setMetadata(
+          ResultSetMetadata.newBuilder().setRowType(ROW_TYPE.toProto().getStructType()));
+    }
+    for (String value : values) {
+      builder.addValues(com.google.protobuf.Value.newBuilder().setStringValue(value));
+    }
+    if (resumeToken != null) {
+      builder.setResumeToken(ByteString.copyFromUtf8(resumeToken));
+    }
+    return builder.setChunkedValue(chunked).build();
+  }
+
+  private static Struct row(String c1, String c2) {
+    return Struct.newBuilder().set("c1").to(c1).set("c2").to(c2).build();
+  }
+
+  @Test
+  public void testDemandIsPropagatedToStream() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    // The query is only executed when the first rows are requested.
+    assertEquals(0, call.requested);
+
+    subscriber.subscription.request(1L);
+    assertEquals(2, call.requested);
+    assertThat(subscriber.rows).isEmpty();
+
+    stream.consumer().onPartialResultSet(chunk(true, "r1", false, "a", "b"));
+    assertThat(subscriber.rows).containsExactly(row("a", "b"));
+    stream.consumer().onPartialResultSet(chunk(false, "r2", false, "c", "d"));
+    stream.consumer().onPartialResultSet(chunk(false, "r3", false, "e", "f"));
+    // There is no demand, so the chunks stay in the stream and no more chunks are requested.
+    assertThat(subscriber.rows).hasSize(1);
+    assertEquals(3, call.requested);
+
+    subscriber.subscription.request(10L);
+    assertThat(subscriber.rows).containsExactly(row("a", "b"), row("c", "d"), row("e", "f"));
+    assertEquals(5, call.requested);
+    assertFalse(subscriber.completed);
+
+    stream.consumer().onCompleted();
+    assertTrue(subscriber.completed);
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test
+  public void testRowIsPublishedWhenComplete() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+
+    stream.consumer().onPartialResultSet(chunk(true, "r1", false, "a"));
+    assertThat(subscriber.rows).isEmpty();
+    stream.consumer().onPartialResultSet(chunk(false, "r2", true, "b", "c"));
+    assertThat(subscriber.rows).containsExactly(row("a", "b"));
+    // The chunked value is only complete when the next chunk has been received.
+    stream.consumer().onPartialResultSet(chunk(false, "r3", false, "d", "e"));
+    assertThat(subscriber.rows).containsExactly(row("a", "b"), row("cd", "e")).inOrder();
+    stream.consumer().onCompleted();
+    assertTrue(subscriber.completed);
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test
+  public void testErrorIsPublished() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(1L);
+
+    stream
+        .consumer()
+        .onError(
+            SpannerExceptionFactory.newSpannerException(ErrorCode.INVALID_ARGUMENT, "test error"));
+    assertThat(subscriber.error).isInstanceOf(SpannerException.class);
+    assertEquals(ErrorCode.INVALID_ARGUMENT, ((SpannerException) subscriber.error).getErrorCode());
+    assertFalse(subscriber.completed);
+  }
+
+  @Test
+  public void testRetryableErrorDoesNotBlockCallbackThread() throws Exception {
+    List<GrpcStreamIterator> streams = new CopyOnWriteArrayList<>();
+    List<ByteString> resumeTokens = new CopyOnWriteArrayList<>();
+    QueryPublisher publisher =
+        new ResultSetPublisher(
+            () ->
+                new GrpcResultSet(
+                    new ResumableStreamIterator(
+                        Integer.MAX_VALUE,
+                        "",
+                        new OpenTelemetrySpan(mock(io.opentelemetry.api.trace.Span.class)),
+                        new TraceWrapper(
+                            Tracing.getTracer(), OpenTelemetry.noop().getTracer(""), false),
+                        DefaultErrorHandler.INSTANCE,
+                        SpannerStubSettings.newBuilder()
+                            .executeStreamingSqlSettings()
+                            .getRetrySettings(),
+                        SpannerStubSettings.newBuilder()
+                            .executeStreamingSqlSettings()
+                            .getRetryableCodes()) {
+                      @Override
+                      AbstractResultSet.CloseableIterator<PartialResultSet> startStream(
+                          @Nullable ByteString resumeToken,
+                          AsyncResultSet.StreamMessageListener streamMessageListener) {
+                        GrpcStreamIterator stream =
+                            new GrpcStreamIterator(2, /* cancelQueryWhenClientIsClosed= */ false);
+                        stream.setCall(new RecordingCall(), false);
+                        stream.registerListener(streamMessageListener);
+                        resumeTokens.add(resumeToken == null ? ByteString.EMPTY : resumeToken);
+                        streams.add(stream);
+                        return stream;
+                      }
+                    },
+                    new NoOpListener()));
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertEquals(1, streams.size());
+    streams.get(0).consumer().onPartialResultSet(chunk(true, "r1", false, "a", "b"));
+    assertThat(subscriber.rows).containsExactly(row("a", "b"));
+
+    // The error is delivered on the gRPC callback thread. That thread must not wait for the
+    // backoff or for the restarted stream.
+    ExecutorService callbackThread = Executors.newSingleThreadExecutor();
+    try {
+      callbackThread
+          .submit(
+              () ->
+                  streams
+                      .get(0)
+                      .consumer()
+                      .onError(
+                          SpannerExceptionFactory.newSpannerException(
+                              ErrorCode.UNAVAILABLE, "test error")))
+          .get(5L, TimeUnit.SECONDS);
+    } finally {
+      callbackThread.shutdown();
+    }
+    assertThat(subscriber.error).isNull();
+
+    // The stream is restarted from the last resume token after the backoff.
+    Stopwatch watch = Stopwatch.createStarted();
+    while (streams.size() < 2 && watch.elapsed(TimeUnit.SECONDS) < 5L) {
+      //noinspection BusyWait
+      Thread.sleep(1L);
+    }
+    assertEquals(2, streams.size());
+    assertEquals(ByteString.copyFromUtf8("r1"), resumeTokens.get(1));
+    streams.get(1).consumer().onPartialResultSet(chunk(false, "r2", false, "c", "d"));
+    streams.get(1).consumer().onCompleted();
+    assertThat(subscriber.rows).containsExactly(row("a", "b"), row("c", "d")).inOrder();
+    assertTrue(subscriber.completed);
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test
+  public void testCancelClosesStream() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(1L);
+    subscriber.subscription.cancel();
+
+    assertTrue(call.cancelled);
+    stream.consumer().onPartialResultSet(chunk(true, "r1", false, "a", "b"));
+    assertThat(subscriber.rows).isEmpty();
+    assertFalse(subscriber.completed);
+    assertThat(subscriber.error).isNull();
+  }
+
+  @Test
+  public void testInvalidRequest() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    publisher.subscribe(subscriber);
+    subscriber.subscription.request(0L);
+
+    assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    assertEquals(0, call.requested);
+  }
+}
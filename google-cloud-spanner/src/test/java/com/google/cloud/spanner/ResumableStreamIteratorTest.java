@@ -153,13 +153,20 @@ public class ResumableStreamIteratorTest {
   }
 
   private void initWithLimit(int maxBufferSize) {
+    initWithLimits(maxBufferSize, 0L);
+  }
+
+  private void initWithLimits(int maxBufferSize, long maxBufferBytes) {
 
     resumableStreamIterator =
         new ResumableStreamIterator(
             maxBufferSize,
+            maxBufferBytes,
+            ResumableStreamMetrics.NOOP,
             "",
             new OpenTelemetrySpan(mock(io.opentelemetry.api.trace.Span.class)),
             new TraceWrapper(Tracing.getTracer(), OpenTelemetry.noop().getTracer(""), false),
+            io.opentelemetry.api.common.Attributes.empty(),
             DefaultErrorHandler.INSTANCE,
             SpannerStubSettings.newBuilder().executeStreamingSqlSettings().getRetrySettings(),
             SpannerStubSettings.newBuilder().executeStreamingSqlSettings().getRetryableCodes()) {
@@ -464,6 +471,52 @@ public class ResumableStreamIteratorTest {
     assertThat(consume(resumableStreamIterator)).containsExactly("a", "b", "c", "d").inOrder();
   }
 
+  @Test
+  public void byteLimitMissingTokensUnsafeToRetry() {
+    initWithLimits(Integer.MAX_VALUE, 1L);
+
+    ResultSetStream s1 = Mockito.mock(ResultSetStream.class);
+    Mockito.when(starter.startStream(null, null)).thenReturn(new ResultSetIterator(s1));
+    Mockito.when(s1.next())
+        .thenReturn(resultSet(ByteString.copyFromUtf8("r1"), "a"))
+        .thenReturn(resultSet(null, "b"))
+        .thenReturn(resultSet(null, "c"))
+        .thenThrow(new RetryableException(errorCodeParameter, "failed by test"));
+
+    assertThat(consumeAtMost(3, resumableStreamIterator)).containsExactly("a", "b", "c").inOrder();
+    SpannerException e = assertThrows(SpannerException.class, () -> resumableStreamIterator.next());
+    assertThat(e.getErrorCode()).isEqualTo(errorCodeParameter);
+    assertEquals(1, resumableStreamIterator.getResumabilityLostCount());
+  }
+
+  @Test
+  public void byteLimitOverridesChunkLimit() {
+    initWithLimits(1, 1024L * 1024L);
+
+    ResultSetStream s1 = Mockito.mock(ResultSetStream.class);
+    Mockito.when(starter.startStream(null, null)).thenReturn(new ResultSetIterator(s1));
+    Mockito.when(s1.next())
+        .thenReturn(resultSet(ByteString.copyFromUtf8("r1"), "a"))
+        .thenReturn(resultSet(null, "b"))
+        .thenReturn(resultSet(null, "c"))
+        .thenThrow(new RetryableException(errorCodeParameter, "failed by test"));
+
+    ResultSetStream s2 = Mockito.mock(ResultSetStream.class);
+    Mockito.when(starter.startStream(ByteString.copyFromUtf8("r1"), null))
+        .thenReturn(new ResultSetIterator(s2));
+    Mockito.when(s2.next())
+        .thenReturn(resultSet(null, "b"))
+        .thenReturn(resultSet(null, "c"))
+        .thenReturn(null);
+
+    assertThat(consume(resumableStreamIterator)).containsExactly("a", "b", "c").inOrder();
+    assertEquals(0, resumableStreamIterator.getResumabilityLostCount());
+    assertEquals(2, resumableStreamIterator.getMaxBufferedChunks());
+    assertEquals(
+        resultSet(null, "b").getSerializedSize() + resultSet(null, "c").getSerializedSize(),
+        resumableStreamIterator.getMaxBufferedBytes());
+  }
+
   static PartialResultSet resultSet(@Nullable ByteString resumeToken, String... data) {
     PartialResultSet.Builder builder = PartialResultSet.newBuilder();
     if (resumeToken != null) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.TypeCode;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.Collection;
+import java.util.UUID;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link RowTypeCache}. */
+@RunWith(JUnit4.class)
+public class RowTypeCacheTest {
+
+  /** Creates a row type with a unique column name. */
+  private static StructType uniqueRowType() {
+    return StructType.newBuilder()
+        .addFields(
+            StructType.Field.newBuilder()
+                .setName("col_" + UUID.randomUUID())
+                .setType(com.google.spanner.v1.Type.newBuilder().setCode(TypeCode.INT64)))
+        .addFields(
+            StructType.Field.newBuilder()
+                .setName("name")
+                .setType(com.google.spanner.v1.Type.newBuilder().setCode(TypeCode.STRING)))
+        .build();
+  }
+
+  private static long getCount(Collection<MetricData> metrics, String name) {
+    return metrics.stream()
+        .filter(metric -> metric.getName().equals(name))
+        .flatMap(metric -> metric.getLongSumData().getPoints().stream())
+        .mapToLong(LongPointData::getValue)
+        .sum();
+  }
+
+  @Test
+  public void testEqualRowTypesReturnSameInstance() {
+    RowTypeCache cache = new RowTypeCache(null);
+    StructType rowType = uniqueRowType();
+
+    Type first = cache.getRowType(rowType);
+    // Use a copy of the proto to simulate the metadata of a second query.
+    Type second = cache.getRowType(StructType.newBuilder(rowType).build());
+
+    assertSame(first, second);
+    assertEquals(Type.Code.STRUCT, first.getCode());
+    assertEquals(1, first.getFieldIndex("name"));
+    assertEquals(1L, cache.size());
+  }
+
+  @Test
+  public void testDifferentRowTypesReturnDifferentInstances() {
+    RowTypeCache cache = new RowTypeCache(null);
+    Type first = cache.getRowType(uniqueRowType());
+    Type second = cache.getRowType(uniqueRowType());
+
+    assertNotSame(first, second);
+    assertThat(first).isNotEqualTo(second);
+  }
+
+  @Test
+  public void testCachesAreNotShared() {
+    StructType rowType = uniqueRowType();
+    RowTypeCache cache = new RowTypeCache(null);
+
+    assertNotSame(cache.getRowType(rowType), new RowTypeCache(null).getRowType(rowType));
+    assertNotSame(
+        RowTypeCache.DISABLED.getRowType(rowType), RowTypeCache.DISABLED.getRowType(rowType));
+    assertEquals(0L, RowTypeCache.DISABLED.size());
+  }
+
+  @Test
+  public void testInvalidRowTypeIsNotCached() {
+    RowTypeCache cache = new RowTypeCache(null);
+    StructType invalid =
+        StructType.newBuilder()
+            .addFields(StructType.Field.newBuilder().setName("col_" + UUID.randomUUID()))
+            .build();
+
+    assertThrows(IllegalArgumentException.class, () -> cache.getRowType(invalid));
+    assertThrows(IllegalArgumentException.class, () -> cache.getRowType(invalid));
+    assertEquals(0L, cache.size());
+  }
+
+  @Test
+  public void testCacheIsBounded() {
+    RowTypeCache cache = new RowTypeCache(null);
+    for (int i = 0; i < RowTypeCache.MAX_SIZE + 10; i++) {
+      cache.getRowType(uniqueRowType());
+    }
+    assertThat(cache.size()).isAtMost((long) RowTypeCache.MAX_SIZE);
+  }
+
+  @Test
+  public void testRecordsHitsAndMisses() {
+    SpannerOptions.enableOpenTelemetryMetrics();
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    OpenTelemetry openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+            .build();
+    RowTypeCache cache = new RowTypeCache(openTelemetry);
+    StructType rowType = uniqueRowType();
+
+    cache.getRowType(rowType);
+    cache.getRowType(rowType);
+    cache.getRowType(rowType);
+    cache.getRowType(uniqueRowType());
+
+    Collection<MetricData> metrics = metricReader.collectAllMetrics();
+    assertEquals(2L, getCount(metrics, MetricRegistryConstants.ROW_TYPE_CACHE_HIT_COUNT));
+    assertEquals(2L, getCount(metrics, MetricRegistryConstants.ROW_TYPE_CACHE_MISS_COUNT));
+  }
+}
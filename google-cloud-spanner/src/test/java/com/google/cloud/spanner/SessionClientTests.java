@@ -516,4 +516,62 @@ public class SessionClientTests {
     }
     assertThat(returnedSessionCount.get()).isEqualTo(numSessions);
   }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void batchCreateSessionsWithParallelismPerChannel() {
+    final int parallelismPerChannel = 4;
+    DatabaseId db = DatabaseId.of(dbName);
+    final String sessionName = dbName + "/sessions/s%d";
+    final Map<Long, List<Integer>> requestedCountsPerChannel = new HashMap<>();
+    when(rpc.batchCreateSessions(
+            Mockito.eq(dbName),
+            Mockito.anyInt(),
+            Mockito.anyString(),
+            Mockito.anyMap(),
+            Mockito.anyMap()))
+        .then(
+            invocation -> {
+              Map<Option, Object> options = invocation.getArgument(4, Map.class);
+              Long channelHint = (Long) options.get(Option.CHANNEL_HINT);
+              int sessionCount = invocation.getArgument(1, Integer.class);
+              synchronized (requestedCountsPerChannel) {
+                requestedCountsPerChannel
+                    .computeIfAbsent(channelHint, hint -> new ArrayList<>())
+                    .add(sessionCount);
+              }
+              List<com.google.spanner.v1.Session> res = new ArrayList<>();
+              for (int i = 1; i <= sessionCount; i++) {
+                res.add(
+                    com.google.spanner.v1.Session.newBuilder()
+                        .setName(String.format(sessionName, i))
+                        .build());
+              }
+              return res;
+            });
+
+    final AtomicInteger returnedSessionCount = new AtomicInteger();
+    SessionConsumer consumer =
+        new SessionConsumer() {
+          @Override
+          public void onSessionReady(SessionImpl session) {
+            returnedSessionCount.incrementAndGet();
+            session.close();
+          }
+
+          @Override
+          public void onSessionCreateFailure(Throwable t, int createFailureForSessionCount) {}
+        };
+    final int numSessions = 100;
+    try (SessionClient client = new SessionClient(spanner, db, new TestExecutorFactory())) {
+      client.asyncBatchCreateSessions(numSessions, true, parallelismPerChannel, consumer);
+    }
+    assertThat(returnedSessionCount.get()).isEqualTo(numSessions);
+    // The sessions of each channel are split over parallelismPerChannel RPCs of almost equal size.
+    assertThat(requestedCountsPerChannel).hasSize(numChannels);
+    for (List<Integer> counts : requestedCountsPerChannel.values()) {
+      assertThat(counts).hasSize(parallelismPerChannel);
+      assertThat(Collections.max(counts) - Collections.min(counts)).isAtMost(1);
+    }
+  }
 }
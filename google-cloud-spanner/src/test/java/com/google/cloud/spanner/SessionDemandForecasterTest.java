@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SessionDemandForecasterTest {
+  private static final Duration CYCLE = Duration.ofSeconds(10L);
+
+  @Test
+  public void testNoDemandRecorded() {
+    SessionDemandForecaster forecaster =
+        new SessionDemandForecaster(Duration.ofMinutes(5L), CYCLE);
+    assertEquals(0, forecaster.forecast(Instant.EPOCH));
+  }
+
+  @Test
+  public void testConstantDemand() {
+    SessionDemandForecaster forecaster =
+        new SessionDemandForecaster(Duration.ofMinutes(5L), CYCLE);
+    Instant time = Instant.EPOCH;
+    for (int i = 0; i < 100; i++) {
+      forecaster.record(time, 100);
+      time = time.plus(CYCLE);
+    }
+    // The forecast includes 10% headroom.
+    assertEquals(110, forecaster.forecast(time));
+  }
+
+  @Test
+  public void testRampIsExtrapolated() {
+    SessionDemandForecaster forecaster =
+        new SessionDemandForecaster(Duration.ofMinutes(5L), CYCLE);
+    Instant time = Instant.EPOCH;
+    int demand = 0;
+    for (int i = 0; i < 60; i++) {
+      demand = i * 2;
+      forecaster.record(time, demand);
+      time = time.plus(CYCLE);
+    }
+    // The demand increases by 2 sessions per cycle, and the horizon is 30 cycles.
+    assertThat(forecaster.forecast(time)).isGreaterThan(demand + 30);
+  }
+
+  @Test
+  public void testDailyPeakIsAnticipated() {
+    SessionDemandForecaster forecaster =
+        new SessionDemandForecaster(Duration.ofMinutes(5L), CYCLE);
+    Instant peakStart = Instant.EPOCH.plus(Duration.ofHours(9L));
+    // Record one day with low demand, except for a peak at 09:00.
+    Instant time = Instant.EPOCH;
+    Instant end = Instant.EPOCH.plus(Duration.ofDays(1L));
+    while (time.isBefore(end)) {
+      boolean peak =
+          !time.isBefore(peakStart) && time.isBefore(peakStart.plus(Duration.ofMinutes(30L)));
+      forecaster.record(time, peak ? 200 : 10);
+      time = time.plus(CYCLE);
+    }
+    // Continue with low demand on the next day until five minutes before the peak.
+    Instant beforePeak = peakStart.plus(Duration.ofDays(1L)).minus(Duration.ofMinutes(5L));
+    while (time.isBefore(beforePeak)) {
+      forecaster.record(time, 10);
+      time = time.plus(CYCLE);
+    }
+    assertEquals(220, forecaster.forecast(time));
+    // The forecast for a time without a peak only uses the recent demand.
+    assertEquals(11, forecaster.forecast(time.minus(Duration.ofHours(1L))));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.SessionLatencyTracker.MovingLatency;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SessionLatencyTrackerTest {
+
+  private static MovingLatency latency(long nanos) {
+    MovingLatency latency = new MovingLatency();
+    for (int i = 0; i < SessionLatencyTracker.MIN_SAMPLES; i++) {
+      latency.record(nanos);
+    }
+    return latency;
+  }
+
+  @Test
+  public void testMovingAverage() {
+    MovingLatency latency = new MovingLatency();
+    assertEquals(0d, latency.getAverageNanos(), 0d);
+    latency.record(100L);
+    assertEquals(100d, latency.getAverageNanos(), 0d);
+    latency.record(200L);
+    assertEquals(100d + SessionLatencyTracker.ALPHA * 100d, latency.getAverageNanos(), 0.001d);
+  }
+
+  @Test
+  public void testMinSamples() {
+    MovingLatency latency = new MovingLatency();
+    for (int i = 1; i < SessionLatencyTracker.MIN_SAMPLES; i++) {
+      latency.record(100L);
+      assertFalse(latency.hasEnoughSamples());
+    }
+    latency.record(100L);
+    assertTrue(latency.hasEnoughSamples());
+  }
+
+  @Test
+  public void testMedian() {
+    assertEquals(0d, SessionLatencyTracker.median(Arrays.asList(latency(10L))), 0d);
+    assertEquals(15d, SessionLatencyTracker.median(Arrays.asList(latency(10L), latency(20L))), 0d);
+    assertEquals(
+        20d,
+        SessionLatencyTracker.median(Arrays.asList(latency(30L), latency(10L), latency(20L))),
+        0d);
+    // Latencies without enough samples are ignored.
+    assertEquals(
+        15d,
+        SessionLatencyTracker.median(
+            Arrays.asList(latency(10L), latency(20L), new MovingLatency())),
+        0d);
+  }
+
+  @Test
+  public void testIsSlow() {
+    assertFalse(SessionLatencyTracker.isSlow(latency(100L), 0d));
+    assertFalse(SessionLatencyTracker.isSlow(latency(30L), 10d));
+    assertTrue(SessionLatencyTracker.isSlow(latency(31L), 10d));
+    MovingLatency fewSamples = new MovingLatency();
+    fewSamples.record(1000L);
+    assertFalse(SessionLatencyTracker.isSlow(fewSamples, 10d));
+  }
+
+  @Test
+  public void testEstimateFallsBackToChannel() {
+    SessionLatencyTracker tracker = new SessionLatencyTracker(2);
+    MovingLatency newSession = new MovingLatency();
+    assertEquals(0d, tracker.estimate(newSession, 0), 0d);
+
+    MovingLatency otherSession = new MovingLatency();
+    for (int i = 0; i < SessionLatencyTracker.MIN_SAMPLES; i++) {
+      tracker.record(otherSession, 0, 100L);
+    }
+    assertEquals(100d, tracker.estimate(newSession, 0), 0d);
+    assertEquals(0d, tracker.estimate(newSession, 1), 0d);
+    assertEquals(100d, tracker.estimate(otherSession, 1), 0d);
+  }
+
+  @Test
+  public void testSlowChannel() {
+    SessionLatencyTracker tracker = new SessionLatencyTracker(4);
+    List<MovingLatency> sessions = new ArrayList<>();
+    for (int channel = 0; channel < 4; channel++) {
+      MovingLatency session = new MovingLatency();
+      sessions.add(session);
+      for (int i = 0; i < SessionLatencyTracker.MIN_SAMPLES; i++) {
+        tracker.record(session, channel, channel == 3 ? 1000L : 100L);
+      }
+    }
+    // The slow channels are only computed when the snapshot is updated.
+    assertFalse(tracker.isSlowChannel(3));
+
+    tracker.updateSlowChannels();
+    assertFalse(tracker.isSlowChannel(0));
+    assertFalse(tracker.isSlowChannel(1));
+    assertFalse(tracker.isSlowChannel(2));
+    assertTrue(tracker.isSlowChannel(3));
+    assertEquals(100d, SessionLatencyTracker.median(sessions), 0d);
+  }
+}
@@ -141,6 +141,86 @@ public class SessionPoolBenchmark {
     }
   }
 
+  @State(Scope.Thread)
+  @AuxCounters(org.openjdk.jmh.annotations.AuxCounters.Type.EVENTS)
+  public static class StartupBenchmarkState {
+    private StandardBenchmarkMockServer mockServer;
+    private SpannerOptions options;
+    private Spanner spanner;
+
+    @Param({"100", "400", "1000"})
+    int minSessions;
+
+    @Param({"4"})
+    int numChannels;
+
+    @Param({"1", "4"})
+    int startupParallelism;
+
+    /** AuxCounter for number of RPCs. */
+    public int numBatchCreateSessionsRpcs() {
+      return mockServer.countRequests(BatchCreateSessionsRequest.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() throws Exception {
+      mockServer = new StandardBenchmarkMockServer();
+      TransportChannelProvider channelProvider = mockServer.start();
+      // Spanner returns at most 100 sessions per BatchCreateSessions RPC.
+      mockServer.getMockSpanner().setMaxSessionsInOneBatch(100);
+
+      options =
+          SpannerOptions.newBuilder()
+              .setProjectId(TEST_PROJECT)
+              .setChannelProvider(channelProvider)
+              .setNumChannels(numChannels)
+              .setCredentials(NoCredentials.getInstance())
+              .setSessionPoolOption(
+                  SessionPoolOptions.newBuilder()
+                      .setMinSessions(minSessions)
+                      .setMaxSessions(minSessions)
+                      .setStartupBatchCreateSessionsParallelism(startupParallelism)
+                      .build())
+              .build();
+    }
+
+    /** Creates a new client, which starts the initialization of its session pool. */
+    SessionPool createPool() {
+      spanner = options.getService();
+      DatabaseClientImpl client =
+          (DatabaseClientImpl)
+              spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+      return client.pool;
+    }
+
+    @TearDown(Level.Invocation)
+    public void teardown() throws Exception {
+      if (spanner != null) {
+        spanner.close();
+        spanner = null;
+      }
+      mockServer.shutdown();
+    }
+  }
+
+  /** Measures the time until the first session of a new session pool is available. */
+  @Benchmark
+  public void timeToFirstSession(StartupBenchmarkState server) throws Exception {
+    SessionPool pool = server.createPool();
+    while (pool.getNumberOfSessionsInPool() < 1) {
+      Thread.sleep(0L, 100_000);
+    }
+  }
+
+  /** Measures the time until a new session pool has created MinSessions sessions. */
+  @Benchmark
+  public void timeToMinSessions(StartupBenchmarkState server) throws Exception {
+    SessionPool pool = server.createPool();
+    while (pool.getNumberOfSessionsInPool() < server.minSessions) {
+      Thread.sleep(0L, 100_000);
+    }
+  }
+
   /** Measures the time needed to execute a burst of read requests. */
   @Benchmark
   public void burstRead(final BenchmarkState server) throws Exception {
@@ -395,4 +395,96 @@ public class SessionPoolMaintainerTest extends BaseSessionPoolTest {
       sessions.remove(0).close();
     }
   }
+
+  @Test
+  public void testPredictiveSizingCreatesSessionsAheadOfRamp() throws Exception {
+    SessionPool pool =
+        createPool(options.toBuilder().setMaxSessions(20).setUsePredictiveSizing(true).build());
+    List<PooledSession> sessions = new ArrayList<>();
+    // Increase the number of sessions in use in each maintenance cycle.
+    for (int cycle = 1; cycle <= 5; cycle++) {
+      while (sessions.size() < cycle * 2) {
+        sessions.add(pool.getSession().get());
+      }
+      runMaintenanceLoop(clock, pool, 1);
+    }
+    // The pool expects the ramp to continue and creates sessions before they are requested.
+    assertThat(pool.getPredictedNumSessions()).isGreaterThan(sessions.size());
+    assertThat(pool.getPredictedNumSessions()).isAtMost(20);
+    while (pool.totalSessions() < pool.getPredictedNumSessions()) {
+      Thread.sleep(1L);
+    }
+    for (PooledSession session : sessions) {
+      session.close();
+    }
+
+    // Sessions that are expected to be needed are not removed when they become idle.
+    clock.currentTimeMillis.addAndGet(
+        options.getRemoveInactiveSessionAfterDuration().toMillis() + 1L);
+    runMaintenanceLoop(clock, pool, 1);
+    assertThat(pool.totalSessions()).isAtLeast(pool.getPredictedNumSessions());
+  }
+
+  @Test
+  public void testPredictiveSizingDisabledByDefault() throws Exception {
+    SessionPool pool = createPool();
+    Session session = pool.getSession();
+    session.getName();
+    runMaintenanceLoop(clock, pool, 1);
+    assertEquals(0, pool.getPredictedNumSessions());
+    session.close();
+  }
+
+  @Test
+  public void testLatencyAwarePlacementReplacesSlowSession() throws Exception {
+    SessionPool pool =
+        createPool(
+            options.toBuilder()
+                .setMinSessions(4)
+                .setMaxIdleSessions(4)
+                .setUseLatencyAwarePlacement(true)
+                .build());
+    List<PooledSession> sessions = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      sessions.add(pool.getSession().get());
+    }
+    PooledSession slowSession = sessions.get(3);
+    for (int sample = 0; sample < SessionLatencyTracker.MIN_SAMPLES; sample++) {
+      for (PooledSession session : sessions) {
+        session.recordLatencyNanos(
+            session == slowSession
+                ? TimeUnit.MILLISECONDS.toNanos(50L)
+                : TimeUnit.MILLISECONDS.toNanos(1L));
+      }
+    }
+    // Release the slow session last, so it is at the head of the pool.
+    for (PooledSession session : sessions) {
+      session.close();
+    }
+
+    // A checkout prefers a fast session over the slow session at the head of the pool.
+    PooledSession session = pool.getSession().get();
+    assertThat(session).isNotSameInstanceAs(slowSession);
+    session.close();
+
+    runMaintenanceLoop(clock, pool, 1);
+    assertEquals(1L, pool.numSlowSessionsReplaced());
+    // The slow session is replaced by a new session.
+    while (pool.totalSessions() < 4) {
+      Thread.sleep(1L);
+    }
+    for (int i = 0; i < 4; i++) {
+      assertThat(pool.getSession().get()).isNotSameInstanceAs(slowSession);
+    }
+  }
+
+  @Test
+  public void testLatencyAwarePlacementDisabledByDefault() throws Exception {
+    SessionPool pool = createPool();
+    PooledSession session = pool.getSession().get();
+    session.recordLatencyNanos(TimeUnit.SECONDS.toNanos(1L));
+    session.close();
+    runMaintenanceLoop(clock, pool, 1);
+    assertEquals(0L, pool.numSlowSessionsReplaced());
+  }
 }
@@ -17,6 +17,7 @@
 package com.google.cloud.spanner;
 
 import static com.google.cloud.spanner.MetricRegistryConstants.GET_SESSION_TIMEOUTS;
+import static com.google.cloud.spanner.MetricRegistryConstants.GET_SESSION_WAIT_LATENCIES;
 import static com.google.cloud.spanner.MetricRegistryConstants.IS_MULTIPLEXED_KEY;
 import static com.google.cloud.spanner.MetricRegistryConstants.MAX_ALLOWED_SESSIONS;
 import static com.google.cloud.spanner.MetricRegistryConstants.MAX_IN_USE_SESSIONS;
@@ -30,6 +31,7 @@ import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_BEIN
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_IN_POOL;
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_SESSIONS_IN_USE;
 import static com.google.cloud.spanner.MetricRegistryConstants.NUM_WRITE_SESSIONS;
+import static com.google.cloud.spanner.MetricRegistryConstants.PRIORITY_CLASS;
 import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_DEFAULT_LABEL_VALUES;
 import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_LABEL_KEYS;
 import static com.google.cloud.spanner.MetricRegistryConstants.SPANNER_LABEL_KEYS_WITH_MULTIPLEXED_SESSIONS;
@@ -101,6 +103,7 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
@@ -339,6 +342,54 @@ public class SessionPoolTest extends BaseSessionPoolTest {
     session4.close();
   }
 
+  @Test
+  public void stripedPoolReusesSessions() {
+    setupMockSessionCreation();
+    options =
+        options.toBuilder()
+            .setMinSessions(2)
+            .setWaitForMinSessionsDuration(Duration.ofSeconds(10L))
+            .setUseStripedSessionPool(true)
+            .build();
+    pool = createPool();
+    pool.maybeWaitOnMinSessions();
+    assertThat(pool.getNumberOfSessionsInPool()).isEqualTo(2);
+
+    Session session1 = pool.getSession().get();
+    Session session2 = pool.getSession().get();
+    assertThat(session1).isNotEqualTo(session2);
+    assertThat(pool.getNumberOfSessionsInPool()).isEqualTo(0);
+    assertThat(pool.getNumberOfSessionsInUse()).isEqualTo(2);
+
+    session1.close();
+    session2.close();
+    assertThat(pool.getNumberOfSessionsInPool()).isEqualTo(2);
+    assertThat(pool.getNumberOfSessionsInUse()).isEqualTo(0);
+    assertThat(pool.getMaxSessionsInUse()).isEqualTo(2);
+    assertThat(pool.getNumberOfSessionsBeingCreated()).isEqualTo(0);
+  }
+
+  @Test
+  public void stripedPoolHandsReleasedSessionToWaiter() throws Exception {
+    setupMockSessionCreation();
+    options = options.toBuilder().setMaxSessions(1).setUseStripedSessionPool(true).build();
+    pool = createPool();
+    PooledSessionFuture session1 = pool.getSession();
+    String name = session1.get().getName();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<PooledSession> waiter = executor.submit(() -> pool.getSession().get());
+    while (pool.numWaiters() == 0) {
+      Thread.sleep(1L);
+    }
+    session1.close();
+    PooledSession session2 = waiter.get(10L, TimeUnit.SECONDS);
+    assertThat(session2.getName()).isEqualTo(name);
+    session2.close();
+    assertThat(pool.getNumberOfSessionsInPool()).isEqualTo(1);
+    executor.shutdown();
+  }
+
   @Test
   public void poolFifo() throws Exception {
     setupMockSessionCreation();
@@ -2133,6 +2184,18 @@ public class SessionPoolTest extends BaseSessionPoolTest {
       // Num sessions in pool
       verifyMetricData(metricDataCollection, NUM_SESSIONS_IN_POOL, 1, NUM_SESSIONS_IN_USE, 2);
       verifyMetricData(metricDataCollection, NUM_SESSIONS_IN_POOL, 1, NUM_SESSIONS_AVAILABLE, 1);
+      // The async request, and possibly some of the requests that waited for a session to be
+      // created, waited for a session.
+      MetricData waitLatencies =
+          metricDataCollection.stream()
+              .filter(x -> x.getName().equals(GET_SESSION_WAIT_LATENCIES))
+              .findFirst()
+              .get();
+      HistogramPointData waitLatency =
+          waitLatencies.getHistogramData().getPoints().stream().findFirst().get();
+      assertTrue(waitLatency.getCount() >= 1L);
+      assertEquals(
+          "interactive", waitLatency.getAttributes().get(AttributeKey.stringKey(PRIORITY_CLASS)));
     }
   }
 
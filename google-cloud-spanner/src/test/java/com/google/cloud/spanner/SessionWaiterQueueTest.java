@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.SessionWaiterQueue.PriorityClass;
+import com.google.spanner.v1.RequestOptions.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SessionWaiterQueueTest {
+
+  private static final class TestWaiter implements SessionWaiterQueue.Waiter {
+    private final PriorityClass priorityClass;
+    private boolean done;
+    private boolean deadlineExceeded;
+
+    private TestWaiter(PriorityClass priorityClass) {
+      this.priorityClass = priorityClass;
+    }
+
+    @Override
+    public PriorityClass getPriorityClass() {
+      return priorityClass;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done;
+    }
+
+    @Override
+    public boolean failIfDeadlineExceeded() {
+      if (deadlineExceeded) {
+        done = true;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static TestWaiter interactive() {
+    return new TestWaiter(PriorityClass.INTERACTIVE);
+  }
+
+  private static TestWaiter batch() {
+    return new TestWaiter(PriorityClass.BATCH);
+  }
+
+  @Test
+  public void testPriorityClassOf() {
+    assertEquals(PriorityClass.INTERACTIVE, PriorityClass.of(null));
+    assertEquals(PriorityClass.INTERACTIVE, PriorityClass.of(Priority.PRIORITY_UNSPECIFIED));
+    assertEquals(PriorityClass.INTERACTIVE, PriorityClass.of(Priority.PRIORITY_MEDIUM));
+    assertEquals(PriorityClass.INTERACTIVE, PriorityClass.of(Priority.PRIORITY_HIGH));
+    assertEquals(PriorityClass.BATCH, PriorityClass.of(Priority.PRIORITY_LOW));
+  }
+
+  @Test
+  public void testFifoWithinPriorityClass() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    TestWaiter first = batch();
+    TestWaiter second = batch();
+    queue.add(first);
+    queue.add(second);
+
+    assertSame(first, queue.poll());
+    assertSame(second, queue.poll());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testInteractiveWaitersAreServedFirst() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    TestWaiter batch = batch();
+    TestWaiter interactive = interactive();
+    queue.add(batch);
+    queue.add(interactive);
+
+    assertSame(interactive, queue.poll());
+    assertSame(batch, queue.poll());
+  }
+
+  @Test
+  public void testBatchWaitersAreNotStarved() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    List<TestWaiter> interactiveWaiters = new ArrayList<>();
+    for (int i = 0; i < 2 * SessionWaiterQueue.INTERACTIVE_WEIGHT; i++) {
+      TestWaiter waiter = interactive();
+      interactiveWaiters.add(waiter);
+      queue.add(waiter);
+    }
+    TestWaiter firstBatch = batch();
+    TestWaiter secondBatch = batch();
+    queue.add(firstBatch);
+    queue.add(secondBatch);
+
+    for (int i = 0; i < SessionWaiterQueue.INTERACTIVE_WEIGHT; i++) {
+      assertSame(interactiveWaiters.get(i), queue.poll());
+    }
+    assertSame(firstBatch, queue.poll());
+    for (int i = 0; i < SessionWaiterQueue.INTERACTIVE_WEIGHT; i++) {
+      assertSame(interactiveWaiters.get(SessionWaiterQueue.INTERACTIVE_WEIGHT + i), queue.poll());
+    }
+    assertSame(secondBatch, queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testDoneWaitersAreSkipped() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    TestWaiter done = interactive();
+    done.done = true;
+    TestWaiter waiting = interactive();
+    queue.add(done);
+    queue.add(waiting);
+    assertEquals(2, queue.size());
+
+    assertSame(waiting, queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testWaitersWithExceededDeadlineAreFailed() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    TestWaiter expired = batch();
+    expired.deadlineExceeded = true;
+    queue.add(expired);
+
+    assertNull(queue.poll());
+    assertTrue(expired.isDone());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testRemove() {
+    SessionWaiterQueue<TestWaiter> queue = new SessionWaiterQueue<>();
+    TestWaiter waiter = batch();
+    queue.add(waiter);
+
+    assertTrue(queue.remove(waiter));
+    assertFalse(queue.remove(waiter));
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -21,9 +21,15 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.api.core.NanoClock;
+import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.retrying.RetrySettings;
 import com.google.cloud.NoCredentials;
 import com.google.cloud.ServiceRpc;
@@ -42,6 +48,7 @@ import io.opentelemetry.api.OpenTelemetry;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -298,6 +305,40 @@ public class SpannerImplTest {
     assertThat(sw.toString()).contains("closeSpannerAndIncludeStacktrace");
   }
 
+  @Test
+  public void testWarmUpChannels() {
+    SettableApiFuture<Void> warmUpFuture = SettableApiFuture.create();
+    when(rpc.warmUpChannels(any(Duration.class))).thenReturn(warmUpFuture);
+
+    ApiFuture<Void> future = impl.warmUpChannels();
+    assertThat(future).isSameInstanceAs(warmUpFuture);
+    // The channels are only warmed up once.
+    assertThat(impl.warmUpChannels()).isSameInstanceAs(future);
+    verify(rpc, times(1)).warmUpChannels(any(Duration.class));
+  }
+
+  @Test
+  public void testCloseCancelsWarmUpChannels() {
+    SettableApiFuture<Void> warmUpFuture = SettableApiFuture.create();
+    when(rpc.warmUpChannels(any(Duration.class))).thenReturn(warmUpFuture);
+
+    Spanner spanner = new SpannerImpl(rpc, spannerOptions);
+    spanner.warmUpChannels();
+    spanner.close();
+    assertThat(warmUpFuture.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void testWarmUpChannelsOnStartup() {
+    when(rpc.warmUpChannels(any(Duration.class))).thenReturn(ApiFutures.immediateFuture(null));
+    when(spannerOptions.isWarmUpChannelsOnStartup()).thenReturn(true);
+
+    try (Spanner spanner = new SpannerImpl(rpc, spannerOptions)) {
+      verify(rpc, times(1)).warmUpChannels(any(Duration.class));
+      assertThat(spanner.warmUpChannels().isDone()).isTrue();
+    }
+  }
+
   @Test
   public void testCreateDatabaseAdminClient_whenNullAdminSettings_assertPreconditionFailure() {
     Spanner spanner = new SpannerImpl(rpc, spannerOptions);
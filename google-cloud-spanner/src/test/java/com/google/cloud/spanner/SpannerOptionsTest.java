@@ -121,6 +121,8 @@ public class SpannerOptionsTest {
     assertEquals(4, options.getPrefetchChunks());
     assertNull(options.getSessionLabels());
     assertEquals(DecodeMode.DIRECT, options.getDecodeMode());
+    assertEquals(0L, options.getMaxResumeBufferBytes());
+    assertEquals(0L, options.getMaxPrefetchBytes());
   }
 
   @Test
@@ -617,6 +619,30 @@ public class SpannerOptionsTest {
     assertThat(options.getEndpoint()).isEqualTo("localhost:1234");
   }
 
+  @Test
+  public void testMaxPrefetchBytes() {
+    SpannerOptions options =
+        SpannerOptions.newBuilder().setProjectId("[PROJECT]").setMaxPrefetchBytes(4096L).build();
+    assertEquals(4096L, options.getMaxPrefetchBytes());
+    assertEquals(4096L, options.toBuilder().build().getMaxPrefetchBytes());
+    assertThrows(
+        IllegalArgumentException.class, () -> SpannerOptions.newBuilder().setMaxPrefetchBytes(-1L));
+  }
+
+  @Test
+  public void testMaxResumeBufferBytes() {
+    SpannerOptions options =
+        SpannerOptions.newBuilder()
+            .setProjectId("[PROJECT]")
+            .setMaxResumeBufferBytes(1024L)
+            .build();
+    assertEquals(1024L, options.getMaxResumeBufferBytes());
+    assertEquals(1024L, options.toBuilder().build().getMaxResumeBufferBytes());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> SpannerOptions.newBuilder().setMaxResumeBufferBytes(-1L));
+  }
+
   @Test
   public void testDefaultQueryOptions() {
     SpannerOptions.useEnvironment(
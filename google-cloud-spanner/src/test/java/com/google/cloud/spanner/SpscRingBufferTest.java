@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SpscRingBuffer}. */
+@RunWith(JUnit4.class)
+public class SpscRingBufferTest {
+
+  @Test
+  public void testCapacityIsNotRoundedUp() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(3);
+    assertEquals(3, buffer.capacity());
+    assertTrue(buffer.isEmpty());
+    assertTrue(buffer.offer(1));
+    assertTrue(buffer.offer(2));
+    assertTrue(buffer.offer(3));
+    assertTrue(buffer.isFull());
+    assertFalse(buffer.offer(4));
+    assertEquals(3, buffer.size());
+  }
+
+  @Test
+  public void testPollReturnsElementsInOrder() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(buffer.offer(i));
+      assertEquals(Integer.valueOf(i), buffer.poll());
+    }
+    assertNull(buffer.poll());
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  public void testDrainTo() {
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      buffer.offer(i);
+    }
+    List<Integer> elements = new ArrayList<>();
+    assertEquals(3, buffer.drainTo(elements, 3));
+    assertThat(elements).containsExactly(0, 1, 2).inOrder();
+    assertEquals(1, buffer.drainTo(elements, 3));
+    assertEquals(0, buffer.drainTo(elements, 3));
+    assertThat(elements).containsExactly(0, 1, 2, 3).inOrder();
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<Integer>(0));
+    assertThrows(NullPointerException.class, () -> new SpscRingBuffer<Integer>(1).offer(null));
+  }
+
+  @Test
+  public void testConcurrentProducerAndConsumer() throws Exception {
+    int numElements = 100_000;
+    SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(7);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> producer =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < numElements; i++) {
+                  while (!buffer.offer(i)) {
+                    Thread.yield();
+                  }
+                }
+              });
+      for (int i = 0; i < numElements; i++) {
+        Integer element;
+        while ((element = buffer.poll()) == null) {
+          Thread.yield();
+        }
+        assertEquals(i, element.intValue());
+      }
+      producer.get();
+      assertTrue(buffer.isEmpty());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StripedStackTest {
+
+  @Test
+  public void testInvalidNumStripes() {
+    assertThrows(IllegalArgumentException.class, () -> new StripedStack<String>(0));
+  }
+
+  @Test
+  public void testPollIsLifoPerStripe() {
+    StripedStack<String> stack = new StripedStack<>(2);
+    stack.push(0, "a");
+    stack.push(0, "b");
+    stack.push(1, "c");
+    assertEquals(3, stack.size());
+
+    assertEquals("b", stack.poll(0, stripe -> true));
+    assertEquals("a", stack.poll(0, stripe -> true));
+    assertEquals("c", stack.poll(1, stripe -> true));
+    assertNull(stack.poll(0, stripe -> true));
+    assertEquals(0, stack.size());
+  }
+
+  @Test
+  public void testPollStealsFromOtherStripes() {
+    StripedStack<String> stack = new StripedStack<>(4);
+    stack.push(3, "a");
+
+    assertEquals("a", stack.poll(1, stripe -> true));
+  }
+
+  @Test
+  public void testPollSkipsRejectedStripes() {
+    StripedStack<String> stack = new StripedStack<>(3);
+    stack.push(0, "a");
+    stack.push(2, "b");
+
+    assertEquals("b", stack.poll(0, stripe -> stripe != 0));
+    assertNull(stack.poll(0, stripe -> stripe != 0));
+    assertEquals("a", stack.poll(0, stripe -> true));
+  }
+
+  @Test
+  public void testRemoveIf() {
+    StripedStack<Integer> stack = new StripedStack<>(2);
+    for (int i = 0; i < 10; i++) {
+      stack.push(i, i);
+    }
+
+    assertThat(stack.removeIf(i -> i % 3 == 0, 2)).hasSize(2);
+    assertEquals(8, stack.size());
+    assertThat(stack.removeIf(i -> i % 3 == 0, Integer.MAX_VALUE)).hasSize(2);
+    assertEquals(6, stack.size());
+
+    // The order of the remaining items in a stripe is not changed.
+    assertEquals(Integer.valueOf(8), stack.poll(0, stripe -> stripe == 0));
+    assertEquals(Integer.valueOf(4), stack.poll(0, stripe -> stripe == 0));
+    assertEquals(Integer.valueOf(2), stack.poll(0, stripe -> stripe == 0));
+    assertThat(stack.clear()).containsExactly(7, 5, 1);
+    assertEquals(0, stack.size());
+  }
+
+  @Test
+  public void testConcurrentPushAndPoll() throws Exception {
+    int numThreads = 4;
+    int numItemsPerThread = 10_000;
+    StripedStack<Integer> stack = new StripedStack<>(numThreads);
+    Set<Integer> polled = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < numThreads; thread++) {
+      int stripe = thread;
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int i = 0; i < numItemsPerThread; i++) {
+                  stack.push(stripe, stripe * numItemsPerThread + i);
+                  Integer item = stack.poll(stripe, s -> true);
+                  if (item != null) {
+                    assertThat(polled.add(item)).isTrue();
+                  }
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30L, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    for (Integer item : stack.clear()) {
+      assertThat(polled.add(item)).isTrue();
+    }
+    assertEquals(numThreads * numItemsPerThread, polled.size());
+    assertEquals(0, stack.size());
+  }
+}
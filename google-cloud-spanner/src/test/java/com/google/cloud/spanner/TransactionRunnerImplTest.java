@@ -19,7 +19,9 @@ package com.google.cloud.spanner;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -409,6 +411,39 @@ public class TransactionRunnerImplTest {
     return updateCount;
   }
 
+  @Test
+  public void testBatchUpdateSplitter() {
+    Statement small = Statement.of("UPDATE FOO SET BAR=1 WHERE ID=1");
+    Statement large =
+        Statement.newBuilder("UPDATE FOO SET BAR=@bar WHERE ID=1")
+            .bind("bar")
+            .to(String.join("", Collections.nCopies(1000, "x")))
+            .build();
+    long smallSize = AbstractReadContext.toBatchDmlStatement(small).getSerializedSize();
+    TransactionRunnerImpl.BatchUpdateSplitter splitter =
+        new TransactionRunnerImpl.BatchUpdateSplitter(
+            Arrays.asList(small, small, small, large, small), 10, 2 * smallSize);
+
+    // Requests are split on size, and a statement that is too large is sent on its own.
+    assertThat(splitter.next().statements).containsExactly(small, small);
+    assertThat(splitter.next().statements).containsExactly(small);
+    assertThat(splitter.next().statements).containsExactly(large);
+    assertTrue(splitter.hasNext());
+    TransactionRunnerImpl.BatchUpdateSplitter.Request last = splitter.next();
+    assertThat(last.statements).containsExactly(small);
+    assertEquals(AbstractReadContext.toBatchDmlStatement(small), last.encodedStatements.get(0));
+    assertFalse(splitter.hasNext());
+
+    // Requests are split on the number of statements.
+    splitter =
+        new TransactionRunnerImpl.BatchUpdateSplitter(
+            Collections.nCopies(5, small), 2, Long.MAX_VALUE);
+    assertThat(splitter.next().statements).hasSize(2);
+    assertThat(splitter.next().statements).hasSize(2);
+    assertThat(splitter.next().statements).hasSize(1);
+    assertFalse(splitter.hasNext());
+  }
+
   private void runTransaction(final Exception exception) {
     transactionRunner.run(
         transaction -> {
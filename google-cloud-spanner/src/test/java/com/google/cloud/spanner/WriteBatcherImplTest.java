@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.common.collect.Iterables;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+
+@RunWith(JUnit4.class)
+public class WriteBatcherImplTest {
+  private static final CommitResponse RESPONSE =
+      new CommitResponse(Timestamp.ofTimeSecondsAndNanos(1L, 0));
+
+  /** Records the mutations of each commit, and fails all commits that contain a mutation on BAD. */
+  private final List<List<Mutation>> commits = Collections.synchronizedList(new ArrayList<>());
+
+  @SuppressWarnings("unchecked")
+  private final DatabaseClient client =
+      Mockito.mock(
+          DatabaseClient.class,
+          invocation -> {
+            List<Mutation> mutations = new ArrayList<>();
+            ((Iterable<Mutation>) invocation.getArgument(0)).forEach(mutations::add);
+            commits.add(mutations);
+            for (Mutation mutation : mutations) {
+              if (mutation.getTable().equals("BAD")) {
+                throw SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.ALREADY_EXISTS, "Row already exists");
+              }
+            }
+            return RESPONSE;
+          });
+
+  private static Mutation insert(String table, long id) {
+    return Mutation.newInsertBuilder(table).set("ID").to(id).build();
+  }
+
+  private static WriteBatcherOptions.Builder options() {
+    return WriteBatcherOptions.newBuilder().setMaxBatchDelay(Duration.ofHours(1L));
+  }
+
+  @Test
+  public void testBatchIsSentWhenFull() throws Exception {
+    try (WriteBatcher batcher =
+        new WriteBatcherImpl(client, options().setMaxBatchMutations(3).build())) {
+      List<ApiFuture<CommitResponse>> results = new ArrayList<>();
+      for (long id = 0L; id < 3L; id++) {
+        results.add(batcher.write(Collections.singletonList(insert("FOO", id))));
+      }
+      for (ApiFuture<CommitResponse> result : results) {
+        assertSame(RESPONSE, result.get(10L, TimeUnit.SECONDS));
+      }
+    }
+    assertEquals(1, commits.size());
+    assertEquals(3, commits.get(0).size());
+  }
+
+  @Test
+  public void testWriteIsNotSplitOverBatches() throws Exception {
+    try (WriteBatcher batcher =
+        new WriteBatcherImpl(client, options().setMaxBatchMutations(3).build())) {
+      batcher.write(Collections.singletonList(insert("FOO", 1L)));
+      batcher
+          .write(Arrays.asList(insert("FOO", 2L), insert("FOO", 3L), insert("FOO", 4L)))
+          .get(10L, TimeUnit.SECONDS);
+    }
+    assertEquals(2, commits.size());
+    assertEquals(1, commits.get(0).size());
+    assertEquals(3, commits.get(1).size());
+  }
+
+  @Test
+  public void testBatchIsSentAfterMaxDelay() throws Exception {
+    try (WriteBatcher batcher =
+        new WriteBatcherImpl(client, options().setMaxBatchDelay(Duration.ofMillis(1L)).build())) {
+      assertSame(
+          RESPONSE,
+          batcher.write(Collections.singletonList(insert("FOO", 1L))).get(10L, TimeUnit.SECONDS));
+    }
+    assertEquals(1, commits.size());
+  }
+
+  @Test
+  public void testFlushAndClose() throws Exception {
+    ApiFuture<CommitResponse> second;
+    try (WriteBatcher batcher = new WriteBatcherImpl(client, options().build())) {
+      ApiFuture<CommitResponse> first = batcher.write(Collections.singletonList(insert("FOO", 1L)));
+      batcher.flush();
+      first.get(10L, TimeUnit.SECONDS);
+      second = batcher.write(Collections.singletonList(insert("FOO", 2L)));
+      assertFalse(second.isDone());
+    }
+    assertTrue(second.isDone());
+    assertEquals(2, commits.size());
+  }
+
+  @Test
+  public void testDataErrorOnlyFailsTheWriteThatCausedIt() throws Exception {
+    ApiFuture<CommitResponse> good;
+    ApiFuture<CommitResponse> bad;
+    try (WriteBatcher batcher = new WriteBatcherImpl(client, options().build())) {
+      good = batcher.write(Collections.singletonList(insert("FOO", 1L)));
+      bad = batcher.write(Collections.singletonList(insert("BAD", 1L)));
+    }
+    assertSame(RESPONSE, good.get());
+    ExecutionException exception = assertThrows(ExecutionException.class, bad::get);
+    assertEquals(
+        ErrorCode.ALREADY_EXISTS, ((SpannerException) exception.getCause()).getErrorCode());
+    // One commit for the batch, and one for each write in the batch.
+    assertEquals(3, commits.size());
+  }
+
+  @Test
+  public void testWriteBlocksWhenMaxConcurrentBatchesAreBeingCommitted() throws Exception {
+    CountDownLatch commitStarted = new CountDownLatch(1);
+    CountDownLatch finishCommit = new CountDownLatch(1);
+    DatabaseClient slowClient =
+        Mockito.mock(
+            DatabaseClient.class,
+            invocation -> {
+              commitStarted.countDown();
+              assertTrue(finishCommit.await(10L, TimeUnit.SECONDS));
+              return RESPONSE;
+            });
+    ExecutorService writer = Executors.newSingleThreadExecutor();
+    try (WriteBatcher batcher =
+        new WriteBatcherImpl(
+            slowClient, options().setMaxBatchMutations(1).setMaxConcurrentBatches(1).build())) {
+      batcher.write(Collections.singletonList(insert("FOO", 1L)));
+      assertTrue(commitStarted.await(10L, TimeUnit.SECONDS));
+      Future<ApiFuture<CommitResponse>> blocked =
+          writer.submit(() -> batcher.write(Collections.singletonList(insert("FOO", 2L))));
+      assertThrows(TimeoutException.class, () -> blocked.get(100L, TimeUnit.MILLISECONDS));
+      finishCommit.countDown();
+      assertSame(RESPONSE, blocked.get(10L, TimeUnit.SECONDS).get(10L, TimeUnit.SECONDS));
+    } finally {
+      writer.shutdown();
+    }
+  }
+
+  @Test
+  public void testWritesAfterDataErrorAreCommittedInParallel() throws Exception {
+    // Each single-write commit waits for the other, which only succeeds if they run in parallel.
+    CountDownLatch singleWrites = new CountDownLatch(2);
+    DatabaseClient parallelClient =
+        Mockito.mock(
+            DatabaseClient.class,
+            invocation -> {
+              if (Iterables.size((Iterable<?>) invocation.getArgument(0)) > 1) {
+                throw SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.ALREADY_EXISTS, "Row already exists");
+              }
+              singleWrites.countDown();
+              if (!singleWrites.await(10L, TimeUnit.SECONDS)) {
+                throw SpannerExceptionFactory.newSpannerException(
+                    ErrorCode.DEADLINE_EXCEEDED, "Writes were not committed in parallel");
+              }
+              return RESPONSE;
+            });
+    ApiFuture<CommitResponse> first;
+    ApiFuture<CommitResponse> second;
+    try (WriteBatcher batcher =
+        new WriteBatcherImpl(parallelClient, options().setMaxConcurrentBatches(2).build())) {
+      first = batcher.write(Collections.singletonList(insert("FOO", 1L)));
+      second = batcher.write(Collections.singletonList(insert("FOO", 2L)));
+    }
+    assertSame(RESPONSE, first.get());
+    assertSame(RESPONSE, second.get());
+  }
+
+  @Test
+  public void testWriteAfterClose() {
+    WriteBatcher batcher = new WriteBatcherImpl(client, options().build());
+    batcher.close();
+    assertThrows(
+        IllegalStateException.class,
+        () -> batcher.write(Collections.singletonList(insert("FOO", 1L))));
+  }
+
+  @Test
+  public void testOptions() {
+    assertEquals(
+        WriteBatcherOptions.getDefaultInstance(), WriteBatcherOptions.newBuilder().build());
+    assertEquals(
+        WriteBatcherOptions.newBuilder().setMaxBatchBytes(100L).build().hashCode(),
+        WriteBatcherOptions.newBuilder().setMaxBatchBytes(100L).build().hashCode());
+    assertFalse(
+        WriteBatcherOptions.getDefaultInstance()
+            .equals(WriteBatcherOptions.newBuilder().setMaxConcurrentBatches(1).build()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WriteBatcherOptions.newBuilder().setMaxBatchMutations(0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WriteBatcherOptions.newBuilder().setMaxBatchDelay(Duration.ofMillis(-1L)));
+  }
+}
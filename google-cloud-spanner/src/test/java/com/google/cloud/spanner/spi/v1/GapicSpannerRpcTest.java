@@ -453,6 +453,57 @@ public class GapicSpannerRpcTest {
     rpc.shutdown();
   }
 
+  @Test
+  public void testNewCallContextWithLoadAwareChannelSelection() {
+    SpannerOptions options =
+        SpannerOptions.newBuilder()
+            .setProjectId("some-project")
+            .setNumChannels(4)
+            .setEnableLoadAwareChannelSelection(true)
+            .build();
+    GapicSpannerRpc rpc = new GapicSpannerRpc(options, false);
+    assertNotNull(rpc.getChannelPicker());
+
+    // An RPC without a channel hint is assigned to one of the channels.
+    GrpcCallContext callContext =
+        rpc.newCallContext(
+            null,
+            "/some/resource",
+            ExecuteSqlRequest.getDefaultInstance(),
+            SpannerGrpc.getExecuteSqlMethod());
+    Integer channel = callContext.getCallOptions().getOption(LoadAwareChannelPicker.CHANNEL_KEY);
+    assertNotNull(channel);
+    assertEquals(channel, callContext.getChannelAffinity());
+
+    // An RPC with a channel hint keeps using the channel of the hint.
+    callContext =
+        rpc.newCallContext(
+            optionsMap,
+            "/some/resource",
+            ExecuteSqlRequest.getDefaultInstance(),
+            SpannerGrpc.getExecuteSqlMethod());
+    assertEquals(
+        Integer.valueOf(1),
+        callContext.getCallOptions().getOption(LoadAwareChannelPicker.CHANNEL_KEY));
+    assertEquals(Integer.valueOf(1), callContext.getChannelAffinity());
+    rpc.shutdown();
+  }
+
+  @Test
+  public void testLoadAwareChannelSelectionDisabledByDefault() {
+    SpannerOptions options = SpannerOptions.newBuilder().setProjectId("some-project").build();
+    GapicSpannerRpc rpc = new GapicSpannerRpc(options, false);
+    assertNull(rpc.getChannelPicker());
+    GrpcCallContext callContext =
+        rpc.newCallContext(
+            null,
+            "/some/resource",
+            ExecuteSqlRequest.getDefaultInstance(),
+            SpannerGrpc.getExecuteSqlMethod());
+    assertNull(callContext.getChannelAffinity());
+    rpc.shutdown();
+  }
+
   @Test
   public void testNewCallContextWithoutRouteToLeaderHeader() {
     SpannerOptions options =
@@ -567,6 +618,20 @@ public class GapicSpannerRpcTest {
     assertFalse(isEndToEndTracing);
   }
 
+  @Test
+  public void testWarmUpChannels() throws Exception {
+    SpannerOptions options =
+        createSpannerOptions().toBuilder()
+            .setNumChannels(4)
+            .setWarmUpChannelsOnStartup(true)
+            .build();
+    try (Spanner spanner = options.getService()) {
+      // The warm-up RPCs return NOT_FOUND, which means that the channels are connected.
+      spanner.warmUpChannels().get(30L, TimeUnit.SECONDS);
+    }
+    assertEquals(4, mockSpanner.getRequestsOfType(GetSessionRequest.class).size());
+  }
+
   @Test
   public void testAdminRequestsLimitExceededRetryAlgorithm() {
     AdminRequestsLimitExceededRetryAlgorithm<Long> alg =
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LoadAwareChannelPickerTest {
+
+  @Test
+  public void testRequiresMultipleChannels() {
+    assertThrows(IllegalArgumentException.class, () -> new LoadAwareChannelPicker(1));
+  }
+
+  @Test
+  public void testPicksLeastLoadedOfTwoChannels() {
+    LoadAwareChannelPicker picker = new LoadAwareChannelPicker(2);
+    picker.callStarted(0);
+    picker.callStarted(0);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(1, picker.pickChannel());
+    }
+    picker.callFinished(0);
+    picker.callFinished(0);
+    picker.callStarted(1);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(0, picker.pickChannel());
+    }
+  }
+
+  @Test
+  public void testLatencyIsIncludedInLoad() {
+    LoadAwareChannelPicker picker = new LoadAwareChannelPicker(2);
+    picker.recordLatency(0, 10_000_000L);
+    picker.recordLatency(1, 1_000_000L);
+    // Channel 1 has more requests in flight, but is much faster.
+    picker.callStarted(1);
+    assertThat(picker.getLoad(1)).isLessThan(picker.getLoad(0));
+    for (int i = 0; i < 100; i++) {
+      assertEquals(1, picker.pickChannel());
+    }
+  }
+
+  @Test
+  public void testLatencyIsMovingAverage() {
+    LoadAwareChannelPicker picker = new LoadAwareChannelPicker(2);
+    picker.recordLatency(0, 800L);
+    assertEquals(800L, picker.getLoad(0));
+    picker.recordLatency(0, 1600L);
+    assertEquals(900L, picker.getLoad(0));
+  }
+
+  @Test
+  public void testPicksDifferentChannels() {
+    LoadAwareChannelPicker picker = new LoadAwareChannelPicker(4);
+    int first = picker.pickChannel();
+    picker.callStarted(first);
+    // The channel with a request in flight is never picked while there are idle channels.
+    for (int i = 0; i < 100; i++) {
+      assertNotEquals(first, picker.pickChannel());
+    }
+    assertEquals(1, picker.getNumInFlight(first));
+  }
+
+  @Test
+  public void testChannelForAffinity() {
+    LoadAwareChannelPicker picker = new LoadAwareChannelPicker(4);
+    assertEquals(1, picker.channelForAffinity(1));
+    assertEquals(1, picker.channelForAffinity(5));
+    assertEquals(3, picker.channelForAffinity(-3));
+  }
+}